@@ -0,0 +1,34 @@
+package com.azapps.matrixapp.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа benchmarks.jar.
+ * <p>
+ * Принимает обычные аргументы JMH (например, {@code InverseBenchmark -p size=256}) и по умолчанию
+ * включает профилировщик GC (скорость выделения памяти) и запись результатов в JSON-файл
+ * {@code jmh-result-<версия>.json}, чтобы прогоны разных версий можно было сравнивать.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        String version = BenchmarkRunner.class.getPackage().getImplementationVersion();
+        String resultFile = commandLine.getResult().orElse("jmh-result-" + (version != null ? version : "dev") + ".json");
+
+        Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(commandLine.getResultFormat().orElse(ResultFormatType.JSON))
+                .result(resultFile)
+                .build();
+        new Runner(options).run();
+    }
+}
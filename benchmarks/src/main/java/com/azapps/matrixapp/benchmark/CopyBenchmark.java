@@ -0,0 +1,59 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azapps.matrixapp.model.Matrix;
+
+/**
+ * Копирование данных на границе API: конструктор из {@code double[][]} и {@link Matrix#getData()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class CopyBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    int size;
+
+    @Param({"SQUARE", "TALL", "WIDE"})
+    MatrixFixtures.Shape shape;
+
+    private double[][] data;
+    private Matrix matrix;
+
+    @Setup
+    public void setup() {
+        data = MatrixFixtures.randomData(shape.rows(size), shape.cols(size), 42);
+        matrix = new Matrix(data);
+    }
+
+    @Benchmark
+    public Matrix constructFromArray() {
+        return new Matrix(data);
+    }
+
+    @Benchmark
+    public double[][] getData() {
+        return matrix.getData();
+    }
+
+    @Benchmark
+    public Matrix copy() {
+        return matrix.copy();
+    }
+}
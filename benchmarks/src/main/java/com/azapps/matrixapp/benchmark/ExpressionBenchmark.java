@@ -0,0 +1,54 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixExpression;
+import com.azapps.matrixapp.model.MatrixOperationException;
+
+/**
+ * Немедленное вычисление цепочки операций против ленивого выражения с упрощениями:
+ * {@code A⁻¹ b} (обращение и умножение против решения системы).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class ExpressionBenchmark {
+
+    @Param({"256", "1024"})
+    int size;
+
+    private Matrix matrix;
+    private Matrix vector;
+
+    @Setup
+    public void setup() {
+        matrix = MatrixFixtures.square(size, MatrixFixtures.Conditioning.WELL, 42);
+        vector = MatrixFixtures.random(MatrixFixtures.Shape.TALL, size, 43).subMatrix(0, 0, size, 1);
+    }
+
+    @Benchmark
+    public Matrix inverseTimesVectorEager() throws MatrixOperationException {
+        return matrix.copy().inverse().multiply(vector);
+    }
+
+    @Benchmark
+    public Matrix inverseTimesVectorLazy() throws MatrixOperationException {
+        return MatrixExpression.of(matrix.copy()).inverse().multiply(vector).evaluate();
+    }
+}
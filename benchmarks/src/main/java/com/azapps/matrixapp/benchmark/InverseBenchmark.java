@@ -0,0 +1,62 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixOperationException;
+
+/**
+ * Обращение и определитель квадратных матриц разной обусловленности.
+ * <p>
+ * {@link Matrix} кэширует LU-разложение, поэтому перед каждым вызовом кэш сбрасывается
+ * записью элемента — измеряется полная стоимость операции, а не попадание в кэш.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class InverseBenchmark {
+
+    @Param({"64", "256", "1024"})
+    int size;
+
+    @Param({"WELL", "ILL"})
+    MatrixFixtures.Conditioning conditioning;
+
+    private Matrix matrix;
+
+    @Setup
+    public void setup() {
+        matrix = MatrixFixtures.square(size, conditioning, 42);
+    }
+
+    private void invalidateCache() {
+        matrix.setElement(0, 0, matrix.getElement(0, 0));
+    }
+
+    @Benchmark
+    public Matrix inverse() throws MatrixOperationException {
+        invalidateCache();
+        return matrix.inverse();
+    }
+
+    @Benchmark
+    public double determinant() throws MatrixOperationException {
+        invalidateCache();
+        return matrix.determinant();
+    }
+}
@@ -0,0 +1,72 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.Random;
+
+import com.azapps.matrixapp.model.Matrix;
+
+/**
+ * Генерация входных данных для бенчмарков: форма и обусловленность матрицы.
+ */
+public final class MatrixFixtures {
+
+    /** Форма матрицы при фиксированном числе элементов size * size. */
+    public enum Shape {
+        SQUARE, TALL, WIDE;
+
+        int rows(int size) {
+            return switch (this) {
+                case TALL -> size * 4;
+                case WIDE -> Math.max(1, size / 4);
+                case SQUARE -> size;
+            };
+        }
+
+        int cols(int size) {
+            return switch (this) {
+                case TALL -> Math.max(1, size / 4);
+                case WIDE -> size * 4;
+                case SQUARE -> size;
+            };
+        }
+    }
+
+    /** Обусловленность квадратной матрицы. */
+    public enum Conditioning {
+        /** Диагональное преобладание: число обусловленности порядка единиц. */
+        WELL,
+        /** Строки масштабированы от 1 до 1e-6: число обусловленности порядка 1e6 и выше. */
+        ILL
+    }
+
+    private MatrixFixtures() {
+    }
+
+    static double[][] randomData(int rows, int cols, long seed) {
+        Random random = new Random(seed);
+        double[][] data = new double[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                data[i][j] = random.nextDouble() - 0.5;
+            }
+        }
+        return data;
+    }
+
+    static Matrix random(Shape shape, int size, long seed) {
+        return new Matrix(randomData(shape.rows(size), shape.cols(size), seed));
+    }
+
+    static Matrix square(int n, Conditioning conditioning, long seed) {
+        double[][] data = randomData(n, n, seed);
+        for (int i = 0; i < n; i++) {
+            data[i][i] += n;
+            if (conditioning == Conditioning.ILL) {
+                double scale = Math.pow(1e-6, (double) i / Math.max(1, n - 1));
+                for (int j = 0; j < n; j++) {
+                    data[i][j] *= scale;
+                }
+            }
+        }
+        return new Matrix(data);
+    }
+}
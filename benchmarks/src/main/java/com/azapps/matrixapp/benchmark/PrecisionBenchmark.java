@@ -0,0 +1,81 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azapps.matrixapp.model.FloatMatrix;
+import com.azapps.matrixapp.model.LUDecomposition;
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixOperationException;
+import com.azapps.matrixapp.model.MixedPrecisionResult;
+
+/**
+ * Одинарная и двойная точность на одних и тех же данных: материализация транспонирования
+ * (ограничена пропускной способностью памяти), умножение (ограничено шириной векторов)
+ * и решение системы: LU в double против LU во float с уточнением до точности double.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class PrecisionBenchmark {
+
+    @Param({"512", "2048"})
+    int size;
+
+    private Matrix doubleMatrix;
+    private FloatMatrix floatMatrix;
+    private Matrix solveMatrix;
+    private Matrix rhs;
+
+    @Setup
+    public void setup() {
+        doubleMatrix = MatrixFixtures.random(MatrixFixtures.Shape.SQUARE, size, 42);
+        floatMatrix = FloatMatrix.fromMatrix(doubleMatrix);
+        solveMatrix = MatrixFixtures.square(size, MatrixFixtures.Conditioning.WELL, 43);
+        rhs = MatrixFixtures.random(MatrixFixtures.Shape.TALL, size, 44).subMatrix(0, 0, size, 4);
+    }
+
+    @Benchmark
+    public Matrix transposeCopyDouble() {
+        return doubleMatrix.transpose().copy();
+    }
+
+    @Benchmark
+    public FloatMatrix transposeCopyFloat() {
+        return floatMatrix.transpose().copy();
+    }
+
+    @Benchmark
+    public Matrix multiplyDouble() throws MatrixOperationException {
+        return doubleMatrix.multiply(doubleMatrix);
+    }
+
+    @Benchmark
+    public FloatMatrix multiplyFloat() throws MatrixOperationException {
+        return floatMatrix.multiply(floatMatrix);
+    }
+
+    @Benchmark
+    public Matrix solveDouble() throws MatrixOperationException {
+        return new LUDecomposition(solveMatrix).solve(rhs);
+    }
+
+    @Benchmark
+    public MixedPrecisionResult solveMixedPrecision() throws MatrixOperationException {
+        return solveMatrix.solveMixedPrecision(rhs);
+    }
+}
@@ -0,0 +1,76 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixBatch;
+import com.azapps.matrixapp.model.MatrixOperationException;
+
+/**
+ * Обращение большого числа маленьких матриц: по одной через {@link Matrix}
+ * и пакетом через {@link MatrixBatch}. Результат — число обращённых матриц в микросекунду.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class SmallMatrixBatchBenchmark {
+
+    private static final int COUNT = 1 << 16;
+
+    @Param({"3", "4"})
+    int size;
+
+    private Matrix[] matrices;
+    private MatrixBatch batch;
+    private MatrixBatch result;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        matrices = new Matrix[COUNT];
+        for (int b = 0; b < COUNT; b++) {
+            double[][] data = new double[size][size];
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    data[i][j] = random.nextDouble() * 2 - 1 + (i == j ? size : 0);
+                }
+            }
+            matrices[b] = new Matrix(data);
+        }
+        batch = MatrixBatch.of(matrices);
+        result = new MatrixBatch(COUNT, size, size);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public void matrixInverse(Blackhole blackhole) throws MatrixOperationException {
+        for (Matrix matrix : matrices) {
+            blackhole.consume(matrix.inverse());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(COUNT)
+    public BitSet batchInverse() throws MatrixOperationException {
+        return batch.inverseInto(result);
+    }
+}
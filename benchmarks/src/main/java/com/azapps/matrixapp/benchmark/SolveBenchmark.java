@@ -0,0 +1,68 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixOperationException;
+
+/**
+ * Решение A * X = B: обращение с умножением против разложения с подстановками,
+ * а также повторное решение по уже кэшированному LU-разложению.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class SolveBenchmark {
+
+    @Param({"256", "1024"})
+    int size;
+
+    @Param({"1", "64"})
+    int rightHandSides;
+
+    private Matrix matrix;
+    private Matrix rhs;
+
+    @Setup
+    public void setup() throws MatrixOperationException {
+        matrix = MatrixFixtures.square(size, MatrixFixtures.Conditioning.WELL, 42);
+        rhs = MatrixFixtures.random(MatrixFixtures.Shape.SQUARE, size, 43).subMatrix(0, 0, size, rightHandSides).copy();
+        matrix.lu();
+    }
+
+    private void invalidateCache() {
+        matrix.setElement(0, 0, matrix.getElement(0, 0));
+    }
+
+    @Benchmark
+    public Matrix inverseThenMultiply() throws MatrixOperationException {
+        invalidateCache();
+        return matrix.inverse().multiply(rhs);
+    }
+
+    @Benchmark
+    public Matrix factorAndSolve() throws MatrixOperationException {
+        invalidateCache();
+        return matrix.solve(rhs);
+    }
+
+    @Benchmark
+    public Matrix solveWithCachedFactorization() throws MatrixOperationException {
+        return matrix.solve(rhs);
+    }
+}
@@ -0,0 +1,61 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azapps.matrixapp.model.Matrix;
+
+/**
+ * Транспонирование: O(1)-представление, материализация блочным ядром в новую матрицу
+ * и в заранее выделенную. Транспонирование на месте — {@link TransposeInPlaceBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class TransposeBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    int size;
+
+    @Param({"SQUARE", "TALL", "WIDE"})
+    MatrixFixtures.Shape shape;
+
+    private Matrix matrix;
+    private Matrix destination;
+
+    @Setup
+    public void setup() {
+        matrix = MatrixFixtures.random(shape, size, 42);
+        destination = new Matrix(matrix.getCols(), matrix.getRows());
+    }
+
+    @Benchmark
+    public Matrix transposeView() {
+        return matrix.transpose();
+    }
+
+    @Benchmark
+    public Matrix transposeCopy() {
+        return matrix.transpose().copy();
+    }
+
+    @Benchmark
+    public Matrix transposeInto() {
+        matrix.transposeInto(destination);
+        return destination;
+    }
+}
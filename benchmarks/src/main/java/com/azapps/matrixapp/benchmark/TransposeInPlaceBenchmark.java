@@ -0,0 +1,47 @@
+package com.azapps.matrixapp.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixOperationException;
+
+/**
+ * Транспонирование на месте. Отдельно от {@link TransposeBenchmark}, потому что на месте
+ * транспонируются только квадратные матрицы и параметр формы здесь не нужен.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class TransposeInPlaceBenchmark {
+
+    @Param({"256", "1024", "4096"})
+    int size;
+
+    private Matrix matrix;
+
+    @Setup
+    public void setup() {
+        matrix = MatrixFixtures.random(MatrixFixtures.Shape.SQUARE, size, 42);
+    }
+
+    @Benchmark
+    public Matrix transposeInPlace() throws MatrixOperationException {
+        matrix.transposeInPlace();
+        return matrix;
+    }
+}
@@ -1,5 +1,6 @@
 package com.azapps.matrixapp;
 
+import com.azapps.matrixapp.metrics.OperationMetrics;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -50,6 +51,8 @@ public class MainApp extends Application {
     }
 
     public static void main(String[] args) {
+        // Сбор метрик включается через JMX (jconsole) или -Dmatrixapp.metrics=true
+        OperationMetrics.registerMBean();
         launch(args);
     }
 }
\ No newline at end of file
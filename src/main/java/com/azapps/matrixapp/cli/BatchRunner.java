@@ -0,0 +1,313 @@
+package com.azapps.matrixapp.cli;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixFile;
+import com.azapps.matrixapp.model.MatrixOperationException;
+import com.azapps.matrixapp.model.ResultCache;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пакетная обработка заданий над файлами матриц без графического интерфейса.
+ * <p>
+ * Каждое задание проходит три стадии: чтение файла, вычисление и запись результата.
+ * Чтение и запись выполняются в виртуальных потоках (их много, они дёшевы и ждут диск),
+ * вычисления — в ограниченном пуле платформенных потоков, чтобы число одновременных
+ * O(n^3) операций не превышало заданного. Число заданий «в полёте» ограничено, поэтому
+ * поток заданий может быть сколь угодно длинным.
+ * <p>
+ * Результаты печатаются в {@code out} строго в порядке поступления заданий, по одной
+ * строке с полями через табуляцию:
+ * <pre>
+ * OK     номер  операция  вход  выход-или-значение  мс
+ * ERROR  номер  операция  вход  сообщение           мс
+ * </pre>
+ * Если задан {@link ResultCache}, прочитанные матрицы замораживаются, и повторное обращение
+ * или определитель для файла с тем же содержимым берутся из кэша.
+ */
+public final class BatchRunner {
+
+    /** Операция над матрицей. */
+    public enum Operation {
+        TRANSPOSE("transpose"),
+        INVERSE("inverse"),
+        DETERMINANT("determinant");
+
+        private final String command;
+
+        Operation(String command) {
+            this.command = command;
+        }
+
+        public String command() {
+            return command;
+        }
+
+        /**
+         * @throws IllegalArgumentException если операция неизвестна.
+         */
+        public static Operation parse(String command) {
+            for (Operation operation : values()) {
+                if (operation.command.equalsIgnoreCase(command)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Неизвестная операция: '" + command + "' (ожидается transpose, inverse или determinant).");
+        }
+    }
+
+    /**
+     * Задание. Для некорректной строки заданий {@code error} содержит причину, остальные поля могут быть null.
+     * @param output Файл результата; не используется для {@link Operation#DETERMINANT}.
+     */
+    public record Job(int index, Operation operation, Path input, Path output, String error) {
+
+        public Job(int index, Operation operation, Path input, Path output) {
+            this(index, operation, input, output, null);
+        }
+
+        /**
+         * Разбирает строку вида {@code операция вход [выход]}. Если выход не указан,
+         * результат пишется рядом с входом: {@code имя.операция.azmx}.
+         * Некорректная строка превращается в задание с ошибкой, а не прерывает поток.
+         */
+        public static Job parse(int index, String line) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length < 2 || fields.length > 3) {
+                return new Job(index, null, null, null, "Некорректная строка задания: '" + line.trim() + "'");
+            }
+            Path input = null;
+            try {
+                // Сначала путь: при неизвестной операции он остаётся в отчёте о задании
+                input = Path.of(fields[1]);
+                Operation operation = Operation.parse(fields[0]);
+                Path output = fields.length == 3 ? Path.of(fields[2]) : defaultOutput(input, null, operation);
+                return new Job(index, operation, input, output, null);
+            } catch (IllegalArgumentException e) {
+                // В том числе InvalidPathException: некорректный путь в отчёт не попадает
+                return new Job(index, null, input, null, e.getMessage());
+            }
+        }
+    }
+
+    /** Итог обработки потока заданий. */
+    public record Summary(int jobs, int failed, long elapsedNanos, long[] latencyNanos) {
+
+        public double jobsPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : jobs * 1e9 / elapsedNanos;
+        }
+
+        /** Перцентиль задержки одного задания (от поступления до завершения) в миллисекундах. */
+        public double latencyPercentileMillis(double percentile) {
+            if (latencyNanos.length == 0) {
+                return 0.0;
+            }
+            long[] sorted = latencyNanos.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Заданий: %d, с ошибкой: %d; время %.3f с; %.1f заданий/с; задержка p50 %.2f мс, p95 %.2f мс, max %.2f мс",
+                    jobs, failed, elapsedNanos / 1e9, jobsPerSecond(),
+                    latencyPercentileMillis(50), latencyPercentileMillis(95), latencyPercentileMillis(100));
+        }
+    }
+
+    private record JobResult(Job job, boolean ok, String detail, long latencyNanos) {
+    }
+
+    private final int workers;
+    private final MatrixFile.Compression compression;
+    private final PrintStream out;
+    private final ResultCache cache;
+
+    /**
+     * @param workers Число потоков для вычислений (не меньше 1).
+     * @param compression Сжатие файлов результатов.
+     * @param out Поток для строк результатов.
+     */
+    public BatchRunner(int workers, MatrixFile.Compression compression, PrintStream out) {
+        this(workers, compression, out, null);
+    }
+
+    /**
+     * @param workers Число потоков для вычислений (не меньше 1).
+     * @param compression Сжатие файлов результатов.
+     * @param out Поток для строк результатов.
+     * @param cache Кэш результатов, общий для заданий; {@code null} — без кэширования.
+     */
+    public BatchRunner(int workers, MatrixFile.Compression compression, PrintStream out, ResultCache cache) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Число потоков должно быть положительным.");
+        }
+        this.workers = workers;
+        this.compression = compression;
+        this.out = out;
+        this.cache = cache;
+    }
+
+    /**
+     * Путь результата по умолчанию: {@code имя.операция.azmx} в {@code directory}
+     * (или рядом с входным файлом, если каталог не задан).
+     */
+    public static Path defaultOutput(Path input, Path directory, Operation operation) {
+        String name = input.getFileName().toString();
+        if (name.endsWith(MatrixFile.EXTENSION)) {
+            name = name.substring(0, name.length() - MatrixFile.EXTENSION.length());
+        }
+        String fileName = name + "." + operation.command() + MatrixFile.EXTENSION;
+        Path parent = directory != null ? directory : input.toAbsolutePath().getParent();
+        return parent.resolve(fileName);
+    }
+
+    /**
+     * Обрабатывает задания по мере их поступления из итератора и печатает результаты по порядку.
+     * @return Итог с пропускной способностью и задержками.
+     * @throws InterruptedException если поток прерван во время ожидания.
+     */
+    public Summary run(Iterator<Job> jobs) throws InterruptedException {
+        int maxInFlight = 4 * workers;
+        // Очередь задаёт порядок вывода и одновременно ограничивает число заданий в полёте
+        BlockingQueue<CompletableFuture<JobResult>> pending = new ArrayBlockingQueue<>(maxInFlight);
+        CompletableFuture<JobResult> end = CompletableFuture.completedFuture(null);
+        long[][] latencies = {new long[64]};
+        int[] counts = new int[2]; // всего, с ошибкой
+
+        long start = System.nanoTime();
+        try (ExecutorService io = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService compute = Executors.newFixedThreadPool(workers, computeThreads())) {
+            Thread printer = Thread.ofVirtual().name("batch-printer").start(() -> {
+                try {
+                    for (CompletableFuture<JobResult> future = pending.take(); future != end; future = pending.take()) {
+                        JobResult result = future.join();
+                        print(result);
+                        if (counts[0] == latencies[0].length) {
+                            latencies[0] = Arrays.copyOf(latencies[0], counts[0] * 2);
+                        }
+                        latencies[0][counts[0]++] = result.latencyNanos();
+                        if (!result.ok()) {
+                            counts[1]++;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            try {
+                while (jobs.hasNext()) {
+                    pending.put(submit(jobs.next(), io, compute));
+                }
+            } finally {
+                pending.put(end);
+                printer.join();
+            }
+        }
+        out.flush();
+        return new Summary(counts[0], counts[1], System.nanoTime() - start, Arrays.copyOf(latencies[0], counts[0]));
+    }
+
+    private static ThreadFactory computeThreads() {
+        AtomicInteger number = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "batch-compute-" + number.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private CompletableFuture<JobResult> submit(Job job, ExecutorService io, ExecutorService compute) {
+        long submitted = System.nanoTime();
+        if (job.error() != null) {
+            return CompletableFuture.completedFuture(new JobResult(job, false, job.error(), 0));
+        }
+        return CompletableFuture
+                .supplyAsync(() -> read(job.input()), io)
+                .thenApplyAsync(matrix -> compute(job.operation(), matrix), compute)
+                .thenApplyAsync(result -> {
+                    if (result instanceof Matrix matrix) {
+                        write(matrix, job.output());
+                        return job.output().toString();
+                    }
+                    return String.valueOf(result);
+                }, io)
+                .handle((detail, error) -> error == null
+                        ? new JobResult(job, true, detail, System.nanoTime() - submitted)
+                        : new JobResult(job, false, describe(error), System.nanoTime() - submitted));
+    }
+
+    private static Matrix read(Path input) {
+        try {
+            return MatrixFile.read(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(Matrix matrix, Path output) {
+        try {
+            MatrixFile.write(matrix, output, compression);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Транспонирование — представление; файл записывается по столбцам прямо из буфера
+    private Object compute(Operation operation, Matrix matrix) {
+        try {
+            if (cache != null && operation != Operation.TRANSPOSE) {
+                matrix.freeze();
+                return operation == Operation.INVERSE ? cache.inverse(matrix) : cache.determinant(matrix);
+            }
+            return switch (operation) {
+                case TRANSPOSE -> matrix.transpose();
+                case INVERSE -> matrix.inverse();
+                case DETERMINANT -> matrix.determinant();
+            };
+        } catch (MatrixOperationException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof CompletionException || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof MatrixOperationException) {
+            return cause.getMessage();
+        }
+        if (cause instanceof IOException) {
+            return "Ошибка ввода-вывода: " + cause.getMessage();
+        }
+        return cause.toString();
+    }
+
+    private void print(JobResult result) {
+        Job job = result.job();
+        out.printf(Locale.ROOT, "%s\t%d\t%s\t%s\t%s\t%.3f%n",
+                result.ok() ? "OK" : "ERROR",
+                job.index(),
+                job.operation() != null ? job.operation().command() : "-",
+                job.input() != null ? job.input() : "-",
+                result.detail().replace('\t', ' ').replace('\n', ' '),
+                result.latencyNanos() / 1e6);
+    }
+}
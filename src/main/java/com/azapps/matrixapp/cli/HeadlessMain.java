@@ -0,0 +1,230 @@
+package com.azapps.matrixapp.cli;
+
+import com.azapps.matrixapp.metrics.OperationMetrics;
+import com.azapps.matrixapp.model.MatrixFile;
+import com.azapps.matrixapp.model.ResultCache;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+/**
+ * Точка входа для пакетной обработки без графического интерфейса.
+ * <p>
+ * Отдельный класс, а не флаг {@code MainApp}: запуск подкласса {@code Application}
+ * всегда инициализирует JavaFX, что невозможно на сервере без дисплея.
+ * <pre>
+ * HeadlessMain --jobs &lt;файл|-&gt; [--workers N] [--compress] [--cache-mb M] [--metrics файл.csv]
+ * HeadlessMain --input-dir &lt;каталог&gt; --op &lt;операция&gt; [--output-dir &lt;каталог&gt;] [--workers N] [--compress] [--cache-mb M] [--metrics файл.csv]
+ * </pre>
+ * Строка файла заданий: {@code операция вход.azmx [выход.azmx]}; пустые строки и строки,
+ * начинающиеся с {@code #}, пропускаются.
+ * <p>
+ * Коды завершения: {@link #EXIT_OK} — все задания выполнены, {@link #EXIT_JOB_FAILURES} —
+ * часть заданий завершилась ошибкой, {@link #EXIT_USAGE} — неверные аргументы,
+ * {@link #EXIT_IO} — не удалось прочитать список заданий.
+ */
+public final class HeadlessMain {
+
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_JOB_FAILURES = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_IO = 3;
+
+    private static final String USAGE = """
+            Использование:
+              --jobs <файл|->            файл заданий ('-' — стандартный ввод), строки: операция вход [выход]
+              --input-dir <каталог>      обработать все файлы .azmx каталога
+              --op <операция>            transpose, inverse или determinant (для --input-dir)
+              --output-dir <каталог>     куда писать результаты (по умолчанию рядом с входом)
+              --workers <N>              число потоков вычислений (по умолчанию число ядер)
+              --compress                 сжимать файлы результатов (Deflate)
+              --cache-mb <M>             кэшировать обратные и определители по содержимому (до M МБ)
+              --metrics <файл.csv>       собирать метрики операций: CSV каждые 10 с и в конце, JMX OperationMetrics""";
+
+    private HeadlessMain() {
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * Выполняет пакетную обработку. Результаты заданий печатаются в {@code out},
+     * итоговая статистика и сообщения об ошибках — в {@code err}.
+     * @return Код завершения.
+     */
+    public static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        String jobsSource = null;
+        Path inputDir = null;
+        Path outputDir = null;
+        BatchRunner.Operation operation = null;
+        int workers = Runtime.getRuntime().availableProcessors();
+        MatrixFile.Compression compression = MatrixFile.Compression.NONE;
+        long cacheMegabytes = 0;
+        Path metricsFile = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--jobs" -> jobsSource = value(args, ++i);
+                    case "--input-dir" -> inputDir = Path.of(value(args, ++i));
+                    case "--output-dir" -> outputDir = Path.of(value(args, ++i));
+                    case "--op" -> operation = BatchRunner.Operation.parse(value(args, ++i));
+                    case "--workers" -> workers = Integer.parseInt(value(args, ++i));
+                    case "--compress" -> compression = MatrixFile.Compression.DEFLATE;
+                    case "--cache-mb" -> cacheMegabytes = Long.parseLong(value(args, ++i));
+                    case "--metrics" -> metricsFile = Path.of(value(args, ++i));
+                    default -> throw new IllegalArgumentException("Неизвестный аргумент: " + args[i]);
+                }
+            }
+            if ((jobsSource == null) == (inputDir == null)) {
+                throw new IllegalArgumentException("Нужно указать ровно один из аргументов --jobs и --input-dir.");
+            }
+            if (inputDir != null && operation == null) {
+                throw new IllegalArgumentException("Для --input-dir нужно указать --op.");
+            }
+            if (workers < 1) {
+                throw new IllegalArgumentException("Число потоков должно быть положительным.");
+            }
+            if (cacheMegabytes < 0) {
+                throw new IllegalArgumentException("Размер кэша не может быть отрицательным.");
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException тоже сюда
+            err.println("Ошибка: " + e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        ResultCache cache = cacheMegabytes > 0 ? new ResultCache(cacheMegabytes << 20) : null;
+        BatchRunner runner = new BatchRunner(workers, compression, out, cache);
+        OperationMetrics.Reporter reporter = null;
+        if (metricsFile != null) {
+            OperationMetrics.setEnabled(true);
+            OperationMetrics.registerMBean();
+            reporter = OperationMetrics.startReporter(Duration.ofSeconds(10), metricsFile, null);
+        }
+        BatchRunner.Summary summary;
+        try (BufferedReader reader = jobsSource != null ? openJobs(jobsSource, in) : null) {
+            Iterator<BatchRunner.Job> jobs = reader != null
+                    ? new JobLineIterator(reader)
+                    : directoryJobs(inputDir, outputDir, operation);
+            summary = runner.run(jobs);
+        } catch (IOException | UncheckedIOException e) {
+            err.println("Ошибка чтения заданий: " + e.getMessage());
+            return EXIT_IO;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("Обработка прервана.");
+            return EXIT_IO;
+        } finally {
+            if (reporter != null) {
+                closeReporter(reporter, err);
+            }
+        }
+        err.println(summary);
+        if (cache != null) {
+            err.println(cache.stats());
+        }
+        return summary.failed() == 0 ? EXIT_OK : EXIT_JOB_FAILURES;
+    }
+
+    // Последний снимок метрик пишется при закрытии; ошибка записи не меняет итог заданий
+    private static void closeReporter(OperationMetrics.Reporter reporter, PrintStream err) {
+        try {
+            reporter.close();
+        } catch (UncheckedIOException e) {
+            err.println("Ошибка записи метрик: " + e.getCause().getMessage());
+        }
+    }
+
+    private static String value(String[] args, int index) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Не указано значение аргумента " + args[index - 1]);
+        }
+        return args[index];
+    }
+
+    private static BufferedReader openJobs(String source, InputStream in) throws IOException {
+        if (source.equals("-")) {
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedReader(Path.of(source), StandardCharsets.UTF_8);
+    }
+
+    private static Iterator<BatchRunner.Job> directoryJobs(Path inputDir, Path outputDir, BatchRunner.Operation operation)
+            throws IOException {
+        List<Path> inputs;
+        try (Stream<Path> files = Files.list(inputDir)) {
+            inputs = files.filter(p -> p.getFileName().toString().endsWith(MatrixFile.EXTENSION))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .toList();
+        }
+        if (outputDir != null) {
+            Files.createDirectories(outputDir);
+        }
+        List<BatchRunner.Job> jobs = new ArrayList<>(inputs.size());
+        for (Path input : inputs) {
+            jobs.add(new BatchRunner.Job(jobs.size() + 1, operation, input,
+                    BatchRunner.defaultOutput(input, outputDir, operation)));
+        }
+        return jobs.iterator();
+    }
+
+    /**
+     * Читает задания по одному по мере обработки, так что поток заданий не загружается в память целиком.
+     * Номер задания — номер строки в файле.
+     */
+    private static final class JobLineIterator implements Iterator<BatchRunner.Job> {
+        private final BufferedReader reader;
+        private BatchRunner.Job next;
+        private int lineNumber;
+
+        JobLineIterator(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next != null) {
+                return true;
+            }
+            try {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    lineNumber++;
+                    String trimmed = line.trim();
+                    if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                        next = BatchRunner.Job.parse(lineNumber, trimmed);
+                        return true;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return false;
+        }
+
+        @Override
+        public BatchRunner.Job next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            BatchRunner.Job job = next;
+            next = null;
+            return job;
+        }
+    }
+}
@@ -6,35 +6,43 @@ import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
 import javafx.animation.TranslateTransition;
 import javafx.application.Platform;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.geometry.HPos;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Spinner;
 import javafx.scene.control.SpinnerValueFactory;
-import javafx.scene.control.TextField;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority; // Для HBox.setHgrow
 import javafx.scene.layout.Region;   // Для Region
+import javafx.stage.FileChooser;
 import javafx.util.Duration;
 import javafx.scene.Node;
-import javafx.geometry.HPos;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixFile;
 import com.azapps.matrixapp.model.MatrixOperationException;
+import com.azapps.matrixapp.model.ProgressMonitor;
+import com.azapps.matrixapp.model.TextMatrixReader;
+import com.azapps.matrixapp.view.MatrixGridView;
+import com.azapps.matrixapp.view.MatrixInputModel;
 
 
 public class MainViewController {
 
     // --- Элементы для ввода матрицы ---
-    @FXML private ScrollPane matrixScrollPane;
-    @FXML private GridPane matrixInputGrid;
+    // Виртуализированная таблица: рисуется только видимая область
+    @FXML private MatrixGridView matrixInputGrid;
 
     // --- Элементы для задания размера ---
     @FXML private HBox sizeControlBox; // Контейнер для элементов управления размером
@@ -47,15 +55,34 @@ public class MainViewController {
     @FXML private Button transposeButton;
     @FXML private Button inverseButton;
 
-    private TranslateTransition transposeButtonAnimator; // Аниматор для кнопки
+    // --- Кнопки работы с файлами ---
+    @FXML private Button openButton;
+    @FXML private Button saveButton;
 
-    // --- Элементы для вывода результата ---
-    @FXML private ScrollPane resultMatrixScrollPane; // Новая ссылка на ScrollPane для результата
-    @FXML private GridPane resultMatrixGrid;        // Новая ссылка на GridPane для результата
+    // --- Ход фонового вычисления ---
+    @FXML private HBox progressBox;
+    @FXML private ProgressBar computeProgressBar;
+    @FXML private Button cancelButton;
 
-    private List<List<TextField>> matrixTextFields;
+    private TranslateTransition transposeButtonAnimator; // Аниматор для кнопки
 
-    private static final int MAX_DIMENSION = 10;
+    // --- Элементы для вывода результата ---
+    @FXML private MatrixGridView resultMatrixGrid;
+    @FXML private Label resultMessageLabel; // Сообщения об ошибках вместо таблицы результата
+
+    private MatrixInputModel inputModel;
+
+    // Вычисления выполняются в отдельном потоке, чтобы не блокировать поток JavaFX
+    private final ExecutorService computeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "matrix-compute");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ComputeTask currentTask;
+    // Увеличивается при каждом изменении ввода: результат по устаревшим данным отбрасывается
+    private long inputVersion;
+
+    private static final int MAX_DIMENSION = 100_000;
     private static final int MIN_DIMENSION = 1;
     private static final double BUTTON_SPACING = 10.0; // Расстояние между кнопками в HBox
 
@@ -73,7 +100,16 @@ public class MainViewController {
             if (newValue != null) updateMatrixGridAndButtons();
         });
         
-        matrixTextFields = new ArrayList<>();
+        inputModel = new MatrixInputModel(rowsSpinner.getValue(), colsSpinner.getValue());
+        matrixInputGrid.setPlaceholder("0");
+        matrixInputGrid.setInputValidator(MatrixInputModel::isAcceptedInput);
+        matrixInputGrid.setCellTextProvider((row, col) -> inputModel.getText(row, col));
+        matrixInputGrid.setCellEditHandler((row, col, text) -> {
+            inputModel.setText(row, col, text);
+            onInputChanged();
+        });
+        resultMatrixGrid.setPlaceholder("-");
+
         transposeButtonAnimator = new TranslateTransition(Duration.millis(300), transposeButton);
         transposeButtonAnimator.setInterpolator(Interpolator.EASE_BOTH);
 
@@ -137,50 +173,21 @@ public class MainViewController {
     }
 
     private void updateMatrixGrid() {
-        matrixInputGrid.getChildren().clear();
-        if (matrixTextFields != null) matrixTextFields.clear();
-        else matrixTextFields = new ArrayList<>();
-
+        onInputChanged();
         int currentRows = rowsSpinner.getValue();
         int currentCols = colsSpinner.getValue();
-
-        for (int i = 0; i < currentRows; i++) {
-            List<TextField> rowFields = new ArrayList<>();
-            for (int j = 0; j < currentCols; j++) {
-                TextField textField = new TextField();
-                textField.setPromptText("0");
-                textField.setPrefWidth(60);
-                textField.setPrefHeight(35);
-                textField.setAlignment(Pos.CENTER);
-                textField.textProperty().addListener((obs, oldValue, newValue) -> {
-                    if (!newValue.matches("-?((\\d*\\.?\\d*)|(\\d+\\.?))")) {
-                        textField.setText(oldValue);
-                    }
-                });
-                matrixInputGrid.add(textField, j, i);
-                rowFields.add(textField);
-            }
-            matrixTextFields.add(rowFields);
-        }
+        // Изменение размера инкрементальное: введённые значения в пределах нового размера сохраняются
+        inputModel.resize(currentRows, currentCols);
+        matrixInputGrid.setDimensions(currentRows, currentCols);
         initializeOrUpdateResultMatrixGrid(currentRows, currentCols);
     }
 
     private void initializeOrUpdateResultMatrixGrid(int rows, int cols) {
         if (resultMatrixGrid == null) return;
-        resultMatrixGrid.getChildren().clear();
-        for (int i = 0; i < cols; i++) {
-            for (int j = 0; j < rows; j++) {
-                TextField resultField = new TextField();
-                resultField.setPromptText("-"); 
-                resultField.setEditable(false);
-                resultField.setFocusTraversable(false);
-                resultField.getStyleClass().add("result-matrix-cell");
-                resultField.setPrefWidth(60); 
-                resultField.setPrefHeight(35);
-                resultField.setAlignment(Pos.CENTER);
-                resultMatrixGrid.add(resultField, j, i);
-            }
-        }
+        // Пустая таблица размера транспонированной матрицы с заполнителями "-"
+        showResultGrid();
+        resultMatrixGrid.setCellTextProvider((row, col) -> null);
+        resultMatrixGrid.setDimensions(cols, rows);
     }
 
     // Метод clearResultMatrixGrid() был удален, т.к. его функциональность
@@ -263,121 +270,206 @@ public class MainViewController {
         }
     }
 
+    // Матрица собирается из снимка ввода внутри задачи: для загруженной большой матрицы сборка —
+    // полное копирование, а ошибки разбора и размера приходят в задачу как IllegalArgumentException
+
     @FXML
     private void handleTransposeAction() {
-        System.out.println("Transpose button clicked");
-        try {
-            double[][] inputData = getMatrixFromInput();
-            if (inputData == null) return;
-            Matrix matrix = new Matrix(inputData);
-            Matrix transposedMatrix = matrix.transpose();
-            displayMatrixResult(transposedMatrix.getData(), "Транспонированная матрица:"); 
-        } catch (IllegalArgumentException e) {
-            showErrorInResultArea("Ошибка создания матрицы: " + e.getMessage());
-        } catch (Exception e) {
-            showErrorInResultArea("Произошла ошибка при транспонировании: " + e.getMessage());
-            e.printStackTrace();
-        }
+        MatrixInputModel input = snapshotInput();
+        // Транспонирование — представление без копирования; таблица читает элементы напрямую
+        runInBackground("Транспонированная матрица:", "Произошла ошибка при транспонировании: ",
+                monitor -> input.toMatrix().transpose());
     }
 
     @FXML
     private void handleInverseAction() {
-        System.out.println("Inverse button clicked");
-        try {
-            double[][] inputData = getMatrixFromInput();
-            if (inputData == null) return;
-            if (rowsSpinner.getValue() != colsSpinner.getValue()) {
-                showErrorInResultArea("Ошибка: Матрица должна быть квадратной для обращения.");
-                return;
-            }
-            Matrix matrix = new Matrix(inputData);
-            Matrix invertedMatrix = matrix.inverse();
-            displayMatrixResult(invertedMatrix.getData(), "Обратная матрица:");
-        } catch (IllegalArgumentException e) {
-            showErrorInResultArea("Ошибка создания матрицы: " + e.getMessage());
-        } catch (MatrixOperationException e) {
-            showErrorInResultArea("Ошибка обращения матрицы: " + e.getMessage());
-        } catch (Exception e) {
-            showErrorInResultArea("Произошла ошибка при обращении: " + e.getMessage());
-            e.printStackTrace();
+        if (!rowsSpinner.getValue().equals(colsSpinner.getValue())) {
+            showErrorInResultArea("Ошибка: Матрица должна быть квадратной для обращения.");
+            return;
         }
+        MatrixInputModel input = snapshotInput();
+        runInBackground("Обратная матрица:", "Ошибка обращения матрицы: ",
+                monitor -> input.toMatrix().inverse(monitor));
     }
 
-    private double[][] getMatrixFromInput() {
-        int currentRows = rowsSpinner.getValue();
-        int currentCols = colsSpinner.getValue();
-        double[][] matrix = new double[currentRows][currentCols];
+    @FXML
+    private void handleCancelAction() {
+        if (currentTask != null) {
+            currentTask.cancel();
+            showErrorInResultArea("Вычисление отменено.");
+        }
+    }
+
+    @FunctionalInterface
+    private interface MatrixComputation {
+        Matrix compute(ProgressMonitor monitor) throws MatrixOperationException, IOException;
+    }
+
+    /**
+     * Фоновая задача: сама служит монитором прогресса для операций модели,
+     * поэтому отмена задачи прерывает исключение между панелями.
+     */
+    private static final class ComputeTask extends Task<Matrix> implements ProgressMonitor {
+        private final MatrixComputation computation;
+        // Результат зависит от текущего ввода, и его изменение отменяет задачу
+        private final boolean followsInput;
+
+        ComputeTask(MatrixComputation computation, boolean followsInput) {
+            this.computation = computation;
+            this.followsInput = followsInput;
+        }
+
+        @Override
+        protected Matrix call() throws MatrixOperationException, IOException {
+            return computation.compute(this);
+        }
 
-        if (matrixTextFields == null || matrixTextFields.size() != currentRows) {
-             showErrorInResultArea("Ошибка: Несоответствие данных для ввода матрицы. Пожалуйста, обновите размер.");
-             return null;
+        @Override
+        public void progress(long done, long total) {
+            updateProgress(done, total);
         }
+    }
 
-        for (int i = 0; i < currentRows; i++) {
-            if (matrixTextFields.get(i) == null || matrixTextFields.get(i).size() != currentCols) {
-                showErrorInResultArea("Ошибка: Несоответствие данных для ввода матрицы (строка " + (i+1) + "). Пожалуйста, обновите размер.");
-                return null;
+    private void runInBackground(String title, String errorPrefix, MatrixComputation computation) {
+        runInBackground(errorPrefix, computation, result -> displayMatrixResult(result, title));
+    }
+
+    private void runInBackground(String errorPrefix, MatrixComputation computation, Consumer<Matrix> onResult) {
+        runInBackground(errorPrefix, computation, onResult, true);
+    }
+
+    private void runInBackground(String errorPrefix, MatrixComputation computation, Consumer<Matrix> onResult,
+                                 boolean followsInput) {
+        cancelCurrentTask();
+        final long version = inputVersion;
+        ComputeTask task = new ComputeTask(computation, followsInput);
+        task.setOnSucceeded(event -> {
+            if (task != currentTask) return;
+            finishTask();
+            if (!followsInput || version == inputVersion) {
+                onResult.accept(task.getValue());
             }
-            for (int j = 0; j < currentCols; j++) {
-                TextField textField = matrixTextFields.get(i).get(j);
-                String text = textField.getText().trim();
-                if (text.isEmpty() || text.equals("-") || text.equals(".")) {
-                    matrix[i][j] = 0.0;
-                } else {
-                    try {
-                        matrix[i][j] = Double.parseDouble(text);
-                    } catch (NumberFormatException e) {
-                        showErrorInResultArea("Ошибка: Некорректное значение в ячейке ввода [" + (i + 1) + "," + (j + 1) + "]: '" + textField.getText() + "'");
-                        textField.requestFocus();
-                        textField.selectAll();
-                        return null;
-                    }
-                }
+        });
+        task.setOnFailed(event -> {
+            if (task != currentTask) return;
+            finishTask();
+            Throwable error = task.getException();
+            if (error instanceof MatrixOperationException || error instanceof IOException
+                    || error instanceof IllegalArgumentException) {
+                showErrorInResultArea(errorPrefix + error.getMessage());
+            } else {
+                showErrorInResultArea(errorPrefix + error);
+                error.printStackTrace();
             }
+        });
+        task.setOnCancelled(event -> {
+            if (task == currentTask) finishTask();
+        });
+        currentTask = task;
+        computeProgressBar.progressProperty().bind(task.progressProperty());
+        progressBox.setVisible(true);
+        progressBox.setManaged(true);
+        computeExecutor.execute(task);
+    }
+
+    private void finishTask() {
+        computeProgressBar.progressProperty().unbind();
+        progressBox.setVisible(false);
+        progressBox.setManaged(false);
+        currentTask = null;
+    }
+
+    private void cancelCurrentTask() {
+        if (currentTask != null) {
+            currentTask.cancel();
+            finishTask();
         }
-        return matrix;
     }
 
-    private void displayMatrixResult(double[][] matrixData, String title) {
-        if (resultMatrixGrid == null) return;
-        resultMatrixGrid.getChildren().clear();
-
-        if (matrixData == null || matrixData.length == 0 || (matrixData.length > 0 && matrixData[0].length == 0) ) {
-            Label emptyMsg = new Label(title + ( (matrixData != null && matrixData.length > 0 && matrixData[0].length == 0) ? ": результат - матрица 0 столбцов." : ": результат - пустая матрица." ));
-            emptyMsg.getStyleClass().add("info-label");
-            resultMatrixGrid.add(emptyMsg, 0, 0);
-            GridPane.setColumnSpan(emptyMsg, Math.max(1, colsSpinner.getValue()));
-            GridPane.setHalignment(emptyMsg, HPos.CENTER);
+    // Изменение ввода делает текущее вычисление устаревшим
+    private void onInputChanged() {
+        inputVersion++;
+        if (currentTask != null && currentTask.followsInput) {
+            cancelCurrentTask();
+        }
+    }
+
+    @FXML
+    private void handleOpenAction() {
+        FileChooser chooser = createFileChooser("Открыть матрицу");
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Текстовые матрицы (*.csv, *.tsv, *.txt)", "*.csv", "*.tsv", "*.txt"));
+        File file = chooser.showOpenDialog(matrixInputGrid.getScene().getWindow());
+        if (file == null) return;
+        Path path = file.toPath();
+        if (!file.getName().toLowerCase(Locale.ROOT).endsWith(MatrixFile.EXTENSION)) {
+            // Текстовые файлы бывают многогигабайтными: разбираем в фоне с прогрессом и отменой
+            runInBackground("Ошибка импорта файла: ", monitor -> TextMatrixReader.read(path, monitor), this::loadIntoEditor);
             return;
         }
+        // Файлы .azmx тоже бывают многогигабайтными: читаем в фоне, не блокируя окно
+        runInBackground("Ошибка чтения файла: ", monitor -> MatrixFile.read(path, monitor), this::loadIntoEditor);
+    }
 
-        int resultRows = matrixData.length;
-        int resultCols = matrixData[0].length;
-
-        for (int i = 0; i < resultRows; i++) {
-            for (int j = 0; j < resultCols; j++) {
-                TextField resultField = new TextField();
-                resultField.setText(String.format("%.3f", matrixData[i][j]));
-                resultField.setEditable(false);
-                resultField.setFocusTraversable(false);
-                resultField.getStyleClass().add("result-matrix-cell");
-                resultField.setPrefWidth(60); 
-                resultField.setPrefHeight(35);
-                resultField.setAlignment(Pos.CENTER);
-                resultMatrixGrid.add(resultField, j, i);
-            }
+    private void loadIntoEditor(Matrix matrix) {
+        if (matrix.getRows() > MAX_DIMENSION || matrix.getCols() > MAX_DIMENSION) {
+            showErrorInResultArea("Ошибка: Матрица " + matrix.getRows() + "x" + matrix.getCols()
+                    + " слишком велика для редактора (максимум " + MAX_DIMENSION + "x" + MAX_DIMENSION + ").");
+            return;
         }
+        // Смена значений спиннеров перестраивает таблицу ввода, поэтому загружаем данные после неё
+        rowsSpinner.getValueFactory().setValue(matrix.getRows());
+        colsSpinner.getValueFactory().setValue(matrix.getCols());
+        inputModel.load(matrix);
+        onInputChanged();
+        matrixInputGrid.refresh();
+    }
+
+    @FXML
+    private void handleSaveAction() {
+        File file = createFileChooser("Сохранить матрицу").showSaveDialog(matrixInputGrid.getScene().getWindow());
+        if (file == null) return;
+        Path path = file.toPath();
+        // Сохраняется снимок ввода, поэтому дальнейшее редактирование запись не отменяет
+        MatrixInputModel input = snapshotInput();
+        runInBackground("Ошибка записи файла: ", monitor -> {
+            Matrix matrix = input.toMatrix();
+            MatrixFile.write(matrix, path, MatrixFile.Compression.NONE, monitor);
+            return matrix;
+        }, saved -> { }, false);
+    }
+
+    private FileChooser createFileChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(
+                new FileChooser.ExtensionFilter("Файлы матриц (*" + MatrixFile.EXTENSION + ")", "*" + MatrixFile.EXTENSION));
+        return chooser;
+    }
+
+    // Снимок ввода на потоке JavaFX за время, пропорциональное числу правок
+    private MatrixInputModel snapshotInput() {
+        matrixInputGrid.commitEdit();
+        return inputModel.snapshot();
+    }
+
+    private void displayMatrixResult(Matrix result, String title) {
+        if (resultMatrixGrid == null) return;
+        showResultGrid();
+        // Форматируются только видимые ячейки
+        resultMatrixGrid.setCellTextProvider((row, col) -> String.format("%.3f", result.getElement(row, col)));
+        resultMatrixGrid.setDimensions(result.getRows(), result.getCols());
+    }
+
+    private void showResultGrid() {
+        resultMessageLabel.setVisible(false);
+        resultMatrixGrid.setVisible(true);
     }
 
     private void showErrorInResultArea(String errorMessage) {
         if (resultMatrixGrid == null) return;
-        resultMatrixGrid.getChildren().clear();
-        Label errorLabel = new Label(errorMessage);
-        errorLabel.getStyleClass().add("error-label");
-        errorLabel.setWrapText(true);
-        resultMatrixGrid.add(errorLabel, 0, 0); 
-        int colspan = Math.max(1, colsSpinner.getValue());
-        GridPane.setColumnSpan(errorLabel, colspan);
-        GridPane.setHalignment(errorLabel, HPos.CENTER);
+        resultMatrixGrid.setVisible(false);
+        resultMessageLabel.setText(errorMessage);
+        resultMessageLabel.setVisible(true);
     }
 }
\ No newline at end of file
@@ -0,0 +1,362 @@
+package com.azapps.matrixapp.distributed;
+
+import com.azapps.matrixapp.metrics.OperationMetrics;
+import com.azapps.matrixapp.model.LUDecomposition;
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixOperationException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Координатор обращения матрицы на нескольких рабочих процессах ({@link DistributedWorker})
+ * по TCP, для матриц, которым не хватает ядер одной машины.
+ * <p>
+ * Столбцы матрицы делятся на блоки по {@code blockSize} и распределяются по рабочим циклически.
+ * Обращение — тот же блочный метод Гаусса-Жордана на месте, что и в {@link Matrix#invertInPlace()}:
+ * на каждом шаге владелец очередного блока исключает свою панель (выбор ведущих строк и
+ * исключение внутри панели), координатор рассылает панель и перестановки всем рабочим, и каждый
+ * применяет их к своим столбцам (обновление ранга {@code blockSize}). В конце координатор
+ * собирает столбцы и выполняет обратные перестановки столбцов.
+ * <p>
+ * Память координатора: сама матрица и панель одного шага (n x blockSize) при
+ * {@link #invertInPlace(Matrix, int)}, плюс новая матрица n x n при {@link #inverse(Matrix, int)}.
+ * Матрица должна помещаться в кучу координатора; распределяется рабочая память метода и вычисления.
+ * Экземпляр обслуживает одно обращение за раз.
+ */
+public final class DistributedInverse implements AutoCloseable {
+
+    /** Ширина блока столбцов по умолчанию. */
+    public static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final List<Connection> connections;
+    private final List<Process> processes;
+    private boolean closed;
+
+    private DistributedInverse(List<Connection> connections, List<Process> processes) {
+        this.connections = connections;
+        this.processes = processes;
+    }
+
+    /**
+     * Подключается к уже запущенным рабочим.
+     * @param workers Адреса рабочих; порядок задаёт распределение блоков.
+     * @throws IOException если не удалось подключиться к одному из рабочих.
+     */
+    public static DistributedInverse connect(List<InetSocketAddress> workers) throws IOException {
+        return connect(workers, List.of());
+    }
+
+    /**
+     * Запускает {@code workerCount} рабочих как дочерние процессы этой же JVM на петлевом
+     * интерфейсе и подключается к ним. Ядра машины делятся между рабочими поровну.
+     * Рабочие завершаются при закрытии координатора (или его аварийном завершении).
+     * @param jvmOptions Дополнительные параметры JVM рабочих, например {@code -Xmx8g}.
+     * @throws IOException если рабочий не запустился.
+     */
+    public static DistributedInverse launchLocal(int workerCount, String... jvmOptions) throws IOException {
+        if (workerCount < 1) {
+            throw new IllegalArgumentException("Число рабочих должно быть положительным.");
+        }
+        int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / workerCount);
+        List<Process> processes = new ArrayList<>(workerCount);
+        List<InetSocketAddress> addresses = new ArrayList<>(workerCount);
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                ProcessBuilder builder = new ProcessBuilder(workerCommand(parallelism, jvmOptions));
+                builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+                Process process = builder.start();
+                processes.add(process);
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), readPort(process)));
+            }
+            return connect(addresses, processes);
+        } catch (IOException | RuntimeException e) {
+            processes.forEach(Process::destroyForcibly);
+            throw e;
+        }
+    }
+
+    private static DistributedInverse connect(List<InetSocketAddress> workers, List<Process> processes) throws IOException {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("Нужен хотя бы один рабочий.");
+        }
+        List<Connection> connections = new ArrayList<>(workers.size());
+        try {
+            for (InetSocketAddress address : workers) {
+                connections.add(new Connection(address));
+            }
+        } catch (IOException e) {
+            connections.forEach(Connection::close);
+            throw e;
+        }
+        return new DistributedInverse(connections, processes);
+    }
+
+    private static List<String> workerCommand(int parallelism, String[] jvmOptions) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Djava.util.concurrent.ForkJoinPool.common.parallelism=" + parallelism);
+        command.addAll(List.of(jvmOptions));
+        Module module = DistributedWorker.class.getModule();
+        String modulePath = System.getProperty("jdk.module.path");
+        if (module.isNamed() && modulePath != null) {
+            command.addAll(List.of("--module-path", modulePath, "-m",
+                    module.getName() + "/" + DistributedWorker.class.getName()));
+        } else {
+            command.addAll(List.of("-cp", System.getProperty("java.class.path"), DistributedWorker.class.getName()));
+        }
+        command.add("--single-session");
+        return command;
+    }
+
+    private static int readPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line = reader.readLine();
+        if (line == null || !line.startsWith(Protocol.READY_PREFIX)) {
+            throw new IOException("Рабочий процесс не запустился" + (line == null ? "." : ": " + line));
+        }
+        return Integer.parseInt(line.substring(Protocol.READY_PREFIX.length()).trim());
+    }
+
+    public int getWorkerCount() {
+        return connections.size();
+    }
+
+    /**
+     * Обращает матрицу с блоками ширины {@link #DEFAULT_BLOCK_SIZE}.
+     * @see #inverse(Matrix, int)
+     */
+    public Matrix inverse(Matrix matrix) throws MatrixOperationException, IOException {
+        return inverse(matrix, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Обращает матрицу на рабочих.
+     * @param matrix Квадратная матрица (не изменяется).
+     * @param blockSize Ширина блока столбцов: шаг распределения и ранг обновления.
+     * @return Новая матрица, обратная к {@code matrix}.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     * @throws IOException при ошибке связи или на рабочем; после неё координатор закрывается.
+     */
+    public synchronized Matrix inverse(Matrix matrix, int blockSize) throws MatrixOperationException, IOException {
+        checkArguments(matrix, blockSize);
+        return invert(matrix, new Matrix(matrix.getRows(), matrix.getCols()), blockSize);
+    }
+
+    /**
+     * Заменяет матрицу её обратной с блоками ширины {@link #DEFAULT_BLOCK_SIZE}.
+     * @see #invertInPlace(Matrix, int)
+     */
+    public void invertInPlace(Matrix matrix) throws MatrixOperationException, IOException {
+        invertInPlace(matrix, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Обращает матрицу на рабочих и собирает результат в неё же: координатору не нужна
+     * вторая матрица n x n. Все столбцы уходят рабочим до сбора, поэтому исходные строки
+     * к моменту записи обратных уже не нужны. Если матрица вырождена, она не изменяется.
+     * @param matrix Квадратная изменяемая матрица.
+     * @param blockSize Ширина блока столбцов: шаг распределения и ранг обновления.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     * @throws IllegalStateException если матрица заморожена.
+     * @throws IOException при ошибке связи или на рабочем; после неё координатор закрывается,
+     *                     а содержимое матрицы не определено.
+     */
+    public synchronized void invertInPlace(Matrix matrix, int blockSize) throws MatrixOperationException, IOException {
+        checkArguments(matrix, blockSize);
+        if (matrix.isFrozen()) {
+            throw new IllegalStateException("Матрица заморожена и не может быть изменена.");
+        }
+        invert(matrix, matrix, blockSize);
+    }
+
+    private void checkArguments(Matrix matrix, int blockSize) throws MatrixOperationException {
+        if (closed) {
+            throw new IllegalStateException("Координатор закрыт.");
+        }
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Ширина блока должна быть положительной.");
+        }
+        if (matrix.getRows() != matrix.getCols()) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+    }
+
+    private Matrix invert(Matrix matrix, Matrix result, int blockSize) throws MatrixOperationException, IOException {
+        int n = matrix.getRows();
+        OperationMetrics.Sample sample = OperationMetrics.begin(OperationMetrics.Operation.INVERSE, n);
+        try {
+            run(matrix, result, n, blockSize);
+            if (sample != null) {
+                sample.end(OperationMetrics.Path.DISTRIBUTED, 2.0 * n * n * n);
+            }
+            return result;
+        } catch (MatrixOperationException e) {
+            if (sample != null) {
+                sample.singular(OperationMetrics.Path.DISTRIBUTED);
+            }
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    // Результат собирается в result; он может совпадать с matrix
+    private void run(Matrix matrix, Matrix result, int n, int block) throws MatrixOperationException, IOException {
+        int count = connections.size();
+        int blocks = Protocol.blockCount(n, block);
+        double[] row = new double[n];
+
+        // Рассылка столбцов: строка за строкой, каждому рабочему — его блоки
+        for (int w = 0; w < count; w++) {
+            DataOutputStream out = connections.get(w).out;
+            out.writeByte(Protocol.INIT);
+            out.writeInt(n);
+            out.writeInt(block);
+            out.writeInt(w);
+            out.writeInt(count);
+        }
+        for (int i = 0; i < n; i++) {
+            matrix.getRow(i, row, 0);
+            for (int w = 0; w < count; w++) {
+                Connection connection = connections.get(w);
+                for (int b = w; b < blocks; b += count) {
+                    Protocol.writeDoubles(connection.out, row, b * block, Protocol.blockWidth(n, block, b), connection.buffer);
+                }
+            }
+        }
+        for (Connection connection : connections) {
+            connection.out.flush();
+        }
+
+        int[] pivots = new int[n];
+        double[] panel = new double[n * Math.min(block, n)];
+        for (int b = 0; b < blocks; b++) {
+            int k0 = b * block;
+            int width = Protocol.blockWidth(n, block, b);
+            Connection owner = connections.get(b % count);
+            owner.out.writeByte(Protocol.FACTOR);
+            owner.out.writeInt(b);
+            owner.out.flush();
+            owner.readStatus();
+            Protocol.readInts(owner.in, pivots, k0, width);
+            Protocol.readDoubles(owner.in, panel, 0, n * width, owner.buffer);
+            // Рабочие без столбцов (их больше, чем блоков) пропускаются
+            for (int w = 0; w < Math.min(count, blocks); w++) {
+                Connection connection = connections.get(w);
+                connection.out.writeByte(Protocol.UPDATE);
+                connection.out.writeInt(b);
+                Protocol.writeInts(connection.out, pivots, k0, width);
+                Protocol.writeDoubles(connection.out, panel, 0, n * width, connection.buffer);
+                connection.out.flush();
+            }
+        }
+
+        for (Connection connection : connections) {
+            connection.out.writeByte(Protocol.GATHER);
+            connection.out.flush();
+        }
+        for (Connection connection : connections) {
+            connection.readStatus();
+        }
+        for (int i = 0; i < n; i++) {
+            for (int w = 0; w < count; w++) {
+                Connection connection = connections.get(w);
+                for (int b = w; b < blocks; b += count) {
+                    Protocol.readDoubles(connection.in, row, b * block, Protocol.blockWidth(n, block, b), connection.buffer);
+                }
+            }
+            // Перестановки строк исходной матрицы соответствуют перестановкам столбцов обратной (в обратном порядке)
+            for (int k = n - 1; k >= 0; k--) {
+                int p = pivots[k];
+                if (p != k) {
+                    double t = row[k];
+                    row[k] = row[p];
+                    row[p] = t;
+                }
+            }
+            result.setRow(i, row, 0);
+        }
+    }
+
+    /**
+     * Закрывает соединения; запущенные {@link #launchLocal} рабочие при этом завершаются.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        connections.forEach(Connection::close);
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Connection {
+        private final InetSocketAddress address;
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+        private final byte[] buffer = new byte[Protocol.BUFFER_BYTES];
+
+        Connection(InetSocketAddress address) throws IOException {
+            this.address = address;
+            this.socket = new Socket();
+            try {
+                socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+                socket.setTcpNoDelay(true);
+                in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), Protocol.BUFFER_BYTES));
+                out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), Protocol.BUFFER_BYTES));
+                out.writeInt(Protocol.MAGIC);
+                out.writeInt(Protocol.VERSION);
+                out.flush();
+            } catch (IOException e) {
+                socket.close();
+                throw new IOException("Не удалось подключиться к рабочему " + address + ": " + e.getMessage(), e);
+            }
+        }
+
+        void readStatus() throws MatrixOperationException, IOException {
+            switch (in.readByte()) {
+                case Protocol.OK -> { }
+                case Protocol.SINGULAR -> throw new MatrixOperationException(LUDecomposition.SINGULAR_INVERSE_MESSAGE);
+                case Protocol.ERROR -> throw new IOException("Рабочий " + address + ": " + in.readUTF());
+                default -> throw new IOException("Неизвестный ответ рабочего " + address + ".");
+            }
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Соединение уже разорвано — закрывать нечего
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.azapps.matrixapp.distributed;
+
+import com.azapps.matrixapp.model.LUDecomposition;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.stream.IntStream;
+
+/**
+ * Рабочий процесс распределённого обращения матрицы ({@link DistributedInverse}).
+ * <p>
+ * Хранит свою часть столбцов матрицы (блоки {@code index}, {@code index + count}, ...),
+ * по команде координатора исключает панель своего блока и применяет к своим столбцам
+ * разосланные координатором панели. Соединения обслуживаются по одному.
+ * <pre>
+ * DistributedWorker [--host адрес] [--port N] [--single-session]
+ * </pre>
+ * По умолчанию слушает только петлевой интерфейс на свободном порту; номер порта печатается
+ * первой строкой stdout ({@code LISTENING <порт>}). С {@code --single-session} процесс
+ * завершается после первого соединения — так запускаются локальные рабочие, чтобы они
+ * не переживали координатора.
+ */
+public final class DistributedWorker {
+
+    // Минимальный объём работы (в умножениях) на одну задачу обновления
+    private static final long MIN_TASK_WORK = 1 << 15;
+
+    private int n;
+    private int block;
+    private int index;
+    private int count;
+    private int columns;
+    private double[] local; // n x columns построчно
+    private int[] pivots = new int[0];
+    private double[] panel = new double[0];
+    private double[] saved = new double[0];
+    private String failure;
+    private final byte[] buffer = new byte[Protocol.BUFFER_BYTES];
+
+    private DistributedWorker() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = InetAddress.getLoopbackAddress().getHostAddress();
+        int port = 0;
+        boolean singleSession = false;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--host" -> host = args[++i];
+                    case "--port" -> port = Integer.parseInt(args[++i]);
+                    case "--single-session" -> singleSession = true;
+                    default -> throw new IllegalArgumentException("Неизвестный аргумент: " + args[i]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Ошибка: " + e.getMessage());
+            System.err.println("Использование: DistributedWorker [--host адрес] [--port N] [--single-session]");
+            System.exit(2);
+        }
+        try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getByName(host))) {
+            System.out.println(Protocol.READY_PREFIX + server.getLocalPort());
+            System.out.flush();
+            do {
+                try (Socket socket = server.accept()) {
+                    new DistributedWorker().serve(socket);
+                } catch (IOException e) {
+                    System.err.println("Соединение с координатором прервано: " + e.getMessage());
+                }
+            } while (!singleSession);
+        }
+    }
+
+    private void serve(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), Protocol.BUFFER_BYTES));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), Protocol.BUFFER_BYTES));
+        if (in.readInt() != Protocol.MAGIC || in.readInt() != Protocol.VERSION) {
+            throw new IOException("Неизвестный протокол координатора.");
+        }
+        for (int command = in.read(); command >= 0; command = in.read()) {
+            switch (command) {
+                case Protocol.INIT -> init(in);
+                case Protocol.FACTOR -> factor(in.readInt(), out);
+                case Protocol.UPDATE -> update(in);
+                case Protocol.GATHER -> gather(out);
+                default -> throw new IOException("Неизвестная команда координатора: " + command);
+            }
+        }
+    }
+
+    private void init(DataInputStream in) throws IOException {
+        n = in.readInt();
+        block = in.readInt();
+        index = in.readInt();
+        count = in.readInt();
+        columns = Protocol.localColumns(n, block, index, count);
+        failure = null;
+        try {
+            if (local == null || local.length < (long) n * columns) {
+                local = null;
+                local = new double[Math.multiplyExact(n, columns)];
+            }
+        } catch (OutOfMemoryError | ArithmeticException e) {
+            failure = "Недостаточно памяти для " + n + " x " + columns + " столбцов на рабочем " + index + ".";
+            Protocol.skipDoubles(in, (long) n * columns);
+            return;
+        }
+        Protocol.readDoubles(in, local, 0, n * columns, buffer);
+    }
+
+    // Шаги Гаусса-Жордана для столбцов блока b, как GaussJordanKernel.factorPanel; строки
+    // переставляются только в пределах панели — остальные столбцы переставит UPDATE
+    private void factor(int b, DataOutputStream out) throws IOException {
+        if (failure != null) {
+            replyError(out);
+            return;
+        }
+        int k0 = b * block;
+        int width = Protocol.blockWidth(n, block, b);
+        int p0 = Protocol.localOffset(block, b, count);
+        int[] panelPivots = new int[width];
+        for (int t = 0; t < width; t++) {
+            int k = k0 + t;
+            int c = p0 + t;
+            int maxRow = k;
+            double maxAbs = Math.abs(local[k * columns + c]);
+            for (int i = k + 1; i < n; i++) {
+                double v = Math.abs(local[i * columns + c]);
+                if (v > maxAbs) {
+                    maxAbs = v;
+                    maxRow = i;
+                }
+            }
+            if (maxAbs < LUDecomposition.SINGULARITY_THRESHOLD) {
+                out.writeByte(Protocol.SINGULAR);
+                out.flush();
+                return;
+            }
+            panelPivots[t] = maxRow;
+            if (maxRow != k) {
+                swapRows(k, maxRow, p0, p0 + width);
+            }
+
+            int pivotRow = k * columns;
+            double inv = 1.0 / local[pivotRow + c];
+            local[pivotRow + c] = 1.0;
+            for (int j = p0; j < p0 + width; j++) {
+                local[pivotRow + j] *= inv;
+            }
+            for (int i = 0; i < n; i++) {
+                if (i == k) {
+                    continue;
+                }
+                int row = i * columns;
+                double factor = local[row + c];
+                if (factor != 0.0) {
+                    local[row + c] = 0.0;
+                    for (int j = p0; j < p0 + width; j++) {
+                        local[row + j] -= factor * local[pivotRow + j];
+                    }
+                }
+            }
+        }
+        out.writeByte(Protocol.OK);
+        Protocol.writeInts(out, panelPivots, 0, width);
+        for (int i = 0; i < n; i++) {
+            Protocol.writeDoubles(out, local, i * columns + p0, width, buffer);
+        }
+        out.flush();
+    }
+
+    // Применяет к своим столбцам (кроме панели, если она своя) перестановки и преобразование панели b
+    private void update(DataInputStream in) throws IOException {
+        int b = in.readInt();
+        int k0 = b * block;
+        int width = Protocol.blockWidth(n, block, b);
+        if (pivots.length < width) {
+            pivots = new int[width];
+        }
+        Protocol.readInts(in, pivots, 0, width);
+        if (panel.length < n * width) {
+            panel = new double[n * width];
+        }
+        Protocol.readDoubles(in, panel, 0, n * width, buffer);
+        if (failure != null) {
+            return;
+        }
+        try {
+            boolean own = b % count == index;
+            int skipFrom = own ? Protocol.localOffset(block, b, count) : columns;
+            int skipTo = own ? skipFrom + width : columns;
+            for (int t = 0; t < width; t++) {
+                if (pivots[t] != k0 + t) {
+                    swapRows(k0 + t, pivots[t], 0, skipFrom);
+                    swapRows(k0 + t, pivots[t], skipTo, columns);
+                }
+            }
+            if (saved.length < width * columns) {
+                saved = new double[width * columns];
+            }
+            System.arraycopy(local, k0 * columns, saved, 0, width * columns);
+            int rowsPerTask = (int) Math.max(1, MIN_TASK_WORK / Math.max(1, (long) width * columns));
+            int tasks = (n + rowsPerTask - 1) / rowsPerTask;
+            IntStream.range(0, tasks).parallel().forEach(task -> {
+                int from = task * rowsPerTask;
+                int to = Math.min(n, from + rowsPerTask);
+                for (int i = from; i < to; i++) {
+                    boolean pivotRow = i >= k0 && i < k0 + width;
+                    updateRow(i, width, pivotRow, 0, skipFrom);
+                    updateRow(i, width, pivotRow, skipTo, columns);
+                }
+            });
+        } catch (RuntimeException | OutOfMemoryError e) {
+            failure = "Ошибка обновления на рабочем " + index + ": " + e;
+        }
+    }
+
+    // a[i, from..to) = (pivotRow ? 0 : a[i, from..to)) + sum_t panel[i, t] * saved[t, from..to)
+    private void updateRow(int i, int width, boolean pivotRow, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int row = i * columns;
+        if (pivotRow) {
+            for (int j = from; j < to; j++) {
+                local[row + j] = 0.0;
+            }
+        }
+        int coefficients = i * width;
+        int t = 0;
+        for (; t + 3 < width; t += 4) {
+            double w0 = panel[coefficients + t];
+            double w1 = panel[coefficients + t + 1];
+            double w2 = panel[coefficients + t + 2];
+            double w3 = panel[coefficients + t + 3];
+            int s0 = t * columns;
+            int s1 = s0 + columns;
+            int s2 = s1 + columns;
+            int s3 = s2 + columns;
+            for (int j = from; j < to; j++) {
+                local[row + j] += w0 * saved[s0 + j] + w1 * saved[s1 + j] + w2 * saved[s2 + j] + w3 * saved[s3 + j];
+            }
+        }
+        for (; t < width; t++) {
+            double w = panel[coefficients + t];
+            if (w != 0.0) {
+                int src = t * columns;
+                for (int j = from; j < to; j++) {
+                    local[row + j] += w * saved[src + j];
+                }
+            }
+        }
+    }
+
+    private void gather(DataOutputStream out) throws IOException {
+        if (failure != null) {
+            replyError(out);
+            return;
+        }
+        out.writeByte(Protocol.OK);
+        Protocol.writeDoubles(out, local, 0, n * columns, buffer);
+        out.flush();
+    }
+
+    private void replyError(DataOutputStream out) throws IOException {
+        out.writeByte(Protocol.ERROR);
+        out.writeUTF(failure);
+        out.flush();
+    }
+
+    private void swapRows(int r1, int r2, int from, int to) {
+        int a = r1 * columns;
+        int b = r2 * columns;
+        for (int j = from; j < to; j++) {
+            double t = local[a + j];
+            local[a + j] = local[b + j];
+            local[b + j] = t;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.azapps.matrixapp.distributed;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Двоичный протокол координатора и рабочих поверх TCP.
+ * <p>
+ * После соединения координатор посылает {@link #MAGIC} и {@link #VERSION}, далее — команды:
+ * <pre>
+ * INIT   n, block, index, count, затем n строк локальных столбцов рабочего
+ * FACTOR b                      -> статус, w перестановок, панель n x w
+ * UPDATE b, w перестановок, панель n x w   (без ответа)
+ * GATHER                        -> статус, n строк локальных столбцов
+ * </pre>
+ * Столбцы разбиты на блоки по {@code block}; блок b принадлежит рабочему {@code b % count}.
+ * Команды выполняются рабочим строго по порядку, поэтому ответ на FACTOR уже учитывает
+ * все предшествующие UPDATE. Ответ начинается со статуса {@link #OK}, {@link #SINGULAR} или
+ * {@link #ERROR} (за ним — сообщение в modified UTF-8).
+ */
+final class Protocol {
+
+    static final int MAGIC = 0x415A4D44; // "AZMD"
+    static final int VERSION = 1;
+
+    static final byte INIT = 1;
+    static final byte FACTOR = 2;
+    static final byte UPDATE = 3;
+    static final byte GATHER = 4;
+
+    static final byte OK = 0;
+    static final byte SINGULAR = 1;
+    static final byte ERROR = 2;
+
+    /** Первая строка stdout рабочего: {@code LISTENING <порт>}. */
+    static final String READY_PREFIX = "LISTENING ";
+
+    /** Размер буфера преобразования чисел в байты. */
+    static final int BUFFER_BYTES = 1 << 16;
+
+    private static final VarHandle DOUBLES = MethodHandles.byteArrayViewVarHandle(double[].class, ByteOrder.BIG_ENDIAN);
+
+    private Protocol() {
+    }
+
+    static int blockCount(int n, int block) {
+        return (n + block - 1) / block;
+    }
+
+    static int blockWidth(int n, int block, int b) {
+        return Math.min(block, n - b * block);
+    }
+
+    /** Число столбцов, принадлежащих рабочему {@code index} из {@code count}. */
+    static int localColumns(int n, int block, int index, int count) {
+        int columns = 0;
+        for (int b = index; b < blockCount(n, block); b += count) {
+            columns += blockWidth(n, block, b);
+        }
+        return columns;
+    }
+
+    /** Позиция первого столбца блока b среди локальных столбцов его владельца. */
+    static int localOffset(int block, int b, int count) {
+        return b / count * block;
+    }
+
+    static void writeDoubles(DataOutputStream out, double[] values, int offset, int length, byte[] buffer)
+            throws IOException {
+        int chunk = buffer.length / Double.BYTES;
+        for (int done = 0; done < length; done += chunk) {
+            int count = Math.min(chunk, length - done);
+            for (int i = 0; i < count; i++) {
+                DOUBLES.set(buffer, i * Double.BYTES, values[offset + done + i]);
+            }
+            out.write(buffer, 0, count * Double.BYTES);
+        }
+    }
+
+    static void readDoubles(DataInputStream in, double[] values, int offset, int length, byte[] buffer)
+            throws IOException {
+        int chunk = buffer.length / Double.BYTES;
+        for (int done = 0; done < length; done += chunk) {
+            int count = Math.min(chunk, length - done);
+            in.readFully(buffer, 0, count * Double.BYTES);
+            for (int i = 0; i < count; i++) {
+                values[offset + done + i] = (double) DOUBLES.get(buffer, i * Double.BYTES);
+            }
+        }
+    }
+
+    static void skipDoubles(DataInputStream in, long length) throws IOException {
+        in.skipNBytes(length * Double.BYTES);
+    }
+
+    static void writeInts(DataOutputStream out, int[] values, int offset, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            out.writeInt(values[offset + i]);
+        }
+    }
+
+    static void readInts(DataInputStream in, int[] values, int offset, int length) throws IOException {
+        for (int i = 0; i < length; i++) {
+            values[offset + i] = in.readInt();
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package com.azapps.matrixapp.metrics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Метрики операций над матрицами: гистограммы задержки по операции, пути вычисления
+ * и размеру, достигнутые GFLOP/s, объём выделенной памяти и отказы из-за вырожденности.
+ * <p>
+ * По умолчанию сбор выключен (включается {@link #setEnabled(boolean)}, через JMX или
+ * свойством {@code -Dmatrixapp.metrics=true}). Операции модели обращаются к метрикам только
+ * на входе и выходе, не во внутренних циклах: в выключенном состоянии это одно чтение
+ * volatile-поля и проверка на {@code null}.
+ * <pre>
+ * OperationMetrics.Sample sample = OperationMetrics.begin(Operation.INVERSE, n);
+ * ... вычисление ...
+ * if (sample != null) sample.end(Path.GAUSS_JORDAN, 2.0 * n * n * n);
+ * </pre>
+ * Память учитывается по потоку, вызвавшему операцию; выделения в задачах {@code ForkJoinPool}
+ * в неё не попадают.
+ * <p>
+ * Снимки доступны через {@link #snapshot()}, MBean {@link #OBJECT_NAME} ({@link #registerMBean()})
+ * и периодический вывод в журнал и CSV-файл ({@link #startReporter}).
+ */
+public final class OperationMetrics {
+
+    /** Имя MBean в платформенном MBeanServer. */
+    public static final String OBJECT_NAME = "com.azapps.matrixapp:type=OperationMetrics";
+
+    public enum Operation {
+        TRANSPOSE, INVERSE, DETERMINANT
+    }
+
+    /** Путь вычисления, выбранный операцией. */
+    public enum Path {
+        /** Явная формула для матриц до 4x4. */
+        CLOSED_FORM,
+        /** По ранее вычисленному (кэшированному) LU-разложению. */
+        CACHED_LU,
+        /** С вычислением LU-разложения. */
+        LU,
+        /** Блочный метод Гаусса-Жордана на месте. */
+        GAUSS_JORDAN,
+        /** Блочное ядро транспонирования. */
+        TILED,
+        /** Блочный метод Гаусса-Жордана на рабочих процессах ({@code distributed}). */
+        DISTRIBUTED,
+        /** Диагональная матрица: O(n). */
+        DIAGONAL,
+        /** Треугольная матрица: подстановки без исключения. */
+        TRIANGULAR,
+        /** Разложение Холецкого симметричной положительно определённой матрицы. */
+        CHOLESKY
+    }
+
+    /**
+     * Накопленные показатели одной группы (операция, путь, размер).
+     * @param sizeBucket Верхняя граница размера группы: n не больше этого значения (степень двойки).
+     * @param p50Millis Медиана задержки (по верхней границе логарифмической корзины гистограммы).
+     * @param gflops Достигнутая производительность: оценка фактической работы выбранного пути
+     *               (например, n для диагональной матрицы, n^3 для обращения по Холецкому, 2n^3
+     *               для Гаусса-Жордана), делённая на время. Выигрыш от более дешёвого пути
+     *               виден по задержке, а не по GFLOP/s.
+     */
+    public record Snapshot(Operation operation, Path path, int sizeBucket, long count, long singular,
+                           double p50Millis, double p95Millis, double maxMillis, double gflops, long allocatedBytes) {
+
+        public static final String CSV_HEADER =
+                "timestamp,operation,path,size_le,count,singular,p50_ms,p95_ms,max_ms,gflops,allocated_bytes";
+
+        public String toCsv(Instant timestamp) {
+            return String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.4f,%.4f,%.4f,%.3f,%d",
+                    timestamp, operation, path, sizeBucket, count, singular,
+                    p50Millis, p95Millis, maxMillis, gflops, allocatedBytes);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "%s/%s n<=%d: %d опер., вырожденных %d; p50 %.3f мс, p95 %.3f мс, max %.3f мс; %.2f GFLOP/s; выделено %d Б",
+                    operation, path, sizeBucket, count, singular, p50Millis, p95Millis, maxMillis, gflops, allocatedBytes);
+        }
+    }
+
+    /** Измерение одной операции; создаётся {@link #begin}, только если сбор включён. */
+    public static final class Sample {
+        private final Operation operation;
+        private final int size;
+        private final long startNanos;
+        private final long startAllocated;
+
+        private Sample(Operation operation, int size) {
+            this.operation = operation;
+            this.size = size;
+            this.startAllocated = allocatedBytes();
+            this.startNanos = System.nanoTime();
+        }
+
+        /**
+         * Завершает измерение успешной операции.
+         * @param flops Число операций с плавающей точкой, фактически выполненных выбранным путём
+         *              (оценка старшего члена), 0 — для операций без арифметики.
+         */
+        public void end(Path path, double flops) {
+            long nanos = System.nanoTime() - startNanos;
+            stats(operation, path, size).record(nanos, flops, allocatedBytes() - startAllocated, false);
+        }
+
+        /** Завершает измерение операции, отклонённой из-за вырожденной матрицы. */
+        public void singular(Path path) {
+            long nanos = System.nanoTime() - startNanos;
+            stats(operation, path, size).record(nanos, 0, allocatedBytes() - startAllocated, true);
+        }
+    }
+
+    private record Key(Operation operation, Path path, int sizeBucket) {
+    }
+
+    private static final class Stats {
+        // Корзина b — задержки в [2^(b-1), 2^b) нс
+        private final AtomicLongArray histogram = new AtomicLongArray(64);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder singular = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final DoubleAdder flops = new DoubleAdder();
+        private final LongAdder allocated = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long elapsed, double operations, long bytes, boolean rejected) {
+            histogram.incrementAndGet(64 - Long.numberOfLeadingZeros(Math.max(0, elapsed)) & 63);
+            count.increment();
+            nanos.add(elapsed);
+            flops.add(operations);
+            allocated.add(Math.max(0, bytes));
+            maxNanos.accumulateAndGet(elapsed, Math::max);
+            if (rejected) {
+                singular.increment();
+            }
+        }
+
+        Snapshot snapshot(Key key) {
+            long total = count.sum();
+            long elapsed = nanos.sum();
+            return new Snapshot(key.operation(), key.path(), key.sizeBucket(), total, singular.sum(),
+                    percentileMillis(total, 0.50), percentileMillis(total, 0.95), maxNanos.get() / 1e6,
+                    elapsed == 0 ? 0.0 : flops.sum() / elapsed, allocated.sum());
+        }
+
+        private double percentileMillis(long total, double fraction) {
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int b = 0; b < 64; b++) {
+                seen += histogram.get(b);
+                if (seen >= rank && seen > 0) {
+                    return Math.min(b == 0 ? 0 : 1L << Math.min(b, 62), maxNanos.get()) / 1e6;
+                }
+            }
+            return 0.0;
+        }
+    }
+
+    private static volatile boolean enabled = Boolean.getBoolean("matrixapp.metrics");
+    private static final Map<Key, Stats> STATS = new ConcurrentHashMap<>();
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private OperationMetrics() {
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+            return bean;
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    /**
+     * Начинает измерение операции над матрицей размера n (наибольшая из размерностей).
+     * @return Измерение или {@code null}, если сбор выключен.
+     */
+    public static Sample begin(Operation operation, int size) {
+        return enabled ? new Sample(operation, size) : null;
+    }
+
+    private static Stats stats(Operation operation, Path path, int size) {
+        return STATS.computeIfAbsent(new Key(operation, path, sizeBucket(size)), key -> new Stats());
+    }
+
+    // Наименьшая степень двойки не меньше n (не меньше 4)
+    static int sizeBucket(int n) {
+        return Math.max(4, n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1);
+    }
+
+    /** Снимок всех групп, упорядоченный по операции, пути и размеру. */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> result = new ArrayList<>();
+        STATS.forEach((key, stats) -> result.add(stats.snapshot(key)));
+        result.sort(Comparator.comparing(Snapshot::operation).thenComparing(Snapshot::path)
+                .thenComparingInt(Snapshot::sizeBucket));
+        return result;
+    }
+
+    /** Сбрасывает накопленные показатели. */
+    public static void reset() {
+        STATS.clear();
+    }
+
+    /**
+     * Регистрирует MBean {@link #OBJECT_NAME} в платформенном MBeanServer (повторный вызов ничего не делает).
+     * @throws IllegalStateException если регистрация не удалась.
+     */
+    public static void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MBean(), name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Не удалось зарегистрировать MBean метрик: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Запускает периодический вывод снимков в журнал и/или CSV-файл (накопленные с последнего
+     * сброса значения, по строке на группу). При закрытии выводится последний снимок.
+     * @param period Период вывода.
+     * @param csv Файл, в который дописываются строки CSV (заголовок — если файл пуст); {@code null} — без файла.
+     * @param log Поток для строк журнала; {@code null} — без журнала.
+     */
+    public static Reporter startReporter(Duration period, java.nio.file.Path csv, PrintStream log) {
+        if (period.isZero() || period.isNegative()) {
+            throw new IllegalArgumentException("Период вывода метрик должен быть положительным.");
+        }
+        return new Reporter(period, csv, log);
+    }
+
+    /** Периодический вывод метрик; {@link #close()} останавливает его. */
+    public static final class Reporter implements AutoCloseable {
+        private final java.nio.file.Path csv;
+        private final PrintStream log;
+        private final ScheduledExecutorService scheduler;
+
+        private Reporter(Duration period, java.nio.file.Path csv, PrintStream log) {
+            this.csv = csv;
+            this.log = log;
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "matrix-metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = period.toMillis();
+            scheduler.scheduleAtFixedRate(this::reportQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Выводит текущий снимок.
+         * @throws UncheckedIOException если не удалось дописать CSV-файл.
+         */
+        public synchronized void report() {
+            List<Snapshot> snapshots = snapshot();
+            Instant now = Instant.now();
+            if (log != null) {
+                for (Snapshot snapshot : snapshots) {
+                    log.println(snapshot);
+                }
+            }
+            if (csv != null && !snapshots.isEmpty()) {
+                List<String> lines = new ArrayList<>(snapshots.size() + 1);
+                try {
+                    if (!Files.exists(csv) || Files.size(csv) == 0) {
+                        lines.add(Snapshot.CSV_HEADER);
+                    }
+                    for (Snapshot snapshot : snapshots) {
+                        lines.add(snapshot.toCsv(now));
+                    }
+                    Files.write(csv, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        private void reportQuietly() {
+            try {
+                report();
+            } catch (UncheckedIOException e) {
+                // Исключение остановило бы периодическую задачу; сообщаем и продолжаем
+                if (log != null) {
+                    log.println("Ошибка записи метрик: " + e.getCause().getMessage());
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            scheduler.shutdownNow();
+            report();
+        }
+    }
+
+    private static final class MBean implements OperationMetricsMXBean {
+        @Override
+        public boolean isEnabled() {
+            return OperationMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean value) {
+            OperationMetrics.setEnabled(value);
+        }
+
+        @Override
+        public long getOperationCount() {
+            return snapshot().stream().mapToLong(Snapshot::count).sum();
+        }
+
+        @Override
+        public long getSingularRejections() {
+            return snapshot().stream().mapToLong(Snapshot::singular).sum();
+        }
+
+        @Override
+        public String[] getSummary() {
+            return snapshot().stream().map(Snapshot::toString).toArray(String[]::new);
+        }
+
+        @Override
+        public String getCsv() {
+            Instant now = Instant.now();
+            StringBuilder sb = new StringBuilder(Snapshot.CSV_HEADER).append('\n');
+            for (Snapshot snapshot : snapshot()) {
+                sb.append(snapshot.toCsv(now)).append('\n');
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public void reset() {
+            OperationMetrics.reset();
+        }
+    }
+}
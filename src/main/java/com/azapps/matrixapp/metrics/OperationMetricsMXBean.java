@@ -0,0 +1,26 @@
+package com.azapps.matrixapp.metrics;
+
+/**
+ * JMX-интерфейс метрик операций ({@link OperationMetrics#OBJECT_NAME}).
+ * Позволяет включить сбор на работающем процессе и снять накопленные показатели.
+ */
+public interface OperationMetricsMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    /** Число измеренных операций с последнего сброса. */
+    long getOperationCount();
+
+    /** Число обращений, отклонённых из-за вырожденной матрицы. */
+    long getSingularRejections();
+
+    /** По строке на группу (операция, путь, размер). */
+    String[] getSummary();
+
+    /** Снимок в формате CSV с заголовком. */
+    String getCsv();
+
+    void reset();
+}
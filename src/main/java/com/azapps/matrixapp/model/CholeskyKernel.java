@@ -0,0 +1,175 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * Блочное разложение Холецкого A = L * L^T и обращение симметричной положительно
+ * определённой матрицы через него: A^-1 = L^-T * L^-1.
+ * <p>
+ * Разложение — около n^3/3 операций против 2n^3/3 у LU, обращение целиком — около n^3
+ * против 2n^3 у метода Гаусса-Жордана. Все массивы — n x n построчно. Разложение идёт
+ * блоками по {@link #BLOCK} столбцов: диагональный блок раскладывается последовательно,
+ * панель под ним и обновление оставшейся нижней части распределяются по строкам
+ * ({@link GaussJordanKernel#forRows}). Обращение треугольного множителя распределяется по
+ * блокам столбцов, произведение L^-T * L^-1 — по строкам.
+ */
+final class CholeskyKernel {
+
+    static final int BLOCK = 64;
+    // Ширина блока столбцов при обращении треугольной матрицы
+    private static final int COLUMN_BLOCK = 32;
+
+    private CholeskyKernel() {
+    }
+
+    /**
+     * Раскладывает симметричную матрицу на месте: нижний треугольник {@code a} заменяется
+     * множителем L, верхний не используется и не определён.
+     * @return {@code false}, если матрица не положительно определена (ведущий элемент не
+     *         положителен); тогда содержимое {@code a} не определено.
+     */
+    static boolean factor(double[] a, int n) {
+        for (int b = 0; b * BLOCK < n; b++) {
+            int k0 = b * BLOCK;
+            int k1 = Math.min(k0 + BLOCK, n);
+            if (!factorDiagonalBlock(a, n, k0, k1)) {
+                return false;
+            }
+            int below = n - k1;
+            if (below == 0) {
+                break;
+            }
+            int width = k1 - k0;
+            // Панель: L[i, k0..k1) = A[i, k0..k1) * L_kk^-T
+            GaussJordanKernel.forRows(below, (long) width * width / 2, (from, to) -> {
+                for (int i = k1 + from; i < k1 + to; i++) {
+                    int row = i * n;
+                    for (int j = k0; j < k1; j++) {
+                        int pivotRow = j * n;
+                        double s = a[row + j];
+                        for (int p = k0; p < j; p++) {
+                            s -= a[row + p] * a[pivotRow + p];
+                        }
+                        a[row + j] = s / a[pivotRow + j];
+                    }
+                }
+            });
+            // Обновление нижнего треугольника: A[i, j] -= L[i, k0..k1) . L[j, k0..k1), k1 <= j <= i
+            GaussJordanKernel.forRows(below, (long) width * below / 2, (from, to) -> {
+                for (int i = k1 + from; i < k1 + to; i++) {
+                    int row = i * n;
+                    for (int j = k1; j <= i; j++) {
+                        int other = j * n;
+                        double s = 0.0;
+                        for (int p = k0; p < k1; p++) {
+                            s += a[row + p] * a[other + p];
+                        }
+                        a[row + j] -= s;
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    private static boolean factorDiagonalBlock(double[] a, int n, int k0, int k1) {
+        for (int j = k0; j < k1; j++) {
+            int pivotRow = j * n;
+            double d = a[pivotRow + j];
+            for (int p = k0; p < j; p++) {
+                d -= a[pivotRow + p] * a[pivotRow + p];
+            }
+            if (!(d > 0.0) || Double.isInfinite(d)) {
+                return false;
+            }
+            double l = Math.sqrt(d);
+            a[pivotRow + j] = l;
+            for (int i = j + 1; i < k1; i++) {
+                int row = i * n;
+                double s = a[row + j];
+                for (int p = k0; p < j; p++) {
+                    s -= a[row + p] * a[pivotRow + p];
+                }
+                a[row + j] = s / l;
+            }
+        }
+        return true;
+    }
+
+    /** Определитель по множителю L: произведение квадратов диагонали. */
+    static double determinant(double[] l, int n) {
+        double det = 1.0;
+        for (int k = 0; k < n; k++) {
+            double d = l[k * n + k];
+            det *= d * d;
+        }
+        return det;
+    }
+
+    /**
+     * Записывает в нижний треугольник {@code x} обратную к нижнетреугольной матрице из
+     * нижнего треугольника {@code l}; верхний треугольник {@code x} не изменяется.
+     * Диагональ {@code l} должна быть ненулевой.
+     */
+    static void invertLower(double[] l, double[] x, int n) {
+        int blocks = (n + COLUMN_BLOCK - 1) / COLUMN_BLOCK;
+        // Столбцы обратной независимы; блок c требует около (n - c0)^2 * COLUMN_BLOCK / 2 умножений
+        GaussJordanKernel.forRows(blocks, (long) n * n * COLUMN_BLOCK / 6, (from, to) -> {
+            for (int b = from; b < to; b++) {
+                int c0 = b * COLUMN_BLOCK;
+                int c1 = Math.min(c0 + COLUMN_BLOCK, n);
+                // X[i, c] = (δ(i, c) - sum_{c <= p < i} L[i, p] * X[p, c]) / L[i, i]
+                for (int i = c0; i < n; i++) {
+                    int row = i * n;
+                    int width = Math.min(c1, i + 1);
+                    for (int c = c0; c < width; c++) {
+                        x[row + c] = c == i ? 1.0 : 0.0;
+                    }
+                    for (int p = c0; p < i; p++) {
+                        double f = l[row + p];
+                        if (f != 0.0) {
+                            int source = p * n;
+                            int to1 = Math.min(c1, p + 1);
+                            for (int c = c0; c < to1; c++) {
+                                x[row + c] -= f * x[source + c];
+                            }
+                        }
+                    }
+                    double inv = 1.0 / l[row + i];
+                    for (int c = c0; c < width; c++) {
+                        x[row + c] *= inv;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Записывает в {@code result} полную симметричную матрицу X^T * X, где X — нижнетреугольная
+     * из нижнего треугольника {@code x}. Для X = L^-1 это A^-1.
+     */
+    static void lowerTransposeTimesLower(double[] x, double[] result, int n) {
+        // Строка i: result[i, 0..i] = sum_{p >= i} X[p, i] * X[p, 0..i]
+        GaussJordanKernel.forRows(n, (long) n * n / 4, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int row = i * n;
+                for (int j = 0; j <= i; j++) {
+                    result[row + j] = 0.0;
+                }
+                for (int p = i; p < n; p++) {
+                    int source = p * n;
+                    double f = x[source + i];
+                    if (f != 0.0) {
+                        for (int j = 0; j <= i; j++) {
+                            result[row + j] += f * x[source + j];
+                        }
+                    }
+                }
+            }
+        });
+        // Отражение нижнего треугольника в верхний
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < i; j++) {
+                result[j * n + i] = result[i * n + j];
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * Обращение матрицы одинарной точности методом Гаусса-Жордана на месте —
+ * та же панельная схема, что и в {@link GaussJordanKernel}, над массивом {@code float}.
+ * Внутренние циклы по строкам векторизуются JIT-компилятором с вдвое большим числом дорожек.
+ */
+final class FloatGaussJordanKernel {
+
+    private static final int PANEL = GaussJordanKernel.PANEL;
+    private static final int COLUMN_BLOCK = 64;
+
+    private FloatGaussJordanKernel() {
+    }
+
+    /**
+     * Обращает матрицу n x n, хранящуюся построчно в {@code a} начиная с {@code offset}
+     * с шагом строки {@code stride}.
+     * @throws MatrixOperationException если матрица вырождена.
+     */
+    static void invertInPlace(float[] a, int offset, int stride, int n) throws MatrixOperationException {
+        int[] pivots = new int[n];
+        float[] scratch = new float[PANEL * n];
+        for (int k0 = 0; k0 < n; k0 += PANEL) {
+            int k1 = Math.min(k0 + PANEL, n);
+            factorPanel(a, offset, stride, n, k0, k1, pivots);
+            updateTrailing(a, offset, stride, n, k0, k1, scratch);
+        }
+        unpermuteColumns(a, offset, stride, n, pivots);
+    }
+
+    // Шаги Гаусса-Жордана для столбцов панели [k0, k1); перестановки строк — по всей ширине
+    private static void factorPanel(float[] a, int offset, int stride, int n, int k0, int k1, int[] pivots)
+            throws MatrixOperationException {
+        int width = k1 - k0;
+        for (int k = k0; k < k1; k++) {
+            int maxRow = k;
+            float maxAbs = Math.abs(a[offset + k * stride + k]);
+            for (int i = k + 1; i < n; i++) {
+                float v = Math.abs(a[offset + i * stride + k]);
+                if (v > maxAbs) {
+                    maxAbs = v;
+                    maxRow = i;
+                }
+            }
+            if (maxAbs < FloatMatrix.SINGULARITY_THRESHOLD) {
+                throw new MatrixOperationException(LUDecomposition.SINGULAR_INVERSE_MESSAGE);
+            }
+            pivots[k] = maxRow;
+            if (maxRow != k) {
+                int r1 = offset + k * stride;
+                int r2 = offset + maxRow * stride;
+                for (int j = 0; j < n; j++) {
+                    float t = a[r1 + j];
+                    a[r1 + j] = a[r2 + j];
+                    a[r2 + j] = t;
+                }
+            }
+
+            int pivotRow = offset + k * stride;
+            float inv = 1.0f / a[pivotRow + k];
+            a[pivotRow + k] = 1.0f;
+            for (int j = k0; j < k1; j++) {
+                a[pivotRow + j] *= inv;
+            }
+
+            final int step = k;
+            GaussJordanKernel.forRows(n, width, (from, to) -> {
+                for (int i = from; i < to; i++) {
+                    if (i == step) {
+                        continue;
+                    }
+                    int row = offset + i * stride;
+                    float factor = a[row + step];
+                    if (factor != 0.0f) {
+                        a[row + step] = 0.0f;
+                        for (int j = k0; j < k1; j++) {
+                            a[row + j] -= factor * a[pivotRow + j];
+                        }
+                    }
+                }
+            });
+        }
+    }
+
+    // A[:, остальные] = T * A[:, остальные], где T отличается от единичной только столбцами панели
+    private static void updateTrailing(float[] a, int offset, int stride, int n, int k0, int k1, float[] saved) {
+        int width = k1 - k0;
+        for (int t = 0; t < width; t++) {
+            System.arraycopy(a, offset + (k0 + t) * stride, saved, t * n, n);
+        }
+        GaussJordanKernel.forRows(n, (long) width * n, (from, to) -> {
+            for (int c0 = 0; c0 < n; c0 += COLUMN_BLOCK) {
+                int c1 = Math.min(c0 + COLUMN_BLOCK, n);
+                for (int i = from; i < to; i++) {
+                    int row = offset + i * stride;
+                    boolean pivotRow = i >= k0 && i < k1;
+                    updateRowSegment(a, row, saved, n, k0, k1, c0, Math.min(c1, k0), pivotRow);
+                    updateRowSegment(a, row, saved, n, k0, k1, Math.max(c0, k1), c1, pivotRow);
+                }
+            }
+        });
+    }
+
+    private static void updateRowSegment(float[] a, int row, float[] saved, int n, int k0, int k1,
+                                         int from, int to, boolean pivotRow) {
+        if (from >= to) {
+            return;
+        }
+        if (pivotRow) {
+            for (int j = from; j < to; j++) {
+                a[row + j] = 0.0f;
+            }
+        }
+        int width = k1 - k0;
+        int t = 0;
+        // По четыре строки сохранённого блока за проход: строка приёмника читается и пишется в 4 раза реже
+        for (; t + 3 < width; t += 4) {
+            float w0 = a[row + k0 + t];
+            float w1 = a[row + k0 + t + 1];
+            float w2 = a[row + k0 + t + 2];
+            float w3 = a[row + k0 + t + 3];
+            int s0 = t * n;
+            int s1 = s0 + n;
+            int s2 = s1 + n;
+            int s3 = s2 + n;
+            for (int j = from; j < to; j++) {
+                a[row + j] += w0 * saved[s0 + j] + w1 * saved[s1 + j] + w2 * saved[s2 + j] + w3 * saved[s3 + j];
+            }
+        }
+        for (; t < width; t++) {
+            float w = a[row + k0 + t];
+            if (w != 0.0f) {
+                int src = t * n;
+                for (int j = from; j < to; j++) {
+                    a[row + j] += w * saved[src + j];
+                }
+            }
+        }
+    }
+
+    // Перестановки строк исходной матрицы соответствуют перестановкам столбцов обратной (в обратном порядке)
+    private static void unpermuteColumns(float[] a, int offset, int stride, int n, int[] pivots) {
+        GaussJordanKernel.forRows(n, n, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                int row = offset + i * stride;
+                for (int k = n - 1; k >= 0; k--) {
+                    int p = pivots[k];
+                    if (p != k) {
+                        float t = a[row + k];
+                        a[row + k] = a[row + p];
+                        a[row + p] = t;
+                    }
+                }
+            }
+        });
+    }
+}
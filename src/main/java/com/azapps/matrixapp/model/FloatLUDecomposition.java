@@ -0,0 +1,221 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * LU-разложение с частичным выбором ведущего элемента в одинарной точности: P * A = L * U.
+ * <p>
+ * Та же схема хранения, что и в {@link LUDecomposition}: множители L под диагональю,
+ * U — на диагонали и над ней. Строки ниже ведущей обновляются независимо и при большом
+ * размере распределяются по задачам {@code ForkJoinPool}; внутренний цикл по строке
+ * векторизуется JIT-компилятором с вдвое большим числом дорожек, чем для {@code double}.
+ */
+final class FloatLUDecomposition {
+
+    private final float[] lu;
+    private final int n;
+    private final int[] pivot;
+    private final int pivotSign;
+
+    FloatLUDecomposition(FloatMatrix matrix) {
+        this(matrix.copy().buffer(), matrix.getRows());
+    }
+
+    // Разложение на месте: массив a (n x n, построчно) становится хранилищем множителей
+    FloatLUDecomposition(float[] a, int n) {
+        this.n = n;
+        this.lu = a;
+        this.pivot = new int[n];
+        this.pivotSign = factor(lu, n, pivot);
+    }
+
+    private static int factor(float[] a, int n, int[] pivot) {
+        int sign = 1;
+        for (int i = 0; i < n; i++) {
+            pivot[i] = i;
+        }
+        for (int k = 0; k < n; k++) {
+            int maxRow = k;
+            float maxAbs = Math.abs(a[k * n + k]);
+            for (int i = k + 1; i < n; i++) {
+                float v = Math.abs(a[i * n + k]);
+                if (v > maxAbs) {
+                    maxAbs = v;
+                    maxRow = i;
+                }
+            }
+            if (maxRow != k) {
+                int o1 = k * n;
+                int o2 = maxRow * n;
+                for (int j = 0; j < n; j++) {
+                    float t = a[o1 + j];
+                    a[o1 + j] = a[o2 + j];
+                    a[o2 + j] = t;
+                }
+                int t = pivot[k];
+                pivot[k] = pivot[maxRow];
+                pivot[maxRow] = t;
+                sign = -sign;
+            }
+
+            float pivotValue = a[k * n + k];
+            if (pivotValue == 0.0f) {
+                continue; // Столбец уже нулевой ниже диагонали — матрица вырождена
+            }
+            int pivotRow = k * n;
+            int step = k;
+            GaussJordanKernel.forRows(n - k - 1, n - k, (from, to) -> {
+                for (int i = step + 1 + from; i < step + 1 + to; i++) {
+                    int row = i * n;
+                    float factor = a[row + step] / pivotValue;
+                    a[row + step] = factor;
+                    if (factor != 0.0f) {
+                        for (int j = step + 1; j < n; j++) {
+                            a[row + j] -= factor * a[pivotRow + j];
+                        }
+                    }
+                }
+            });
+        }
+        return sign;
+    }
+
+    int getSize() {
+        return n;
+    }
+
+    /**
+     * Проверяет, близок ли какой-либо ведущий элемент к нулю (порог {@link FloatMatrix#SINGULARITY_THRESHOLD}).
+     */
+    boolean isSingular() {
+        for (int k = 0; k < n; k++) {
+            if (Math.abs(lu[k * n + k]) < FloatMatrix.SINGULARITY_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Решает A * X = B в одинарной точности. Правые части {@code b} (n x m, построчно, double)
+     * округляются до float; результат пишется в {@code x} (n x m, построчно).
+     * Подстановки идут по строкам L и U, как в {@link LUDecomposition}: одна правая часть —
+     * скалярными произведениями, несколько — блоками строк, группы столбцов параллельно.
+     */
+    void solve(double[] b, int m, float[] x) {
+        for (int i = 0; i < n; i++) {
+            int src = pivot[i] * m;
+            int dst = i * m;
+            for (int j = 0; j < m; j++) {
+                x[dst + j] = (float) b[src + j];
+            }
+        }
+        if (m == 1) {
+            solveVector(x);
+            return;
+        }
+        int groups = (m + MIN_COLUMNS_PER_TASK - 1) / MIN_COLUMNS_PER_TASK;
+        GaussJordanKernel.forRows(groups, (long) n * n * MIN_COLUMNS_PER_TASK, (from, to) -> {
+            int end = Math.min(m, to * MIN_COLUMNS_PER_TASK);
+            for (int j0 = from * MIN_COLUMNS_PER_TASK; j0 < end; j0 += COLUMN_PANEL) {
+                int j1 = Math.min(end, j0 + COLUMN_PANEL);
+                forwardBlocked(x, m, j0, j1);
+                backwardBlocked(x, m, j0, j1);
+            }
+        });
+    }
+
+    // Размеры блоков — как в LUDecomposition; группа столбцов float занимает строку кэша целиком
+    private static final int BLOCK = 64;
+    private static final int MIN_COLUMNS_PER_TASK = 16;
+    private static final int COLUMN_PANEL = 256;
+
+    // L * Y = X для столбцов [j0, j1): строки блока ib сначала получают вклад всех решённых блоков
+    private void forwardBlocked(float[] x, int m, int j0, int j1) {
+        for (int ib = 0; ib < n; ib += BLOCK) {
+            int iEnd = Math.min(n, ib + BLOCK);
+            for (int kb = 0; kb <= ib; kb += BLOCK) {
+                int kEnd = Math.min(n, kb + BLOCK);
+                for (int i = Math.max(ib, kb + 1); i < iEnd; i++) {
+                    int row = i * n;
+                    int dst = i * m;
+                    for (int k = kb; k < Math.min(kEnd, i); k++) {
+                        float factor = lu[row + k];
+                        if (factor != 0.0f) {
+                            int src = k * m;
+                            for (int j = j0; j < j1; j++) {
+                                x[dst + j] -= factor * x[src + j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // U * X = Y для столбцов [j0, j1), блоки строк снизу вверх
+    private void backwardBlocked(float[] x, int m, int j0, int j1) {
+        for (int ibEnd = n; ibEnd > 0; ibEnd -= BLOCK) {
+            int ib = Math.max(0, ibEnd - BLOCK);
+            for (int kb = ibEnd; kb < n; kb += BLOCK) {
+                int kEnd = Math.min(n, kb + BLOCK);
+                for (int i = ib; i < ibEnd; i++) {
+                    int row = i * n;
+                    int dst = i * m;
+                    for (int k = kb; k < kEnd; k++) {
+                        float factor = lu[row + k];
+                        if (factor != 0.0f) {
+                            int src = k * m;
+                            for (int j = j0; j < j1; j++) {
+                                x[dst + j] -= factor * x[src + j];
+                            }
+                        }
+                    }
+                }
+            }
+            for (int i = ibEnd - 1; i >= ib; i--) {
+                int row = i * n;
+                int dst = i * m;
+                for (int k = i + 1; k < ibEnd; k++) {
+                    float factor = lu[row + k];
+                    if (factor != 0.0f) {
+                        int src = k * m;
+                        for (int j = j0; j < j1; j++) {
+                            x[dst + j] -= factor * x[src + j];
+                        }
+                    }
+                }
+                float diag = lu[row + i];
+                for (int j = j0; j < j1; j++) {
+                    x[dst + j] /= diag;
+                }
+            }
+        }
+    }
+
+    // Одна правая часть: скалярные произведения по строкам L и U (непрерывный доступ к разложению)
+    private void solveVector(float[] x) {
+        for (int i = 1; i < n; i++) {
+            int row = i * n;
+            float sum = x[i];
+            for (int k = 0; k < i; k++) {
+                sum -= lu[row + k] * x[k];
+            }
+            x[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int row = i * n;
+            float sum = x[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= lu[row + k] * x[k];
+            }
+            x[i] = sum / lu[row + i];
+        }
+    }
+
+    double getDeterminant() {
+        double det = pivotSign;
+        for (int k = 0; k < n; k++) {
+            det *= lu[k * n + k];
+        }
+        return det;
+    }
+}
@@ -0,0 +1,281 @@
+package com.azapps.matrixapp.model;
+
+import java.util.Arrays;
+
+/**
+ * Плотная матрица одинарной точности ({@code float}) с той же моделью хранения, что и {@link Matrix}:
+ * один непрерывный массив, смещение и шаги строк и столбцов.
+ * <p>
+ * Вдвое меньший объём памяти означает вдвое меньший трафик и вдвое больше дорожек в векторном
+ * регистре, поэтому для задач, которым достаточно точности {@code float} (графика, признаки
+ * для машинного обучения), транспонирование и умножение больших матриц выполняются почти
+ * вдвое быстрее. Транспонирование возвращает представление за O(1), материализация идёт
+ * блочным ядром {@link TransposeKernel}, умножение — ядром {@link FloatGemmKernel},
+ * обращение — методом Гаусса-Жордана на месте ({@link FloatGaussJordanKernel}).
+ * <p>
+ * Преобразование в {@link Matrix} и обратно выполняется явно: {@link #fromMatrix(Matrix)},
+ * {@link #toMatrix()}.
+ */
+public class FloatMatrix {
+
+    /**
+     * Порог вырожденности для одинарной точности: ведущий элемент меньше ~10 машинных
+     * эпсилон {@code float} считается нулём (для {@code double} порог — 1e-10).
+     */
+    static final float SINGULARITY_THRESHOLD = 1e-6f;
+
+    private final float[] data;
+    private final int offset;
+    private final int rowStride;
+    private final int colStride;
+    private final int rows;
+    private final int cols;
+
+    public FloatMatrix(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Размеры матрицы должны быть положительными.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.data = new float[checkedSize(rows, cols)];
+        this.offset = 0;
+        this.rowStride = cols;
+        this.colStride = 1;
+    }
+
+    public FloatMatrix(float[][] data) {
+        if (data == null || data.length == 0 || data[0].length == 0) {
+            throw new IllegalArgumentException("Входные данные для матрицы не могут быть пустыми или null.");
+        }
+        this.rows = data.length;
+        this.cols = data[0].length;
+        this.data = new float[checkedSize(rows, cols)];
+        this.offset = 0;
+        this.rowStride = cols;
+        this.colStride = 1;
+        for (int i = 0; i < rows; i++) {
+            if (data[i].length != cols) {
+                throw new IllegalArgumentException("Все строки матрицы должны иметь одинаковую длину.");
+            }
+            System.arraycopy(data[i], 0, this.data, i * cols, cols);
+        }
+    }
+
+    // Конструктор представления: разделяет буфер, ничего не копирует
+    private FloatMatrix(FloatMatrix source, int offset, int rows, int cols, int rowStride, int colStride) {
+        this.data = source.data;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+    }
+
+    private static int checkedSize(int rows, int cols) {
+        long size = (long) rows * cols;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Матрица слишком велика: " + rows + "x" + cols + " элементов не помещается в один массив.");
+        }
+        return (int) size;
+    }
+
+    /**
+     * Создаёт матрицу одинарной точности из {@link Matrix}, округляя элементы до {@code float}.
+     */
+    public static FloatMatrix fromMatrix(Matrix matrix) {
+        FloatMatrix result = new FloatMatrix(matrix.getRows(), matrix.getCols());
+        double[] src = matrix.buffer();
+        int base = matrix.offset();
+        int rs = matrix.rowStride();
+        int cs = matrix.colStride();
+        for (int i = 0; i < result.rows; i++) {
+            int s = base + i * rs;
+            int d = i * result.cols;
+            for (int j = 0; j < result.cols; j++) {
+                result.data[d + j] = (float) src[s + j * cs];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Создаёт матрицу двойной точности с теми же элементами (без потери точности).
+     */
+    public Matrix toMatrix() {
+        Matrix result = new Matrix(rows, cols);
+        double[] dst = result.buffer();
+        for (int i = 0; i < rows; i++) {
+            int s = offset + i * rowStride;
+            int d = i * cols;
+            for (int j = 0; j < cols; j++) {
+                dst[d + j] = data[s + j * colStride];
+            }
+        }
+        return result;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public float getElement(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+        }
+        return data[offset + row * rowStride + col * colStride];
+    }
+
+    public void setElement(int row, int col, float value) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+        }
+        data[offset + row * rowStride + col * colStride] = value;
+    }
+
+    public float[][] getData() {
+        float[][] copy = new float[rows][cols];
+        for (int i = 0; i < rows; i++) {
+            copyRow(i, copy[i], 0);
+        }
+        return copy;
+    }
+
+    void copyRow(int row, float[] dest, int destOffset) {
+        int base = offset + row * rowStride;
+        if (colStride == 1) {
+            System.arraycopy(data, base, dest, destOffset, cols);
+        } else {
+            for (int j = 0; j < cols; j++) {
+                dest[destOffset + j] = data[base + j * colStride];
+            }
+        }
+    }
+
+    // --- Доступ к внутреннему представлению для ядер пакета model ---
+
+    float[] buffer() {
+        return data;
+    }
+
+    int offset() {
+        return offset;
+    }
+
+    int rowStride() {
+        return rowStride;
+    }
+
+    int colStride() {
+        return colStride;
+    }
+
+    boolean isContiguous() {
+        return colStride == 1 && (rowStride == cols || rows == 1);
+    }
+
+    /**
+     * Создаёт независимую копию матрицы с непрерывным построчным хранением.
+     */
+    public FloatMatrix copy() {
+        FloatMatrix result = new FloatMatrix(rows, cols);
+        if (isContiguous()) {
+            System.arraycopy(data, offset, result.data, 0, rows * cols);
+        } else if (rowStride == 1 && rows > 1) {
+            // Представление транспонированной матрицы: материализуем блочным ядром
+            TransposeKernel.transpose(transpose(), result);
+        } else {
+            for (int i = 0; i < rows; i++) {
+                copyRow(i, result.data, i * cols);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Транспонирует матрицу за O(1): результат — представление, разделяющее буфер с текущей.
+     * Для независимой копии используйте {@code transpose().copy()}.
+     */
+    public FloatMatrix transpose() {
+        return new FloatMatrix(this, offset, cols, rows, colStride, rowStride);
+    }
+
+    /**
+     * Умножает текущую матрицу на {@code other} блочным векторным ядром.
+     * @return Новая матрица this * other.
+     * @throws MatrixOperationException если размеры матриц не согласованы.
+     */
+    public FloatMatrix multiply(FloatMatrix other) throws MatrixOperationException {
+        if (cols != other.rows) {
+            throw new MatrixOperationException("Число столбцов первой матрицы должно совпадать с числом строк второй.");
+        }
+        FloatMatrix result = new FloatMatrix(rows, other.cols);
+        FloatGemmKernel.multiplyAdd(this, other, result);
+        return result;
+    }
+
+    /**
+     * @return Новая матрица, обратная к текущей.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public FloatMatrix inverse() throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        FloatMatrix result = copy();
+        result.invertInPlace();
+        return result;
+    }
+
+    /**
+     * Заменяет текущую матрицу её обратной методом Гаусса-Жордана на месте.
+     * Если матрица оказалась вырожденной, её содержимое после исключения не определено.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public void invertInPlace() throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        int n = rows;
+        if (colStride == 1) {
+            FloatGaussJordanKernel.invertInPlace(data, offset, rowStride, n);
+        } else if (rowStride == 1) {
+            // (B^T)^-1 = (B^-1)^T: обращаем лежащий в основе буфер
+            FloatGaussJordanKernel.invertInPlace(data, offset, colStride, n);
+        } else {
+            FloatMatrix work = copy();
+            work.invertInPlace();
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    data[offset + i * rowStride + j * colStride] = work.data[i * n + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Вычисляет определитель LU-разложением в одинарной точности.
+     * Произведение диагонали накапливается в {@code double}, чтобы не переполниться раньше времени.
+     * @throws MatrixOperationException если матрица не квадратная.
+     */
+    public double determinant() throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Определитель можно вычислить только для квадратной матрицы.");
+        }
+        return new FloatLUDecomposition(this).getDeterminant();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        float[] rowBuffer = new float[cols];
+        for (int i = 0; i < rows; i++) {
+            copyRow(i, rowBuffer, 0);
+            sb.append(Arrays.toString(rowBuffer)).append("\n");
+        }
+        return sb.toString();
+    }
+}
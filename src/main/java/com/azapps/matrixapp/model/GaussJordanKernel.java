@@ -0,0 +1,251 @@
+package com.azapps.matrixapp.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Обращение квадратной матрицы методом Гаусса-Жордана на месте.
+ * <p>
+ * Вместо расширенной матрицы [A | I] размера n x 2n используется одна рабочая
+ * матрица n x n: после исключения по столбцу k он заменяется соответствующим столбцом
+ * обратной матрицы, а перестановки строк запоминаются в векторе ведущих элементов
+ * и в конце применяются к столбцам.
+ * <p>
+ * Исключение выполняется панелями по {@link #PANEL} столбцов: шаги панели применяются
+ * только к её столбцам, после чего накопленное преобразование применяется к остальным
+ * столбцам одним блочным обновлением ранга {@code PANEL}. Строки обновляются независимо,
+ * поэтому обе фазы распределяются по задачам {@link ForkJoinPool}.
+ */
+final class GaussJordanKernel {
+
+    static final int PANEL = 32;
+    // Ширина блока столбцов при обновлении: PANEL строк сохранённого блока помещаются в L1
+    private static final int COLUMN_BLOCK = 64;
+    // Минимальный объём работы (в умножениях) на одну задачу
+    private static final long MIN_TASK_WORK = 1 << 15;
+
+    private GaussJordanKernel() {
+    }
+
+    /**
+     * Обращает матрицу n x n, хранящуюся построчно в {@code a} начиная с {@code offset}
+     * с шагом строки {@code stride}. При исключении результат частично изменён.
+     * @param pivots Массив длины не меньше n для перестановок строк.
+     * @param scratch Рабочий массив длины не меньше {@code PANEL * n}.
+     * @param monitor Получает прогресс (в столбцах) и проверяется на отмену после каждой панели.
+     * @throws MatrixOperationException если матрица вырождена.
+     * @throws java.util.concurrent.CancellationException если монитор запросил отмену.
+     */
+    static void invertInPlace(double[] a, int offset, int stride, int n, int[] pivots, double[] scratch,
+                              ProgressMonitor monitor) throws MatrixOperationException {
+        monitor.checkpoint(0, n);
+        for (int k0 = 0; k0 < n; k0 += PANEL) {
+            int k1 = Math.min(k0 + PANEL, n);
+            factorPanel(a, offset, stride, n, k0, k1, pivots);
+            updateTrailing(a, offset, stride, n, k0, k1, scratch);
+            monitor.checkpoint(k1, n);
+        }
+        unpermuteColumns(a, offset, stride, n, pivots);
+    }
+
+    // Шаги Гаусса-Жордана для столбцов панели [k0, k1); перестановки строк — по всей ширине
+    private static void factorPanel(double[] a, int offset, int stride, int n, int k0, int k1, int[] pivots)
+            throws MatrixOperationException {
+        int width = k1 - k0;
+        for (int k = k0; k < k1; k++) {
+            int maxRow = k;
+            double maxAbs = Math.abs(a[offset + k * stride + k]);
+            for (int i = k + 1; i < n; i++) {
+                double v = Math.abs(a[offset + i * stride + k]);
+                if (v > maxAbs) {
+                    maxAbs = v;
+                    maxRow = i;
+                }
+            }
+            if (maxAbs < LUDecomposition.SINGULARITY_THRESHOLD) {
+                throw new MatrixOperationException(LUDecomposition.SINGULAR_INVERSE_MESSAGE);
+            }
+            pivots[k] = maxRow;
+            if (maxRow != k) {
+                int r1 = offset + k * stride;
+                int r2 = offset + maxRow * stride;
+                for (int j = 0; j < n; j++) {
+                    double t = a[r1 + j];
+                    a[r1 + j] = a[r2 + j];
+                    a[r2 + j] = t;
+                }
+            }
+
+            int pivotRow = offset + k * stride;
+            double inv = 1.0 / a[pivotRow + k];
+            a[pivotRow + k] = 1.0;
+            for (int j = k0; j < k1; j++) {
+                a[pivotRow + j] *= inv;
+            }
+
+            if (isSerial(n, width)) {
+                eliminateRows(a, offset, stride, k0, k1, k, 0, n);
+            } else {
+                final int step = k;
+                forRows(n, width, (from, to) -> eliminateRows(a, offset, stride, k0, k1, step, from, to));
+            }
+        }
+    }
+
+    private static void eliminateRows(double[] a, int offset, int stride, int k0, int k1, int step, int from, int to) {
+        int pivotRow = offset + step * stride;
+        for (int i = from; i < to; i++) {
+            if (i == step) {
+                continue;
+            }
+            int row = offset + i * stride;
+            double factor = a[row + step];
+            if (factor != 0.0) {
+                a[row + step] = 0.0;
+                for (int j = k0; j < k1; j++) {
+                    a[row + j] -= factor * a[pivotRow + j];
+                }
+            }
+        }
+    }
+
+    // A[:, остальные] = T * A[:, остальные], где T отличается от единичной только столбцами панели
+    private static void updateTrailing(double[] a, int offset, int stride, int n, int k0, int k1, double[] saved) {
+        int width = k1 - k0;
+        for (int t = 0; t < width; t++) {
+            System.arraycopy(a, offset + (k0 + t) * stride, saved, t * n, n);
+        }
+        long workPerRow = (long) width * n;
+        if (isSerial(n, workPerRow)) {
+            updateRows(a, offset, stride, n, k0, k1, saved, 0, n);
+        } else {
+            forRows(n, workPerRow, (from, to) -> updateRows(a, offset, stride, n, k0, k1, saved, from, to));
+        }
+    }
+
+    private static void updateRows(double[] a, int offset, int stride, int n, int k0, int k1, double[] saved,
+                                   int from, int to) {
+        for (int c0 = 0; c0 < n; c0 += COLUMN_BLOCK) {
+            int c1 = Math.min(c0 + COLUMN_BLOCK, n);
+            for (int i = from; i < to; i++) {
+                int row = offset + i * stride;
+                boolean pivotRow = i >= k0 && i < k1;
+                updateRowSegment(a, row, saved, n, k0, k1, c0, Math.min(c1, k0), pivotRow);
+                updateRowSegment(a, row, saved, n, k0, k1, Math.max(c0, k1), c1, pivotRow);
+            }
+        }
+    }
+
+    private static void updateRowSegment(double[] a, int row, double[] saved, int n, int k0, int k1,
+                                         int from, int to, boolean pivotRow) {
+        if (from >= to) {
+            return;
+        }
+        if (pivotRow) {
+            for (int j = from; j < to; j++) {
+                a[row + j] = 0.0;
+            }
+        }
+        int width = k1 - k0;
+        int t = 0;
+        // По четыре строки сохранённого блока за проход: строка приёмника читается и пишется в 4 раза реже
+        for (; t + 3 < width; t += 4) {
+            double w0 = a[row + k0 + t];
+            double w1 = a[row + k0 + t + 1];
+            double w2 = a[row + k0 + t + 2];
+            double w3 = a[row + k0 + t + 3];
+            int s0 = t * n;
+            int s1 = s0 + n;
+            int s2 = s1 + n;
+            int s3 = s2 + n;
+            for (int j = from; j < to; j++) {
+                a[row + j] += w0 * saved[s0 + j] + w1 * saved[s1 + j] + w2 * saved[s2 + j] + w3 * saved[s3 + j];
+            }
+        }
+        for (; t < width; t++) {
+            double w = a[row + k0 + t];
+            if (w != 0.0) {
+                int src = t * n;
+                for (int j = from; j < to; j++) {
+                    a[row + j] += w * saved[src + j];
+                }
+            }
+        }
+    }
+
+    // Перестановки строк исходной матрицы соответствуют перестановкам столбцов обратной (в обратном порядке)
+    private static void unpermuteColumns(double[] a, int offset, int stride, int n, int[] pivots) {
+        if (isSerial(n, n)) {
+            unpermuteRows(a, offset, stride, n, pivots, 0, n);
+        } else {
+            forRows(n, n, (from, to) -> unpermuteRows(a, offset, stride, n, pivots, from, to));
+        }
+    }
+
+    private static void unpermuteRows(double[] a, int offset, int stride, int n, int[] pivots, int from, int to) {
+        for (int i = from; i < to; i++) {
+            int row = offset + i * stride;
+            for (int k = n - 1; k >= 0; k--) {
+                int p = pivots[k];
+                if (p != k) {
+                    double t = a[row + k];
+                    a[row + k] = a[row + p];
+                    a[row + p] = t;
+                }
+            }
+        }
+    }
+
+    interface RowRangeAction {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Выполняет действие над строками [0, n), распределяя их по задачам ForkJoin,
+     * если суммарная работа достаточно велика.
+     */
+    static void forRows(int n, long workPerRow, RowRangeAction action) {
+        if (isSerial(n, workPerRow)) {
+            action.apply(0, n);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RowRangeTask(action, 0, n, (int) rowsPerTask(workPerRow)));
+    }
+
+    /**
+     * Выполнит ли {@link #forRows} действие в вызывающем потоке одним вызовом. Горячие циклы
+     * проверяют это заранее и вызывают тело напрямую, не создавая лямбду с захватом: так
+     * последовательный путь не порождает мусора.
+     */
+    static boolean isSerial(int n, long workPerRow) {
+        return rowsPerTask(workPerRow) >= n || ForkJoinPool.getCommonPoolParallelism() <= 1;
+    }
+
+    private static long rowsPerTask(long workPerRow) {
+        return Math.max(1, MIN_TASK_WORK / Math.max(1, workPerRow));
+    }
+
+    private static final class RowRangeTask extends RecursiveAction {
+        private final RowRangeAction action;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        RowRangeTask(RowRangeAction action, int from, int to, int grain) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                action.apply(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RowRangeTask(action, from, mid, grain), new RowRangeTask(action, mid, to, grain));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.azapps.matrixapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Блочное умножение матриц C += A * B (GEMM).
+ * <p>
+ * Схема с упаковкой: панель B размера KC x NC упаковывается полосами шириной {@code NR}
+ * столбцов, блок A размера MC x KC — полосами высотой {@link #MR} строк. Микроядро
+ * держит блок C размера MR x NR в регистрах и на каждом шаге k выполняет MR * NR
+ * умножений-сложений (FMA) через {@code jdk.incubator.vector}. Блоки строк C
+ * обрабатываются параллельно задачами {@link ForkJoinPool}.
+ * <p>
+ * Если модуль {@code jdk.incubator.vector} не загружен (например, при запуске из classpath
+ * без {@code --add-modules}) или векторизация отключена свойством {@code matrixapp.gemm.scalar=true},
+ * используется скалярное микроядро с той же упаковкой.
+ */
+final class GemmKernel {
+
+    static final boolean VECTOR_ENABLED = !Boolean.getBoolean("matrixapp.gemm.scalar")
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorGemmKernel.lanes() >= 2;
+
+    static final int MR = VectorGemmKernel.MR;
+    private static final int NR = VECTOR_ENABLED ? VectorGemmKernel.nr() : 8;
+    private static final int KC = 256;
+    private static final int NC = 2048;
+    private static final int MC = 64;
+
+    // Ниже этого объёма (m * n * k) упаковка не окупается
+    private static final long SMALL_WORK = 32L * 32 * 32;
+
+    private GemmKernel() {
+    }
+
+    /**
+     * Вычисляет C += A * B. Размеры должны быть согласованы вызывающим кодом.
+     * Матрицы могут быть произвольными представлениями (в том числе транспонированными).
+     */
+    static void multiplyAdd(Matrix a, Matrix b, Matrix c) {
+        int m = a.getRows();
+        int k = a.getCols();
+        int n = b.getCols();
+        if ((long) m * n * k <= SMALL_WORK) {
+            multiplyAddSmall(a, b, c, m, n, k);
+            return;
+        }
+        if (c.colStride() != 1) {
+            // Микроядро пишет в C векторами по строкам; для прочих представлений считаем во временную матрицу
+            Matrix tmp = new Matrix(m, n);
+            multiplyAdd(a, b, tmp);
+            double[] t = tmp.buffer();
+            double[] cd = c.buffer();
+            for (int i = 0; i < m; i++) {
+                for (int j = 0; j < n; j++) {
+                    cd[c.offset() + i * c.rowStride() + j * c.colStride()] += t[i * n + j];
+                }
+            }
+            return;
+        }
+
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        // Блок строк уменьшается, если иначе задач будет меньше, чем потоков
+        int mc = MC;
+        while (mc > MR && (m + mc - 1) / mc < 2 * parallelism) {
+            mc -= MR;
+        }
+
+        for (int jc = 0; jc < n; jc += NC) {
+            int nc = Math.min(NC, n - jc);
+            int panels = (nc + NR - 1) / NR;
+            double[] packedB = new double[KC * panels * NR];
+            for (int pc = 0; pc < k; pc += KC) {
+                int kc = Math.min(KC, k - pc);
+                packB(b, pc, kc, jc, nc, packedB);
+                List<ForkJoinTask<?>> tasks = new ArrayList<>();
+                for (int ic = 0; ic < m; ic += mc) {
+                    tasks.add(new BlockTask(a, c, packedB, ic, Math.min(mc, m - ic), pc, kc, jc, nc));
+                }
+                if (tasks.size() == 1 || parallelism <= 1) {
+                    for (ForkJoinTask<?> task : tasks) {
+                        task.invoke();
+                    }
+                } else {
+                    ForkJoinTask.invokeAll(tasks);
+                }
+            }
+        }
+    }
+
+    // Простой цикл i-k-j для маленьких матриц
+    private static void multiplyAddSmall(Matrix a, Matrix b, Matrix c, int m, int n, int k) {
+        double[] ad = a.buffer();
+        double[] bd = b.buffer();
+        double[] cd = c.buffer();
+        for (int i = 0; i < m; i++) {
+            int aRow = a.offset() + i * a.rowStride();
+            int cRow = c.offset() + i * c.rowStride();
+            for (int p = 0; p < k; p++) {
+                double aip = ad[aRow + p * a.colStride()];
+                if (aip == 0.0) {
+                    continue;
+                }
+                int bRow = b.offset() + p * b.rowStride();
+                for (int j = 0; j < n; j++) {
+                    cd[cRow + j * c.colStride()] += aip * bd[bRow + j * b.colStride()];
+                }
+            }
+        }
+    }
+
+    // B[pc:pc+kc, jc:jc+nc] -> полосы по NR столбцов, строка полосы непрерывна; хвост дополняется нулями
+    private static void packB(Matrix b, int pc, int kc, int jc, int nc, double[] packed) {
+        double[] bd = b.buffer();
+        int rs = b.rowStride();
+        int cs = b.colStride();
+        int base = b.offset();
+        for (int jr = 0, panel = 0; jr < nc; jr += NR, panel++) {
+            int width = Math.min(NR, nc - jr);
+            int dst = panel * kc * NR;
+            for (int p = 0; p < kc; p++) {
+                int src = base + (pc + p) * rs + (jc + jr) * cs;
+                int row = dst + p * NR;
+                if (cs == 1) {
+                    System.arraycopy(bd, src, packed, row, width);
+                } else {
+                    for (int v = 0; v < width; v++) {
+                        packed[row + v] = bd[src + v * cs];
+                    }
+                }
+                for (int v = width; v < NR; v++) {
+                    packed[row + v] = 0.0;
+                }
+            }
+        }
+    }
+
+    // A[ic:ic+mc, pc:pc+kc] -> полосы по MR строк, для каждого k подряд MR значений; хвост — нули
+    private static void packA(Matrix a, int ic, int mc, int pc, int kc, double[] packed) {
+        double[] ad = a.buffer();
+        int rs = a.rowStride();
+        int cs = a.colStride();
+        int base = a.offset();
+        for (int ir = 0, panel = 0; ir < mc; ir += MR, panel++) {
+            int height = Math.min(MR, mc - ir);
+            int dst = panel * kc * MR;
+            for (int r = 0; r < MR; r++) {
+                if (r < height) {
+                    int src = base + (ic + ir + r) * rs + pc * cs;
+                    for (int p = 0; p < kc; p++) {
+                        packed[dst + p * MR + r] = ad[src + p * cs];
+                    }
+                } else {
+                    for (int p = 0; p < kc; p++) {
+                        packed[dst + p * MR + r] = 0.0;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class BlockTask extends RecursiveAction {
+        private final Matrix a;
+        private final Matrix c;
+        private final double[] packedB;
+        private final int ic;
+        private final int mc;
+        private final int pc;
+        private final int kc;
+        private final int jc;
+        private final int nc;
+
+        BlockTask(Matrix a, Matrix c, double[] packedB, int ic, int mc, int pc, int kc, int jc, int nc) {
+            this.a = a;
+            this.c = c;
+            this.packedB = packedB;
+            this.ic = ic;
+            this.mc = mc;
+            this.pc = pc;
+            this.kc = kc;
+            this.jc = jc;
+            this.nc = nc;
+        }
+
+        @Override
+        protected void compute() {
+            double[] packedA = new double[((mc + MR - 1) / MR) * MR * kc];
+            packA(a, ic, mc, pc, kc, packedA);
+            double[] edge = new double[MR * NR];
+            double[] cd = c.buffer();
+            int cRowStride = c.rowStride();
+            for (int jr = 0, bPanel = 0; jr < nc; jr += NR, bPanel++) {
+                int width = Math.min(NR, nc - jr);
+                int bOff = bPanel * kc * NR;
+                for (int ir = 0, aPanel = 0; ir < mc; ir += MR, aPanel++) {
+                    int height = Math.min(MR, mc - ir);
+                    int aOff = aPanel * kc * MR;
+                    int cOff = c.offset() + (ic + ir) * cRowStride + jc + jr;
+                    if (width == NR && height == MR) {
+                        if (VECTOR_ENABLED) {
+                            VectorGemmKernel.kernel(packedA, aOff, packedB, bOff, kc, cd, cOff, cRowStride);
+                        } else {
+                            scalarKernel(packedA, aOff, packedB, bOff, kc, cd, cOff, cRowStride, edge);
+                        }
+                    } else {
+                        // Краевой блок: считаем полный MR x NR во временный буфер и добавляем нужную часть
+                        java.util.Arrays.fill(edge, 0.0);
+                        if (VECTOR_ENABLED) {
+                            VectorGemmKernel.kernel(packedA, aOff, packedB, bOff, kc, edge, 0, NR);
+                        } else {
+                            scalarKernel(packedA, aOff, packedB, bOff, kc, edge, 0, NR, null);
+                        }
+                        for (int r = 0; r < height; r++) {
+                            for (int v = 0; v < width; v++) {
+                                cd[cOff + r * cRowStride + v] += edge[r * NR + v];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void scalarKernel(double[] a, int aOff, double[] b, int bOff, int kc,
+                                     double[] c, int cOff, int cRowStride, double[] acc) {
+        if (acc == null) {
+            acc = new double[MR * NR];
+        } else {
+            java.util.Arrays.fill(acc, 0.0);
+        }
+        for (int p = 0; p < kc; p++) {
+            int bp = bOff + p * NR;
+            int ap = aOff + p * MR;
+            for (int r = 0; r < MR; r++) {
+                double ar = a[ap + r];
+                int row = r * NR;
+                for (int v = 0; v < NR; v++) {
+                    acc[row + v] += ar * b[bp + v];
+                }
+            }
+        }
+        for (int r = 0; r < MR; r++) {
+            int row = cOff + r * cRowStride;
+            for (int v = 0; v < NR; v++) {
+                c[row + v] += acc[r * NR + v];
+            }
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * LU-разложение квадратной матрицы с частичным выбором ведущего элемента: P * A = L * U.
+ * <p>
+ * Разложение выполняется за O(n^3) на рабочей копии исходной матрицы: множители L
+ * (с единичной диагональю) хранятся под диагональю, а U — на диагонали и над ней.
+ * Объект неизменяем и может многократно использоваться для вычисления определителя,
+ * решения систем и построения обратной матрицы.
+ */
+public class LUDecomposition {
+
+    /**
+     * Порог вырожденности для {@code double}: ведущий элемент меньше порога считается нулём.
+     * Общий для всех путей обращения, включая распределённый, чтобы они одинаково решали,
+     * что матрица вырождена.
+     */
+    public static final double SINGULARITY_THRESHOLD = 1e-10;
+
+    /** Сообщение об ошибке обращения вырожденной матрицы. */
+    public static final String SINGULAR_INVERSE_MESSAGE = "Матрица вырождена (определитель равен нулю), обратной матрицы не существует.";
+
+    private final double[] lu;
+    private final int n;
+    private final int[] pivot;
+    private final int pivotSign;
+
+    /**
+     * Выполняет разложение матрицы. Исходная матрица не изменяется.
+     * @param matrix Квадратная матрица.
+     * @throws MatrixOperationException если матрица не квадратная.
+     */
+    public LUDecomposition(Matrix matrix) throws MatrixOperationException {
+        if (matrix.getRows() != matrix.getCols()) {
+            throw new MatrixOperationException("LU-разложение возможно только для квадратной матрицы.");
+        }
+        this.n = matrix.getRows();
+        this.lu = matrix.copy().buffer();
+        this.pivot = new int[n];
+        this.pivotSign = factor(lu, n, pivot);
+    }
+
+    /**
+     * Определитель матрицы n x n, хранящейся построчно в {@code a}; разложение выполняется
+     * на месте и портит содержимое {@code a}. Не выделяет память.
+     * @param pivot Массив длины не меньше n для перестановок строк.
+     */
+    static double determinantInPlace(double[] a, int n, int[] pivot) {
+        double det = factor(a, n, pivot);
+        for (int k = 0; k < n; k++) {
+            det *= a[k * n + k];
+        }
+        return det;
+    }
+
+    // Разложение на месте; возвращает знак перестановки
+    private static int factor(double[] a, int n, int[] pivot) {
+        int sign = 1;
+        for (int i = 0; i < n; i++) {
+            pivot[i] = i;
+        }
+        for (int k = 0; k < n; k++) {
+            // Поиск ведущего элемента (максимального по модулю в текущем столбце)
+            int maxRow = k;
+            double maxAbs = Math.abs(a[k * n + k]);
+            for (int i = k + 1; i < n; i++) {
+                double v = Math.abs(a[i * n + k]);
+                if (v > maxAbs) {
+                    maxAbs = v;
+                    maxRow = i;
+                }
+            }
+
+            if (maxRow != k) {
+                swapRows(a, n, k, maxRow);
+                int t = pivot[k];
+                pivot[k] = pivot[maxRow];
+                pivot[maxRow] = t;
+                sign = -sign;
+            }
+
+            double pivotValue = a[k * n + k];
+            if (pivotValue == 0.0) {
+                continue; // Столбец уже нулевой ниже диагонали — матрица вырождена
+            }
+
+            int pivotRow = k * n;
+            for (int i = k + 1; i < n; i++) {
+                int row = i * n;
+                double factor = a[row + k] / pivotValue;
+                a[row + k] = factor;
+                if (factor != 0.0) {
+                    for (int j = k + 1; j < n; j++) {
+                        a[row + j] -= factor * a[pivotRow + j];
+                    }
+                }
+            }
+        }
+        return sign;
+    }
+
+    private static void swapRows(double[] a, int width, int r1, int r2) {
+        int o1 = r1 * width;
+        int o2 = r2 * width;
+        for (int j = 0; j < width; j++) {
+            double t = a[o1 + j];
+            a[o1 + j] = a[o2 + j];
+            a[o2 + j] = t;
+        }
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    /**
+     * Возвращает вектор перестановки строк: строка i матрицы P * A — это строка pivot[i] матрицы A.
+     * @return Копия вектора перестановки.
+     */
+    public int[] getPivot() {
+        return pivot.clone();
+    }
+
+    /**
+     * Проверяет, является ли матрица вырожденной (какой-либо ведущий элемент близок к нулю).
+     */
+    public boolean isSingular() {
+        for (int k = 0; k < n; k++) {
+            if (Math.abs(lu[k * n + k]) < SINGULARITY_THRESHOLD) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Вычисляет определитель как произведение диагонали U с учётом знака перестановки.
+     * Для больших матриц результат может переполниться — используйте
+     * {@link #getDeterminantSign()} и {@link #getLogAbsDeterminant()}.
+     * @return Определитель исходной матрицы.
+     */
+    public double getDeterminant() {
+        double det = pivotSign;
+        for (int k = 0; k < n; k++) {
+            det *= lu[k * n + k];
+        }
+        return det;
+    }
+
+    /**
+     * Возвращает знак определителя: -1, 0 или 1.
+     */
+    public int getDeterminantSign() {
+        int sign = pivotSign;
+        for (int k = 0; k < n; k++) {
+            double d = lu[k * n + k];
+            if (d == 0.0) {
+                return 0;
+            }
+            if (d < 0) {
+                sign = -sign;
+            }
+        }
+        return sign;
+    }
+
+    /**
+     * Возвращает натуральный логарифм модуля определителя.
+     * Вычисляется суммой логарифмов, поэтому не переполняется даже для больших матриц.
+     * @return ln|det(A)|, либо {@code Double.NEGATIVE_INFINITY} для вырожденной матрицы.
+     */
+    public double getLogAbsDeterminant() {
+        double sum = 0.0;
+        for (int k = 0; k < n; k++) {
+            sum += Math.log(Math.abs(lu[k * n + k]));
+        }
+        return sum;
+    }
+
+    /**
+     * Возвращает нижнетреугольный множитель L (с единичной диагональю).
+     */
+    public Matrix getL() {
+        Matrix l = new Matrix(n, n);
+        double[] dst = l.buffer();
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(lu, i * n, dst, i * n, i);
+            dst[i * n + i] = 1.0;
+        }
+        return l;
+    }
+
+    /**
+     * Возвращает верхнетреугольный множитель U.
+     */
+    public Matrix getU() {
+        Matrix u = new Matrix(n, n);
+        double[] dst = u.buffer();
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(lu, i * n + i, dst, i * n + i, n - i);
+        }
+        return u;
+    }
+
+    /**
+     * Решает систему A * X = B прямой и обратной подстановкой.
+     * @param b Матрица правых частей (n x m), каждый столбец — отдельная правая часть.
+     * @return Решение X размера n x m.
+     * @throws MatrixOperationException если размеры не согласованы или матрица вырождена.
+     */
+    public Matrix solve(Matrix b) throws MatrixOperationException {
+        if (b.getRows() != n) {
+            throw new MatrixOperationException("Число строк правой части должно совпадать с размером матрицы.");
+        }
+        if (isSingular()) {
+            throw new MatrixOperationException("Матрица вырождена (определитель равен нулю), система не имеет единственного решения.");
+        }
+        int m = b.getCols();
+        Matrix x = new Matrix(n, m);
+        double[] xd = x.buffer();
+        // Перестановка строк правой части: X = P * B
+        for (int i = 0; i < n; i++) {
+            b.copyRow(pivot[i], xd, i * m);
+        }
+        solveInPlace(xd, m);
+        return x;
+    }
+
+    /**
+     * Строит обратную матрицу, решая систему A * X = I.
+     * @return Обратная матрица.
+     * @throws MatrixOperationException если матрица вырождена.
+     */
+    public Matrix inverse() throws MatrixOperationException {
+        if (isSingular()) {
+            throw new MatrixOperationException(SINGULAR_INVERSE_MESSAGE);
+        }
+        Matrix x = new Matrix(n, n);
+        double[] xd = x.buffer();
+        for (int i = 0; i < n; i++) {
+            xd[i * n + pivot[i]] = 1.0;
+        }
+        solveInPlace(xd, n);
+        return x;
+    }
+
+    // Размер блока строк треугольных подстановок: блок решённых строк X (BLOCK x ширина панели)
+    // остаётся в кэше, пока его вклад вычитается из всех строк следующего блока
+    private static final int BLOCK = 64;
+    // Столбцы правых частей делятся между задачами группами не уже строки кэша
+    private static final int MIN_COLUMNS_PER_TASK = 8;
+    // Ширина панели столбцов внутри задачи
+    private static final int COLUMN_PANEL = 128;
+
+    // Прямая подстановка по L, затем обратная по U; x — уже переставленная правая часть n x m.
+    // Столбцы правых частей независимы и решаются параллельно группами.
+    private void solveInPlace(double[] x, int m) {
+        if (m == 1) {
+            solveVector(x);
+            return;
+        }
+        int groups = (m + MIN_COLUMNS_PER_TASK - 1) / MIN_COLUMNS_PER_TASK;
+        GaussJordanKernel.forRows(groups, (long) n * n * MIN_COLUMNS_PER_TASK, (from, to) -> {
+            int end = Math.min(m, to * MIN_COLUMNS_PER_TASK);
+            for (int j0 = from * MIN_COLUMNS_PER_TASK; j0 < end; j0 += COLUMN_PANEL) {
+                int j1 = Math.min(end, j0 + COLUMN_PANEL);
+                forwardBlocked(x, m, j0, j1);
+                backwardBlocked(x, m, j0, j1);
+            }
+        });
+    }
+
+    // L * Y = X для столбцов [j0, j1): строки блока ib сначала получают вклад всех решённых блоков
+    private void forwardBlocked(double[] x, int m, int j0, int j1) {
+        for (int ib = 0; ib < n; ib += BLOCK) {
+            int iEnd = Math.min(n, ib + BLOCK);
+            for (int kb = 0; kb <= ib; kb += BLOCK) {
+                int kEnd = Math.min(n, kb + BLOCK);
+                for (int i = Math.max(ib, kb + 1); i < iEnd; i++) {
+                    int row = i * n;
+                    int dst = i * m;
+                    for (int k = kb; k < Math.min(kEnd, i); k++) {
+                        double factor = lu[row + k];
+                        if (factor != 0.0) {
+                            int src = k * m;
+                            for (int j = j0; j < j1; j++) {
+                                x[dst + j] -= factor * x[src + j];
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // U * X = Y для столбцов [j0, j1), блоки строк снизу вверх
+    private void backwardBlocked(double[] x, int m, int j0, int j1) {
+        for (int ibEnd = n; ibEnd > 0; ibEnd -= BLOCK) {
+            int ib = Math.max(0, ibEnd - BLOCK);
+            // Вклад уже решённых блоков ниже текущего
+            for (int kb = ibEnd; kb < n; kb += BLOCK) {
+                int kEnd = Math.min(n, kb + BLOCK);
+                for (int i = ib; i < ibEnd; i++) {
+                    int row = i * n;
+                    int dst = i * m;
+                    for (int k = kb; k < kEnd; k++) {
+                        double factor = lu[row + k];
+                        if (factor != 0.0) {
+                            int src = k * m;
+                            for (int j = j0; j < j1; j++) {
+                                x[dst + j] -= factor * x[src + j];
+                            }
+                        }
+                    }
+                }
+            }
+            // Треугольник на диагонали блока
+            for (int i = ibEnd - 1; i >= ib; i--) {
+                int row = i * n;
+                int dst = i * m;
+                for (int k = i + 1; k < ibEnd; k++) {
+                    double factor = lu[row + k];
+                    if (factor != 0.0) {
+                        int src = k * m;
+                        for (int j = j0; j < j1; j++) {
+                            x[dst + j] -= factor * x[src + j];
+                        }
+                    }
+                }
+                double diag = lu[row + i];
+                for (int j = j0; j < j1; j++) {
+                    x[dst + j] /= diag;
+                }
+            }
+        }
+    }
+
+    // Одна правая часть: скалярные произведения по строкам L и U (непрерывный доступ к разложению)
+    private void solveVector(double[] x) {
+        for (int i = 1; i < n; i++) {
+            int row = i * n;
+            double sum = x[i];
+            for (int k = 0; k < i; k++) {
+                sum -= lu[row + k] * x[k];
+            }
+            x[i] = sum;
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            int row = i * n;
+            double sum = x[i];
+            for (int k = i + 1; k < n; k++) {
+                sum -= lu[row + k] * x[k];
+            }
+            x[i] = sum / lu[row + i];
+        }
+    }
+}
@@ -1,11 +1,65 @@
 package com.azapps.matrixapp.model;
 
+import com.azapps.matrixapp.metrics.OperationMetrics;
+
 import java.util.Arrays;
+import java.util.Objects;
 
+/**
+ * Плотная матрица, хранящая элементы в одном непрерывном массиве {@code double[]}.
+ * <p>
+ * Положение элемента (i, j) в буфере задаётся смещением и шагами:
+ * {@code offset + i * rowStride + j * colStride}. Благодаря этому транспонирование,
+ * выделение строки, столбца или подматрицы возвращают представления (views),
+ * разделяющие буфер с исходной матрицей, без копирования данных.
+ * Изменения через представление видны в исходной матрице и наоборот.
+ * <p>
+ * LU-разложение, вычисленное для {@link #determinant()} или {@link #lu()},
+ * кэшируется (и переиспользуется {@link #inverse()}) и сбрасывается при любом изменении общего буфера.
+ * Матрицы до 4x4 обращаются и дают определитель по явным формулам, без разложения и без
+ * выделения памяти под промежуточные данные.
+ * <p>
+ * Матрицу можно заморозить ({@link #freeze()}): после этого её содержимое неизменно, и по нему
+ * вычисляется отпечаток ({@link #fingerprint()}), по которому {@link ResultCache} находит
+ * ранее вычисленные результаты для матриц с тем же содержимым.
+ */
 public class Matrix {
-    private final double[][] data;
+    private final double[] data;
+    private final int offset;
+    private final int rowStride;
+    private final int colStride;
     private final int rows;
     private final int cols;
+    // Счётчик изменений, общий для матрицы и всех её представлений
+    private final ModCount modCount;
+
+    private LUDecomposition cachedLU;
+    private int cachedLUVersion;
+    private MatrixStructure cachedStructure;
+    private int cachedStructureVersion;
+    // Вычисляется лениво и только для замороженной матрицы
+    private Fingerprint fingerprint;
+
+    // До этого размера определитель и обратная считаются по явным формулам (SmallMatrixKernel)
+    static final int SMALL_SIZE = 4;
+
+    private static final class ModCount {
+        int value;
+        // Заморожен весь общий буфер: матрица и все её представления
+        boolean frozen;
+    }
+
+    /**
+     * Отпечаток содержимого замороженной матрицы: размеры и 128-битный хэш элементов
+     * в логическом (построчном) порядке. Матрицы с одинаковым содержимым имеют равные
+     * отпечатки независимо от способа хранения (копия, представление, транспонированный буфер).
+     */
+    public record Fingerprint(int rows, int cols, long high, long low) {
+        @Override
+        public String toString() {
+            return rows + "x" + cols + ":" + String.format("%016x%016x", high, low);
+        }
+    }
 
     public Matrix(int rows, int cols) {
         if (rows <= 0 || cols <= 0) {
@@ -13,7 +67,11 @@ public class Matrix {
         }
         this.rows = rows;
         this.cols = cols;
-        this.data = new double[rows][cols];
+        this.data = new double[checkedSize(rows, cols)];
+        this.offset = 0;
+        this.rowStride = cols;
+        this.colStride = 1;
+        this.modCount = new ModCount();
     }
 
     public Matrix(double[][] data) {
@@ -22,15 +80,38 @@ public class Matrix {
         }
         this.rows = data.length;
         this.cols = data[0].length;
-        this.data = new double[rows][cols];
+        this.data = new double[checkedSize(rows, cols)];
+        this.offset = 0;
+        this.rowStride = cols;
+        this.colStride = 1;
+        this.modCount = new ModCount();
         for (int i = 0; i < rows; i++) {
             if (data[i].length != cols) {
                 throw new IllegalArgumentException("Все строки матрицы должны иметь одинаковую длину.");
             }
-            System.arraycopy(data[i], 0, this.data[i], 0, cols);
+            System.arraycopy(data[i], 0, this.data, i * cols, cols);
         }
     }
 
+    // Конструктор представления: разделяет буфер, ничего не копирует
+    private Matrix(Matrix source, int offset, int rows, int cols, int rowStride, int colStride) {
+        this.data = source.data;
+        this.modCount = source.modCount;
+        this.offset = offset;
+        this.rows = rows;
+        this.cols = cols;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+    }
+
+    private static int checkedSize(int rows, int cols) {
+        long size = (long) rows * cols;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Матрица слишком велика: " + rows + "x" + cols + " элементов не помещается в один массив.");
+        }
+        return (int) size;
+    }
+
     public int getRows() {
         return rows;
     }
@@ -43,172 +124,939 @@ public class Matrix {
         if (row < 0 || row >= rows || col < 0 || col >= cols) {
             throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
         }
-        return data[row][col];
+        return data[offset + row * rowStride + col * colStride];
     }
 
     public void setElement(int row, int col, double value) {
         if (row < 0 || row >= rows || col < 0 || col >= cols) {
             throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
         }
-        data[row][col] = value;
+        checkMutable();
+        data[offset + row * rowStride + col * colStride] = value;
+        modCount.value++;
     }
 
     public double[][] getData() {
         // Возвращаем копию, чтобы предотвратить внешнее изменение внутреннего состояния
         double[][] copy = new double[rows][cols];
         for (int i = 0; i < rows; i++) {
-            System.arraycopy(data[i], 0, copy[i], 0, cols);
+            copyRow(i, copy[i], 0);
         }
         return copy;
     }
 
-    // --- Операции над матрицами ---
+    /**
+     * Копирует строку матрицы в массив вызывающего без выделения памяти.
+     * @param row Индекс строки.
+     * @param dest Массив-приёмник.
+     * @param destOffset Позиция первого элемента строки в {@code dest}.
+     * @throws IndexOutOfBoundsException если строка или диапазон приёмника вне границ.
+     */
+    public void getRow(int row, double[] dest, int destOffset) {
+        Objects.checkIndex(row, rows);
+        Objects.checkFromIndexSize(destOffset, cols, dest.length);
+        copyRow(row, dest, destOffset);
+    }
 
     /**
-     * Транспонирует текущую матрицу.
-     * @return Новая матрица, являющаяся транспонированной версией текущей.
+     * Копирует столбец матрицы в массив вызывающего без выделения памяти.
+     * @param col Индекс столбца.
+     * @param dest Массив-приёмник.
+     * @param destOffset Позиция первого элемента столбца в {@code dest}.
+     * @throws IndexOutOfBoundsException если столбец или диапазон приёмника вне границ.
      */
-    public Matrix transpose() {
-        Matrix result = new Matrix(cols, rows);
+    public void getColumn(int col, double[] dest, int destOffset) {
+        Objects.checkIndex(col, cols);
+        Objects.checkFromIndexSize(destOffset, rows, dest.length);
+        int base = offset + col * colStride;
         for (int i = 0; i < rows; i++) {
+            dest[destOffset + i] = data[base + i * rowStride];
+        }
+    }
+
+    /**
+     * Записывает строку матрицы из массива вызывающего.
+     * @param row Индекс строки.
+     * @param src Массив-источник.
+     * @param srcOffset Позиция первого элемента строки в {@code src}.
+     * @throws IndexOutOfBoundsException если строка или диапазон источника вне границ.
+     * @throws IllegalStateException если матрица заморожена.
+     */
+    public void setRow(int row, double[] src, int srcOffset) {
+        Objects.checkIndex(row, rows);
+        Objects.checkFromIndexSize(srcOffset, cols, src.length);
+        checkMutable();
+        int base = offset + row * rowStride;
+        if (colStride == 1) {
+            System.arraycopy(src, srcOffset, data, base, cols);
+        } else {
             for (int j = 0; j < cols; j++) {
-                result.setElement(j, i, this.data[i][j]);
+                data[base + j * colStride] = src[srcOffset + j];
             }
         }
+        markModified();
+    }
+
+    /**
+     * Записывает столбец матрицы из массива вызывающего.
+     * @param col Индекс столбца.
+     * @param src Массив-источник.
+     * @param srcOffset Позиция первого элемента столбца в {@code src}.
+     * @throws IndexOutOfBoundsException если столбец или диапазон источника вне границ.
+     * @throws IllegalStateException если матрица заморожена.
+     */
+    public void setColumn(int col, double[] src, int srcOffset) {
+        Objects.checkIndex(col, cols);
+        Objects.checkFromIndexSize(srcOffset, rows, src.length);
+        checkMutable();
+        int base = offset + col * colStride;
+        for (int i = 0; i < rows; i++) {
+            data[base + i * rowStride] = src[srcOffset + i];
+        }
+        markModified();
+    }
+
+    void copyRow(int row, double[] dest, int destOffset) {
+        int base = offset + row * rowStride;
+        if (colStride == 1) {
+            System.arraycopy(data, base, dest, destOffset, cols);
+        } else {
+            for (int j = 0; j < cols; j++) {
+                dest[destOffset + j] = data[base + j * colStride];
+            }
+        }
+    }
+
+    // --- Доступ к внутреннему представлению для ядер пакета model ---
+
+    double[] buffer() {
+        return data;
+    }
+
+    int offset() {
+        return offset;
+    }
+
+    int rowStride() {
+        return rowStride;
+    }
+
+    int colStride() {
+        return colStride;
+    }
+
+    /**
+     * Отмечает, что буфер был изменён напрямую (минуя {@link #setElement}),
+     * чтобы сбросить кэшированные результаты у матрицы и всех её представлений.
+     */
+    void markModified() {
+        modCount.value++;
+    }
+
+    private void checkMutable() {
+        if (modCount.frozen) {
+            throw new IllegalStateException("Матрица заморожена и не может быть изменена.");
+        }
+    }
+
+    // --- Заморозка и отпечаток содержимого ---
+
+    /**
+     * Замораживает матрицу. Заморозка действует на весь общий буфер: после неё любая попытка
+     * изменить элементы через эту матрицу или любое её представление приводит к
+     * {@link IllegalStateException}. Операция необратима и не копирует данные; для изменяемой
+     * версии используйте {@link #copy()}. Замороженную матрицу можно передавать между потоками
+     * (после передачи через потокобезопасную очередь или исполнитель).
+     * @return Эта же матрица.
+     */
+    public Matrix freeze() {
+        modCount.frozen = true;
+        return this;
+    }
+
+    public boolean isFrozen() {
+        return modCount.frozen;
+    }
+
+    /**
+     * Возвращает отпечаток содержимого. Вычисляется за O(rows * cols) при первом вызове
+     * (строки хэшируются параллельно) и запоминается.
+     * @return Отпечаток, равный у всех матриц с тем же содержимым.
+     * @throws IllegalStateException если матрица не заморожена.
+     */
+    public Fingerprint fingerprint() {
+        if (!modCount.frozen) {
+            throw new IllegalStateException("Отпечаток определён только для замороженной матрицы (freeze()).");
+        }
+        Fingerprint result = fingerprint;
+        if (result == null) {
+            result = computeFingerprint();
+            fingerprint = result;
+        }
         return result;
     }
 
+    // Две независимые полосы хэша в духе xxHash64: сначала по каждой строке, затем по хэшам строк
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+
+    private Fingerprint computeFingerprint() {
+        long[] rowHashes = new long[2 * rows];
+        GaussJordanKernel.forRows(rows, cols, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                long h1 = PRIME1;
+                long h2 = PRIME2;
+                int base = offset + i * rowStride;
+                for (int j = 0; j < cols; j++) {
+                    long bits = Double.doubleToLongBits(data[base + j * colStride]);
+                    h1 = Long.rotateLeft(h1 + bits * PRIME2, 31) * PRIME1;
+                    h2 = Long.rotateLeft(h2 ^ bits * PRIME3, 27) * PRIME4 + PRIME1;
+                }
+                rowHashes[2 * i] = h1;
+                rowHashes[2 * i + 1] = h2;
+            }
+        });
+        long h1 = PRIME3 + rows;
+        long h2 = PRIME4 + cols;
+        for (int i = 0; i < rows; i++) {
+            h1 = Long.rotateLeft(h1 + rowHashes[2 * i] * PRIME2, 31) * PRIME1;
+            h2 = Long.rotateLeft(h2 ^ rowHashes[2 * i + 1] * PRIME3, 27) * PRIME4 + PRIME1;
+        }
+        return new Fingerprint(rows, cols, mix(h1 ^ h2 >>> 7), mix(h2 + h1));
+    }
+
+    // Финальное перемешивание MurmurHash3
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ h >>> 33;
+    }
+
+    /**
+     * Проверяет, лежат ли элементы матрицы в буфере подряд построчно (без промежутков),
+     * начиная с {@link #offset()}.
+     */
+    boolean isContiguous() {
+        return colStride == 1 && (rowStride == cols || rows == 1);
+    }
+
+    // --- Представления (без копирования данных) ---
+
+    /**
+     * Возвращает строку матрицы как представление размера 1 x cols.
+     * @param row Индекс строки.
+     * @return Матрица-представление, разделяющая буфер с текущей.
+     */
+    public Matrix row(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Индекс строки выходит за пределы матрицы.");
+        }
+        return new Matrix(this, offset + row * rowStride, 1, cols, rowStride, colStride);
+    }
+
+    /**
+     * Возвращает столбец матрицы как представление размера rows x 1.
+     * @param col Индекс столбца.
+     * @return Матрица-представление, разделяющая буфер с текущей.
+     */
+    public Matrix column(int col) {
+        if (col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс столбца выходит за пределы матрицы.");
+        }
+        return new Matrix(this, offset + col * colStride, rows, 1, rowStride, colStride);
+    }
+
+    /**
+     * Возвращает прямоугольный блок матрицы как представление.
+     * @param fromRow Первая строка блока.
+     * @param fromCol Первый столбец блока.
+     * @param blockRows Число строк блока.
+     * @param blockCols Число столбцов блока.
+     * @return Матрица-представление, разделяющая буфер с текущей.
+     */
+    public Matrix subMatrix(int fromRow, int fromCol, int blockRows, int blockCols) {
+        if (blockRows <= 0 || blockCols <= 0) {
+            throw new IllegalArgumentException("Размеры блока должны быть положительными.");
+        }
+        if (fromRow < 0 || fromCol < 0 || fromRow + blockRows > rows || fromCol + blockCols > cols) {
+            throw new IndexOutOfBoundsException("Блок выходит за пределы матрицы.");
+        }
+        return new Matrix(this, offset + fromRow * rowStride + fromCol * colStride,
+                blockRows, blockCols, rowStride, colStride);
+    }
+
+    /**
+     * Создаёт независимую копию матрицы с непрерывным построчным хранением.
+     * Транспонированное представление материализуется блочным ядром {@link TransposeKernel}.
+     * Копия не записывается в метрики как транспонирование: её делают и операции модели
+     * (например, LU-разложение представления); явное транспонирование —
+     * {@link #transposeInto(Matrix)} и {@link #transposeInPlace()}.
+     * @return Новая матрица, не разделяющая буфер с текущей.
+     */
+    public Matrix copy() {
+        return materialize();
+    }
+
+    private Matrix materialize() {
+        Matrix result = new Matrix(rows, cols);
+        if (isContiguous()) {
+            System.arraycopy(data, offset, result.data, 0, rows * cols);
+        } else if (rowStride == 1 && rows > 1) {
+            // Представление транспонированной матрицы: материализуем блочным ядром
+            TransposeKernel.transpose(transpose(), result);
+        } else {
+            for (int i = 0; i < rows; i++) {
+                copyRow(i, result.data, i * cols);
+            }
+        }
+        return result;
+    }
+
+    // --- Операции над матрицами ---
+
+    /**
+     * Транспонирует текущую матрицу.
+     * Операция выполняется за O(1): результат является представлением,
+     * разделяющим буфер с текущей матрицей (строки и столбцы меняются местами
+     * за счёт перестановки шагов). Для независимой копии используйте {@code transpose().copy()} или
+     * {@link #transposeInto(Matrix)} — она материализуется блочным параллельным ядром {@link TransposeKernel}.
+     * @return Матрица-представление, являющаяся транспонированной версией текущей.
+     */
+    public Matrix transpose() {
+        return new Matrix(this, offset, cols, rows, colStride, rowStride);
+    }
+
+    /**
+     * Транспонирует квадратную матрицу на месте блочным параллельным ядром,
+     * без выделения дополнительной памяти.
+     * @throws MatrixOperationException если матрица не квадратная.
+     */
+    public void transposeInPlace() throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Транспонирование на месте возможно только для квадратной матрицы.");
+        }
+        checkMutable();
+        OperationMetrics.Sample sample = OperationMetrics.begin(OperationMetrics.Operation.TRANSPOSE, rows);
+        TransposeKernel.transposeSquareInPlace(this);
+        markModified();
+        if (sample != null) {
+            sample.end(OperationMetrics.Path.TILED, 0);
+        }
+    }
+
+    /**
+     * Записывает транспонированную матрицу в {@code dest} размера cols x rows блочным ядром
+     * {@link TransposeKernel}, не создавая новых матриц. Если {@code dest} — сама квадратная
+     * матрица, она транспонируется на месте; другое представление того же буфера
+     * обрабатывается через временную копию.
+     * @param dest Матрица для результата.
+     * @throws IllegalArgumentException если размер {@code dest} не равен cols x rows.
+     * @throws IllegalStateException если {@code dest} заморожена.
+     */
+    public void transposeInto(Matrix dest) {
+        if (dest.rows != cols || dest.cols != rows) {
+            throw new IllegalArgumentException("Размер результата должен быть " + cols + "x" + rows + ".");
+        }
+        dest.checkMutable();
+        OperationMetrics.Sample sample = OperationMetrics.begin(OperationMetrics.Operation.TRANSPOSE, Math.max(rows, cols));
+        if (dest.data == data && dest.offset == offset && dest.rowStride == rowStride && dest.colStride == colStride) {
+            TransposeKernel.transposeSquareInPlace(dest);
+        } else {
+            TransposeKernel.transpose(dest.data == data ? materialize() : this, dest);
+        }
+        dest.markModified();
+        if (sample != null) {
+            sample.end(OperationMetrics.Path.TILED, 0);
+        }
+    }
+
+    /**
+     * Умножает текущую матрицу на матрицу {@code other}.
+     * Использует блочное ядро с упаковкой и векторными инструкциями ({@code jdk.incubator.vector}),
+     * блоки результата вычисляются параллельно.
+     * @param other Правый множитель (число строк должно совпадать с числом столбцов текущей).
+     * @return Новая матрица this * other.
+     * @throws MatrixOperationException если размеры матриц не согласованы.
+     */
+    public Matrix multiply(Matrix other) throws MatrixOperationException {
+        if (cols != other.rows) {
+            throw new MatrixOperationException("Число столбцов первой матрицы должно совпадать с числом строк второй.");
+        }
+        Matrix result = new Matrix(rows, other.cols);
+        GemmKernel.multiplyAdd(this, other, result);
+        return result;
+    }
+
+    /**
+     * Прибавляет к текущей матрице произведение: this += a * b.
+     * @param a Левый множитель (rows x k).
+     * @param b Правый множитель (k x cols).
+     * @throws MatrixOperationException если размеры матриц не согласованы.
+     */
+    public void multiplyAdd(Matrix a, Matrix b) throws MatrixOperationException {
+        if (a.cols != b.rows || a.rows != rows || b.cols != cols) {
+            throw new MatrixOperationException("Размеры матриц не согласованы для умножения с накоплением.");
+        }
+        checkMutable();
+        if (a.data == data || b.data == data) {
+            // Множитель разделяет буфер с результатом: работаем с копией, чтобы не читать уже изменённые данные
+            a = a.data == data ? a.copy() : a;
+            b = b.data == data ? b.copy() : b;
+        }
+        GemmKernel.multiplyAdd(a, b, this);
+        markModified();
+    }
+
+    /**
+     * Возвращает LU-разложение матрицы. Разложение кэшируется и переиспользуется
+     * до первого изменения элементов матрицы.
+     * @return LU-разложение с частичным выбором ведущего элемента.
+     * @throws MatrixOperationException если матрица не квадратная.
+     */
+    public LUDecomposition lu() throws MatrixOperationException {
+        LUDecomposition lu = cachedLU;
+        int version = modCount.value;
+        if (lu == null || cachedLUVersion != version) {
+            lu = new LUDecomposition(this);
+            cachedLU = lu;
+            cachedLUVersion = version;
+        }
+        return lu;
+    }
+
     /**
      * Обращает текущую матрицу (если она квадратная и невырожденная).
-     * Использует метод Гаусса-Жордана.
+     * Если для матрицы уже вычислено LU-разложение (например, после {@link #determinant()}),
+     * обратная строится по нему. Диагональная и треугольные матрицы ({@link #structure()})
+     * обращаются за O(n) и около n^3/3 операций соответственно, симметричная положительно
+     * определённая — через разложение Холецкого (вдвое меньше работы). Иначе, а также если
+     * диагональ близка к нулю или матрица не положительно определена, используется
+     * параллельный блочный метод Гаусса-Жордана на месте ({@link #invertInPlace()}) над копией
+     * матрицы: рабочая память — одна матрица n x n.
      * @return Новая матрица, являющаяся обратной к текущей.
      * @throws MatrixOperationException если матрица не квадратная или вырожденная.
      */
     public Matrix inverse() throws MatrixOperationException {
+        return inverse(ProgressMonitor.NONE);
+    }
+
+    /**
+     * Обращает текущую матрицу, сообщая о ходу исключения монитору.
+     * Между панелями исключения монитор проверяется на отмену.
+     * @return Новая матрица, являющаяся обратной к текущей.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     * @throws java.util.concurrent.CancellationException если монитор запросил отмену.
+     */
+    public Matrix inverse(ProgressMonitor monitor) throws MatrixOperationException {
         if (rows != cols) {
             throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
         }
+        OperationMetrics.Sample sample = OperationMetrics.begin(OperationMetrics.Operation.INVERSE, rows);
+        if (rows <= SMALL_SIZE) {
+            Matrix result = new Matrix(rows, cols);
+            if (invertSmall(result)) {
+                monitor.progress(rows, rows);
+                recordInverse(sample, OperationMetrics.Path.CLOSED_FORM);
+                return result;
+            }
+        }
+        LUDecomposition lu = cachedLU;
+        OperationMetrics.Path path = OperationMetrics.Path.GAUSS_JORDAN;
+        try {
+            Matrix result = null;
+            if (lu != null && cachedLUVersion == modCount.value) {
+                path = OperationMetrics.Path.CACHED_LU;
+                result = lu.inverse();
+                monitor.progress(rows, rows);
+            } else if (hasDiagonalAboveThreshold()) {
+                // Специализированные пути; при сомнении в обратимости решает общий алгоритм с выбором ведущего
+                switch (structure()) {
+                    case DIAGONAL -> {
+                        path = OperationMetrics.Path.DIAGONAL;
+                        result = invertDiagonal();
+                    }
+                    case LOWER_TRIANGULAR, UPPER_TRIANGULAR -> {
+                        path = OperationMetrics.Path.TRIANGULAR;
+                        result = invertTriangular(structure() == MatrixStructure.LOWER_TRIANGULAR);
+                    }
+                    case SYMMETRIC -> {
+                        result = invertCholesky(monitor);
+                        if (result != null) {
+                            path = OperationMetrics.Path.CHOLESKY;
+                        }
+                    }
+                    default -> { }
+                }
+                if (result != null) {
+                    monitor.progress(rows, rows);
+                }
+            }
+            if (result == null) {
+                result = materialize();
+                path = result.invertInPlaceUnrecorded(monitor, new Workspace());
+            }
+            recordInverse(sample, path);
+            return result;
+        } catch (MatrixOperationException e) {
+            if (sample != null) {
+                sample.singular(path);
+            }
+            throw e;
+        }
+    }
 
-        int n = rows;
-        double[][] augmentedMatrix = new double[n][2 * n];
+    // Работа пути считается по inverseFlops: GFLOP/s — достигнутая производительность выбранного пути
+    private void recordInverse(OperationMetrics.Sample sample, OperationMetrics.Path path) {
+        if (sample != null) {
+            sample.end(path, inverseFlops(path, rows));
+        }
+    }
 
-        // Создаем расширенную матрицу [A | I]
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                augmentedMatrix[i][j] = data[i][j];
+    // Оценки фактической работы пути (умножение и сложение — две операции) для GFLOP/s в метриках
+
+    private static double inverseFlops(OperationMetrics.Path path, int n) {
+        double cube = (double) n * n * n;
+        return switch (path) {
+            case DIAGONAL -> n;
+            case TRIANGULAR -> cube / 3;
+            // Разложение, обращение множителя и L^-T * L^-1 — по n^3/3
+            case CHOLESKY -> cube;
+            // Гаусс-Жордан, подстановки по готовому LU для n правых частей, явная формула
+            default -> 2 * cube;
+        };
+    }
+
+    private static double determinantFlops(OperationMetrics.Path path, int n) {
+        double cube = (double) n * n * n;
+        return switch (path) {
+            case CACHED_LU, DIAGONAL, TRIANGULAR -> n;
+            case CHOLESKY -> cube / 3;
+            default -> 2 * cube / 3;
+        };
+    }
+
+    /**
+     * Решает систему this * X = b, не строя обратную матрицу: по LU-разложению
+     * прямой и обратной подстановкой (около трети операций обращения с умножением
+     * и меньшая ошибка округления). Разложение кэшируется ({@link #lu()}), поэтому
+     * повторные вызовы с той же матрицей стоят только O(n^2) на правую часть.
+     * Столбцы правых частей решаются параллельно блочными треугольными подстановками.
+     * @param b Матрица правых частей (n x m), каждый столбец — отдельная правая часть.
+     * @return Решение X размера n x m.
+     * @throws MatrixOperationException если матрица не квадратная, размеры не согласованы
+     *                                  или матрица вырождена.
+     */
+    public Matrix solve(Matrix b) throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для решения системы.");
+        }
+        return lu().solve(b);
+    }
+
+    /**
+     * Решает систему this * X = b в смешанной точности: LU-разложение выполняется во float,
+     * затем решение итерационно уточняется по невязке, вычисленной в double.
+     * Если уточнение не сходится (матрица слишком плохо обусловлена для float),
+     * система автоматически решается заново полностью в двойной точности.
+     * @param b Матрица правых частей (n x m).
+     * @return Решение, достигнутая невязка и признак перехода на двойную точность.
+     * @throws MatrixOperationException если матрица не квадратная, размеры не согласованы
+     *                                  или матрица вырождена.
+     */
+    public MixedPrecisionResult solveMixedPrecision(Matrix b) throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для решения системы.");
+        }
+        if (b.rows != rows) {
+            throw new MatrixOperationException("Число строк правой части должно совпадать с размером матрицы.");
+        }
+        return MixedPrecisionSolver.solve(this, b);
+    }
+
+    /**
+     * Обращает матрицу в смешанной точности, решая this * X = I
+     * (см. {@link #solveMixedPrecision(Matrix)}). Правых частей здесь n, поэтому каждый шаг
+     * уточнения — невязка {@code I - A X} и подстановки для n столбцов — сам стоит O(n^3).
+     * Метод не быстрее {@link #inverse()} и нужен ради контроля невязки, а не скорости.
+     * @return Обратная матрица, достигнутая невязка и признак перехода на двойную точность.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public MixedPrecisionResult inverseMixedPrecision() throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        Matrix identity = new Matrix(rows, rows);
+        for (int i = 0; i < rows; i++) {
+            identity.data[i * rows + i] = 1.0;
+        }
+        return MixedPrecisionSolver.solve(this, identity);
+    }
+
+    /**
+     * Заменяет текущую матрицу её обратной методом Гаусса-Жордана на месте.
+     * Используется только память самой матрицы и вектор перестановок; исключение
+     * выполняется панелями, строки обновляются параллельно в {@code ForkJoinPool}.
+     * Если матрица оказалась вырожденной, её содержимое после исключения не определено.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public void invertInPlace() throws MatrixOperationException {
+        invertInPlace(ProgressMonitor.NONE);
+    }
+
+    /**
+     * Заменяет текущую матрицу её обратной, сообщая о ходу исключения монитору.
+     * При отмене содержимое матрицы не определено.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     * @throws java.util.concurrent.CancellationException если монитор запросил отмену.
+     */
+    public void invertInPlace(ProgressMonitor monitor) throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        checkMutable();
+        OperationMetrics.Sample sample = OperationMetrics.begin(OperationMetrics.Operation.INVERSE, rows);
+        try {
+            recordInverse(sample, invertInPlaceUnrecorded(monitor, new Workspace()));
+        } catch (MatrixOperationException e) {
+            if (sample != null) {
+                sample.singular(OperationMetrics.Path.GAUSS_JORDAN);
             }
-            augmentedMatrix[i][i + n] = 1; // Единичная матрица справа
+            throw e;
         }
+    }
 
-        // Прямой ход метода Гаусса (приведение к верхнетреугольному виду)
-        for (int i = 0; i < n; i++) {
-            // Поиск ведущего элемента (максимального по модулю в текущем столбце) для устойчивости
-            int maxRow = i;
-            for (int k = i + 1; k < n; k++) {
-                if (Math.abs(augmentedMatrix[k][i]) > Math.abs(augmentedMatrix[maxRow][i])) {
-                    maxRow = k;
+    // Обращение на месте без проверок и метрик; возвращает выбранный путь
+    private OperationMetrics.Path invertInPlaceUnrecorded(ProgressMonitor monitor, Workspace workspace)
+            throws MatrixOperationException {
+        if (rows <= SMALL_SIZE && invertSmall(this)) {
+            monitor.progress(rows, rows);
+            return OperationMetrics.Path.CLOSED_FORM;
+        }
+        int n = rows;
+        markModified();
+        if (colStride == 1) {
+            GaussJordanKernel.invertInPlace(data, offset, rowStride, n, workspace.pivots(n),
+                    workspace.panel(n), monitor);
+        } else if (rowStride == 1) {
+            // Представление транспонированной матрицы: (B^T)^-1 = (B^-1)^T, обращаем лежащий в основе буфер
+            GaussJordanKernel.invertInPlace(data, offset, colStride, n, workspace.pivots(n),
+                    workspace.panel(n), monitor);
+        } else {
+            Matrix work = materialize();
+            work.invertInPlaceUnrecorded(monitor, workspace);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    data[offset + i * rowStride + j * colStride] = work.data[i * n + j];
                 }
             }
+        }
+        return OperationMetrics.Path.GAUSS_JORDAN;
+    }
 
-            // Обмен строк, если необходимо
-            double[] temp = augmentedMatrix[i];
-            augmentedMatrix[i] = augmentedMatrix[maxRow];
-            augmentedMatrix[maxRow] = temp;
 
-            // Проверка на вырожденность
-            if (Math.abs(augmentedMatrix[i][i]) < 1e-10) { // 1e-10 - малая величина для сравнения с нулем
-                throw new MatrixOperationException("Матрица вырождена (определитель равен нулю), обратной матрицы не существует.");
-            }
+    /**
+     * Записывает обратную матрицу в {@code dest} того же размера.
+     * Для матриц до 4x4 результат считается по явным формулам и память не выделяется;
+     * для больших матрица копируется в {@code dest} и обращается на месте ({@link #invertInPlace()}).
+     * {@code dest} может совпадать с текущей матрицей или быть её представлением.
+     * Для повторяющихся обращений используйте {@link #inverseInto(Matrix, Workspace)}.
+     * @param dest Матрица для результата.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     * @throws IllegalArgumentException если размер {@code dest} не совпадает с размером матрицы.
+     */
+    public void inverseInto(Matrix dest) throws MatrixOperationException {
+        inverseInto(dest, new Workspace());
+    }
 
-            // Нормализация текущей строки (ведущий элемент равен 1)
-            double pivot = augmentedMatrix[i][i];
-            for (int j = i; j < 2 * n; j++) {
-                augmentedMatrix[i][j] /= pivot;
+    /**
+     * Записывает обратную матрицу в {@code dest}, беря вектор перестановок и буфер панели
+     * из {@code workspace}. Цикл обращений одного размера с одними и теми же {@code dest} и
+     * {@code workspace} не порождает мусора, пока ядро работает в вызывающем потоке; при
+     * параллельном исполнении (большие матрицы) выделяются только объекты задач ForkJoin.
+     * @param dest Матрица для результата; может совпадать с текущей или быть её представлением.
+     * @param workspace Рабочая память; не должна одновременно использоваться другими потоками.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     * @throws IllegalArgumentException если размер {@code dest} не совпадает с размером матрицы.
+     */
+    public void inverseInto(Matrix dest, Workspace workspace) throws MatrixOperationException {
+        Objects.requireNonNull(workspace, "workspace");
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        if (dest.rows != rows || dest.cols != cols) {
+            throw new IllegalArgumentException("Размер результата не совпадает с размером матрицы.");
+        }
+        dest.checkMutable();
+        OperationMetrics.Sample sample = OperationMetrics.begin(OperationMetrics.Operation.INVERSE, rows);
+        if (rows <= SMALL_SIZE && invertSmall(dest)) {
+            recordInverse(sample, OperationMetrics.Path.CLOSED_FORM);
+            return;
+        }
+        if (dest != this) {
+            // Если dest — другое представление того же буфера, копируем через буфер рабочего пространства
+            double[] source = data;
+            int sourceOffset = offset;
+            int sourceRowStride = rowStride;
+            int sourceColStride = colStride;
+            if (dest.data == data) {
+                source = workspace.lu(rows);
+                for (int i = 0; i < rows; i++) {
+                    copyRow(i, source, i * cols);
+                }
+                sourceOffset = 0;
+                sourceRowStride = cols;
+                sourceColStride = 1;
             }
-
-            // Обнуление элементов под ведущим элементом
-            for (int k = 0; k < n; k++) {
-                if (k != i) {
-                    double factor = augmentedMatrix[k][i];
-                    for (int j = i; j < 2 * n; j++) {
-                        augmentedMatrix[k][j] -= factor * augmentedMatrix[i][j];
-                    }
+            for (int i = 0; i < rows; i++) {
+                for (int j = 0; j < cols; j++) {
+                    dest.data[dest.offset + i * dest.rowStride + j * dest.colStride] =
+                            source[sourceOffset + i * sourceRowStride + j * sourceColStride];
                 }
             }
         }
-
-        // Извлечение обратной матрицы (правая часть расширенной матрицы)
-        double[][] inverseData = new double[n][n];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                inverseData[i][j] = augmentedMatrix[i][j + n];
+        try {
+            recordInverse(sample, dest.invertInPlaceUnrecorded(ProgressMonitor.NONE, workspace));
+        } catch (MatrixOperationException e) {
+            if (sample != null) {
+                sample.singular(OperationMetrics.Path.GAUSS_JORDAN);
             }
+            throw e;
         }
-        return new Matrix(inverseData);
     }
 
+    /**
+     * Обращает матрицу до 4x4 по явным формулам, записывая результат в {@code dest}.
+     * Все элементы читаются до записи, поэтому {@code dest} может разделять буфер с матрицей.
+     * @return {@code false}, если модуль определителя меньше порога вырожденности; тогда
+     *         {@code dest} не изменяется и решение о вырожденности принимает общий алгоритм
+     *         с выбором ведущего элемента.
+     */
+    private boolean invertSmall(Matrix dest) {
+        double[] r = dest.data;
+        boolean ok = switch (rows) {
+            case 1 -> {
+                double value = data[offset];
+                if (SmallMatrixKernel.isSingular(value)) {
+                    yield false;
+                }
+                r[dest.offset] = 1.0 / value;
+                yield true;
+            }
+            case 2 -> SmallMatrixKernel.inverse2(data, offset, rowStride, colStride, r, dest.offset, dest.rowStride, dest.colStride);
+            case 3 -> SmallMatrixKernel.inverse3(data, offset, rowStride, colStride, r, dest.offset, dest.rowStride, dest.colStride);
+            default -> SmallMatrixKernel.inverse4(data, offset, rowStride, colStride, r, dest.offset, dest.rowStride, dest.colStride);
+        };
+        if (ok) {
+            dest.markModified();
+        }
+        return ok;
+    }
 
     /**
      * Вычисляет определитель квадратной матрицы.
-     * Использует разложение по первой строке (рекурсивный метод).
-     * Может быть неэффективен для больших матриц.
-     * Для более эффективного вычисления определителя при обращении лучше использовать информацию,
-     * полученную в ходе метода Гаусса.
+     * Для матриц до 4x4 используется явная формула, для диагональных и треугольных —
+     * произведение диагонали, для симметричных положительно определённых — разложение
+     * Холецкого, для остальных — кэшированное LU-разложение (O(n^3) при первом вызове).
+     * Для больших матриц, где произведение может переполниться, используйте
+     * {@link LUDecomposition#getLogAbsDeterminant()} через {@link #lu()}.
      * @return Определитель матрицы.
      * @throws MatrixOperationException если матрица не квадратная.
      */
     public double determinant() throws MatrixOperationException {
+        return determinantUsing(null);
+    }
+
+    /**
+     * Вычисляет определитель, не выделяя памяти: при отсутствии кэшированного LU-разложения
+     * матрица копируется в буфер {@code workspace} и раскладывается там (по Холецкому, если
+     * она симметричная положительно определённая). В отличие от
+     * {@link #determinant()} разложение не кэшируется.
+     * @param workspace Рабочая память; не должна одновременно использоваться другими потоками.
+     * @return Определитель матрицы.
+     * @throws MatrixOperationException если матрица не квадратная.
+     */
+    public double determinant(Workspace workspace) throws MatrixOperationException {
+        return determinantUsing(Objects.requireNonNull(workspace, "workspace"));
+    }
+
+    // workspace == null — через кэшируемое LU-разложение
+    private double determinantUsing(Workspace workspace) throws MatrixOperationException {
         if (rows != cols) {
             throw new MatrixOperationException("Определитель можно вычислить только для квадратной матрицы.");
         }
-        return calculateDeterminant(this.data);
+        OperationMetrics.Sample sample = OperationMetrics.begin(OperationMetrics.Operation.DETERMINANT, rows);
+        OperationMetrics.Path path;
+        double det;
+        MatrixStructure structure;
+        if (rows <= SMALL_SIZE) {
+            path = OperationMetrics.Path.CLOSED_FORM;
+            det = switch (rows) {
+                case 1 -> data[offset];
+                case 2 -> SmallMatrixKernel.det2(data, offset, rowStride, colStride);
+                case 3 -> SmallMatrixKernel.det3(data, offset, rowStride, colStride);
+                default -> SmallMatrixKernel.det4(data, offset, rowStride, colStride);
+            };
+        } else if (cachedLU != null && cachedLUVersion == modCount.value) {
+            path = OperationMetrics.Path.CACHED_LU;
+            det = cachedLU.getDeterminant();
+        } else if ((structure = structure()) != MatrixStructure.GENERAL && structure != MatrixStructure.SYMMETRIC) {
+            path = structure == MatrixStructure.DIAGONAL ? OperationMetrics.Path.DIAGONAL : OperationMetrics.Path.TRIANGULAR;
+            det = 1.0;
+            for (int k = 0; k < rows; k++) {
+                det *= data[offset + k * (rowStride + colStride)];
+            }
+        } else if (structure == MatrixStructure.SYMMETRIC && hasPositiveDiagonal()
+                && !Double.isNaN(det = choleskyDeterminant(workspace))) {
+            path = OperationMetrics.Path.CHOLESKY;
+        } else {
+            path = OperationMetrics.Path.LU;
+            det = workspace == null ? lu().getDeterminant() : determinantInWorkspace(workspace);
+        }
+        if (sample != null) {
+            sample.end(path, determinantFlops(path, rows));
+        }
+        return det;
+    }
+
+    // Определитель по разложению Холецкого или NaN, если матрица не положительно определена
+    private double choleskyDeterminant(Workspace workspace) {
+        int n = rows;
+        double[] a = workspace != null ? workspace.lu(n) : new double[n * n];
+        for (int i = 0; i < n; i++) {
+            copyRow(i, a, i * n);
+        }
+        return CholeskyKernel.factor(a, n) ? CholeskyKernel.determinant(a, n) : Double.NaN;
     }
 
-    private double calculateDeterminant(double[][] matrixData) {
-        int n = matrixData.length;
-        if (n == 1) {
-            return matrixData[0][0];
+    private double determinantInWorkspace(Workspace workspace) {
+        int n = rows;
+        double[] a = workspace.lu(n);
+        for (int i = 0; i < n; i++) {
+            copyRow(i, a, i * n);
         }
-        if (n == 2) {
-            return matrixData[0][0] * matrixData[1][1] - matrixData[0][1] * matrixData[1][0];
+        return LUDecomposition.determinantInPlace(a, n, workspace.pivots(n));
+    }
+
+    // --- Структура матрицы и специализированные алгоритмы ---
+
+    /**
+     * Определяет структуру матрицы (диагональная, треугольная, симметричная) одним проходом
+     * по парам элементов (i, j) и (j, i). Проход прекращается, как только исключены все
+     * варианты, поэтому для общей матрицы он обычно заканчивается на первых строках.
+     * Результат кэшируется до изменения элементов.
+     */
+    public MatrixStructure structure() {
+        MatrixStructure structure = cachedStructure;
+        int version = modCount.value;
+        if (structure == null || cachedStructureVersion != version) {
+            structure = detectStructure();
+            cachedStructure = structure;
+            cachedStructureVersion = version;
         }
+        return structure;
+    }
 
-        double det = 0;
-        for (int j = 0; j < n; j++) {
-            det += Math.pow(-1, j) * matrixData[0][j] * calculateDeterminant(getSubmatrix(matrixData, 0, j));
+    private MatrixStructure detectStructure() {
+        if (rows != cols) {
+            return MatrixStructure.GENERAL;
         }
-        return det;
+        boolean lower = true;
+        boolean upper = true;
+        boolean symmetric = true;
+        for (int i = 1; i < rows; i++) {
+            for (int j = 0; j < i; j++) {
+                double below = data[offset + i * rowStride + j * colStride];
+                double above = data[offset + j * rowStride + i * colStride];
+                lower &= above == 0.0;
+                upper &= below == 0.0;
+                symmetric &= below == above;
+            }
+            if (!lower && !upper && !symmetric) {
+                return MatrixStructure.GENERAL;
+            }
+        }
+        if (lower && upper) {
+            return MatrixStructure.DIAGONAL;
+        }
+        return lower ? MatrixStructure.LOWER_TRIANGULAR
+                : upper ? MatrixStructure.UPPER_TRIANGULAR
+                : MatrixStructure.SYMMETRIC;
     }
 
-    // Вспомогательный метод для получения минора (подматрицы)
-    private double[][] getSubmatrix(double[][] matrixData, int excluding_row, int excluding_col) {
-        int n = matrixData.length;
-        double[][] submatrix = new double[n - 1][n - 1];
-        int r = -1;
-        for (int i = 0; i < n; i++) {
-            if (i == excluding_row) {
-                continue;
-            }
-            r++;
-            int c = -1;
-            for (int j = 0; j < n; j++) {
-                if (j == excluding_col) {
-                    continue;
-                }
-                c++;
-                submatrix[r][c] = matrixData[i][j];
+    // Все диагональные элементы по модулю не меньше порога вырожденности метода с выбором ведущего
+    private boolean hasDiagonalAboveThreshold() {
+        for (int k = 0; k < rows; k++) {
+            if (!(Math.abs(data[offset + k * (rowStride + colStride)]) >= LUDecomposition.SINGULARITY_THRESHOLD)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasPositiveDiagonal() {
+        for (int k = 0; k < rows; k++) {
+            if (!(data[offset + k * (rowStride + colStride)] > 0.0)) {
+                return false;
             }
         }
-        return submatrix;
+        return true;
+    }
+
+    private Matrix invertDiagonal() {
+        Matrix result = new Matrix(rows, cols);
+        for (int k = 0; k < rows; k++) {
+            result.data[k * (cols + 1)] = 1.0 / data[offset + k * (rowStride + colStride)];
+        }
+        return result;
     }
 
+    // Верхнетреугольная обращается через нижнетреугольное транспонированное представление: U^-1 = ((U^T)^-1)^T
+    private Matrix invertTriangular(boolean lower) {
+        Matrix source = lower ? this : transpose();
+        Matrix l = source.isContiguous() && source.offset == 0 ? source : source.materialize();
+        Matrix result = new Matrix(rows, cols);
+        CholeskyKernel.invertLower(l.data, result.data, rows);
+        return lower ? result : result.transpose();
+    }
+
+    /**
+     * Обращает симметричную матрицу через разложение Холецкого: A^-1 = L^-T * L^-1.
+     * @return {@code null}, если матрица не положительно определена или её множитель
+     *         близок к вырожденному — тогда решает общий алгоритм.
+     */
+    private Matrix invertCholesky(ProgressMonitor monitor) {
+        int n = rows;
+        monitor.checkpoint(0, n);
+        Matrix work = materialize();
+        if (!CholeskyKernel.factor(work.data, n)) {
+            return null;
+        }
+        for (int k = 0; k < n; k++) {
+            double d = work.data[k * n + k];
+            if (d * d < LUDecomposition.SINGULARITY_THRESHOLD) {
+                return null;
+            }
+        }
+        monitor.checkpoint(n / 3, n);
+        Matrix inverseFactor = new Matrix(n, n);
+        CholeskyKernel.invertLower(work.data, inverseFactor.data, n);
+        monitor.checkpoint(2 * n / 3, n);
+        CholeskyKernel.lowerTransposeTimesLower(inverseFactor.data, work.data, n);
+        return work;
+    }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
+        double[] rowBuffer = new double[cols];
         for (int i = 0; i < rows; i++) {
-            sb.append(Arrays.toString(data[i])).append("\n");
+            copyRow(i, rowBuffer, 0);
+            sb.append(Arrays.toString(rowBuffer)).append("\n");
         }
         return sb.toString();
     }
-}
\ No newline at end of file
+}
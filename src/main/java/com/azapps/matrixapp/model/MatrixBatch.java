@@ -0,0 +1,382 @@
+package com.azapps.matrixapp.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Пакет из N матриц одинакового размера, хранящийся «по элементам» (structure of arrays):
+ * элемент (i, j) матрицы с номером b лежит в {@code data[(i * cols + j) * count + b]}.
+ * <p>
+ * Такая раскладка рассчитана на миллионы маленьких матриц (3x3, 4x4 и т.п.): один и тот же
+ * элемент всех матриц лежит подряд, поэтому ядра обрабатывают сразу столько матриц, сколько
+ * дорожек в векторе {@code jdk.incubator.vector}, а блоки матриц распределяются по ядрам
+ * процессора. На одну матрицу не создаётся ни одного объекта.
+ * <p>
+ * Вырожденные матрицы не приводят к исключению: {@link #inverseInto(MatrixBatch)} возвращает
+ * маску их номеров. Для размеров 2, 3 и 4 используются явные формулы через определитель,
+ * для больших — метод Гаусса-Жордана с выбором ведущего элемента отдельно для каждой матрицы.
+ * Матрицу, отвергнутую явной формулой (малый по модулю определитель бывает и у хорошо
+ * обусловленной матрицы с мелкими элементами), перепроверяет метод Гаусса-Жордана, поэтому
+ * маска совпадает с тем, для каких матриц {@link Matrix#inverse()} выбрасывает исключение.
+ */
+public final class MatrixBatch {
+
+    // Блок матриц одной задачи кратен 64, чтобы задачи не делили слова маски вырожденных
+    private static final int BLOCK = 64;
+
+    private final int count;
+    private final int rows;
+    private final int cols;
+    private final double[] data;
+
+    /**
+     * Создаёт пакет из {@code count} нулевых матриц {@code rows} x {@code cols}.
+     */
+    public MatrixBatch(int count, int rows, int cols) {
+        if (count <= 0 || rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Размеры пакета матриц должны быть положительными.");
+        }
+        long size = (long) count * rows * cols;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Пакет слишком велик: " + count + " матриц " + rows + "x" + cols + " не помещается в один массив.");
+        }
+        this.count = count;
+        this.rows = rows;
+        this.cols = cols;
+        this.data = new double[(int) size];
+    }
+
+    /**
+     * Собирает пакет из матриц одинакового размера (элементы копируются).
+     */
+    public static MatrixBatch of(Matrix... matrices) {
+        if (matrices == null || matrices.length == 0) {
+            throw new IllegalArgumentException("Пакет должен содержать хотя бы одну матрицу.");
+        }
+        MatrixBatch batch = new MatrixBatch(matrices.length, matrices[0].getRows(), matrices[0].getCols());
+        for (int b = 0; b < matrices.length; b++) {
+            batch.setMatrix(b, matrices[b]);
+        }
+        return batch;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // Внутренний буфер без копирования (для ядер пакета)
+    double[] data() {
+        return data;
+    }
+
+    public double get(int index, int row, int col) {
+        return data[position(index, row, col)];
+    }
+
+    public void set(int index, int row, int col, double value) {
+        data[position(index, row, col)] = value;
+    }
+
+    private int position(int index, int row, int col) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Номер матрицы выходит за пределы пакета.");
+        }
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+        }
+        return (row * cols + col) * count + index;
+    }
+
+    /**
+     * Копирует элементы матрицы в позицию {@code index} пакета.
+     */
+    public void setMatrix(int index, Matrix matrix) {
+        if (matrix.getRows() != rows || matrix.getCols() != cols) {
+            throw new IllegalArgumentException("Размер матрицы не совпадает с размером матриц пакета.");
+        }
+        position(index, 0, 0);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                data[(i * cols + j) * count + index] = matrix.getElement(i, j);
+            }
+        }
+    }
+
+    /**
+     * @return Копия матрицы с номером {@code index}.
+     */
+    public Matrix getMatrix(int index) {
+        position(index, 0, 0);
+        Matrix result = new Matrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                result.setElement(i, j, data[(i * cols + j) * count + index]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Новый пакет из транспонированных матриц.
+     */
+    public MatrixBatch transpose() {
+        MatrixBatch result = new MatrixBatch(count, cols, rows);
+        transposeInto(result);
+        return result;
+    }
+
+    /**
+     * Записывает транспонированные матрицы в {@code dest} (размер cols x rows, то же число матриц).
+     * В раскладке «по элементам» транспонирование — перестановка непрерывных отрезков по {@code count}
+     * элементов. Для квадратных матриц {@code dest} может совпадать с этим пакетом.
+     */
+    public void transposeInto(MatrixBatch dest) {
+        if (dest.count != count || dest.rows != cols || dest.cols != rows) {
+            throw new IllegalArgumentException("Размер результата не совпадает с размером транспонированного пакета.");
+        }
+        double[] src = data;
+        double[] dst = dest.data;
+        if (dst == src) {
+            double[] tmp = new double[count];
+            for (int i = 0; i < rows; i++) {
+                for (int j = i + 1; j < cols; j++) {
+                    int p = (i * cols + j) * count;
+                    int q = (j * cols + i) * count;
+                    System.arraycopy(src, p, tmp, 0, count);
+                    System.arraycopy(src, q, src, p, count);
+                    System.arraycopy(tmp, 0, src, q, count);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                System.arraycopy(src, (i * cols + j) * count, dst, (j * rows + i) * count, count);
+            }
+        }
+    }
+
+    /**
+     * @return Определители всех матриц пакета.
+     * @throws MatrixOperationException если матрицы не квадратные.
+     */
+    public double[] determinants() throws MatrixOperationException {
+        double[] result = new double[count];
+        determinantsInto(result);
+        return result;
+    }
+
+    /**
+     * Записывает определители всех матриц пакета в {@code dest[0..count)}.
+     * @throws MatrixOperationException если матрицы не квадратные.
+     */
+    public void determinantsInto(double[] dest) throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Определитель можно вычислить только для квадратной матрицы.");
+        }
+        if (dest.length < count) {
+            throw new IllegalArgumentException("Массив для определителей короче пакета.");
+        }
+        int n = rows;
+        forBlocks((long) n * n * n, (from, to) -> {
+            int b = from;
+            if (n >= 2 && n <= 4 && GemmKernel.VECTOR_ENABLED) {
+                b = VectorBatchKernel.determinants(n, data, count, dest, from, to);
+            }
+            double[] work = n > 4 ? new double[n * n] : null;
+            for (; b < to; b++) {
+                dest[b] = switch (n) {
+                    case 1 -> data[b];
+                    case 2 -> SmallMatrixKernel.det2(data, b, n * count, count);
+                    case 3 -> SmallMatrixKernel.det3(data, b, n * count, count);
+                    case 4 -> SmallMatrixKernel.det4(data, b, n * count, count);
+                    default -> determinantGeneral(b, n, work);
+                };
+            }
+        });
+    }
+
+    /**
+     * Обращает все матрицы пакета и записывает результаты в {@code dest}.
+     * Исключение не выбрасывается для вырожденных матриц: на их месте в {@code dest}
+     * записываются NaN, а их номера возвращаются маской. {@code dest} может совпадать с этим пакетом.
+     * @return Номера вырожденных матриц (пустое множество, если все обратимы).
+     * @throws MatrixOperationException если матрицы не квадратные.
+     */
+    public BitSet inverseInto(MatrixBatch dest) throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        if (dest.count != count || dest.rows != rows || dest.cols != cols) {
+            throw new IllegalArgumentException("Размер результата не совпадает с размером пакета.");
+        }
+        int n = rows;
+        double[] src = data;
+        double[] dst = dest.data;
+        long[] singular = new long[(count + BLOCK - 1) / BLOCK];
+        forBlocks((long) n * n * n, (from, to) -> {
+            int b = from;
+            double[] work = new double[2 * n * n];
+            if (n >= 2 && n <= 4 && GemmKernel.VECTOR_ENABLED) {
+                b = VectorBatchKernel.inverse(n, src, dst, count, singular, from, to);
+                // Отвергнутые по определителю перепроверяются выбором ведущего, как в Matrix.inverse()
+                for (int k = from; k < b; k++) {
+                    long bit = 1L << (k & 63);
+                    if ((singular[k >>> 6] & bit) != 0 && inverseGeneral(k, n, dst, work)) {
+                        singular[k >>> 6] &= ~bit;
+                    }
+                }
+            }
+            for (; b < to; b++) {
+                boolean ok = switch (n) {
+                    case 1 -> {
+                        double a = src[b];
+                        boolean regular = !SmallMatrixKernel.isSingular(a);
+                        if (regular) {
+                            dst[b] = 1.0 / a;
+                        }
+                        yield regular;
+                    }
+                    case 2 -> SmallMatrixKernel.inverse2(src, b, n * count, count, dst, b, n * count, count)
+                            || inverseGeneral(b, n, dst, work);
+                    case 3 -> SmallMatrixKernel.inverse3(src, b, n * count, count, dst, b, n * count, count)
+                            || inverseGeneral(b, n, dst, work);
+                    case 4 -> SmallMatrixKernel.inverse4(src, b, n * count, count, dst, b, n * count, count)
+                            || inverseGeneral(b, n, dst, work);
+                    default -> inverseGeneral(b, n, dst, work);
+                };
+                if (!ok) {
+                    singular[b >>> 6] |= 1L << (b & 63);
+                }
+            }
+            for (int k = from; k < to; k++) {
+                if ((singular[k >>> 6] & 1L << (k & 63)) != 0) {
+                    for (int e = 0; e < n * n; e++) {
+                        dst[e * count + k] = Double.NaN;
+                    }
+                }
+            }
+        });
+        return BitSet.valueOf(singular);
+    }
+
+    /**
+     * Обращает все матрицы пакета на месте.
+     * @return Номера вырожденных матриц (их элементы заменены на NaN).
+     * @throws MatrixOperationException если матрицы не квадратные.
+     */
+    public BitSet invertInPlace() throws MatrixOperationException {
+        return inverseInto(this);
+    }
+
+    // Диапазоны матриц [from, to) выравниваются по BLOCK
+    private void forBlocks(long workPerMatrix, GaussJordanKernel.RowRangeAction action) {
+        int blocks = (count + BLOCK - 1) / BLOCK;
+        GaussJordanKernel.forRows(blocks, workPerMatrix * BLOCK,
+                (from, to) -> action.apply(from * BLOCK, Math.min(to * BLOCK, count)));
+    }
+
+    // Копирует матрицу b в построчный массив work[0..n*n)
+    private void gather(int b, int n, double[] work) {
+        for (int e = 0; e < n * n; e++) {
+            work[e] = data[e * count + b];
+        }
+    }
+
+    // LU-исключение с частичным выбором ведущего элемента
+    private double determinantGeneral(int b, int n, double[] work) {
+        gather(b, n, work);
+        double det = 1.0;
+        for (int k = 0; k < n; k++) {
+            int pivot = k;
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(work[i * n + k]) > Math.abs(work[pivot * n + k])) {
+                    pivot = i;
+                }
+            }
+            double p = work[pivot * n + k];
+            if (p == 0.0) {
+                return 0.0;
+            }
+            if (pivot != k) {
+                swapRows(work, n, n, pivot, k);
+                det = -det;
+            }
+            det *= p;
+            for (int i = k + 1; i < n; i++) {
+                double factor = work[i * n + k] / p;
+                for (int j = k + 1; j < n; j++) {
+                    work[i * n + j] -= factor * work[k * n + j];
+                }
+            }
+        }
+        return det;
+    }
+
+    // Гаусс-Жордан над расширенной матрицей [A | E] размера n x 2n
+    private boolean inverseGeneral(int b, int n, double[] dst, double[] work) {
+        int w = 2 * n;
+        Arrays.fill(work, 0.0);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                work[i * w + j] = data[(i * n + j) * count + b];
+            }
+            work[i * w + n + i] = 1.0;
+        }
+        for (int k = 0; k < n; k++) {
+            int pivot = k;
+            for (int i = k + 1; i < n; i++) {
+                if (Math.abs(work[i * w + k]) > Math.abs(work[pivot * w + k])) {
+                    pivot = i;
+                }
+            }
+            if (Math.abs(work[pivot * w + k]) < LUDecomposition.SINGULARITY_THRESHOLD) {
+                return false;
+            }
+            swapRows(work, w, w, pivot, k);
+            double inv = 1.0 / work[k * w + k];
+            for (int j = k; j < w; j++) {
+                work[k * w + j] *= inv;
+            }
+            for (int i = 0; i < n; i++) {
+                double factor = work[i * w + k];
+                if (i == k || factor == 0.0) {
+                    continue;
+                }
+                for (int j = k; j < w; j++) {
+                    work[i * w + j] -= factor * work[k * w + j];
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                dst[(i * n + j) * count + b] = work[i * w + n + j];
+            }
+        }
+        return true;
+    }
+
+    private static void swapRows(double[] a, int stride, int width, int r1, int r2) {
+        if (r1 == r2) {
+            return;
+        }
+        for (int j = 0; j < width; j++) {
+            double t = a[r1 * stride + j];
+            a[r1 * stride + j] = a[r2 * stride + j];
+            a[r2 * stride + j] = t;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MatrixBatch[" + count + " x " + rows + "x" + cols + "]";
+    }
+}
@@ -0,0 +1,459 @@
+package com.azapps.matrixapp.model;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Ленивое матричное выражение: операции не выполняются сразу, а записываются в граф
+ * (узлы могут разделяться, т.е. это DAG), который вычисляется по {@link #evaluate()}.
+ * <p>
+ * Перед вычислением граф упрощается ({@link #simplify()}):
+ * <ul>
+ *   <li>{@code (Aᵀ)ᵀ = A};</li>
+ *   <li>{@code (Aᵀ)⁻¹ = (A⁻¹)ᵀ}, {@code (cA)⁻¹ = c⁻¹A⁻¹} (для конечных ненулевых c и c⁻¹) —
+ *       транспонирование выносится наружу, где оно стоит O(1) (представление {@link Matrix#transpose()});</li>
+ *   <li>{@code A⁻¹B} и {@code (A⁻¹)ᵀB} становятся решением системы по LU-разложению,
+ *       {@code BA⁻¹} — транспонированным решением {@code AᵀXᵀ = Bᵀ}; обратная матрица не строится;</li>
+ *   <li>транспонирование поэлементных операций опускается к операндам, вложенные
+ *       умножения на число сворачиваются.</li>
+ * </ul>
+ * Поэлементные узлы (сложение, вычитание, произведение Адамара, умножение на число)
+ * сливаются: всё поддерево таких узлов считается за один построчный проход по результату,
+ * промежуточные значения живут во временных строках, а не в отдельных матрицах.
+ * Поэлементный узел, на который ссылаются несколько родителей, в проход не встраивается:
+ * он материализуется отдельно и читается родителями как готовая матрица. Поэтому каждый
+ * узел графа вычисляется не более одного раза за вызов {@link #evaluate()}; так же
+ * {@link #getElement(int, int)} запоминает элементы разделяемых узлов и столбцы решений.
+ * <p>
+ * Выражение хранит ссылки на исходные матрицы; их изменение после построения выражения
+ * отражается в следующем вычислении. Результат, как и представления {@link Matrix},
+ * может разделять буфер с исходными матрицами (например, {@code of(a).transpose().transpose()}
+ * вычисляется в саму {@code a}).
+ */
+public final class MatrixExpression {
+
+    private enum Op {
+        LEAF, TRANSPOSE, INVERSE, PRODUCT, SOLVE, ADD, SUBTRACT, HADAMARD, SCALE;
+
+        boolean isElementwise() {
+            return this == ADD || this == SUBTRACT || this == HADAMARD || this == SCALE;
+        }
+    }
+
+    private final Op op;
+    private final MatrixExpression left;
+    private final MatrixExpression right;
+    private final Matrix matrix;  // только для LEAF
+    private final double factor;  // только для SCALE
+    private final int rows;
+    private final int cols;
+
+    private MatrixExpression(Op op, MatrixExpression left, MatrixExpression right, Matrix matrix,
+                             double factor, int rows, int cols) {
+        this.op = op;
+        this.left = left;
+        this.right = right;
+        this.matrix = matrix;
+        this.factor = factor;
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    private static MatrixExpression node(Op op, MatrixExpression left, MatrixExpression right, double factor, int rows, int cols) {
+        return new MatrixExpression(op, left, right, null, factor, rows, cols);
+    }
+
+    /**
+     * Создаёт выражение-лист над матрицей (без копирования).
+     */
+    public static MatrixExpression of(Matrix matrix) {
+        if (matrix == null) {
+            throw new IllegalArgumentException("Матрица не может быть null.");
+        }
+        return new MatrixExpression(Op.LEAF, null, null, matrix, 0, matrix.getRows(), matrix.getCols());
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // --- Построение графа (размеры проверяются сразу, вычислений нет) ---
+
+    public MatrixExpression transpose() {
+        return node(Op.TRANSPOSE, this, null, 0, cols, rows);
+    }
+
+    /**
+     * @throws MatrixOperationException если выражение не квадратное.
+     */
+    public MatrixExpression inverse() throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        return node(Op.INVERSE, this, null, 0, rows, cols);
+    }
+
+    /**
+     * @throws MatrixOperationException если размеры не согласованы.
+     */
+    public MatrixExpression multiply(MatrixExpression other) throws MatrixOperationException {
+        if (cols != other.rows) {
+            throw new MatrixOperationException("Число столбцов первой матрицы должно совпадать с числом строк второй.");
+        }
+        return node(Op.PRODUCT, this, other, 0, rows, other.cols);
+    }
+
+    public MatrixExpression multiply(Matrix other) throws MatrixOperationException {
+        return multiply(of(other));
+    }
+
+    public MatrixExpression add(MatrixExpression other) throws MatrixOperationException {
+        return elementwise(Op.ADD, other);
+    }
+
+    public MatrixExpression subtract(MatrixExpression other) throws MatrixOperationException {
+        return elementwise(Op.SUBTRACT, other);
+    }
+
+    /**
+     * Поэлементное произведение (Адамара).
+     */
+    public MatrixExpression hadamard(MatrixExpression other) throws MatrixOperationException {
+        return elementwise(Op.HADAMARD, other);
+    }
+
+    public MatrixExpression scale(double factor) {
+        return node(Op.SCALE, this, null, factor, rows, cols);
+    }
+
+    private MatrixExpression elementwise(Op elementwiseOp, MatrixExpression other) throws MatrixOperationException {
+        if (rows != other.rows || cols != other.cols) {
+            throw new MatrixOperationException("Размеры матриц должны совпадать для поэлементной операции.");
+        }
+        return node(elementwiseOp, this, other, 0, rows, cols);
+    }
+
+    // --- Упрощение ---
+
+    /**
+     * Возвращает эквивалентное выражение после алгебраических упрощений (см. описание класса).
+     * Разделяемые узлы остаются разделяемыми.
+     */
+    public MatrixExpression simplify() {
+        return simplify(new IdentityHashMap<>());
+    }
+
+    private MatrixExpression simplify(Map<MatrixExpression, MatrixExpression> memo) {
+        MatrixExpression done = memo.get(this);
+        if (done != null) {
+            return done;
+        }
+        MatrixExpression l = left != null ? left.simplify(memo) : null;
+        MatrixExpression r = right != null ? right.simplify(memo) : null;
+        MatrixExpression result = switch (op) {
+            case LEAF -> this;
+            case TRANSPOSE -> transposed(l);
+            case INVERSE -> inverted(l);
+            case PRODUCT -> product(l, r);
+            case SCALE -> scaled(l, factor);
+            default -> l == left && r == right ? this : node(op, l, r, factor, rows, cols);
+        };
+        memo.put(this, result);
+        return result;
+    }
+
+    // Правила строят сразу упрощённую форму из уже упрощённых операндов
+
+    private static MatrixExpression transposed(MatrixExpression x) {
+        return switch (x.op) {
+            case TRANSPOSE -> x.left;
+            // Опускаем к операндам: в слитом проходе транспонированные листья читаются как представления
+            case ADD, SUBTRACT, HADAMARD -> node(x.op, transposed(x.left), transposed(x.right), 0, x.cols, x.rows);
+            case SCALE -> node(Op.SCALE, transposed(x.left), null, x.factor, x.cols, x.rows);
+            default -> node(Op.TRANSPOSE, x, null, 0, x.cols, x.rows);
+        };
+    }
+
+    private static MatrixExpression inverted(MatrixExpression x) {
+        return switch (x.op) {
+            case TRANSPOSE -> transposed(inverted(x.left));
+            // Только при конечных c и c⁻¹: иначе вырожденность cA решает Matrix.inverse()
+            case SCALE -> x.factor != 0.0 && Double.isFinite(x.factor) && Double.isFinite(1.0 / x.factor)
+                    ? scaled(inverted(x.left), 1.0 / x.factor)
+                    : node(Op.INVERSE, x, null, 0, x.rows, x.cols);
+            default -> node(Op.INVERSE, x, null, 0, x.rows, x.cols);
+        };
+    }
+
+    private static MatrixExpression product(MatrixExpression l, MatrixExpression r) {
+        if (l.op == Op.INVERSE) {
+            return solve(l.left, r);
+        }
+        if (l.op == Op.TRANSPOSE && l.left.op == Op.INVERSE) {
+            return solve(transposed(l.left.left), r);
+        }
+        if (r.op == Op.INVERSE) {
+            // B A⁻¹ = (A⁻ᵀ Bᵀ)ᵀ
+            return transposed(solve(transposed(r.left), transposed(l)));
+        }
+        if (r.op == Op.TRANSPOSE && r.left.op == Op.INVERSE) {
+            // B A⁻ᵀ = (A⁻¹ Bᵀ)ᵀ
+            return transposed(solve(r.left.left, transposed(l)));
+        }
+        return node(Op.PRODUCT, l, r, 0, l.rows, r.cols);
+    }
+
+    private static MatrixExpression solve(MatrixExpression a, MatrixExpression b) {
+        return node(Op.SOLVE, a, b, 0, a.cols, b.cols);
+    }
+
+    private static MatrixExpression scaled(MatrixExpression x, double factor) {
+        if (factor == 1.0) {
+            return x;
+        }
+        if (x.op == Op.SCALE) {
+            return scaled(x.left, x.factor * factor);
+        }
+        return node(Op.SCALE, x, null, factor, x.rows, x.cols);
+    }
+
+    // --- Вычисление ---
+
+    /**
+     * Упрощает и вычисляет выражение.
+     * @return Результат; может быть представлением исходной матрицы.
+     * @throws MatrixOperationException если обращаемая матрица вырождена.
+     */
+    public Matrix evaluate() throws MatrixOperationException {
+        MatrixExpression root = simplify();
+        return root.compute(new Evaluation(root));
+    }
+
+    // Состояние одного вычисления: готовые результаты узлов и число родителей каждого узла
+    private static final class Evaluation {
+        final Map<MatrixExpression, Matrix> results = new IdentityHashMap<>();
+        final Map<MatrixExpression, Integer> parents = new IdentityHashMap<>();
+        final Map<MatrixExpression, Integer> levels = new IdentityHashMap<>();
+        final Map<MatrixExpression, Integer> stages = new IdentityHashMap<>();
+        // Для getElement: прочитанные элементы разделяемых узлов и решённые столбцы SOLVE/INVERSE
+        final Map<MatrixExpression, Map<Long, Double>> elements = new IdentityHashMap<>();
+        final Map<MatrixExpression, Map<Integer, Matrix>> columns = new IdentityHashMap<>();
+
+        Evaluation(MatrixExpression root) {
+            countParents(root);
+        }
+
+        private void countParents(MatrixExpression node) {
+            for (MatrixExpression child : new MatrixExpression[]{node.left, node.right}) {
+                // Потомков узла обходим только при первой встрече с ним
+                if (child != null && parents.merge(child, 1, Integer::sum) == 1) {
+                    countParents(child);
+                }
+            }
+        }
+
+        // Поэлементный узел с единственным родителем считается внутри слитого прохода родителя;
+        // разделяемый материализуется один раз и читается как готовая матрица
+        boolean inlined(MatrixExpression node) {
+            return node.op.isElementwise() && parents.getOrDefault(node, 0) <= 1;
+        }
+
+        boolean shared(MatrixExpression node) {
+            return parents.getOrDefault(node, 0) > 1;
+        }
+    }
+
+    private Matrix compute(Evaluation evaluation) throws MatrixOperationException {
+        Matrix done = evaluation.results.get(this);
+        if (done != null) {
+            return done;
+        }
+        Matrix result = switch (op) {
+            case LEAF -> matrix;
+            case TRANSPOSE -> left.compute(evaluation).transpose();
+            case INVERSE -> left.compute(evaluation).inverse();
+            case PRODUCT -> left.compute(evaluation).multiply(right.compute(evaluation));
+            case SOLVE -> left.compute(evaluation).solve(right.compute(evaluation));
+            default -> fused(evaluation);
+        };
+        evaluation.results.put(this, result);
+        return result;
+    }
+
+    // Слитый проход: поддерево поэлементных узлов считается построчно во временных строках
+    private Matrix fused(Evaluation evaluation) throws MatrixOperationException {
+        computeInputs(evaluation);
+        int levels = scratchLevels(evaluation);
+        int stages = countStages(evaluation);
+        Matrix result = new Matrix(rows, cols);
+        double[] out = result.buffer();
+        GaussJordanKernel.forRows(rows, (long) cols * stages, (from, to) -> {
+            double[][] scratch = new double[levels][cols];
+            for (int i = from; i < to; i++) {
+                evaluateRow(i, out, i * cols, scratch, 0, evaluation);
+            }
+        });
+        return result;
+    }
+
+    // Вычисляет (или берёт готовыми) все операнды слитого поддерева, которые в него не встраиваются
+    private void computeInputs(Evaluation evaluation) throws MatrixOperationException {
+        for (MatrixExpression child : new MatrixExpression[]{left, right}) {
+            if (child == null) {
+                continue;
+            }
+            if (evaluation.inlined(child)) {
+                child.computeInputs(evaluation);
+            } else {
+                child.compute(evaluation);
+            }
+        }
+    }
+
+    // Сколько временных строк нужно одновременно: правый операнд бинарного узла занимает новый уровень
+    private int scratchLevels(Evaluation evaluation) {
+        Integer done = evaluation.levels.get(this);
+        if (done != null) {
+            return done;
+        }
+        int leftLevels = evaluation.inlined(left) ? left.scratchLevels(evaluation) : 0;
+        int levels = op == Op.SCALE ? leftLevels
+                : Math.max(leftLevels, 1 + (evaluation.inlined(right) ? right.scratchLevels(evaluation) : 0));
+        evaluation.levels.put(this, levels);
+        return levels;
+    }
+
+    private int countStages(Evaluation evaluation) {
+        Integer done = evaluation.stages.get(this);
+        if (done != null) {
+            return done;
+        }
+        int stages = 1 + (evaluation.inlined(left) ? left.countStages(evaluation) : 1);
+        if (right != null) {
+            stages += evaluation.inlined(right) ? right.countStages(evaluation) : 1;
+        }
+        evaluation.stages.put(this, stages);
+        return stages;
+    }
+
+    private void evaluateRow(int i, double[] dst, int dstOffset, double[][] scratch, int level,
+                             Evaluation evaluation) {
+        operandRow(left, i, dst, dstOffset, scratch, level, evaluation);
+        if (op == Op.SCALE) {
+            for (int j = 0; j < cols; j++) {
+                dst[dstOffset + j] *= factor;
+            }
+            return;
+        }
+        double[] tmp = scratch[level];
+        operandRow(right, i, tmp, 0, scratch, level + 1, evaluation);
+        if (op == Op.ADD) {
+            for (int j = 0; j < cols; j++) {
+                dst[dstOffset + j] += tmp[j];
+            }
+        } else if (op == Op.SUBTRACT) {
+            for (int j = 0; j < cols; j++) {
+                dst[dstOffset + j] -= tmp[j];
+            }
+        } else {
+            for (int j = 0; j < cols; j++) {
+                dst[dstOffset + j] *= tmp[j];
+            }
+        }
+    }
+
+    private static void operandRow(MatrixExpression operand, int i, double[] dst, int dstOffset, double[][] scratch,
+                                   int level, Evaluation evaluation) {
+        if (evaluation.inlined(operand)) {
+            operand.evaluateRow(i, dst, dstOffset, scratch, level, evaluation);
+        } else {
+            evaluation.results.get(operand).copyRow(i, dst, dstOffset);
+        }
+    }
+
+    /**
+     * Вычисляет один элемент, не материализуя результат целиком: транспонирование и поэлементные
+     * операции читают только нужные элементы операндов, произведение — одну строку и один столбец,
+     * решение системы и обратная матрица — один столбец по (кэшируемому в матрице) LU-разложению.
+     * Разделяемые узлы и столбцы решений вычисляются не более одного раза за вызов.
+     * Для многократного доступа к элементам выгоднее один раз вызвать {@link #evaluate()}.
+     * @throws MatrixOperationException если обращаемая матрица вырождена.
+     */
+    public double getElement(int row, int col) throws MatrixOperationException {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+        }
+        MatrixExpression root = simplify();
+        return root.element(row, col, new Evaluation(root));
+    }
+
+    // Элемент разделяемого узла запоминается: иначе он пересчитывался бы по каждому пути к нему
+    private double element(int i, int j, Evaluation evaluation) throws MatrixOperationException {
+        if (!evaluation.shared(this)) {
+            return computeElement(i, j, evaluation);
+        }
+        Map<Long, Double> done = evaluation.elements.computeIfAbsent(this, node -> new HashMap<>());
+        long key = (long) i * cols + j;
+        Double value = done.get(key);
+        if (value == null) {
+            value = computeElement(i, j, evaluation);
+            done.put(key, value);
+        }
+        return value;
+    }
+
+    private double computeElement(int i, int j, Evaluation evaluation) throws MatrixOperationException {
+        return switch (op) {
+            case LEAF -> matrix.getElement(i, j);
+            case TRANSPOSE -> left.element(j, i, evaluation);
+            case ADD -> left.element(i, j, evaluation) + right.element(i, j, evaluation);
+            case SUBTRACT -> left.element(i, j, evaluation) - right.element(i, j, evaluation);
+            case HADAMARD -> left.element(i, j, evaluation) * right.element(i, j, evaluation);
+            case SCALE -> factor * left.element(i, j, evaluation);
+            case PRODUCT -> {
+                double sum = 0.0;
+                for (int k = 0; k < left.cols; k++) {
+                    sum += left.element(i, k, evaluation) * right.element(k, j, evaluation);
+                }
+                yield sum;
+            }
+            case SOLVE, INVERSE -> solutionColumn(j, evaluation).getElement(i, 0);
+        };
+    }
+
+    // Столбец j решения A X = B (для обратной матрицы B = E): правая часть собирается
+    // поэлементно, матрица A вычисляется один раз, каждый столбец решается один раз
+    private Matrix solutionColumn(int j, Evaluation evaluation) throws MatrixOperationException {
+        Map<Integer, Matrix> done = evaluation.columns.computeIfAbsent(this, node -> new HashMap<>());
+        Matrix solution = done.get(j);
+        if (solution == null) {
+            Matrix rhs = new Matrix(left.rows, 1);
+            if (op == Op.INVERSE) {
+                rhs.setElement(j, 0, 1.0);
+            } else {
+                for (int k = 0; k < left.rows; k++) {
+                    rhs.setElement(k, 0, right.element(k, j, evaluation));
+                }
+            }
+            solution = left.compute(evaluation).solve(rhs);
+            done.put(j, solution);
+        }
+        return solution;
+    }
+
+    @Override
+    public String toString() {
+        return switch (op) {
+            case LEAF -> "[" + rows + "x" + cols + "]";
+            case SCALE -> "scale(" + left + ", " + factor + ")";
+            case TRANSPOSE, INVERSE -> op.name().toLowerCase(Locale.ROOT) + "(" + left + ")";
+            default -> op.name().toLowerCase(Locale.ROOT) + "(" + left + ", " + right + ")";
+        };
+    }
+}
@@ -0,0 +1,381 @@
+package com.azapps.matrixapp.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Чтение и запись матриц в компактном двоичном формате ({@value #EXTENSION}).
+ * <p>
+ * Формат (все числа little-endian):
+ * <pre>
+ *  0  magic "AZMX"        4 байта
+ *  4  версия              2 байта (1)
+ *  6  тип элементов       1 байт  (1 = float64)
+ *  7  раскладка           1 байт  (0 = по строкам, 1 = по столбцам)
+ *  8  сжатие              1 байт  (0 = нет, 1 = Deflate)
+ *  9  резерв              3 байта
+ * 12  rows                4 байта
+ * 16  cols                4 байта
+ * 20  строк во фрагменте  4 байта (для раскладки по столбцам — столбцов)
+ * 24  резерв              8 байт
+ * 32  данные
+ * </pre>
+ * Без сжатия данные — подряд идущие double, поэтому такой файл можно отобразить в память
+ * через {@link #map(Path)}. Со сжатием данные разбиты на фрагменты из целых строк,
+ * каждый записан как длина (4 байта) и поток Deflate.
+ * <p>
+ * Чтение и запись идут через {@link FileChannel} буфером фиксированного размера
+ * прямо в массив {@link Matrix} и из него, без промежуточного {@code double[][]}.
+ * Между буферами сообщается прогресс и проверяется отмена ({@link ProgressMonitor}).
+ */
+public final class MatrixFile {
+
+    /** Расширение файлов формата. */
+    public static final String EXTENSION = ".azmx";
+
+    /** Сжатие данных. */
+    public enum Compression {
+        /** Без сжатия: файл можно отобразить в память. */
+        NONE,
+        /** Фрагменты сжимаются алгоритмом Deflate. */
+        DEFLATE
+    }
+
+    static final int HEADER_SIZE = 32;
+    private static final int MAGIC = 0x584D5A41; // "AZMX" в little-endian
+    private static final short VERSION = 1;
+    private static final byte DTYPE_FLOAT64 = 1;
+    private static final byte LAYOUT_ROW_MAJOR = 0;
+    private static final byte LAYOUT_COLUMN_MAJOR = 1;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+
+    private MatrixFile() {
+    }
+
+    /**
+     * Записывает матрицу без сжатия.
+     * @throws IOException при ошибке записи.
+     */
+    public static void write(Matrix matrix, Path file) throws IOException {
+        write(matrix, file, Compression.NONE);
+    }
+
+    /**
+     * Записывает матрицу в файл. Транспонированное представление непрерывной матрицы
+     * записывается по столбцам прямо из общего буфера, без копирования.
+     * @throws IOException при ошибке записи.
+     */
+    public static void write(Matrix matrix, Path file, Compression compression) throws IOException {
+        write(matrix, file, compression, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Записывает матрицу в файл, сообщая монитору число записанных строк хранимой матрицы.
+     * При отмене недописанный файл удаляется.
+     * @throws IOException при ошибке записи.
+     * @throws CancellationException если монитор запросил отмену.
+     */
+    public static void write(Matrix matrix, Path file, Compression compression, ProgressMonitor monitor)
+            throws IOException {
+        try {
+            writeFile(matrix, file, compression, monitor);
+        } catch (CancellationException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static void writeFile(Matrix matrix, Path file, Compression compression, ProgressMonitor monitor)
+            throws IOException {
+        // Раскладка по столбцам: хранимая матрица — транспонированная
+        boolean columnMajor = !matrix.isContiguous() && matrix.transpose().isContiguous();
+        Matrix stored = columnMajor ? matrix.transpose() : matrix;
+        int rows = stored.getRows();
+        int cols = stored.getCols();
+        int chunkRows = (int) Math.max(1, Math.min(rows, IO_BUFFER_BYTES / ((long) cols * Double.BYTES)));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putShort(VERSION).put(DTYPE_FLOAT64)
+                    .put(columnMajor ? LAYOUT_COLUMN_MAJOR : LAYOUT_ROW_MAJOR)
+                    .put((byte) compression.ordinal());
+            header.position(12);
+            header.putInt(matrix.getRows()).putInt(matrix.getCols()).putInt(chunkRows);
+            header.clear();
+            writeFully(channel, header);
+
+            if (compression == Compression.NONE) {
+                writeRaw(channel, stored, monitor);
+            } else {
+                writeDeflated(channel, stored, chunkRows, monitor);
+            }
+        }
+    }
+
+    private static void writeRaw(FileChannel channel, Matrix stored, ProgressMonitor monitor) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int perBuffer = IO_BUFFER_BYTES / Double.BYTES;
+        int cols = stored.getCols();
+        if (stored.isContiguous()) {
+            double[] data = stored.buffer();
+            int total = stored.getRows() * cols;
+            for (int pos = 0; pos < total; pos += perBuffer) {
+                monitor.checkpoint(pos / cols, stored.getRows());
+                int count = Math.min(perBuffer, total - pos);
+                buffer.clear();
+                buffer.asDoubleBuffer().put(data, stored.offset() + pos, count);
+                buffer.limit(count * Double.BYTES);
+                writeFully(channel, buffer);
+            }
+            monitor.progress(stored.getRows(), stored.getRows());
+            return;
+        }
+        // Прочие представления: построчно через промежуточную строку
+        double[] row = new double[cols];
+        int rowsPerCheckpoint = Math.max(1, perBuffer / cols);
+        for (int i = 0; i < stored.getRows(); i++) {
+            if (i % rowsPerCheckpoint == 0) {
+                monitor.checkpoint(i, stored.getRows());
+            }
+            stored.copyRow(i, row, 0);
+            for (int pos = 0; pos < cols; pos += perBuffer) {
+                int count = Math.min(perBuffer, cols - pos);
+                buffer.clear();
+                buffer.asDoubleBuffer().put(row, pos, count);
+                buffer.limit(count * Double.BYTES);
+                writeFully(channel, buffer);
+            }
+        }
+        monitor.progress(stored.getRows(), stored.getRows());
+    }
+
+    private static void writeDeflated(FileChannel channel, Matrix stored, int chunkRows, ProgressMonitor monitor)
+            throws IOException {
+        int rows = stored.getRows();
+        int cols = stored.getCols();
+        ByteBuffer raw = ByteBuffer.allocate(chunkRows * cols * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer packed = ByteBuffer.allocate(raw.capacity() + raw.capacity() / 1000 + 64);
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        double[] row = new double[cols];
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            for (int r0 = 0; r0 < rows; r0 += chunkRows) {
+                monitor.checkpoint(r0, rows);
+                int count = Math.min(chunkRows, rows - r0);
+                raw.clear();
+                for (int i = 0; i < count; i++) {
+                    stored.copyRow(r0 + i, row, 0);
+                    raw.asDoubleBuffer().put(row);
+                    raw.position(raw.position() + cols * Double.BYTES);
+                }
+                raw.flip();
+                deflater.reset();
+                deflater.setInput(raw);
+                deflater.finish();
+                packed.clear();
+                while (!deflater.finished()) {
+                    if (!packed.hasRemaining()) {
+                        ByteBuffer larger = ByteBuffer.allocate(packed.capacity() * 2);
+                        packed.flip();
+                        larger.put(packed);
+                        packed = larger;
+                    }
+                    deflater.deflate(packed);
+                }
+                packed.flip();
+                length.clear();
+                length.putInt(packed.remaining()).flip();
+                writeFully(channel, length);
+                writeFully(channel, packed);
+            }
+            monitor.progress(rows, rows);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Читает матрицу из файла прямо в буфер новой {@link Matrix}.
+     * Файл с раскладкой по столбцам возвращается как транспонированное представление без копирования.
+     * @throws IOException при ошибке чтения или неверном формате файла.
+     */
+    public static Matrix read(Path file) throws IOException {
+        return read(file, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Читает матрицу, сообщая монитору число прочитанных строк хранимой матрицы.
+     * @throws IOException при ошибке чтения или неверном формате файла.
+     * @throws CancellationException если монитор запросил отмену.
+     */
+    public static Matrix read(Path file, ProgressMonitor monitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Header header = readHeader(channel);
+            if (header.compression() == Compression.NONE) {
+                // До выделения памяти: размер из заголовка обрезанного файла не должен стоить гигабайт
+                checkRawLength(channel, header);
+            }
+            Matrix stored = header.columnMajor()
+                    ? new Matrix(header.cols(), header.rows())
+                    : new Matrix(header.rows(), header.cols());
+            if (header.compression() == Compression.NONE) {
+                readRaw(channel, stored, monitor);
+            } else {
+                readDeflated(channel, stored, header.chunkRows(), monitor);
+            }
+            return header.columnMajor() ? stored.transpose() : stored;
+        }
+    }
+
+    /**
+     * Отображает несжатый файл с раскладкой по строкам в память без загрузки в кучу.
+     * @throws IOException при ошибке чтения или если файл сжат или записан по столбцам.
+     */
+    public static OffHeapMatrix map(Path file) throws IOException {
+        Header header;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            header = readHeader(channel);
+            checkRawLength(channel, header);
+        }
+        if (header.compression() != Compression.NONE || header.columnMajor()) {
+            throw new IOException("Отобразить в память можно только несжатый файл с раскладкой по строкам.");
+        }
+        return OffHeapMatrix.map(file, HEADER_SIZE, header.rows(), header.cols(), OffHeapMatrix.MAX_CHUNK_BYTES);
+    }
+
+    private static void checkRawLength(FileChannel channel, Header header) throws IOException {
+        long expected = HEADER_SIZE + (long) header.rows() * header.cols() * Double.BYTES;
+        if (channel.size() < expected) {
+            throw new EOFException("Файл матрицы обрезан: ожидалось " + expected + " байт.");
+        }
+    }
+
+    private static void readRaw(FileChannel channel, Matrix stored, ProgressMonitor monitor) throws IOException {
+        double[] data = stored.buffer();
+        int cols = stored.getCols();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int perBuffer = IO_BUFFER_BYTES / Double.BYTES;
+        for (int pos = 0; pos < data.length; pos += perBuffer) {
+            monitor.checkpoint(pos / cols, stored.getRows());
+            int count = Math.min(perBuffer, data.length - pos);
+            buffer.clear().limit(count * Double.BYTES);
+            readFully(channel, buffer);
+            buffer.flip();
+            buffer.asDoubleBuffer().get(data, pos, count);
+        }
+        monitor.progress(stored.getRows(), stored.getRows());
+    }
+
+    private static void readDeflated(FileChannel channel, Matrix stored, int chunkRows, ProgressMonitor monitor)
+            throws IOException {
+        int rows = stored.getRows();
+        int cols = stored.getCols();
+        double[] data = stored.buffer();
+        ByteBuffer raw = ByteBuffer.allocate(chunkRows * cols * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer packed = ByteBuffer.allocate(0);
+        Inflater inflater = new Inflater();
+        try {
+            for (int r0 = 0; r0 < rows; r0 += chunkRows) {
+                monitor.checkpoint(r0, rows);
+                int count = Math.min(chunkRows, rows - r0);
+                length.clear();
+                readFully(channel, length);
+                int packedLength = length.flip().getInt();
+                if (packedLength < 0 || packedLength > channel.size() - channel.position()) {
+                    throw new IOException("Повреждённый фрагмент в файле матрицы.");
+                }
+                if (packed.capacity() < packedLength) {
+                    packed = ByteBuffer.allocate(packedLength);
+                }
+                packed.clear().limit(packedLength);
+                readFully(channel, packed);
+                packed.flip();
+                inflater.reset();
+                inflater.setInput(packed);
+                raw.clear().limit(count * cols * Double.BYTES);
+                while (raw.hasRemaining() && !inflater.finished()) {
+                    if (inflater.inflate(raw) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                }
+                if (raw.hasRemaining()) {
+                    throw new IOException("Повреждённый фрагмент в файле матрицы: не хватает данных.");
+                }
+                raw.flip();
+                raw.asDoubleBuffer().get(data, r0 * cols, count * cols);
+            }
+            monitor.progress(rows, rows);
+        } catch (DataFormatException e) {
+            throw new IOException("Повреждённый фрагмент в файле матрицы.", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private record Header(int rows, int cols, boolean columnMajor, Compression compression, int chunkRows) {
+    }
+
+    private static Header readHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, header);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Файл не является файлом матрицы (неверная сигнатура).");
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Неподдерживаемая версия формата: " + version + ".");
+        }
+        byte dtype = header.get();
+        if (dtype != DTYPE_FLOAT64) {
+            throw new IOException("Неподдерживаемый тип элементов: " + dtype + ".");
+        }
+        byte layout = header.get();
+        byte compression = header.get();
+        if ((layout != LAYOUT_ROW_MAJOR && layout != LAYOUT_COLUMN_MAJOR)
+                || compression < 0 || compression >= Compression.values().length) {
+            throw new IOException("Повреждённый заголовок файла матрицы.");
+        }
+        header.position(12);
+        int rows = header.getInt();
+        int cols = header.getInt();
+        int chunkRows = header.getInt();
+        if (rows <= 0 || cols <= 0 || chunkRows <= 0) {
+            throw new IOException("Повреждённый заголовок файла матрицы.");
+        }
+        boolean columnMajor = layout == LAYOUT_COLUMN_MAJOR;
+        // Фрагмент — целые строки хранимой матрицы и должен помещаться в один буфер
+        int storedRows = columnMajor ? cols : rows;
+        int storedCols = columnMajor ? rows : cols;
+        if (chunkRows > storedRows || (long) chunkRows * storedCols * Double.BYTES > Integer.MAX_VALUE) {
+            throw new IOException("Повреждённый заголовок файла матрицы: неверный размер фрагмента " + chunkRows + ".");
+        }
+        return new Header(rows, cols, columnMajor, Compression.values()[compression], chunkRows);
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Файл матрицы обрезан.");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * Структура квадратной матрицы, определяемая {@link Matrix#structure()} по точному
+ * совпадению элементов. По ней {@link Matrix#inverse()} и {@link Matrix#determinant()}
+ * выбирают специализированный алгоритм.
+ */
+public enum MatrixStructure {
+    /** Общая плотная матрица (в том числе любая прямоугольная). */
+    GENERAL,
+    /** Все элементы вне диагонали равны нулю. */
+    DIAGONAL,
+    /** Все элементы над диагональю равны нулю. */
+    LOWER_TRIANGULAR,
+    /** Все элементы под диагональю равны нулю. */
+    UPPER_TRIANGULAR,
+    /**
+     * A = A^T. Если диагональ положительна, для обращения и определителя пробуется разложение
+     * Холецкого; матрица, не оказавшаяся положительно определённой, обрабатывается как общая.
+     */
+    SYMMETRIC
+}
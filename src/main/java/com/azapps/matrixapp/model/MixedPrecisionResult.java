@@ -0,0 +1,15 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * Результат решения в смешанной точности ({@link Matrix#solveMixedPrecision(Matrix)},
+ * {@link Matrix#inverseMixedPrecision()}).
+ *
+ * @param solution Решение X (для обратной матрицы — сама обратная).
+ * @param residual Достигнутая относительная невязка {@code ||B - A X|| / (||A|| * ||X||)}
+ *                 в максимальной строчной норме, вычисленная в двойной точности.
+ * @param iterations Число шагов итерационного уточнения (0, если уточнение не понадобилось).
+ * @param doubleFallback {@code true}, если уточнение не сошлось (или разложение в float
+ *                       невозможно) и решение получено полностью в двойной точности.
+ */
+public record MixedPrecisionResult(Matrix solution, double residual, int iterations, boolean doubleFallback) {
+}
@@ -0,0 +1,120 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * Решение A * X = B в смешанной точности с итерационным уточнением.
+ * <p>
+ * Разложение за O(n^3) выполняется в одинарной точности ({@link FloatLUDecomposition}):
+ * вдвое больше дорожек в векторах и вдвое меньше трафика памяти. Затем решение уточняется
+ * в двойной точности: невязка R = B - A X считается в double, поправка D из A D = R —
+ * по тому же float-разложению (O(n^2) на правую часть), X += D. Для достаточно хорошо
+ * обусловленных матриц несколько шагов восстанавливают точность double.
+ * <p>
+ * Если разложение в float невозможно (вырождено или элементы не помещаются в float)
+ * или невязка перестаёт убывать, задача решается заново полностью в double через
+ * кэшированное {@link LUDecomposition}.
+ */
+final class MixedPrecisionSolver {
+
+    private static final int MAX_ITERATIONS = 30;
+    private static final double EPS = Math.ulp(1.0) / 2;
+
+    private MixedPrecisionSolver() {
+    }
+
+    static MixedPrecisionResult solve(Matrix a, Matrix b) throws MatrixOperationException {
+        int n = a.getRows();
+        int m = b.getCols();
+        double aNorm = normInf(a);
+        if (!(aNorm <= Float.MAX_VALUE)) {
+            return solveDouble(a, b, aNorm);
+        }
+        FloatLUDecomposition lu = new FloatLUDecomposition(FloatMatrix.fromMatrix(a));
+        if (lu.isSingular()) {
+            return solveDouble(a, b, aNorm);
+        }
+
+        double[] rhs = rowMajor(b);
+        float[] correction = new float[n * m];
+        lu.solve(rhs, m, correction);
+        Matrix x = new Matrix(n, m);
+        double[] xd = x.buffer();
+        for (int i = 0; i < xd.length; i++) {
+            xd[i] = correction[i];
+        }
+
+        // Уточнение прекращается, когда невязка на уровне округления double (критерий LAPACK dsgesv)
+        double tolerance = Math.sqrt(n) * EPS;
+        double[] residual = new double[n * m];
+        double previous = Double.POSITIVE_INFINITY;
+        for (int iteration = 0; iteration <= MAX_ITERATIONS; iteration++) {
+            double rNorm = residual(a, x, rhs, residual);
+            double xNorm = normInf(x);
+            double relative = xNorm == 0.0 ? rNorm : rNorm / (aNorm * xNorm);
+            if (relative <= tolerance) {
+                return new MixedPrecisionResult(x, relative, iteration, false);
+            }
+            if (!(rNorm < 0.5 * previous) || iteration == MAX_ITERATIONS) {
+                // Невязка не убывает: обусловленность слишком велика для float-разложения
+                return solveDouble(a, b, aNorm);
+            }
+            previous = rNorm;
+            lu.solve(residual, m, correction);
+            for (int i = 0; i < xd.length; i++) {
+                xd[i] += correction[i];
+            }
+            x.markModified();
+        }
+        return solveDouble(a, b, aNorm);
+    }
+
+    private static MixedPrecisionResult solveDouble(Matrix a, Matrix b, double aNorm) throws MatrixOperationException {
+        Matrix x = a.solve(b);
+        double[] rhs = rowMajor(b);
+        double rNorm = residual(a, x, rhs, new double[rhs.length]);
+        double xNorm = normInf(x);
+        return new MixedPrecisionResult(x, xNorm == 0.0 ? rNorm : rNorm / (aNorm * xNorm), 0, true);
+    }
+
+    private static double[] rowMajor(Matrix b) {
+        int m = b.getCols();
+        double[] result = new double[b.getRows() * m];
+        for (int i = 0; i < b.getRows(); i++) {
+            b.copyRow(i, result, i * m);
+        }
+        return result;
+    }
+
+    // out = B - A * X (построчно); возвращает ||out||_inf
+    private static double residual(Matrix a, Matrix x, double[] b, double[] out) throws MatrixOperationException {
+        Matrix ax = a.multiply(x);
+        double[] axd = ax.buffer();
+        int m = x.getCols();
+        double norm = 0.0;
+        for (int i = 0; i < a.getRows(); i++) {
+            double rowSum = 0.0;
+            for (int j = 0; j < m; j++) {
+                int p = i * m + j;
+                double r = b[p] - axd[p];
+                out[p] = r;
+                rowSum += Math.abs(r);
+            }
+            norm = Math.max(norm, rowSum);
+        }
+        return norm;
+    }
+
+    // Максимальная сумма модулей по строкам
+    private static double normInf(Matrix matrix) {
+        double norm = 0.0;
+        double[] row = new double[matrix.getCols()];
+        for (int i = 0; i < matrix.getRows(); i++) {
+            matrix.copyRow(i, row, 0);
+            double sum = 0.0;
+            for (double v : row) {
+                sum += Math.abs(v);
+            }
+            norm = Math.max(norm, sum);
+        }
+        return norm;
+    }
+}
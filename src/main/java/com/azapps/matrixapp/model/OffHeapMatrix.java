@@ -0,0 +1,397 @@
+package com.azapps.matrixapp.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Плотная матрица, хранящаяся вне кучи Java: в прямых (direct) буферах или в файле,
+ * отображённом в память.
+ * <p>
+ * Элементы лежат построчно в формате little-endian double. Хранилище разбито на фрагменты
+ * из целых строк, каждый не больше {@link #MAX_CHUNK_BYTES} (предел одного {@link ByteBuffer}),
+ * поэтому общий размер не ограничен ни кучей, ни 2 ГБ. Операции над всей матрицей
+ * ({@link #transposeTo}, {@link #invertInPlace}) проходят хранилище блоками, и в куче
+ * одновременно находится лишь O(n * ширина панели) элементов.
+ * <p>
+ * API Foreign Function &amp; Memory ({@code MemorySegment}) в Java 21 ещё в режиме preview,
+ * поэтому используются буферы NIO, которые дают то же размещение вне кучи и отображение файлов.
+ */
+public class OffHeapMatrix implements AutoCloseable {
+
+    static final long MAX_CHUNK_BYTES = 1L << 30;
+    private static final int DEFAULT_PANEL = 128;
+    private static final int TRANSPOSE_TILE = 512;
+
+    private final int rows;
+    private final int cols;
+    private final int rowsPerChunk;
+    private final DoubleBuffer[] chunks;
+    private final MappedByteBuffer[] mapped;
+
+    private OffHeapMatrix(int rows, int cols, int rowsPerChunk, DoubleBuffer[] chunks, MappedByteBuffer[] mapped) {
+        this.rows = rows;
+        this.cols = cols;
+        this.rowsPerChunk = rowsPerChunk;
+        this.chunks = chunks;
+        this.mapped = mapped;
+    }
+
+    /**
+     * Выделяет матрицу в прямых буферах вне кучи. Элементы инициализированы нулями.
+     */
+    public static OffHeapMatrix allocate(int rows, int cols) {
+        return allocate(rows, cols, MAX_CHUNK_BYTES);
+    }
+
+    static OffHeapMatrix allocate(int rows, int cols, long maxChunkBytes) {
+        int rowsPerChunk = rowsPerChunk(rows, cols, maxChunkBytes);
+        int chunkCount = (rows + rowsPerChunk - 1) / rowsPerChunk;
+        DoubleBuffer[] chunks = new DoubleBuffer[chunkCount];
+        for (int c = 0; c < chunkCount; c++) {
+            int chunkRows = Math.min(rowsPerChunk, rows - c * rowsPerChunk);
+            chunks[c] = ByteBuffer.allocateDirect(chunkRows * cols * Double.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return new OffHeapMatrix(rows, cols, rowsPerChunk, chunks, null);
+    }
+
+    /**
+     * Отображает файл в память как матрицу rows x cols (данные с начала файла).
+     * Если файл меньше нужного размера, он создаётся или расширяется нулями.
+     * Изменения элементов записываются в файл операционной системой; {@link #close()} сбрасывает их на диск.
+     * @throws IOException при ошибке работы с файлом.
+     */
+    public static OffHeapMatrix map(Path file, int rows, int cols) throws IOException {
+        return map(file, 0L, rows, cols, MAX_CHUNK_BYTES);
+    }
+
+    static OffHeapMatrix map(Path file, long dataOffset, int rows, int cols, long maxChunkBytes) throws IOException {
+        int rowsPerChunk = rowsPerChunk(rows, cols, maxChunkBytes);
+        int chunkCount = (rows + rowsPerChunk - 1) / rowsPerChunk;
+        DoubleBuffer[] chunks = new DoubleBuffer[chunkCount];
+        MappedByteBuffer[] mapped = new MappedByteBuffer[chunkCount];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long rowBytes = (long) cols * Double.BYTES;
+            for (int c = 0; c < chunkCount; c++) {
+                int chunkRows = Math.min(rowsPerChunk, rows - c * rowsPerChunk);
+                long position = dataOffset + (long) c * rowsPerChunk * rowBytes;
+                mapped[c] = channel.map(FileChannel.MapMode.READ_WRITE, position, chunkRows * rowBytes);
+                chunks[c] = mapped[c].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+        }
+        return new OffHeapMatrix(rows, cols, rowsPerChunk, chunks, mapped);
+    }
+
+    private static int rowsPerChunk(int rows, int cols, long maxChunkBytes) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Размеры матрицы должны быть положительными.");
+        }
+        long rowBytes = (long) cols * Double.BYTES;
+        if (rowBytes > maxChunkBytes) {
+            throw new IllegalArgumentException("Строка матрицы не помещается в один фрагмент хранилища.");
+        }
+        return (int) Math.min(rows, maxChunkBytes / rowBytes);
+    }
+
+    /**
+     * Копирует плотную матрицу из кучи в новое хранилище вне кучи.
+     */
+    public static OffHeapMatrix fromMatrix(Matrix matrix) {
+        OffHeapMatrix result = allocate(matrix.getRows(), matrix.getCols());
+        double[] row = new double[matrix.getCols()];
+        for (int i = 0; i < matrix.getRows(); i++) {
+            matrix.copyRow(i, row, 0);
+            result.writeRow(i, 0, row, 0, row.length);
+        }
+        return result;
+    }
+
+    /**
+     * Копирует матрицу в кучу.
+     * @throws IllegalArgumentException если матрица слишком велика для {@link Matrix}.
+     */
+    public Matrix toMatrix() {
+        Matrix result = new Matrix(rows, cols);
+        double[] data = result.buffer();
+        for (int i = 0; i < rows; i++) {
+            readRow(i, 0, data, i * cols, cols);
+        }
+        return result;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /** Проверяет, отображена ли матрица из файла. */
+    public boolean isMapped() {
+        return mapped != null;
+    }
+
+    public double getElement(int row, int col) {
+        checkIndex(row, col);
+        return chunks[row / rowsPerChunk].get((row % rowsPerChunk) * cols + col);
+    }
+
+    public void setElement(int row, int col, double value) {
+        checkIndex(row, col);
+        chunks[row / rowsPerChunk].put((row % rowsPerChunk) * cols + col, value);
+    }
+
+    private void checkIndex(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+        }
+    }
+
+    /** Читает отрезок строки [fromCol, fromCol + length) в массив. */
+    public void readRow(int row, int fromCol, double[] dest, int destOffset, int length) {
+        chunks[row / rowsPerChunk].get((row % rowsPerChunk) * cols + fromCol, dest, destOffset, length);
+    }
+
+    /** Записывает отрезок строки [fromCol, fromCol + length) из массива. */
+    public void writeRow(int row, int fromCol, double[] src, int srcOffset, int length) {
+        chunks[row / rowsPerChunk].put((row % rowsPerChunk) * cols + fromCol, src, srcOffset, length);
+    }
+
+    private void swapRows(int r1, int r2, double[] buffer1, double[] buffer2) {
+        readRow(r1, 0, buffer1, 0, cols);
+        readRow(r2, 0, buffer2, 0, cols);
+        writeRow(r1, 0, buffer2, 0, cols);
+        writeRow(r2, 0, buffer1, 0, cols);
+    }
+
+    // --- Потоковые операции ---
+
+    /**
+     * Записывает транспонированную матрицу в {@code dest} (размер cols x rows) плитками:
+     * плитка читается в кучу, транспонируется блочным ядром и записывается обратно.
+     */
+    public void transposeTo(OffHeapMatrix dest) {
+        if (dest.rows != cols || dest.cols != rows) {
+            throw new IllegalArgumentException("Размер приёмника должен быть " + cols + "x" + rows + ".");
+        }
+        for (int i0 = 0; i0 < rows; i0 += TRANSPOSE_TILE) {
+            int h = Math.min(TRANSPOSE_TILE, rows - i0);
+            for (int j0 = 0; j0 < cols; j0 += TRANSPOSE_TILE) {
+                int w = Math.min(TRANSPOSE_TILE, cols - j0);
+                Matrix tile = new Matrix(h, w);
+                double[] td = tile.buffer();
+                for (int i = 0; i < h; i++) {
+                    readRow(i0 + i, j0, td, i * w, w);
+                }
+                double[] transposed = tile.transpose().copy().buffer();
+                for (int j = 0; j < w; j++) {
+                    dest.writeRow(j0 + j, i0, transposed, j * h, h);
+                }
+            }
+        }
+    }
+
+    /**
+     * Создаёт транспонированную матрицу в новом хранилище вне кучи.
+     */
+    public OffHeapMatrix transpose() {
+        OffHeapMatrix result = allocate(cols, rows);
+        transposeTo(result);
+        return result;
+    }
+
+    /**
+     * Обращает матрицу на месте методом Гаусса-Жордана, проходя хранилище блоками строк.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public void invertInPlace() throws MatrixOperationException {
+        invertInPlace(DEFAULT_PANEL);
+    }
+
+    /**
+     * Обращает матрицу на месте с заданной шириной панели. В куче одновременно находятся
+     * панель n x panelWidth, сохранённые ведущие строки panelWidth x n и один блок строк.
+     * Каждая панель — один проход по хранилищу, поэтому более широкая панель уменьшает
+     * объём ввода-вывода ценой памяти.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public void invertInPlace(int panelWidth) throws MatrixOperationException {
+        invertInPlace(panelWidth, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Обращает матрицу на месте, сообщая монитору о прогрессе (в столбцах) после каждой панели.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     * @throws java.util.concurrent.CancellationException если монитор запросил отмену.
+     */
+    public void invertInPlace(int panelWidth, ProgressMonitor monitor) throws MatrixOperationException {
+        if (rows != cols) {
+            throw new MatrixOperationException("Матрица должна быть квадратной для нахождения обратной.");
+        }
+        if (panelWidth <= 0) {
+            throw new IllegalArgumentException("Ширина панели должна быть положительной.");
+        }
+        int n = rows;
+        int b = Math.min(panelWidth, n);
+        int[] pivots = new int[n];
+        double[] panel = new double[n * b];
+        double[] saved = new double[b * n];
+        double[] rowA = new double[n];
+        double[] rowB = new double[n];
+        int blockRows = Math.max(1, b);
+        double[] block = new double[blockRows * n];
+
+        monitor.checkpoint(0, n);
+        for (int k0 = 0; k0 < n; k0 += b) {
+            int k1 = Math.min(k0 + b, n);
+            int width = k1 - k0;
+            // 1. Загружаем столбцы панели
+            for (int i = 0; i < n; i++) {
+                readRow(i, k0, panel, i * width, width);
+            }
+            // 2. Шаги Гаусса-Жордана в куче; перестановки строк — и в панели, и в хранилище
+            for (int k = k0; k < k1; k++) {
+                int kc = k - k0;
+                int maxRow = k;
+                double maxAbs = Math.abs(panel[k * width + kc]);
+                for (int i = k + 1; i < n; i++) {
+                    double v = Math.abs(panel[i * width + kc]);
+                    if (v > maxAbs) {
+                        maxAbs = v;
+                        maxRow = i;
+                    }
+                }
+                if (maxAbs < LUDecomposition.SINGULARITY_THRESHOLD) {
+                    throw new MatrixOperationException(LUDecomposition.SINGULAR_INVERSE_MESSAGE);
+                }
+                pivots[k] = maxRow;
+                if (maxRow != k) {
+                    swapRows(k, maxRow, rowA, rowB);
+                    for (int t = 0; t < width; t++) {
+                        double tmp = panel[k * width + t];
+                        panel[k * width + t] = panel[maxRow * width + t];
+                        panel[maxRow * width + t] = tmp;
+                    }
+                }
+                int pivotRow = k * width;
+                double inv = 1.0 / panel[pivotRow + kc];
+                panel[pivotRow + kc] = 1.0;
+                for (int t = 0; t < width; t++) {
+                    panel[pivotRow + t] *= inv;
+                }
+                final int step = k;
+                GaussJordanKernel.forRows(n, width, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        if (i == step) {
+                            continue;
+                        }
+                        int row = i * width;
+                        double factor = panel[row + kc];
+                        if (factor != 0.0) {
+                            panel[row + kc] = 0.0;
+                            for (int t = 0; t < width; t++) {
+                                panel[row + t] -= factor * panel[pivotRow + t];
+                            }
+                        }
+                    }
+                });
+            }
+            // 3. Сохраняем ведущие строки панели (уже после перестановок) до обновления
+            for (int t = 0; t < width; t++) {
+                readRow(k0 + t, 0, saved, t * n, n);
+            }
+            // 4. Потоковое обновление остальных столбцов блоками строк
+            for (int r0 = 0; r0 < n; r0 += blockRows) {
+                int r1 = Math.min(r0 + blockRows, n);
+                int count = r1 - r0;
+                for (int i = 0; i < count; i++) {
+                    readRow(r0 + i, 0, block, i * n, n);
+                    System.arraycopy(panel, (r0 + i) * width, block, i * n + k0, width);
+                }
+                final int base = r0;
+                final int start = k0;
+                final int end = k1;
+                GaussJordanKernel.forRows(count, (long) width * n, (from, to) -> {
+                    for (int i = from; i < to; i++) {
+                        int row = i * n;
+                        int global = base + i;
+                        boolean pivotRow = global >= start && global < end;
+                        updateSegment(block, row, saved, n, start, end, 0, start, pivotRow);
+                        updateSegment(block, row, saved, n, start, end, end, n, pivotRow);
+                    }
+                });
+                for (int i = 0; i < count; i++) {
+                    writeRow(r0 + i, 0, block, i * n, n);
+                }
+            }
+            monitor.checkpoint(k1, n);
+        }
+        // 5. Перестановки строк исходной матрицы — это перестановки столбцов обратной
+        for (int i = 0; i < n; i++) {
+            readRow(i, 0, rowA, 0, n);
+            for (int k = n - 1; k >= 0; k--) {
+                int p = pivots[k];
+                if (p != k) {
+                    double tmp = rowA[k];
+                    rowA[k] = rowA[p];
+                    rowA[p] = tmp;
+                }
+            }
+            writeRow(i, 0, rowA, 0, n);
+        }
+    }
+
+    private static void updateSegment(double[] a, int row, double[] saved, int n, int k0, int k1,
+                                      int from, int to, boolean pivotRow) {
+        if (from >= to) {
+            return;
+        }
+        if (pivotRow) {
+            for (int j = from; j < to; j++) {
+                a[row + j] = 0.0;
+            }
+        }
+        for (int t = 0; t < k1 - k0; t++) {
+            double w = a[row + k0 + t];
+            if (w != 0.0) {
+                int src = t * n;
+                for (int j = from; j < to; j++) {
+                    a[row + j] += w * saved[src + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает изменения отображённого файла на диск. Для прямых буферов ничего не делает.
+     */
+    public void flush() {
+        if (mapped != null) {
+            for (MappedByteBuffer buffer : mapped) {
+                buffer.force();
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает изменения на диск. Память буферов освобождается сборщиком мусора,
+     * когда на матрицу не остаётся ссылок.
+     */
+    @Override
+    public void close() {
+        flush();
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapMatrix[" + rows + "x" + cols + (mapped != null ? ", mapped" : ", direct") + "]";
+    }
+}
@@ -0,0 +1,39 @@
+package com.azapps.matrixapp.model;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Наблюдатель за ходом длительной операции над матрицей.
+ * <p>
+ * Операция периодически (между блоками вычислений) сообщает о прогрессе и проверяет
+ * {@link #isCancelled()}; при отмене она прерывается исключением {@link CancellationException},
+ * а содержимое изменяемой на месте матрицы остаётся неопределённым.
+ */
+public interface ProgressMonitor {
+
+    /** Монитор, который ничего не отслеживает и никогда не отменяет операцию. */
+    ProgressMonitor NONE = (done, total) -> { };
+
+    /**
+     * Сообщает, что выполнено {@code done} из {@code total} единиц работы.
+     */
+    void progress(long done, long total);
+
+    /**
+     * Проверяет, запрошена ли отмена операции.
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+
+    /**
+     * Сообщает о прогрессе и прерывает операцию, если запрошена отмена.
+     * @throws CancellationException если операция отменена.
+     */
+    default void checkpoint(long done, long total) {
+        if (isCancelled() || Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Операция отменена.");
+        }
+        progress(done, total);
+    }
+}
@@ -0,0 +1,177 @@
+package com.azapps.matrixapp.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Кэш производных результатов (обратная матрица, LU-разложение, определитель) по содержимому
+ * матрицы. Ключ — {@link Matrix.Fingerprint} замороженной матрицы, поэтому результат находится
+ * и для другого экземпляра с тем же содержимым (например, повторно прочитанного файла).
+ * <p>
+ * Размер кэша ограничен суммарным объёмом результатов в байтах; при переполнении вытесняются
+ * давно не использованные записи (LRU). Запоминаются и ошибки обращения вырожденной матрицы,
+ * чтобы повторный запрос не повторял O(n^3) работу.
+ * <p>
+ * Кэш потокобезопасен. Вычисление выполняется вне блокировки: одновременные промахи по одному
+ * ключу могут вычислить результат дважды, но в кэше останется один. Возвращаемые матрицы
+ * заморожены и разделяются между всеми запросившими.
+ */
+public final class ResultCache {
+
+    /** Снимок метрик кэша. */
+    public record Stats(long hits, long misses, long evictions, int entries, long weightBytes, long maxWeightBytes) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Кэш: попаданий %d, промахов %d (%.1f%% попаданий), вытеснено %d, записей %d, занято %.1f из %.1f МБ",
+                    hits, misses, hitRate() * 100, evictions, entries, weightBytes / 1048576.0, maxWeightBytes / 1048576.0);
+        }
+    }
+
+    private enum Kind {
+        INVERSE, LU, DETERMINANT
+    }
+
+    private record Key(Matrix.Fingerprint fingerprint, Kind kind) {
+    }
+
+    // value — Matrix, LUDecomposition, Double или String (сообщение MatrixOperationException)
+    private record Entry(Object value, long weight) {
+    }
+
+    // Приблизительные накладные расходы на запись: ключ, узел таблицы, заголовки объектов
+    private static final long ENTRY_OVERHEAD = 128;
+
+    private final long maxWeightBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weightBytes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxWeightBytes Наибольший суммарный объём хранимых результатов в байтах.
+     */
+    public ResultCache(long maxWeightBytes) {
+        if (maxWeightBytes <= 0) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным.");
+        }
+        this.maxWeightBytes = maxWeightBytes;
+    }
+
+    /**
+     * Возвращает обратную матрицу из кэша или вычисляет её через {@link Matrix#inverse()}.
+     * @param matrix Замороженная матрица.
+     * @return Замороженная обратная матрица.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная (в том числе из кэша).
+     * @throws IllegalArgumentException если матрица не заморожена.
+     */
+    public Matrix inverse(Matrix matrix) throws MatrixOperationException {
+        Key key = key(matrix, Kind.INVERSE);
+        Object cached = get(key);
+        if (cached == null) {
+            try {
+                Matrix inverse = matrix.inverse().freeze();
+                put(key, inverse, 8L * inverse.getRows() * inverse.getCols());
+                return inverse;
+            } catch (MatrixOperationException e) {
+                put(key, e.getMessage(), 2L * e.getMessage().length());
+                throw e;
+            }
+        }
+        if (cached instanceof String message) {
+            throw new MatrixOperationException(message);
+        }
+        return (Matrix) cached;
+    }
+
+    /**
+     * Возвращает LU-разложение из кэша или вычисляет его через {@link Matrix#lu()}.
+     * @param matrix Замороженная квадратная матрица.
+     * @throws MatrixOperationException если матрица не квадратная.
+     * @throws IllegalArgumentException если матрица не заморожена.
+     */
+    public LUDecomposition lu(Matrix matrix) throws MatrixOperationException {
+        Key key = key(matrix, Kind.LU);
+        Object cached = get(key);
+        if (cached == null) {
+            LUDecomposition lu = matrix.lu();
+            int n = lu.getSize();
+            put(key, lu, 8L * n * n + 4L * n);
+            return lu;
+        }
+        return (LUDecomposition) cached;
+    }
+
+    /**
+     * Возвращает определитель из кэша или вычисляет его через {@link Matrix#determinant()}.
+     * @param matrix Замороженная квадратная матрица.
+     * @throws MatrixOperationException если матрица не квадратная.
+     * @throws IllegalArgumentException если матрица не заморожена.
+     */
+    public double determinant(Matrix matrix) throws MatrixOperationException {
+        Key key = key(matrix, Kind.DETERMINANT);
+        Object cached = get(key);
+        if (cached == null) {
+            double determinant = matrix.determinant();
+            put(key, determinant, 16);
+            return determinant;
+        }
+        return (Double) cached;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weightBytes, maxWeightBytes);
+    }
+
+    /** Удаляет все записи; счётчики метрик сохраняются. */
+    public synchronized void clear() {
+        entries.clear();
+        weightBytes = 0;
+    }
+
+    private static Key key(Matrix matrix, Kind kind) {
+        if (!matrix.isFrozen()) {
+            throw new IllegalArgumentException("Кэшировать можно только результаты для замороженной матрицы (Matrix.freeze()).");
+        }
+        return new Key(matrix.fingerprint(), kind);
+    }
+
+    private synchronized Object get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    private synchronized void put(Key key, Object value, long resultBytes) {
+        long weight = resultBytes + ENTRY_OVERHEAD;
+        if (weight > maxWeightBytes) {
+            return; // Результат больше всего кэша — не вытесняем ради него остальные
+        }
+        Entry previous = entries.put(key, new Entry(value, weight));
+        if (previous != null) {
+            weightBytes -= previous.weight();
+        }
+        weightBytes += weight;
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (weightBytes > maxWeightBytes) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            weightBytes -= evicted.weight();
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * Явные формулы определителя и обратной матрицы для размеров 2, 3 и 4.
+ * <p>
+ * Элемент (i, j) читается из {@code a[off + i * rs + j * cs]}, как в {@link Matrix}; для
+ * {@link MatrixBatch}, где матрицы хранятся «по элементам», шаги равны {@code n * count} и
+ * {@code count}. Все элементы читаются до первой записи, поэтому результат можно писать
+ * на место исходной матрицы (в том числе в её транспонированное представление).
+ * <p>
+ * Матрица считается вырожденной, если модуль определителя меньше
+ * {@link LUDecomposition#SINGULARITY_THRESHOLD} (или определитель не число).
+ */
+final class SmallMatrixKernel {
+
+    private SmallMatrixKernel() {
+    }
+
+    static boolean isSingular(double det) {
+        return !(Math.abs(det) >= LUDecomposition.SINGULARITY_THRESHOLD);
+    }
+
+    static double det2(double[] a, int off, int rs, int cs) {
+        return a[off] * a[off + rs + cs] - a[off + cs] * a[off + rs];
+    }
+
+    static double det3(double[] a, int off, int rs, int cs) {
+        double a00 = a[off], a01 = a[off + cs], a02 = a[off + 2 * cs];
+        double a10 = a[off + rs], a11 = a[off + rs + cs], a12 = a[off + rs + 2 * cs];
+        double a20 = a[off + 2 * rs], a21 = a[off + 2 * rs + cs], a22 = a[off + 2 * rs + 2 * cs];
+        return a00 * (a11 * a22 - a12 * a21)
+                + a01 * (a12 * a20 - a10 * a22)
+                + a02 * (a10 * a21 - a11 * a20);
+    }
+
+    // Разложение Лапласа по первым двум строкам: шесть миноров 2x2 сверху и шесть снизу
+    static double det4(double[] a, int off, int rs, int cs) {
+        double a00 = a[off], a01 = a[off + cs], a02 = a[off + 2 * cs], a03 = a[off + 3 * cs];
+        double a10 = a[off + rs], a11 = a[off + rs + cs], a12 = a[off + rs + 2 * cs], a13 = a[off + rs + 3 * cs];
+        double a20 = a[off + 2 * rs], a21 = a[off + 2 * rs + cs], a22 = a[off + 2 * rs + 2 * cs], a23 = a[off + 2 * rs + 3 * cs];
+        double a30 = a[off + 3 * rs], a31 = a[off + 3 * rs + cs], a32 = a[off + 3 * rs + 2 * cs], a33 = a[off + 3 * rs + 3 * cs];
+        double s0 = a00 * a11 - a10 * a01;
+        double s1 = a00 * a12 - a10 * a02;
+        double s2 = a00 * a13 - a10 * a03;
+        double s3 = a01 * a12 - a11 * a02;
+        double s4 = a01 * a13 - a11 * a03;
+        double s5 = a02 * a13 - a12 * a03;
+        double c5 = a22 * a33 - a32 * a23;
+        double c4 = a21 * a33 - a31 * a23;
+        double c3 = a21 * a32 - a31 * a22;
+        double c2 = a20 * a33 - a30 * a23;
+        double c1 = a20 * a32 - a30 * a22;
+        double c0 = a20 * a31 - a30 * a21;
+        return s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+    }
+
+    /**
+     * Записывает обратную матрицу 2x2 в {@code r}. Для вырожденной матрицы результат не пишется.
+     * @return {@code false}, если матрица вырожденная.
+     */
+    static boolean inverse2(double[] a, int off, int rs, int cs, double[] r, int rOff, int rRs, int rCs) {
+        double a00 = a[off], a01 = a[off + cs], a10 = a[off + rs], a11 = a[off + rs + cs];
+        double det = a00 * a11 - a01 * a10;
+        if (isSingular(det)) {
+            return false;
+        }
+        double inv = 1.0 / det;
+        r[rOff] = a11 * inv;
+        r[rOff + rCs] = -a01 * inv;
+        r[rOff + rRs] = -a10 * inv;
+        r[rOff + rRs + rCs] = a00 * inv;
+        return true;
+    }
+
+    /**
+     * Записывает обратную матрицу 3x3 (присоединённая матрица, делённая на определитель).
+     * @return {@code false}, если матрица вырожденная.
+     */
+    static boolean inverse3(double[] a, int off, int rs, int cs, double[] r, int rOff, int rRs, int rCs) {
+        double a00 = a[off], a01 = a[off + cs], a02 = a[off + 2 * cs];
+        double a10 = a[off + rs], a11 = a[off + rs + cs], a12 = a[off + rs + 2 * cs];
+        double a20 = a[off + 2 * rs], a21 = a[off + 2 * rs + cs], a22 = a[off + 2 * rs + 2 * cs];
+        double c00 = a11 * a22 - a12 * a21;
+        double c01 = a12 * a20 - a10 * a22;
+        double c02 = a10 * a21 - a11 * a20;
+        double det = a00 * c00 + a01 * c01 + a02 * c02;
+        if (isSingular(det)) {
+            return false;
+        }
+        double inv = 1.0 / det;
+        r[rOff] = c00 * inv;
+        r[rOff + rCs] = (a02 * a21 - a01 * a22) * inv;
+        r[rOff + 2 * rCs] = (a01 * a12 - a02 * a11) * inv;
+        r[rOff + rRs] = c01 * inv;
+        r[rOff + rRs + rCs] = (a00 * a22 - a02 * a20) * inv;
+        r[rOff + rRs + 2 * rCs] = (a02 * a10 - a00 * a12) * inv;
+        r[rOff + 2 * rRs] = c02 * inv;
+        r[rOff + 2 * rRs + rCs] = (a01 * a20 - a00 * a21) * inv;
+        r[rOff + 2 * rRs + 2 * rCs] = (a00 * a11 - a01 * a10) * inv;
+        return true;
+    }
+
+    /**
+     * Записывает обратную матрицу 4x4 через миноры 2x2 (те же, что в {@link #det4}).
+     * @return {@code false}, если матрица вырожденная.
+     */
+    static boolean inverse4(double[] a, int off, int rs, int cs, double[] r, int rOff, int rRs, int rCs) {
+        double a00 = a[off], a01 = a[off + cs], a02 = a[off + 2 * cs], a03 = a[off + 3 * cs];
+        double a10 = a[off + rs], a11 = a[off + rs + cs], a12 = a[off + rs + 2 * cs], a13 = a[off + rs + 3 * cs];
+        double a20 = a[off + 2 * rs], a21 = a[off + 2 * rs + cs], a22 = a[off + 2 * rs + 2 * cs], a23 = a[off + 2 * rs + 3 * cs];
+        double a30 = a[off + 3 * rs], a31 = a[off + 3 * rs + cs], a32 = a[off + 3 * rs + 2 * cs], a33 = a[off + 3 * rs + 3 * cs];
+        double s0 = a00 * a11 - a10 * a01;
+        double s1 = a00 * a12 - a10 * a02;
+        double s2 = a00 * a13 - a10 * a03;
+        double s3 = a01 * a12 - a11 * a02;
+        double s4 = a01 * a13 - a11 * a03;
+        double s5 = a02 * a13 - a12 * a03;
+        double c5 = a22 * a33 - a32 * a23;
+        double c4 = a21 * a33 - a31 * a23;
+        double c3 = a21 * a32 - a31 * a22;
+        double c2 = a20 * a33 - a30 * a23;
+        double c1 = a20 * a32 - a30 * a22;
+        double c0 = a20 * a31 - a30 * a21;
+        double det = s0 * c5 - s1 * c4 + s2 * c3 + s3 * c2 - s4 * c1 + s5 * c0;
+        if (isSingular(det)) {
+            return false;
+        }
+        double inv = 1.0 / det;
+        r[rOff] = (a11 * c5 - a12 * c4 + a13 * c3) * inv;
+        r[rOff + rCs] = (-a01 * c5 + a02 * c4 - a03 * c3) * inv;
+        r[rOff + 2 * rCs] = (a31 * s5 - a32 * s4 + a33 * s3) * inv;
+        r[rOff + 3 * rCs] = (-a21 * s5 + a22 * s4 - a23 * s3) * inv;
+        r[rOff + rRs] = (-a10 * c5 + a12 * c2 - a13 * c1) * inv;
+        r[rOff + rRs + rCs] = (a00 * c5 - a02 * c2 + a03 * c1) * inv;
+        r[rOff + rRs + 2 * rCs] = (-a30 * s5 + a32 * s2 - a33 * s1) * inv;
+        r[rOff + rRs + 3 * rCs] = (a20 * s5 - a22 * s2 + a23 * s1) * inv;
+        r[rOff + 2 * rRs] = (a10 * c4 - a11 * c2 + a13 * c0) * inv;
+        r[rOff + 2 * rRs + rCs] = (-a00 * c4 + a01 * c2 - a03 * c0) * inv;
+        r[rOff + 2 * rRs + 2 * rCs] = (a30 * s4 - a31 * s2 + a33 * s0) * inv;
+        r[rOff + 2 * rRs + 3 * rCs] = (-a20 * s4 + a21 * s2 - a23 * s0) * inv;
+        r[rOff + 3 * rRs] = (-a10 * c3 + a11 * c1 - a12 * c0) * inv;
+        r[rOff + 3 * rRs + rCs] = (a00 * c3 - a01 * c1 + a02 * c0) * inv;
+        r[rOff + 3 * rRs + 2 * rCs] = (-a30 * s3 + a31 * s1 - a32 * s0) * inv;
+        r[rOff + 3 * rRs + 3 * rCs] = (a20 * s3 - a21 * s1 + a22 * s0) * inv;
+        return true;
+    }
+}
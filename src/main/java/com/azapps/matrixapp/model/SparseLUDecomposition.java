@@ -0,0 +1,409 @@
+package com.azapps.matrixapp.model;
+
+import java.util.Arrays;
+
+/**
+ * Разреженное LU-разложение P * A * Q = L * U (алгоритм Гилберта-Пирлса, left-looking).
+ * <p>
+ * Столбцы упорядочиваются обратным алгоритмом Катхилла-Макки по симметричному шаблону
+ * A + A^T: это сужает профиль матрицы и ограничивает заполнение. Для каждого столбца
+ * решается разреженная треугольная система с L, множество ненулевых элементов которой
+ * находится обходом в глубину по графу L, поэтому работа пропорциональна числу операций
+ * с ненулевыми элементами, а не n^2.
+ * <p>
+ * Ведущий элемент выбирается частичным выбором с порогом: диагональный элемент
+ * предпочтителен, если он не меньше {@link #PIVOT_TOLERANCE} от максимального в столбце —
+ * так сохраняется эффект упорядочивания.
+ */
+public class SparseLUDecomposition {
+
+    static final double PIVOT_TOLERANCE = 0.1;
+
+    private final int n;
+    // L: нижнетреугольная с единичной диагональю (первый элемент столбца), строки в переставленной нумерации
+    private int[] lp;
+    private int[] li;
+    private double[] lx;
+    // U: верхнетреугольная, диагональ — последний элемент столбца
+    private int[] up;
+    private int[] ui;
+    private double[] ux;
+    private final int[] pinv;
+    private final int[] q;
+
+    /**
+     * Выполняет разложение.
+     * @param matrix Квадратная разреженная матрица.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public SparseLUDecomposition(SparseMatrix matrix) throws MatrixOperationException {
+        if (matrix.getRows() != matrix.getCols()) {
+            throw new MatrixOperationException("LU-разложение возможно только для квадратной матрицы.");
+        }
+        this.n = matrix.getRows();
+        SparseMatrix a = matrix.toCSC();
+        this.q = reverseCuthillMcKee(a);
+        this.pinv = new int[n];
+        factor(a);
+    }
+
+    public int getSize() {
+        return n;
+    }
+
+    /** Число ненулевых элементов L (включая единичную диагональ). */
+    public int getLowerNonZeroCount() {
+        return lp[n];
+    }
+
+    /** Число ненулевых элементов U. */
+    public int getUpperNonZeroCount() {
+        return up[n];
+    }
+
+    /**
+     * Возвращает перестановку столбцов: k-й по порядку исключения столбец — это q[k].
+     */
+    public int[] getColumnPermutation() {
+        return q.clone();
+    }
+
+    private void factor(SparseMatrix a) throws MatrixOperationException {
+        int[] ap = a.pointers();
+        int[] ai = a.indices();
+        double[] ax = a.values();
+        int nnz = ap[n];
+
+        int capacity = 4 * nnz + n;
+        lp = new int[n + 1];
+        li = new int[capacity];
+        lx = new double[capacity];
+        up = new int[n + 1];
+        ui = new int[capacity];
+        ux = new double[capacity];
+        Arrays.fill(pinv, -1);
+
+        double[] x = new double[n];
+        int[] xi = new int[n];
+        int[] stack = new int[n];
+        int[] pstack = new int[n];
+        boolean[] marked = new boolean[n];
+        int lnz = 0;
+        int unz = 0;
+
+        for (int k = 0; k < n; k++) {
+            lp[k] = lnz;
+            up[k] = unz;
+            if (lnz + n > li.length) {
+                li = Arrays.copyOf(li, 2 * li.length + n);
+                lx = Arrays.copyOf(lx, li.length);
+            }
+            if (unz + n > ui.length) {
+                ui = Arrays.copyOf(ui, 2 * ui.length + n);
+                ux = Arrays.copyOf(ux, ui.length);
+            }
+
+            int col = q[k];
+            int top = sparseSolve(ap, ai, ax, col, xi, stack, pstack, marked, x);
+
+            int ipiv = -1;
+            double maxAbs = -1.0;
+            for (int p = top; p < n; p++) {
+                int i = xi[p];
+                if (pinv[i] < 0) {
+                    double t = Math.abs(x[i]);
+                    if (t > maxAbs) {
+                        maxAbs = t;
+                        ipiv = i;
+                    }
+                } else {
+                    ui[unz] = pinv[i];
+                    ux[unz++] = x[i];
+                }
+            }
+            if (ipiv == -1 || maxAbs < LUDecomposition.SINGULARITY_THRESHOLD) {
+                throw new MatrixOperationException("Матрица вырождена (определитель равен нулю), разложение невозможно.");
+            }
+            if (pinv[col] < 0 && Math.abs(x[col]) >= maxAbs * PIVOT_TOLERANCE) {
+                ipiv = col;
+            }
+
+            double pivot = x[ipiv];
+            ui[unz] = k;
+            ux[unz++] = pivot;
+            pinv[ipiv] = k;
+            li[lnz] = ipiv;
+            lx[lnz++] = 1.0;
+            for (int p = top; p < n; p++) {
+                int i = xi[p];
+                if (pinv[i] < 0) {
+                    li[lnz] = i;
+                    lx[lnz++] = x[i] / pivot;
+                }
+                x[i] = 0.0;
+            }
+        }
+        lp[n] = lnz;
+        up[n] = unz;
+        // Переводим номера строк L в нумерацию после перестановки
+        for (int p = 0; p < lnz; p++) {
+            li[p] = pinv[li[p]];
+        }
+        li = Arrays.copyOf(li, lnz);
+        lx = Arrays.copyOf(lx, lnz);
+        ui = Arrays.copyOf(ui, unz);
+        ux = Arrays.copyOf(ux, unz);
+    }
+
+    // x = L \ A(:, col); возвращает начало топологически упорядоченного множества ненулевых в xi[top..n)
+    private int sparseSolve(int[] ap, int[] ai, double[] ax, int col,
+                            int[] xi, int[] stack, int[] pstack, boolean[] marked, double[] x) {
+        int top = n;
+        for (int p = ap[col]; p < ap[col + 1]; p++) {
+            int i = ai[p];
+            if (!marked[i]) {
+                top = depthFirst(i, top, xi, stack, pstack, marked);
+            }
+        }
+        for (int p = top; p < n; p++) {
+            marked[xi[p]] = false;
+        }
+        for (int p = top; p < n; p++) {
+            x[xi[p]] = 0.0;
+        }
+        for (int p = ap[col]; p < ap[col + 1]; p++) {
+            x[ai[p]] = ax[p];
+        }
+        for (int px = top; px < n; px++) {
+            int j = xi[px];
+            int column = pinv[j];
+            if (column < 0) {
+                continue; // строка ещё не ведущая — столбца L для неё нет
+            }
+            double xj = x[j]; // диагональ L единичная
+            for (int p = lp[column] + 1; p < lp[column + 1]; p++) {
+                x[li[p]] -= lx[p] * xj;
+            }
+        }
+        return top;
+    }
+
+    // Нерекурсивный обход в глубину от узла start по графу L (узлы — исходные номера строк)
+    private int depthFirst(int start, int top, int[] xi, int[] stack, int[] pstack, boolean[] marked) {
+        int head = 0;
+        stack[0] = start;
+        while (head >= 0) {
+            int j = stack[head];
+            int column = pinv[j];
+            if (!marked[j]) {
+                marked[j] = true;
+                pstack[head] = column < 0 ? 0 : lp[column] + 1;
+            }
+            boolean done = true;
+            int end = column < 0 ? 0 : lp[column + 1];
+            for (int p = pstack[head]; p < end; p++) {
+                int i = li[p];
+                if (marked[i]) {
+                    continue;
+                }
+                pstack[head] = p + 1;
+                stack[++head] = i;
+                done = false;
+                break;
+            }
+            if (done) {
+                head--;
+                xi[--top] = j;
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Решает систему A * x = b.
+     * @param b Правая часть длины n.
+     * @return Решение x.
+     * @throws MatrixOperationException если длина правой части не совпадает с размером матрицы.
+     */
+    public double[] solve(double[] b) throws MatrixOperationException {
+        if (b.length != n) {
+            throw new MatrixOperationException("Длина правой части должна совпадать с размером матрицы.");
+        }
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[pinv[i]] = b[i];
+        }
+        solveInPlace(x);
+        double[] result = new double[n];
+        for (int k = 0; k < n; k++) {
+            result[q[k]] = x[k];
+        }
+        return result;
+    }
+
+    /**
+     * Решает систему A * X = B для плотной матрицы правых частей (по столбцам).
+     * @throws MatrixOperationException если число строк B не совпадает с размером матрицы.
+     */
+    public Matrix solve(Matrix b) throws MatrixOperationException {
+        if (b.getRows() != n) {
+            throw new MatrixOperationException("Число строк правой части должно совпадать с размером матрицы.");
+        }
+        int m = b.getCols();
+        Matrix result = new Matrix(n, m);
+        double[] x = new double[n];
+        for (int j = 0; j < m; j++) {
+            for (int i = 0; i < n; i++) {
+                x[pinv[i]] = b.getElement(i, j);
+            }
+            solveInPlace(x);
+            for (int k = 0; k < n; k++) {
+                result.setElement(q[k], j, x[k]);
+            }
+        }
+        return result;
+    }
+
+    private void solveInPlace(double[] x) {
+        // L y = x (диагональ — первый элемент столбца, равна 1)
+        for (int j = 0; j < n; j++) {
+            double xj = x[j];
+            if (xj != 0.0) {
+                for (int p = lp[j] + 1; p < lp[j + 1]; p++) {
+                    x[li[p]] -= lx[p] * xj;
+                }
+            }
+        }
+        // U z = y (диагональ — последний элемент столбца)
+        for (int j = n - 1; j >= 0; j--) {
+            x[j] /= ux[up[j + 1] - 1];
+            double xj = x[j];
+            if (xj != 0.0) {
+                for (int p = up[j]; p < up[j + 1] - 1; p++) {
+                    x[ui[p]] -= ux[p] * xj;
+                }
+            }
+        }
+    }
+
+    /**
+     * Вычисляет определитель по диагонали U и знакам перестановок строк и столбцов.
+     */
+    public double getDeterminant() {
+        double det = permutationSign(pinv) * permutationSign(q);
+        for (int j = 0; j < n; j++) {
+            det *= ux[up[j + 1] - 1];
+        }
+        return det;
+    }
+
+    private static int permutationSign(int[] perm) {
+        boolean[] visited = new boolean[perm.length];
+        int sign = 1;
+        for (int i = 0; i < perm.length; i++) {
+            if (visited[i]) {
+                continue;
+            }
+            int length = 0;
+            for (int j = i; !visited[j]; j = perm[j]) {
+                visited[j] = true;
+                length++;
+            }
+            if (length % 2 == 0) {
+                sign = -sign;
+            }
+        }
+        return sign;
+    }
+
+    // Обратный Катхилл-Макки по шаблону A + A^T; a — в формате CSC
+    private static int[] reverseCuthillMcKee(SparseMatrix a) {
+        int n = a.getRows();
+        SparseMatrix at = a.transpose();
+        int[] ap = a.pointers();
+        int[] ai = a.indices();
+        int[] tp = at.pointers();
+        int[] ti = at.indices();
+
+        // Симметричный шаблон без диагонали: слияние отсортированных списков столбцов A и A^T
+        int[] sp = new int[n + 1];
+        int[] si = new int[ap[n] + tp[n]];
+        int s = 0;
+        for (int j = 0; j < n; j++) {
+            int p1 = ap[j];
+            int p2 = tp[j];
+            while (p1 < ap[j + 1] || p2 < tp[j + 1]) {
+                int i;
+                if (p2 >= tp[j + 1] || (p1 < ap[j + 1] && ai[p1] <= ti[p2])) {
+                    i = ai[p1];
+                    if (p2 < tp[j + 1] && ti[p2] == i) {
+                        p2++;
+                    }
+                    p1++;
+                } else {
+                    i = ti[p2++];
+                }
+                if (i != j) {
+                    si[s++] = i;
+                }
+            }
+            sp[j + 1] = s;
+        }
+
+        int[] degree = new int[n];
+        for (int j = 0; j < n; j++) {
+            degree[j] = sp[j + 1] - sp[j];
+        }
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        int count = 0;
+        Integer[] byDegree = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            byDegree[i] = i;
+        }
+        Arrays.sort(byDegree, (x, y) -> Integer.compare(degree[x], degree[y]));
+        int[] buffer = new int[n];
+        for (Integer startNode : byDegree) {
+            if (visited[startNode]) {
+                continue;
+            }
+            // Каждая компонента связности обходится в ширину от вершины минимальной степени
+            int head = count;
+            order[count++] = startNode;
+            visited[startNode] = true;
+            while (head < count) {
+                int v = order[head++];
+                int added = 0;
+                for (int p = sp[v]; p < sp[v + 1]; p++) {
+                    int w = si[p];
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        buffer[added++] = w;
+                    }
+                }
+                sortByDegree(buffer, added, degree);
+                System.arraycopy(buffer, 0, order, count, added);
+                count += added;
+            }
+        }
+        for (int i = 0, j = n - 1; i < j; i++, j--) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        return order;
+    }
+
+    // Сортировка вставками: списки соседей обычно короткие
+    private static void sortByDegree(int[] nodes, int length, int[] degree) {
+        for (int i = 1; i < length; i++) {
+            int v = nodes[i];
+            int j = i - 1;
+            while (j >= 0 && degree[nodes[j]] > degree[v]) {
+                nodes[j + 1] = nodes[j];
+                j--;
+            }
+            nodes[j + 1] = v;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.azapps.matrixapp.model;
+
+import java.util.Arrays;
+
+/**
+ * Разреженная матрица в сжатом формате CSR (построчно) или CSC (по столбцам).
+ * <p>
+ * Хранятся только ненулевые элементы: для каждой строки (CSR) или столбца (CSC) массив
+ * {@code pointers} задаёт диапазон в массивах {@code indices} (номера столбцов или строк,
+ * по возрастанию) и {@code values}. Память и время операций пропорциональны числу
+ * ненулевых элементов nnz, а не rows * cols.
+ * <p>
+ * Объект неизменяем: преобразования возвращают новые матрицы.
+ */
+public class SparseMatrix {
+
+    /** Формат хранения. */
+    public enum Format {
+        /** Compressed Sparse Row: сжатые строки. */
+        CSR,
+        /** Compressed Sparse Column: сжатые столбцы. */
+        CSC
+    }
+
+    private final int rows;
+    private final int cols;
+    private final Format format;
+    private final int[] pointers;
+    private final int[] indices;
+    private final double[] values;
+
+    SparseMatrix(int rows, int cols, Format format, int[] pointers, int[] indices, double[] values) {
+        this.rows = rows;
+        this.cols = cols;
+        this.format = format;
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+    }
+
+    /**
+     * Создаёт матрицу из списка троек (строка, столбец, значение).
+     * Повторяющиеся позиции суммируются, явные нули не сохраняются.
+     * @return Матрица в формате CSR.
+     */
+    public static SparseMatrix fromTriplets(int rows, int cols, int[] rowIndices, int[] colIndices, double[] values) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Размеры матрицы должны быть положительными.");
+        }
+        if (rowIndices.length != colIndices.length || rowIndices.length != values.length) {
+            throw new IllegalArgumentException("Массивы строк, столбцов и значений должны иметь одинаковую длину.");
+        }
+        int nnz = values.length;
+        int[] pointers = new int[rows + 1];
+        for (int p = 0; p < nnz; p++) {
+            int r = rowIndices[p];
+            int c = colIndices[p];
+            if (r < 0 || r >= rows || c < 0 || c >= cols) {
+                throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+            }
+            pointers[r + 1]++;
+        }
+        for (int i = 0; i < rows; i++) {
+            pointers[i + 1] += pointers[i];
+        }
+        int[] next = Arrays.copyOf(pointers, rows);
+        int[] idx = new int[nnz];
+        double[] val = new double[nnz];
+        for (int p = 0; p < nnz; p++) {
+            int dst = next[rowIndices[p]]++;
+            idx[dst] = colIndices[p];
+            val[dst] = values[p];
+        }
+        // Двойное транспонирование сортирует индексы внутри строк; затем суммируем дубликаты
+        SparseMatrix unsorted = new SparseMatrix(rows, cols, Format.CSR, pointers, idx, val);
+        return unsorted.convert().convert().compact();
+    }
+
+    /**
+     * Преобразует плотную матрицу в разреженную (CSR), пропуская нулевые элементы.
+     */
+    public static SparseMatrix fromDense(Matrix matrix) {
+        int rows = matrix.getRows();
+        int cols = matrix.getCols();
+        double[] data = matrix.buffer();
+        int nnz = 0;
+        for (int i = 0; i < rows; i++) {
+            int base = matrix.offset() + i * matrix.rowStride();
+            for (int j = 0; j < cols; j++) {
+                if (data[base + j * matrix.colStride()] != 0.0) {
+                    nnz++;
+                }
+            }
+        }
+        int[] pointers = new int[rows + 1];
+        int[] idx = new int[nnz];
+        double[] val = new double[nnz];
+        int p = 0;
+        for (int i = 0; i < rows; i++) {
+            int base = matrix.offset() + i * matrix.rowStride();
+            for (int j = 0; j < cols; j++) {
+                double v = data[base + j * matrix.colStride()];
+                if (v != 0.0) {
+                    idx[p] = j;
+                    val[p++] = v;
+                }
+            }
+            pointers[i + 1] = p;
+        }
+        return new SparseMatrix(rows, cols, Format.CSR, pointers, idx, val);
+    }
+
+    /**
+     * Преобразует матрицу в плотную.
+     */
+    public Matrix toDense() {
+        Matrix result = new Matrix(rows, cols);
+        double[] data = result.buffer();
+        int major = majorDimension();
+        for (int a = 0; a < major; a++) {
+            for (int p = pointers[a]; p < pointers[a + 1]; p++) {
+                int b = indices[p];
+                if (format == Format.CSR) {
+                    data[a * cols + b] = values[p];
+                } else {
+                    data[b * cols + a] = values[p];
+                }
+            }
+        }
+        return result;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public int getNonZeroCount() {
+        return pointers[majorDimension()];
+    }
+
+    private int majorDimension() {
+        return format == Format.CSR ? rows : cols;
+    }
+
+    private int minorDimension() {
+        return format == Format.CSR ? cols : rows;
+    }
+
+    public double getElement(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+        }
+        int major = format == Format.CSR ? row : col;
+        int minor = format == Format.CSR ? col : row;
+        int p = Arrays.binarySearch(indices, pointers[major], pointers[major + 1], minor);
+        return p >= 0 ? values[p] : 0.0;
+    }
+
+    /**
+     * Возвращает ту же матрицу в формате CSR (за O(nnz), если требуется преобразование).
+     */
+    public SparseMatrix toCSR() {
+        return format == Format.CSR ? this : convert();
+    }
+
+    /**
+     * Возвращает ту же матрицу в формате CSC (за O(nnz), если требуется преобразование).
+     */
+    public SparseMatrix toCSC() {
+        return format == Format.CSC ? this : convert();
+    }
+
+    /**
+     * Транспонирует матрицу за O(nnz + n): массивы CSR матрицы A совпадают с массивами
+     * CSC матрицы A^T, поэтому достаточно одного преобразования CSR/CSC.
+     * @return Транспонированная матрица в том же формате, что и текущая.
+     */
+    public SparseMatrix transpose() {
+        SparseMatrix converted = convert();
+        return new SparseMatrix(cols, rows, format, converted.pointers, converted.indices, converted.values);
+    }
+
+    // CSR <-> CSC подсчётом: один проход для размеров, один для раскладки; индексы остаются отсортированными
+    private SparseMatrix convert() {
+        int major = majorDimension();
+        int minor = minorDimension();
+        int nnz = getNonZeroCount();
+        int[] newPointers = new int[minor + 1];
+        for (int p = 0; p < nnz; p++) {
+            newPointers[indices[p] + 1]++;
+        }
+        for (int i = 0; i < minor; i++) {
+            newPointers[i + 1] += newPointers[i];
+        }
+        int[] next = Arrays.copyOf(newPointers, minor);
+        int[] newIndices = new int[nnz];
+        double[] newValues = new double[nnz];
+        for (int a = 0; a < major; a++) {
+            for (int p = pointers[a]; p < pointers[a + 1]; p++) {
+                int dst = next[indices[p]]++;
+                newIndices[dst] = a;
+                newValues[dst] = values[p];
+            }
+        }
+        Format other = format == Format.CSR ? Format.CSC : Format.CSR;
+        return new SparseMatrix(rows, cols, other, newPointers, newIndices, newValues);
+    }
+
+    // Суммирует соседние одинаковые индексы (после сортировки) и удаляет нули
+    private SparseMatrix compact() {
+        int major = majorDimension();
+        int[] newPointers = new int[major + 1];
+        int[] newIndices = new int[getNonZeroCount()];
+        double[] newValues = new double[getNonZeroCount()];
+        int q = 0;
+        for (int a = 0; a < major; a++) {
+            int start = q;
+            for (int p = pointers[a]; p < pointers[a + 1]; p++) {
+                if (q > start && newIndices[q - 1] == indices[p]) {
+                    newValues[q - 1] += values[p];
+                } else {
+                    newIndices[q] = indices[p];
+                    newValues[q++] = values[p];
+                }
+            }
+            // Удаляем элементы, ставшие нулями после суммирования
+            int w = start;
+            for (int p = start; p < q; p++) {
+                if (newValues[p] != 0.0) {
+                    newIndices[w] = newIndices[p];
+                    newValues[w++] = newValues[p];
+                }
+            }
+            q = w;
+            newPointers[a + 1] = q;
+        }
+        return new SparseMatrix(rows, cols, format, newPointers,
+                Arrays.copyOf(newIndices, q), Arrays.copyOf(newValues, q));
+    }
+
+    /**
+     * Умножает матрицу на вектор: y = A * x.
+     * @throws MatrixOperationException если длина вектора не равна числу столбцов.
+     */
+    public double[] multiply(double[] x) throws MatrixOperationException {
+        if (x.length != cols) {
+            throw new MatrixOperationException("Длина вектора должна совпадать с числом столбцов матрицы.");
+        }
+        double[] y = new double[rows];
+        int major = majorDimension();
+        for (int a = 0; a < major; a++) {
+            if (format == Format.CSR) {
+                double sum = 0.0;
+                for (int p = pointers[a]; p < pointers[a + 1]; p++) {
+                    sum += values[p] * x[indices[p]];
+                }
+                y[a] = sum;
+            } else {
+                double xa = x[a];
+                for (int p = pointers[a]; p < pointers[a + 1]; p++) {
+                    y[indices[p]] += values[p] * xa;
+                }
+            }
+        }
+        return y;
+    }
+
+    /**
+     * Выполняет разреженное LU-разложение с упорядочиванием, уменьшающим заполнение.
+     * @throws MatrixOperationException если матрица не квадратная или вырожденная.
+     */
+    public SparseLUDecomposition lu() throws MatrixOperationException {
+        return new SparseLUDecomposition(this);
+    }
+
+    // --- Доступ к массивам для разреженных алгоритмов пакета ---
+
+    int[] pointers() {
+        return pointers;
+    }
+
+    int[] indices() {
+        return indices;
+    }
+
+    double[] values() {
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return "SparseMatrix[" + rows + "x" + cols + ", " + format + ", nnz=" + getNonZeroCount() + "]";
+    }
+}
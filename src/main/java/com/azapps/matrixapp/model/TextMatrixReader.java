@@ -0,0 +1,366 @@
+package com.azapps.matrixapp.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Параллельный импорт матрицы из текстового файла (CSV или числа через пробелы).
+ * <p>
+ * Строка файла — строка матрицы. Числа разделяются запятыми, точками с запятой,
+ * пробелами или табуляциями; пустые строки и строки, начинающиеся с {@code #}, пропускаются.
+ * Концы строк — {@code \n} или {@code \r\n}.
+ * <p>
+ * Файл отображается в память и делится на фрагменты по границам строк. Первый проход
+ * параллельно считает строки во фрагментах, второй — параллельно разбирает их прямо в
+ * буфер новой {@link Matrix}, каждый фрагмент со своей начальной строки. Числа разбираются
+ * без выделения памяти: мантисса до 18 цифр накапливается в {@code long}, и если она не больше
+ * 2^53, а десятичный порядок по модулю не больше 22, результат точно округляется одним
+ * умножением или делением. Остальные записи (длинные мантиссы, большие порядки, {@code NaN},
+ * {@code Infinity}) передаются {@link Double#parseDouble(String)}.
+ */
+public final class TextMatrixReader {
+
+    static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+
+    // Точные степени десяти, представимые в double
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final int MAX_MANTISSA_DIGITS = 18; // 10^18 < 2^63
+
+    private TextMatrixReader() {
+    }
+
+    /**
+     * Читает матрицу из текстового файла.
+     * @throws IOException при ошибке чтения или формата; сообщение содержит номер строки файла.
+     * @throws IllegalArgumentException если матрица не помещается в один массив.
+     */
+    public static Matrix read(Path file) throws IOException {
+        return read(file, ProgressMonitor.NONE);
+    }
+
+    /**
+     * Читает матрицу, сообщая монитору о прогрессе в байтах и проверяя отмену после каждого фрагмента.
+     * @throws IOException при ошибке чтения или формата; сообщение содержит номер строки файла.
+     * @throws IllegalArgumentException если матрица не помещается в один массив.
+     * @throws java.util.concurrent.CancellationException если монитор запросил отмену.
+     */
+    public static Matrix read(Path file, ProgressMonitor monitor) throws IOException {
+        return read(file, monitor, DEFAULT_CHUNK_BYTES);
+    }
+
+    static Matrix read(Path file, ProgressMonitor monitor, int chunkBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<Chunk> chunks = split(channel, size, chunkBytes);
+            // Первый проход: число строк файла и строк матрицы в каждом фрагменте
+            chunks.parallelStream().forEach(Chunk::count);
+
+            long rows = 0;
+            long lines = 0;
+            Chunk first = null;
+            for (Chunk chunk : chunks) {
+                chunk.firstRow = rows;
+                chunk.firstLine = lines + 1;
+                rows += chunk.rows;
+                lines += chunk.lines;
+                if (first == null && chunk.rows > 0) {
+                    first = chunk;
+                }
+            }
+            if (first == null) {
+                throw new IOException("Файл не содержит чисел.");
+            }
+            if (rows > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Матрица слишком велика: " + rows + " строк.");
+            }
+            int cols = first.firstRowWidth();
+            Matrix matrix = new Matrix((int) rows, cols);
+
+            // Второй проход: разбор прямо в буфер матрицы
+            double[] data = matrix.buffer();
+            AtomicLong done = new AtomicLong();
+            monitor.checkpoint(0, size);
+            IntStream.range(0, chunks.size()).parallel().forEach(c -> {
+                Chunk chunk = chunks.get(c);
+                chunk.parse(data, cols);
+                monitor.checkpoint(done.addAndGet(chunk.buffer.limit()), size);
+            });
+            for (Chunk chunk : chunks) {
+                if (chunk.error != null) {
+                    throw new IOException(chunk.error);
+                }
+            }
+            return matrix;
+        }
+    }
+
+    // Делит файл на фрагменты примерно по chunkBytes, заканчивающиеся концом строки
+    private static List<Chunk> split(FileChannel channel, long size, int chunkBytes) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        ByteBuffer probe = ByteBuffer.allocate(1 << 16);
+        long start = 0;
+        while (start < size) {
+            long end = start + chunkBytes < size ? lineEnd(channel, start + chunkBytes, size, probe) : size;
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Строка файла длиннее 2 ГБ (после байта " + start + ").");
+            }
+            chunks.add(new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start)));
+            start = end;
+        }
+        return chunks;
+    }
+
+    // Позиция сразу после первого '\n', начиная с position (или size, если его нет)
+    private static long lineEnd(FileChannel channel, long position, long size, ByteBuffer probe) throws IOException {
+        long pos = position;
+        while (pos < size) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return pos + i + 1;
+                }
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    private static final class Chunk {
+        final MappedByteBuffer buffer;
+        int lines;
+        int rows;
+        long firstLine;
+        long firstRow;
+        String error;
+        // Результат последнего разобранного числа
+        private double value;
+
+        Chunk(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void count() {
+            int limit = buffer.limit();
+            for (int pos = 0; pos < limit; ) {
+                int end = lineEnd(pos);
+                lines++;
+                if (isDataLine(pos, end)) {
+                    rows++;
+                }
+                pos = end + 1;
+            }
+        }
+
+        int firstRowWidth() throws IOException {
+            long line = firstLine;
+            for (int pos = 0; ; line++) {
+                int end = lineEnd(pos);
+                if (isDataLine(pos, end)) {
+                    try {
+                        return parseLine(pos, end, null, 0, 0, line);
+                    } catch (ParseError e) {
+                        throw new IOException(e.getMessage());
+                    }
+                }
+                pos = end + 1;
+            }
+        }
+
+        void parse(double[] data, int cols) {
+            int limit = buffer.limit();
+            long line = firstLine;
+            int offset = Math.toIntExact(firstRow * cols);
+            try {
+                for (int pos = 0; pos < limit; line++) {
+                    int end = lineEnd(pos);
+                    if (isDataLine(pos, end)) {
+                        int found = parseLine(pos, end, data, offset, cols, line);
+                        if (found != cols) {
+                            throw new ParseError(line, "ожидалось чисел: " + cols + ", найдено: " + found);
+                        }
+                        offset += cols;
+                    }
+                    pos = end + 1;
+                }
+            } catch (ParseError e) {
+                error = e.getMessage();
+            }
+        }
+
+        // Позиция '\n', завершающего строку, или limit для последней строки без перевода
+        private int lineEnd(int pos) {
+            int limit = buffer.limit();
+            while (pos < limit && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            return pos;
+        }
+
+        private boolean isDataLine(int pos, int end) {
+            pos = skipBlanks(pos, end);
+            return pos < end && buffer.get(pos) != '#';
+        }
+
+        private int skipBlanks(int pos, int end) {
+            while (pos < end && isBlank(buffer.get(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+
+        /**
+         * Разбирает числа строки [pos, end) в dest начиная с offset; пишется не больше max чисел.
+         * @return Число чисел в строке.
+         */
+        private int parseLine(int pos, int end, double[] dest, int offset, int max, long line) {
+            int count = 0;
+            boolean afterField = false;
+            boolean separatorPending = false;
+            while (true) {
+                pos = skipBlanks(pos, end);
+                if (pos >= end) {
+                    if (separatorPending) {
+                        throw new ParseError(line, "пустое поле " + (count + 1));
+                    }
+                    return count;
+                }
+                byte c = buffer.get(pos);
+                if (c == ',' || c == ';') {
+                    if (!afterField) {
+                        throw new ParseError(line, "пустое поле " + (count + 1));
+                    }
+                    afterField = false;
+                    separatorPending = true;
+                    pos++;
+                    continue;
+                }
+                pos = parseNumber(pos, end, line, count + 1);
+                if (count < max) {
+                    dest[offset + count] = value;
+                }
+                count++;
+                afterField = true;
+                separatorPending = false;
+            }
+        }
+
+        // Разбирает в value число, начинающееся в start (строка заканчивается в end); возвращает конец числа
+        private int parseNumber(int start, int end, long line, int field) {
+            int pos = start;
+            boolean negative = false;
+            byte c = buffer.get(pos);
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                pos++;
+            }
+            long mantissa = 0;
+            int significant = 0;
+            int exponent = 0;
+            boolean digits = false;
+            boolean exact = true;
+            for (; pos < end && isDigit(c = buffer.get(pos)); pos++) {
+                digits = true;
+                if (significant < MAX_MANTISSA_DIGITS) {
+                    mantissa = mantissa * 10 + (c - '0');
+                    if (mantissa != 0) {
+                        significant++;
+                    }
+                } else {
+                    exponent++;
+                    exact &= c == '0';
+                }
+            }
+            if (pos < end && buffer.get(pos) == '.') {
+                for (pos++; pos < end && isDigit(c = buffer.get(pos)); pos++) {
+                    digits = true;
+                    if (significant < MAX_MANTISSA_DIGITS) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (mantissa != 0) {
+                            significant++;
+                        }
+                        exponent--;
+                    } else {
+                        exact &= c == '0';
+                    }
+                }
+            }
+            if (digits && pos < end && ((c = buffer.get(pos)) == 'e' || c == 'E')) {
+                pos++;
+                boolean negativeExponent = false;
+                if (pos < end && ((c = buffer.get(pos)) == '-' || c == '+')) {
+                    negativeExponent = c == '-';
+                    pos++;
+                }
+                int exponentDigits = 0;
+                int written = 0;
+                for (; pos < end && isDigit(c = buffer.get(pos)); pos++, exponentDigits++) {
+                    written = Math.min(written * 10 + (c - '0'), 100_000);
+                }
+                if (exponentDigits == 0) {
+                    digits = false;
+                }
+                exponent += negativeExponent ? -written : written;
+            }
+            boolean tokenEnd = pos == end || isDelimiter(buffer.get(pos));
+            if (digits && tokenEnd && exact && mantissa <= MAX_EXACT_MANTISSA
+                    && exponent >= -22 && exponent <= 22) {
+                double v = mantissa;
+                v = exponent < 0 ? v / POWERS_OF_TEN[-exponent] : v * POWERS_OF_TEN[exponent];
+                value = negative ? -v : v;
+                return pos;
+            }
+            while (pos < end && !isDelimiter(buffer.get(pos))) {
+                pos++;
+            }
+            value = parseSlow(start, pos, line, field);
+            return pos;
+        }
+
+        private double parseSlow(int start, int end, long line, int field) {
+            byte[] bytes = new byte[end - start];
+            buffer.get(start, bytes);
+            String token = new String(bytes, StandardCharsets.ISO_8859_1);
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw new ParseError(line, "поле " + field + " не является числом: '" + token + "'");
+            }
+        }
+    }
+
+    private static boolean isDigit(byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isBlank(byte c) {
+        return c == ' ' || c == '\t' || c == '\r';
+    }
+
+    private static boolean isDelimiter(byte c) {
+        return isBlank(c) || c == ',' || c == ';';
+    }
+
+    // Ошибка формата внутри параллельного разбора; превращается в IOException
+    private static final class ParseError extends RuntimeException {
+        ParseError(long line, String message) {
+            super("Строка " + line + ": " + message + ".", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.azapps.matrixapp.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Блочное (tiled) транспонирование для плотных буферов {@link Matrix} и {@link FloatMatrix}.
+ * <p>
+ * Матрица обходится квадратными плитками, которые целиком помещаются в кэш L1:
+ * чтение плитки идёт по строкам источника, запись — по строкам приёмника, поэтому
+ * каждая загруженная кэш-линия используется полностью. Полосы плиток обрабатываются
+ * параллельно задачами {@link ForkJoinPool}.
+ * <p>
+ * Размер плитки определяется автоматически по размеру L1-кэша данных
+ * (на Linux читается из sysfs), может быть задан системным свойством
+ * {@code matrixapp.transpose.tileSize} или методом {@link #setTileSize(int)}.
+ */
+public final class TransposeKernel {
+
+    // Ниже этого числа элементов распараллеливание не окупается
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int DEFAULT_L1_BYTES = 32 * 1024;
+
+    private static final int AUTO_TILE_SIZE = detectTileSize();
+    private static volatile int tileSize = Integer.getInteger("matrixapp.transpose.tileSize", AUTO_TILE_SIZE);
+
+    private TransposeKernel() {
+    }
+
+    /**
+     * Возвращает текущий размер плитки (в элементах по каждой стороне).
+     */
+    public static int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Задаёт размер плитки. Значение 0 возвращает автоматически определённый размер.
+     * @param size Сторона плитки в элементах (неотрицательная).
+     */
+    public static void setTileSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Размер плитки не может быть отрицательным.");
+        }
+        tileSize = size == 0 ? AUTO_TILE_SIZE : size;
+    }
+
+    // Две плитки (источник и приёмник) должны занимать не больше половины L1
+    private static int detectTileSize() {
+        int l1 = readL1DataCacheBytes();
+        int tile = 8;
+        while (2L * (tile * 2) * (tile * 2) * Double.BYTES <= l1 / 2) {
+            tile *= 2;
+        }
+        return tile;
+    }
+
+    private static int readL1DataCacheBytes() {
+        Path cacheDir = Path.of("/sys/devices/system/cpu/cpu0/cache");
+        for (int index = 0; index < 4; index++) {
+            Path dir = cacheDir.resolve("index" + index);
+            try {
+                String level = Files.readString(dir.resolve("level")).trim();
+                String type = Files.readString(dir.resolve("type")).trim();
+                if ("1".equals(level) && ("Data".equals(type) || "Unified".equals(type))) {
+                    String size = Files.readString(dir.resolve("size")).trim();
+                    int multiplier = 1;
+                    if (size.endsWith("K")) {
+                        multiplier = 1024;
+                        size = size.substring(0, size.length() - 1);
+                    }
+                    return Integer.parseInt(size) * multiplier;
+                }
+            } catch (IOException | NumberFormatException | SecurityException e) {
+                // Нет информации о кэше (не Linux или нет доступа) — используем значение по умолчанию
+                return DEFAULT_L1_BYTES;
+            }
+        }
+        return DEFAULT_L1_BYTES;
+    }
+
+    /**
+     * Записывает транспонированную матрицу {@code source} в {@code dest}.
+     * Размеры {@code dest} должны быть cols x rows исходной.
+     */
+    static void transpose(Matrix source, Matrix dest) {
+        int rows = source.getRows();
+        int cols = source.getCols();
+        TransposeTask task = new TransposeTask(
+                source.buffer(), source.offset(), source.rowStride(), source.colStride(),
+                dest.buffer(), dest.offset(), dest.rowStride(), dest.colStride(),
+                rows, cols, 0, rows, tileSize);
+        if ((long) rows * cols < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * Записывает транспонированную матрицу одинарной точности {@code source} в {@code dest}.
+     * Размеры {@code dest} должны быть cols x rows исходной.
+     */
+    static void transpose(FloatMatrix source, FloatMatrix dest) {
+        int rows = source.getRows();
+        int cols = source.getCols();
+        FloatTransposeTask task = new FloatTransposeTask(
+                source.buffer(), source.offset(), source.rowStride(), source.colStride(),
+                dest.buffer(), dest.offset(), dest.rowStride(), dest.colStride(),
+                rows, cols, 0, rows, tileSize);
+        if ((long) rows * cols < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * Транспонирует квадратную матрицу на месте, обменивая симметричные плитки.
+     */
+    static void transposeSquareInPlace(Matrix matrix) {
+        int n = matrix.getRows();
+        InPlaceTask task = new InPlaceTask(matrix.buffer(), matrix.offset(), matrix.rowStride(), matrix.colStride(),
+                n, 0, n, tileSize);
+        if ((long) n * n < PARALLEL_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    // Обрабатывает полосу строк источника [fromRow, toRow), разбивая её пополам, пока она велика
+    private static final class TransposeTask extends RecursiveAction {
+        private final double[] src;
+        private final int srcOffset;
+        private final int srcRowStride;
+        private final int srcColStride;
+        private final double[] dst;
+        private final int dstOffset;
+        private final int dstRowStride;
+        private final int dstColStride;
+        private final int rows;
+        private final int cols;
+        private final int fromRow;
+        private final int toRow;
+        private final int tile;
+
+        TransposeTask(double[] src, int srcOffset, int srcRowStride, int srcColStride,
+                      double[] dst, int dstOffset, int dstRowStride, int dstColStride,
+                      int rows, int cols, int fromRow, int toRow, int tile) {
+            this.src = src;
+            this.srcOffset = srcOffset;
+            this.srcRowStride = srcRowStride;
+            this.srcColStride = srcColStride;
+            this.dst = dst;
+            this.dstOffset = dstOffset;
+            this.dstRowStride = dstRowStride;
+            this.dstColStride = dstColStride;
+            this.rows = rows;
+            this.cols = cols;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.tile = tile;
+        }
+
+        @Override
+        protected void compute() {
+            int bandRows = toRow - fromRow;
+            if (bandRows > tile && (long) bandRows * cols >= PARALLEL_THRESHOLD) {
+                // Делим по границе плиток, чтобы каждая задача работала с целыми полосами
+                int mid = fromRow + ((bandRows / tile) / 2) * tile;
+                if (mid == fromRow) {
+                    mid = fromRow + tile;
+                }
+                invokeAll(
+                        new TransposeTask(src, srcOffset, srcRowStride, srcColStride,
+                                dst, dstOffset, dstRowStride, dstColStride, rows, cols, fromRow, mid, tile),
+                        new TransposeTask(src, srcOffset, srcRowStride, srcColStride,
+                                dst, dstOffset, dstRowStride, dstColStride, rows, cols, mid, toRow, tile));
+                return;
+            }
+            for (int i0 = fromRow; i0 < toRow; i0 += tile) {
+                int iEnd = Math.min(i0 + tile, toRow);
+                for (int j0 = 0; j0 < cols; j0 += tile) {
+                    int jEnd = Math.min(j0 + tile, cols);
+                    for (int i = i0; i < iEnd; i++) {
+                        int s = srcOffset + i * srcRowStride;
+                        int d = dstOffset + i * dstColStride;
+                        for (int j = j0; j < jEnd; j++) {
+                            dst[d + j * dstRowStride] = src[s + j * srcColStride];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // То же, что TransposeTask, для буферов float
+    private static final class FloatTransposeTask extends RecursiveAction {
+        private final float[] src;
+        private final int srcOffset;
+        private final int srcRowStride;
+        private final int srcColStride;
+        private final float[] dst;
+        private final int dstOffset;
+        private final int dstRowStride;
+        private final int dstColStride;
+        private final int rows;
+        private final int cols;
+        private final int fromRow;
+        private final int toRow;
+        private final int tile;
+
+        FloatTransposeTask(float[] src, int srcOffset, int srcRowStride, int srcColStride,
+                           float[] dst, int dstOffset, int dstRowStride, int dstColStride,
+                           int rows, int cols, int fromRow, int toRow, int tile) {
+            this.src = src;
+            this.srcOffset = srcOffset;
+            this.srcRowStride = srcRowStride;
+            this.srcColStride = srcColStride;
+            this.dst = dst;
+            this.dstOffset = dstOffset;
+            this.dstRowStride = dstRowStride;
+            this.dstColStride = dstColStride;
+            this.rows = rows;
+            this.cols = cols;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.tile = tile;
+        }
+
+        @Override
+        protected void compute() {
+            int bandRows = toRow - fromRow;
+            if (bandRows > tile && (long) bandRows * cols >= PARALLEL_THRESHOLD) {
+                // Делим по границе плиток, чтобы каждая задача работала с целыми полосами
+                int mid = fromRow + ((bandRows / tile) / 2) * tile;
+                if (mid == fromRow) {
+                    mid = fromRow + tile;
+                }
+                invokeAll(
+                        new FloatTransposeTask(src, srcOffset, srcRowStride, srcColStride,
+                                dst, dstOffset, dstRowStride, dstColStride, rows, cols, fromRow, mid, tile),
+                        new FloatTransposeTask(src, srcOffset, srcRowStride, srcColStride,
+                                dst, dstOffset, dstRowStride, dstColStride, rows, cols, mid, toRow, tile));
+                return;
+            }
+            for (int i0 = fromRow; i0 < toRow; i0 += tile) {
+                int iEnd = Math.min(i0 + tile, toRow);
+                for (int j0 = 0; j0 < cols; j0 += tile) {
+                    int jEnd = Math.min(j0 + tile, cols);
+                    for (int i = i0; i < iEnd; i++) {
+                        int s = srcOffset + i * srcRowStride;
+                        int d = dstOffset + i * dstColStride;
+                        for (int j = j0; j < jEnd; j++) {
+                            dst[d + j * dstRowStride] = src[s + j * srcColStride];
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Обменивает плитки (I, J) и (J, I) для полос плиток [fromRow, toRow) над диагональю
+    private static final class InPlaceTask extends RecursiveAction {
+        private final double[] a;
+        private final int offset;
+        private final int rowStride;
+        private final int colStride;
+        private final int n;
+        private final int fromRow;
+        private final int toRow;
+        private final int tile;
+
+        InPlaceTask(double[] a, int offset, int rowStride, int colStride, int n, int fromRow, int toRow, int tile) {
+            this.a = a;
+            this.offset = offset;
+            this.rowStride = rowStride;
+            this.colStride = colStride;
+            this.n = n;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.tile = tile;
+        }
+
+        @Override
+        protected void compute() {
+            int bandRows = toRow - fromRow;
+            if (bandRows > tile && (long) bandRows * n >= PARALLEL_THRESHOLD) {
+                int mid = fromRow + ((bandRows / tile) / 2) * tile;
+                if (mid == fromRow) {
+                    mid = fromRow + tile;
+                }
+                invokeAll(new InPlaceTask(a, offset, rowStride, colStride, n, fromRow, mid, tile),
+                        new InPlaceTask(a, offset, rowStride, colStride, n, mid, toRow, tile));
+                return;
+            }
+            for (int i0 = fromRow; i0 < toRow; i0 += tile) {
+                int iEnd = Math.min(i0 + tile, n);
+                for (int j0 = i0; j0 < n; j0 += tile) {
+                    int jEnd = Math.min(j0 + tile, n);
+                    for (int i = i0; i < iEnd; i++) {
+                        // На диагональной плитке обмениваем только элементы над диагональю
+                        int jStart = (j0 == i0) ? i + 1 : j0;
+                        int rowBase = offset + i * rowStride;
+                        int colBase = offset + i * colStride;
+                        for (int j = jStart; j < jEnd; j++) {
+                            int p = rowBase + j * colStride;
+                            int q = colBase + j * rowStride;
+                            double t = a[p];
+                            a[p] = a[q];
+                            a[q] = t;
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.azapps.matrixapp.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторные ядра {@link MatrixBatch} для матриц 2x2, 3x3 и 4x4: каждая дорожка вектора
+ * обрабатывает свою матрицу пакета по тем же формулам, что и {@link SmallMatrixKernel}.
+ * Элемент e всех матриц пакета лежит подряд ({@code a[e * count + b]}), поэтому загрузка
+ * одного элемента для VLEN матриц — одно непрерывное чтение.
+ * <p>
+ * Как и {@link VectorGemmKernel}, загружается только при доступном {@code jdk.incubator.vector}.
+ * Методы обрабатывают кратную длине вектора часть диапазона [from, to) и возвращают
+ * индекс, с которого вызывающий код досчитывает остаток скалярно.
+ * <p>
+ * Загрузки и записи намеренно не вынесены во вспомогательные методы: в больших ядрах
+ * C2 исчерпывает бюджет встраивания, и невстроенный метод с векторными аргументами
+ * приводит к созданию объектов-векторов в куче. Методы Vector API встраиваются всегда.
+ */
+final class VectorBatchKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int VLEN = SPECIES.length();
+    private static final DoubleVector ONE = DoubleVector.broadcast(SPECIES, 1.0);
+    private static final double THRESHOLD = LUDecomposition.SINGULARITY_THRESHOLD;
+
+    private VectorBatchKernel() {
+    }
+
+    static int lanes() {
+        return VLEN;
+    }
+
+    static int determinants(int n, double[] a, int count, double[] out, int from, int to) {
+        int end = from + SPECIES.loopBound(to - from);
+        for (int b = from; b < end; b += VLEN) {
+            // Ядра сами пишут результат: возврат вектора из невстроенного метода создал бы объект
+            switch (n) {
+                case 2 -> det2(a, count, b, out);
+                case 3 -> det3(a, count, b, out);
+                default -> det4(a, count, b, out);
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Обращает матрицы [from, to) кратными VLEN группами. Номера матриц, которые явная формула
+     * отвергает по определителю, отмечаются в битовой маске {@code singular} (слово {@code b >>> 6});
+     * на их место в {@code r} записываются исходные элементы, так что при {@code r == a} матрица
+     * остаётся нетронутой и вызывающий код может перепроверить её методом с выбором ведущего.
+     * Диапазон должен начинаться с границы 64 матриц, чтобы задачи не делили слова маски.
+     */
+    static int inverse(int n, double[] a, double[] r, int count, long[] singular, int from, int to) {
+        int end = from + SPECIES.loopBound(to - from);
+        for (int b = from; b < end; b += VLEN) {
+            long bad = switch (n) {
+                case 2 -> inverse2(a, r, count, b);
+                case 3 -> inverse3(a, r, count, b);
+                default -> inverse4(a, r, count, b);
+            };
+            singular[b >>> 6] |= bad << (b & 63);
+        }
+        return end;
+    }
+
+    private static void det2(double[] a, int count, int b, double[] out) {
+        DoubleVector.fromArray(SPECIES, a, b).mul(DoubleVector.fromArray(SPECIES, a, 3 * count + b))
+                .sub(DoubleVector.fromArray(SPECIES, a, count + b).mul(DoubleVector.fromArray(SPECIES, a, 2 * count + b)))
+                .intoArray(out, b);
+    }
+
+    private static void det3(double[] a, int count, int b, double[] out) {
+        DoubleVector a00 = DoubleVector.fromArray(SPECIES, a, b);
+        DoubleVector a01 = DoubleVector.fromArray(SPECIES, a, count + b);
+        DoubleVector a02 = DoubleVector.fromArray(SPECIES, a, 2 * count + b);
+        DoubleVector a10 = DoubleVector.fromArray(SPECIES, a, 3 * count + b);
+        DoubleVector a11 = DoubleVector.fromArray(SPECIES, a, 4 * count + b);
+        DoubleVector a12 = DoubleVector.fromArray(SPECIES, a, 5 * count + b);
+        DoubleVector a20 = DoubleVector.fromArray(SPECIES, a, 6 * count + b);
+        DoubleVector a21 = DoubleVector.fromArray(SPECIES, a, 7 * count + b);
+        DoubleVector a22 = DoubleVector.fromArray(SPECIES, a, 8 * count + b);
+        a00.mul(a11.mul(a22).sub(a12.mul(a21)))
+                .add(a01.mul(a12.mul(a20).sub(a10.mul(a22))))
+                .add(a02.mul(a10.mul(a21).sub(a11.mul(a20))))
+                .intoArray(out, b);
+    }
+
+    private static void det4(double[] a, int count, int b, double[] out) {
+        DoubleVector a00 = DoubleVector.fromArray(SPECIES, a, b);
+        DoubleVector a01 = DoubleVector.fromArray(SPECIES, a, count + b);
+        DoubleVector a02 = DoubleVector.fromArray(SPECIES, a, 2 * count + b);
+        DoubleVector a03 = DoubleVector.fromArray(SPECIES, a, 3 * count + b);
+        DoubleVector a10 = DoubleVector.fromArray(SPECIES, a, 4 * count + b);
+        DoubleVector a11 = DoubleVector.fromArray(SPECIES, a, 5 * count + b);
+        DoubleVector a12 = DoubleVector.fromArray(SPECIES, a, 6 * count + b);
+        DoubleVector a13 = DoubleVector.fromArray(SPECIES, a, 7 * count + b);
+        DoubleVector a20 = DoubleVector.fromArray(SPECIES, a, 8 * count + b);
+        DoubleVector a21 = DoubleVector.fromArray(SPECIES, a, 9 * count + b);
+        DoubleVector a22 = DoubleVector.fromArray(SPECIES, a, 10 * count + b);
+        DoubleVector a23 = DoubleVector.fromArray(SPECIES, a, 11 * count + b);
+        DoubleVector a30 = DoubleVector.fromArray(SPECIES, a, 12 * count + b);
+        DoubleVector a31 = DoubleVector.fromArray(SPECIES, a, 13 * count + b);
+        DoubleVector a32 = DoubleVector.fromArray(SPECIES, a, 14 * count + b);
+        DoubleVector a33 = DoubleVector.fromArray(SPECIES, a, 15 * count + b);
+        DoubleVector s0 = a00.mul(a11).sub(a10.mul(a01));
+        DoubleVector s1 = a00.mul(a12).sub(a10.mul(a02));
+        DoubleVector s2 = a00.mul(a13).sub(a10.mul(a03));
+        DoubleVector s3 = a01.mul(a12).sub(a11.mul(a02));
+        DoubleVector s4 = a01.mul(a13).sub(a11.mul(a03));
+        DoubleVector s5 = a02.mul(a13).sub(a12.mul(a03));
+        DoubleVector c5 = a22.mul(a33).sub(a32.mul(a23));
+        DoubleVector c4 = a21.mul(a33).sub(a31.mul(a23));
+        DoubleVector c3 = a21.mul(a32).sub(a31.mul(a22));
+        DoubleVector c2 = a20.mul(a33).sub(a30.mul(a23));
+        DoubleVector c1 = a20.mul(a32).sub(a30.mul(a22));
+        DoubleVector c0 = a20.mul(a31).sub(a30.mul(a21));
+        s0.mul(c5).sub(s1.mul(c4)).add(s2.mul(c3)).add(s3.mul(c2)).sub(s4.mul(c1)).add(s5.mul(c0)).intoArray(out, b);
+    }
+
+    private static long inverse2(double[] a, double[] r, int count, int b) {
+        DoubleVector a00 = DoubleVector.fromArray(SPECIES, a, b);
+        DoubleVector a01 = DoubleVector.fromArray(SPECIES, a, count + b);
+        DoubleVector a10 = DoubleVector.fromArray(SPECIES, a, 2 * count + b);
+        DoubleVector a11 = DoubleVector.fromArray(SPECIES, a, 3 * count + b);
+        DoubleVector det = a00.mul(a11).sub(a01.mul(a10));
+        VectorMask<Double> singular = det.abs().compare(VectorOperators.GE, THRESHOLD).not();
+        DoubleVector inv = ONE.div(det);
+        a11.mul(inv).blend(a00, singular).intoArray(r, b);
+        a01.neg().mul(inv).blend(a01, singular).intoArray(r, count + b);
+        a10.neg().mul(inv).blend(a10, singular).intoArray(r, 2 * count + b);
+        a00.mul(inv).blend(a11, singular).intoArray(r, 3 * count + b);
+        return singular.toLong();
+    }
+
+    private static long inverse3(double[] a, double[] r, int count, int b) {
+        DoubleVector a00 = DoubleVector.fromArray(SPECIES, a, b);
+        DoubleVector a01 = DoubleVector.fromArray(SPECIES, a, count + b);
+        DoubleVector a02 = DoubleVector.fromArray(SPECIES, a, 2 * count + b);
+        DoubleVector a10 = DoubleVector.fromArray(SPECIES, a, 3 * count + b);
+        DoubleVector a11 = DoubleVector.fromArray(SPECIES, a, 4 * count + b);
+        DoubleVector a12 = DoubleVector.fromArray(SPECIES, a, 5 * count + b);
+        DoubleVector a20 = DoubleVector.fromArray(SPECIES, a, 6 * count + b);
+        DoubleVector a21 = DoubleVector.fromArray(SPECIES, a, 7 * count + b);
+        DoubleVector a22 = DoubleVector.fromArray(SPECIES, a, 8 * count + b);
+        DoubleVector c00 = a11.mul(a22).sub(a12.mul(a21));
+        DoubleVector c01 = a12.mul(a20).sub(a10.mul(a22));
+        DoubleVector c02 = a10.mul(a21).sub(a11.mul(a20));
+        DoubleVector det = a00.mul(c00).add(a01.mul(c01)).add(a02.mul(c02));
+        VectorMask<Double> singular = det.abs().compare(VectorOperators.GE, THRESHOLD).not();
+        DoubleVector inv = ONE.div(det);
+        c00.mul(inv).blend(a00, singular).intoArray(r, b);
+        a02.mul(a21).sub(a01.mul(a22)).mul(inv).blend(a01, singular).intoArray(r, count + b);
+        a01.mul(a12).sub(a02.mul(a11)).mul(inv).blend(a02, singular).intoArray(r, 2 * count + b);
+        c01.mul(inv).blend(a10, singular).intoArray(r, 3 * count + b);
+        a00.mul(a22).sub(a02.mul(a20)).mul(inv).blend(a11, singular).intoArray(r, 4 * count + b);
+        a02.mul(a10).sub(a00.mul(a12)).mul(inv).blend(a12, singular).intoArray(r, 5 * count + b);
+        c02.mul(inv).blend(a20, singular).intoArray(r, 6 * count + b);
+        a01.mul(a20).sub(a00.mul(a21)).mul(inv).blend(a21, singular).intoArray(r, 7 * count + b);
+        a00.mul(a11).sub(a01.mul(a10)).mul(inv).blend(a22, singular).intoArray(r, 8 * count + b);
+        return singular.toLong();
+    }
+
+    private static long inverse4(double[] a, double[] r, int count, int b) {
+        DoubleVector a00 = DoubleVector.fromArray(SPECIES, a, b);
+        DoubleVector a01 = DoubleVector.fromArray(SPECIES, a, count + b);
+        DoubleVector a02 = DoubleVector.fromArray(SPECIES, a, 2 * count + b);
+        DoubleVector a03 = DoubleVector.fromArray(SPECIES, a, 3 * count + b);
+        DoubleVector a10 = DoubleVector.fromArray(SPECIES, a, 4 * count + b);
+        DoubleVector a11 = DoubleVector.fromArray(SPECIES, a, 5 * count + b);
+        DoubleVector a12 = DoubleVector.fromArray(SPECIES, a, 6 * count + b);
+        DoubleVector a13 = DoubleVector.fromArray(SPECIES, a, 7 * count + b);
+        DoubleVector a20 = DoubleVector.fromArray(SPECIES, a, 8 * count + b);
+        DoubleVector a21 = DoubleVector.fromArray(SPECIES, a, 9 * count + b);
+        DoubleVector a22 = DoubleVector.fromArray(SPECIES, a, 10 * count + b);
+        DoubleVector a23 = DoubleVector.fromArray(SPECIES, a, 11 * count + b);
+        DoubleVector a30 = DoubleVector.fromArray(SPECIES, a, 12 * count + b);
+        DoubleVector a31 = DoubleVector.fromArray(SPECIES, a, 13 * count + b);
+        DoubleVector a32 = DoubleVector.fromArray(SPECIES, a, 14 * count + b);
+        DoubleVector a33 = DoubleVector.fromArray(SPECIES, a, 15 * count + b);
+        DoubleVector s0 = a00.mul(a11).sub(a10.mul(a01));
+        DoubleVector s1 = a00.mul(a12).sub(a10.mul(a02));
+        DoubleVector s2 = a00.mul(a13).sub(a10.mul(a03));
+        DoubleVector s3 = a01.mul(a12).sub(a11.mul(a02));
+        DoubleVector s4 = a01.mul(a13).sub(a11.mul(a03));
+        DoubleVector s5 = a02.mul(a13).sub(a12.mul(a03));
+        DoubleVector c5 = a22.mul(a33).sub(a32.mul(a23));
+        DoubleVector c4 = a21.mul(a33).sub(a31.mul(a23));
+        DoubleVector c3 = a21.mul(a32).sub(a31.mul(a22));
+        DoubleVector c2 = a20.mul(a33).sub(a30.mul(a23));
+        DoubleVector c1 = a20.mul(a32).sub(a30.mul(a22));
+        DoubleVector c0 = a20.mul(a31).sub(a30.mul(a21));
+        DoubleVector det = s0.mul(c5).sub(s1.mul(c4)).add(s2.mul(c3)).add(s3.mul(c2)).sub(s4.mul(c1)).add(s5.mul(c0));
+        VectorMask<Double> singular = det.abs().compare(VectorOperators.GE, THRESHOLD).not();
+        DoubleVector inv = ONE.div(det);
+        // Все элементы уже прочитаны: запись безопасна и при r == a
+        a11.mul(c5).sub(a12.mul(c4)).add(a13.mul(c3)).mul(inv).blend(a00, singular).intoArray(r, b);
+        a02.mul(c4).sub(a01.mul(c5)).sub(a03.mul(c3)).mul(inv).blend(a01, singular).intoArray(r, count + b);
+        a31.mul(s5).sub(a32.mul(s4)).add(a33.mul(s3)).mul(inv).blend(a02, singular).intoArray(r, 2 * count + b);
+        a22.mul(s4).sub(a21.mul(s5)).sub(a23.mul(s3)).mul(inv).blend(a03, singular).intoArray(r, 3 * count + b);
+        a12.mul(c2).sub(a10.mul(c5)).sub(a13.mul(c1)).mul(inv).blend(a10, singular).intoArray(r, 4 * count + b);
+        a00.mul(c5).sub(a02.mul(c2)).add(a03.mul(c1)).mul(inv).blend(a11, singular).intoArray(r, 5 * count + b);
+        a32.mul(s2).sub(a30.mul(s5)).sub(a33.mul(s1)).mul(inv).blend(a12, singular).intoArray(r, 6 * count + b);
+        a20.mul(s5).sub(a22.mul(s2)).add(a23.mul(s1)).mul(inv).blend(a13, singular).intoArray(r, 7 * count + b);
+        a10.mul(c4).sub(a11.mul(c2)).add(a13.mul(c0)).mul(inv).blend(a20, singular).intoArray(r, 8 * count + b);
+        a01.mul(c2).sub(a00.mul(c4)).sub(a03.mul(c0)).mul(inv).blend(a21, singular).intoArray(r, 9 * count + b);
+        a30.mul(s4).sub(a31.mul(s2)).add(a33.mul(s0)).mul(inv).blend(a22, singular).intoArray(r, 10 * count + b);
+        a21.mul(s2).sub(a20.mul(s4)).sub(a23.mul(s0)).mul(inv).blend(a23, singular).intoArray(r, 11 * count + b);
+        a11.mul(c1).sub(a10.mul(c3)).sub(a12.mul(c0)).mul(inv).blend(a30, singular).intoArray(r, 12 * count + b);
+        a00.mul(c3).sub(a01.mul(c1)).add(a02.mul(c0)).mul(inv).blend(a31, singular).intoArray(r, 13 * count + b);
+        a31.mul(s1).sub(a30.mul(s3)).sub(a32.mul(s0)).mul(inv).blend(a32, singular).intoArray(r, 14 * count + b);
+        a20.mul(s3).sub(a21.mul(s1)).add(a22.mul(s0)).mul(inv).blend(a33, singular).intoArray(r, 15 * count + b);
+        return singular.toLong();
+    }
+}
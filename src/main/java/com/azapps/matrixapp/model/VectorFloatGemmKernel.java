@@ -0,0 +1,69 @@
+package com.azapps.matrixapp.model;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторное микроядро для {@link FloatGemmKernel}: блок C размера {@link #MR} x (2 * длина вектора
+ * {@code float}) накапливается в регистрах с помощью FMA. Как и {@link VectorGemmKernel},
+ * инициализируется только при включённой векторизации.
+ */
+final class VectorFloatGemmKernel {
+
+    static final int MR = 4;
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+    private static final int VLEN = SPECIES.length();
+    private static final int NR = 2 * VLEN;
+
+    private VectorFloatGemmKernel() {
+    }
+
+    static int lanes() {
+        return VLEN;
+    }
+
+    static int nr() {
+        return NR;
+    }
+
+    // C[MR x NR] += Apanel * Bpanel; два вектора по столбцам на каждую из MR строк
+    static void kernel(float[] a, int aOff, float[] b, int bOff, int kc,
+                                     float[] c, int cOff, int cRowStride) {
+        FloatVector c00 = FloatVector.zero(SPECIES);
+        FloatVector c01 = FloatVector.zero(SPECIES);
+        FloatVector c10 = FloatVector.zero(SPECIES);
+        FloatVector c11 = FloatVector.zero(SPECIES);
+        FloatVector c20 = FloatVector.zero(SPECIES);
+        FloatVector c21 = FloatVector.zero(SPECIES);
+        FloatVector c30 = FloatVector.zero(SPECIES);
+        FloatVector c31 = FloatVector.zero(SPECIES);
+        for (int p = 0; p < kc; p++) {
+            int bp = bOff + p * NR;
+            FloatVector b0 = FloatVector.fromArray(SPECIES, b, bp);
+            FloatVector b1 = FloatVector.fromArray(SPECIES, b, bp + VLEN);
+            int ap = aOff + p * MR;
+            FloatVector a0 = FloatVector.broadcast(SPECIES, a[ap]);
+            c00 = a0.fma(b0, c00);
+            c01 = a0.fma(b1, c01);
+            FloatVector a1 = FloatVector.broadcast(SPECIES, a[ap + 1]);
+            c10 = a1.fma(b0, c10);
+            c11 = a1.fma(b1, c11);
+            FloatVector a2 = FloatVector.broadcast(SPECIES, a[ap + 2]);
+            c20 = a2.fma(b0, c20);
+            c21 = a2.fma(b1, c21);
+            FloatVector a3 = FloatVector.broadcast(SPECIES, a[ap + 3]);
+            c30 = a3.fma(b0, c30);
+            c31 = a3.fma(b1, c31);
+        }
+        addInto(c, cOff, c00, c01);
+        addInto(c, cOff + cRowStride, c10, c11);
+        addInto(c, cOff + 2 * cRowStride, c20, c21);
+        addInto(c, cOff + 3 * cRowStride, c30, c31);
+    }
+
+    private static void addInto(float[] c, int off, FloatVector v0, FloatVector v1) {
+        FloatVector.fromArray(SPECIES, c, off).add(v0).intoArray(c, off);
+        FloatVector.fromArray(SPECIES, c, off + VLEN).add(v1).intoArray(c, off + VLEN);
+    }
+}
@@ -0,0 +1,71 @@
+package com.azapps.matrixapp.model;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Векторное микроядро для {@link GemmKernel}: блок C размера {@link #MR} x (2 * длина вектора)
+ * накапливается в регистрах с помощью FMA.
+ * <p>
+ * Вынесено в отдельный класс, чтобы {@link GemmKernel} загружался и без модуля
+ * {@code jdk.incubator.vector}: этот класс инициализируется только при включённой векторизации.
+ */
+final class VectorGemmKernel {
+
+    static final int MR = 4;
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final int VLEN = SPECIES.length();
+    private static final int NR = 2 * VLEN;
+
+    private VectorGemmKernel() {
+    }
+
+    static int lanes() {
+        return VLEN;
+    }
+
+    static int nr() {
+        return NR;
+    }
+
+    // C[MR x NR] += Apanel * Bpanel; два вектора по столбцам на каждую из MR строк
+    static void kernel(double[] a, int aOff, double[] b, int bOff, int kc,
+                       double[] c, int cOff, int cRowStride) {
+        DoubleVector c00 = DoubleVector.zero(SPECIES);
+        DoubleVector c01 = DoubleVector.zero(SPECIES);
+        DoubleVector c10 = DoubleVector.zero(SPECIES);
+        DoubleVector c11 = DoubleVector.zero(SPECIES);
+        DoubleVector c20 = DoubleVector.zero(SPECIES);
+        DoubleVector c21 = DoubleVector.zero(SPECIES);
+        DoubleVector c30 = DoubleVector.zero(SPECIES);
+        DoubleVector c31 = DoubleVector.zero(SPECIES);
+        for (int p = 0; p < kc; p++) {
+            int bp = bOff + p * NR;
+            DoubleVector b0 = DoubleVector.fromArray(SPECIES, b, bp);
+            DoubleVector b1 = DoubleVector.fromArray(SPECIES, b, bp + VLEN);
+            int ap = aOff + p * MR;
+            DoubleVector a0 = DoubleVector.broadcast(SPECIES, a[ap]);
+            c00 = a0.fma(b0, c00);
+            c01 = a0.fma(b1, c01);
+            DoubleVector a1 = DoubleVector.broadcast(SPECIES, a[ap + 1]);
+            c10 = a1.fma(b0, c10);
+            c11 = a1.fma(b1, c11);
+            DoubleVector a2 = DoubleVector.broadcast(SPECIES, a[ap + 2]);
+            c20 = a2.fma(b0, c20);
+            c21 = a2.fma(b1, c21);
+            DoubleVector a3 = DoubleVector.broadcast(SPECIES, a[ap + 3]);
+            c30 = a3.fma(b0, c30);
+            c31 = a3.fma(b1, c31);
+        }
+        addInto(c, cOff, c00, c01);
+        addInto(c, cOff + cRowStride, c10, c11);
+        addInto(c, cOff + 2 * cRowStride, c20, c21);
+        addInto(c, cOff + 3 * cRowStride, c30, c31);
+    }
+
+    private static void addInto(double[] c, int off, DoubleVector v0, DoubleVector v1) {
+        DoubleVector.fromArray(SPECIES, c, off).add(v0).intoArray(c, off);
+        DoubleVector.fromArray(SPECIES, c, off + VLEN).add(v1).intoArray(c, off + VLEN);
+    }
+}
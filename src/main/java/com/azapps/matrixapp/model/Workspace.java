@@ -0,0 +1,59 @@
+package com.azapps.matrixapp.model;
+
+/**
+ * Переиспользуемая рабочая память для операций с передачей результата
+ * ({@link Matrix#inverseInto(Matrix, Workspace)}, {@link Matrix#determinant(Workspace)}):
+ * вектор перестановок, буфер панели метода Гаусса-Жордана и буфер LU-разложения.
+ * <p>
+ * Буферы растут по требованию до размера самой большой обработанной матрицы и затем
+ * переиспользуются, поэтому цикл однотипных операций с одним рабочим пространством
+ * после первой итерации не выделяет память. Рабочее пространство не потокобезопасно:
+ * каждому потоку нужен свой экземпляр.
+ */
+public final class Workspace {
+
+    private int[] pivots = new int[0];
+    private double[] panel = new double[0];
+    private double[] lu = new double[0];
+
+    /** Создаёт пустое рабочее пространство; буферы выделяются при первом использовании. */
+    public Workspace() {
+    }
+
+    /**
+     * Создаёт рабочее пространство, сразу выделяя буферы для матриц до n x n.
+     * @param n Наибольший ожидаемый размер матрицы.
+     */
+    public Workspace(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Размер рабочего пространства не может быть отрицательным.");
+        }
+        pivots(n);
+        panel(n);
+        lu(n);
+    }
+
+    int[] pivots(int n) {
+        if (pivots.length < n) {
+            pivots = new int[n];
+        }
+        return pivots;
+    }
+
+    // Буфер сохранённой панели метода Гаусса-Жордана: PANEL строк длины n
+    double[] panel(int n) {
+        int size = GaussJordanKernel.PANEL * n;
+        if (panel.length < size) {
+            panel = new double[size];
+        }
+        return panel;
+    }
+
+    double[] lu(int n) {
+        int size = Math.multiplyExact(n, n);
+        if (lu.length < size) {
+            lu = new double[size];
+        }
+        return lu;
+    }
+}
@@ -0,0 +1,555 @@
+package com.azapps.matrixapp.view;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TextField;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+
+/**
+ * Виртуализированная таблица элементов матрицы.
+ * <p>
+ * Ячейки не являются узлами сцены: видимая область рисуется на одном {@link Canvas}
+ * размером с окно просмотра, а значения запрашиваются у {@link CellTextProvider} только
+ * для видимых ячеек. Поэтому память и время отрисовки зависят от размера окна, а не от
+ * размера матрицы. Для редактирования используется единственное текстовое поле, которое
+ * накладывается поверх выбранной ячейки.
+ * <p>
+ * Тексты видимых ячеек кэшируются в кольцевом буфере размером с окно просмотра (слот
+ * {@code (row mod h, col mod w)}), который переиспользуется при прокрутке и изменении размера:
+ * после сдвига на одну строку или добавления столбца запрашиваются только новые ячейки.
+ */
+public class MatrixGridView extends Region {
+
+    /** Источник текста ячеек. */
+    @FunctionalInterface
+    public interface CellTextProvider {
+        /**
+         * @return Текст ячейки или {@code null}/пустая строка, если нужно показать заполнитель.
+         */
+        String getText(int row, int col);
+    }
+
+    /** Получатель отредактированных значений. */
+    @FunctionalInterface
+    public interface CellEditHandler {
+        void commit(int row, int col, String text);
+    }
+
+    private static final double CELL_WIDTH = 80;
+    private static final double CELL_HEIGHT = 30;
+    private static final double ROW_HEADER_WIDTH = 56;
+    private static final double COL_HEADER_HEIGHT = 22;
+    private static final double TEXT_PADDING = 6;
+
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color READ_ONLY_BACKGROUND = Color.web("#f0f0f0");
+    private static final Color GRID_LINE = Color.web("#d0d0d0");
+    private static final Color HEADER_BACKGROUND = Color.web("#e8eef7");
+    private static final Color HEADER_TEXT = Color.web("#666666");
+    private static final Color CELL_TEXT = Color.web("#333333");
+    private static final Color PLACEHOLDER_TEXT = Color.web("#aaaaaa");
+    private static final Color SELECTION = Color.web("#4A90E2");
+
+    private final Canvas canvas = new Canvas();
+    private final ScrollBar hBar = new ScrollBar();
+    private final ScrollBar vBar = new ScrollBar();
+    private final TextField editor = new TextField();
+    private final Font cellFont = Font.font(13);
+    private final Font headerFont = Font.font(11);
+
+    private int rowCount;
+    private int colCount;
+    private CellTextProvider textProvider = (row, col) -> null;
+    private CellEditHandler editHandler;
+    private Predicate<String> inputValidator = text -> true;
+    private String placeholder = "";
+
+    // Кэш текстов видимых ячеек; слот свободен, если cachedRows[slot] == -1
+    private int cacheHeight;
+    private int cacheWidth;
+    private int[] cachedRows = new int[0];
+    private int[] cachedCols = new int[0];
+    private String[] cachedTexts = new String[0];
+
+    private int selectedRow = -1;
+    private int selectedCol = -1;
+    private int editingRow = -1;
+    private int editingCol = -1;
+
+    public MatrixGridView() {
+        getStyleClass().add("matrix-grid-view");
+        setFocusTraversable(true);
+        setMinSize(100, 80);
+
+        hBar.setOrientation(Orientation.HORIZONTAL);
+        vBar.setOrientation(Orientation.VERTICAL);
+        hBar.valueProperty().addListener((obs, oldValue, newValue) -> onScrolled());
+        vBar.valueProperty().addListener((obs, oldValue, newValue) -> onScrolled());
+
+        editor.setVisible(false);
+        editor.setManaged(false);
+        editor.setAlignment(Pos.CENTER);
+        editor.setPadding(new Insets(0, 2, 0, 2));
+        editor.textProperty().addListener((obs, oldValue, newValue) -> {
+            if (!inputValidator.test(newValue)) {
+                editor.setText(oldValue);
+            }
+        });
+        editor.focusedProperty().addListener((obs, oldValue, focused) -> {
+            if (!focused) commitEdit();
+        });
+        editor.addEventFilter(KeyEvent.KEY_PRESSED, this::handleEditorKey);
+
+        getChildren().addAll(canvas, hBar, vBar, editor);
+
+        canvas.addEventHandler(MouseEvent.MOUSE_PRESSED, this::handleMousePressed);
+        addEventHandler(ScrollEvent.SCROLL, this::handleScroll);
+        addEventHandler(KeyEvent.KEY_PRESSED, this::handleKeyPressed);
+        addEventHandler(KeyEvent.KEY_TYPED, this::handleKeyTyped);
+    }
+
+    // --- Настройка ---
+
+    /**
+     * Задаёт размер таблицы. Положение прокрутки и выделение ограничиваются новым размером.
+     */
+    public void setDimensions(int rows, int cols) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("Размеры таблицы не могут быть отрицательными.");
+        }
+        cancelEdit();
+        // Значения внутри новых границ остаются в кэше; ячейки за ними при обратном росте запрашиваются заново
+        if (rows < rowCount || cols < colCount) {
+            for (int slot = 0; slot < cachedRows.length; slot++) {
+                if (cachedRows[slot] >= rows || cachedCols[slot] >= cols) {
+                    cachedRows[slot] = -1;
+                }
+            }
+        }
+        rowCount = rows;
+        colCount = cols;
+        if (selectedRow >= rows || selectedCol >= cols) {
+            selectedRow = -1;
+            selectedCol = -1;
+        }
+        requestLayout();
+        draw();
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColCount() {
+        return colCount;
+    }
+
+    public void setCellTextProvider(CellTextProvider provider) {
+        textProvider = provider;
+        refresh();
+    }
+
+    /** Сбрасывает кэшированный текст одной ячейки и перерисовывает её. */
+    public void refreshCell(int row, int col) {
+        if (cacheWidth > 0) {
+            int slot = slot(row, col);
+            if (cachedRows[slot] == row && cachedCols[slot] == col) {
+                cachedRows[slot] = -1;
+            }
+        }
+        draw();
+    }
+
+    /**
+     * Включает редактирование: изменённые значения передаются обработчику.
+     * {@code null} делает таблицу доступной только для чтения.
+     */
+    public void setCellEditHandler(CellEditHandler handler) {
+        cancelEdit();
+        editHandler = handler;
+        refresh();
+    }
+
+    /** Ограничивает текст, который можно ввести в редактор ячейки. */
+    public void setInputValidator(Predicate<String> validator) {
+        inputValidator = validator;
+    }
+
+    /** Текст, показываемый в ячейках без значения. */
+    public void setPlaceholder(String placeholder) {
+        this.placeholder = placeholder;
+        refresh();
+    }
+
+    /** Перерисовывает видимые ячейки, заново запрашивая их текст (например, после изменения данных). */
+    public void refresh() {
+        Arrays.fill(cachedRows, -1);
+        draw();
+    }
+
+    private int slot(int row, int col) {
+        return (row % cacheHeight) * cacheWidth + (col % cacheWidth);
+    }
+
+    private String cellText(int row, int col) {
+        int slot = slot(row, col);
+        if (cachedRows[slot] == row && cachedCols[slot] == col) {
+            return cachedTexts[slot];
+        }
+        String text = textProvider.getText(row, col);
+        cachedRows[slot] = row;
+        cachedCols[slot] = col;
+        cachedTexts[slot] = text;
+        return text;
+    }
+
+    // Кэш покрывает окно просмотра с запасом в одну ячейку по каждой оси (частично видимые края)
+    private void ensureCacheCapacity(double viewWidth, double viewHeight) {
+        int height = (int) Math.ceil(viewHeight / CELL_HEIGHT) + 2;
+        int width = (int) Math.ceil(viewWidth / CELL_WIDTH) + 2;
+        if (height <= cacheHeight && width <= cacheWidth) {
+            return;
+        }
+        cacheHeight = Math.max(height, cacheHeight);
+        cacheWidth = Math.max(width, cacheWidth);
+        cachedRows = new int[cacheHeight * cacheWidth];
+        cachedCols = new int[cacheHeight * cacheWidth];
+        cachedTexts = new String[cacheHeight * cacheWidth];
+        Arrays.fill(cachedRows, -1);
+    }
+
+    private boolean isEditable() {
+        return editHandler != null;
+    }
+
+    // --- Компоновка и отрисовка ---
+
+    @Override
+    protected void layoutChildren() {
+        Insets insets = getInsets();
+        double x = insets.getLeft();
+        double y = insets.getTop();
+        double width = Math.max(0, getWidth() - insets.getLeft() - insets.getRight());
+        double height = Math.max(0, getHeight() - insets.getTop() - insets.getBottom());
+        double barWidth = vBar.prefWidth(-1);
+        double barHeight = hBar.prefHeight(-1);
+
+        double contentWidth = ROW_HEADER_WIDTH + colCount * CELL_WIDTH;
+        double contentHeight = COL_HEADER_HEIGHT + rowCount * CELL_HEIGHT;
+        boolean needV = contentHeight > height;
+        boolean needH = contentWidth > width - (needV ? barWidth : 0);
+        if (needH && !needV) {
+            needV = contentHeight > height - barHeight;
+        }
+        double viewWidth = Math.max(0, width - (needV ? barWidth : 0));
+        double viewHeight = Math.max(0, height - (needH ? barHeight : 0));
+
+        canvas.setWidth(viewWidth);
+        canvas.setHeight(viewHeight);
+        canvas.relocate(x, y);
+        ensureCacheCapacity(viewWidth, viewHeight);
+
+        configureBar(hBar, needH, contentWidth, viewWidth, CELL_WIDTH);
+        configureBar(vBar, needV, contentHeight, viewHeight, CELL_HEIGHT);
+        hBar.resizeRelocate(x, y + viewHeight, viewWidth, barHeight);
+        vBar.resizeRelocate(x + viewWidth, y, barWidth, viewHeight);
+
+        positionEditor();
+        draw();
+    }
+
+    private static void configureBar(ScrollBar bar, boolean visible, double content, double view, double unit) {
+        bar.setVisible(visible);
+        double max = Math.max(0, content - view);
+        bar.setMax(max);
+        bar.setVisibleAmount(max > 0 ? view * max / content : 0);
+        bar.setUnitIncrement(unit);
+        bar.setBlockIncrement(Math.max(unit, view - unit));
+        if (bar.getValue() > max) {
+            bar.setValue(max);
+        }
+    }
+
+    private void draw() {
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        g.setFill(isEditable() ? BACKGROUND : READ_ONLY_BACKGROUND);
+        g.fillRect(0, 0, width, height);
+        if (rowCount == 0 || colCount == 0 || width == 0 || height == 0 || cacheWidth == 0) {
+            return;
+        }
+
+        double scrollX = hBar.getValue();
+        double scrollY = vBar.getValue();
+        int firstCol = (int) (scrollX / CELL_WIDTH);
+        int firstRow = (int) (scrollY / CELL_HEIGHT);
+        double x0 = ROW_HEADER_WIDTH + firstCol * CELL_WIDTH - scrollX;
+        double y0 = COL_HEADER_HEIGHT + firstRow * CELL_HEIGHT - scrollY;
+
+        g.setFont(cellFont);
+        g.setTextAlign(TextAlignment.CENTER);
+        g.setTextBaseline(VPos.CENTER);
+        g.setStroke(GRID_LINE);
+        g.setLineWidth(1);
+        double maxTextWidth = CELL_WIDTH - 2 * TEXT_PADDING;
+        int lastRow = firstRow;
+        int lastCol = firstCol;
+        for (int row = firstRow; row < rowCount; row++) {
+            double y = y0 + (row - firstRow) * CELL_HEIGHT;
+            if (y >= height) break;
+            lastRow = row;
+            for (int col = firstCol; col < colCount; col++) {
+                double x = x0 + (col - firstCol) * CELL_WIDTH;
+                if (x >= width) break;
+                lastCol = Math.max(lastCol, col);
+                String text = cellText(row, col);
+                if (text == null || text.isEmpty()) {
+                    g.setFill(PLACEHOLDER_TEXT);
+                    text = placeholder;
+                } else {
+                    g.setFill(CELL_TEXT);
+                }
+                if (!text.isEmpty()) {
+                    g.fillText(text, x + CELL_WIDTH / 2, y + CELL_HEIGHT / 2, maxTextWidth);
+                }
+                g.strokeRect(Math.floor(x) + 0.5, Math.floor(y) + 0.5, CELL_WIDTH, CELL_HEIGHT);
+            }
+        }
+
+        if (selectedRow >= firstRow && selectedRow <= lastRow && selectedCol >= firstCol && selectedCol <= lastCol) {
+            double x = x0 + (selectedCol - firstCol) * CELL_WIDTH;
+            double y = y0 + (selectedRow - firstRow) * CELL_HEIGHT;
+            g.setStroke(SELECTION);
+            g.setLineWidth(2);
+            g.strokeRect(Math.floor(x) + 1, Math.floor(y) + 1, CELL_WIDTH - 1, CELL_HEIGHT - 1);
+            g.setLineWidth(1);
+        }
+
+        // Заголовки рисуются поверх ячеек и не прокручиваются в своём направлении
+        g.setFont(headerFont);
+        g.setFill(HEADER_BACKGROUND);
+        g.fillRect(0, 0, width, COL_HEADER_HEIGHT);
+        g.fillRect(0, 0, ROW_HEADER_WIDTH, height);
+        g.setFill(HEADER_TEXT);
+        for (int col = firstCol; col <= lastCol; col++) {
+            double x = x0 + (col - firstCol) * CELL_WIDTH;
+            if (x + CELL_WIDTH <= ROW_HEADER_WIDTH) continue;
+            g.fillText(String.valueOf(col + 1), x + CELL_WIDTH / 2, COL_HEADER_HEIGHT / 2, maxTextWidth);
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            double y = y0 + (row - firstRow) * CELL_HEIGHT;
+            if (y + CELL_HEIGHT <= COL_HEADER_HEIGHT) continue;
+            g.fillText(String.valueOf(row + 1), ROW_HEADER_WIDTH / 2, y + CELL_HEIGHT / 2, ROW_HEADER_WIDTH - 4);
+        }
+        g.setFill(HEADER_BACKGROUND);
+        g.fillRect(0, 0, ROW_HEADER_WIDTH, COL_HEADER_HEIGHT);
+        g.setStroke(GRID_LINE);
+        g.strokeLine(0, COL_HEADER_HEIGHT + 0.5, width, COL_HEADER_HEIGHT + 0.5);
+        g.strokeLine(ROW_HEADER_WIDTH + 0.5, 0, ROW_HEADER_WIDTH + 0.5, height);
+    }
+
+    private void onScrolled() {
+        // Редактор привязан к ячейке: при прокрутке значение фиксируется
+        if (editingRow >= 0) {
+            commitEdit();
+        }
+        draw();
+    }
+
+    // --- Выделение и навигация ---
+
+    private void handleMousePressed(MouseEvent event) {
+        requestFocus();
+        if (event.getX() < ROW_HEADER_WIDTH || event.getY() < COL_HEADER_HEIGHT) return;
+        int col = (int) ((event.getX() - ROW_HEADER_WIDTH + hBar.getValue()) / CELL_WIDTH);
+        int row = (int) ((event.getY() - COL_HEADER_HEIGHT + vBar.getValue()) / CELL_HEIGHT);
+        if (row >= rowCount || col >= colCount) return;
+        select(row, col);
+        if (event.getClickCount() == 2 && isEditable()) {
+            startEdit(null);
+        }
+    }
+
+    private void handleScroll(ScrollEvent event) {
+        double dx = event.getDeltaX();
+        double dy = event.getDeltaY();
+        if (event.isShiftDown() && dx == 0) {
+            dx = dy;
+            dy = 0;
+        }
+        hBar.setValue(clamp(hBar.getValue() - dx, hBar.getMax()));
+        vBar.setValue(clamp(vBar.getValue() - dy, vBar.getMax()));
+        event.consume();
+    }
+
+    private static double clamp(double value, double max) {
+        return Math.max(0, Math.min(max, value));
+    }
+
+    private void handleKeyPressed(KeyEvent event) {
+        if (rowCount == 0 || colCount == 0 || editingRow >= 0) return;
+        int row = Math.max(0, selectedRow);
+        int col = Math.max(0, selectedCol);
+        KeyCode code = event.getCode();
+        switch (code) {
+            case UP -> select(Math.max(0, row - 1), col);
+            case DOWN -> select(Math.min(rowCount - 1, row + 1), col);
+            case LEFT -> select(row, Math.max(0, col - 1));
+            case RIGHT -> select(row, Math.min(colCount - 1, col + 1));
+            case PAGE_UP -> select(Math.max(0, row - visibleRows()), col);
+            case PAGE_DOWN -> select(Math.min(rowCount - 1, row + visibleRows()), col);
+            case HOME -> select(row, 0);
+            case END -> select(row, colCount - 1);
+            case ENTER, F2 -> {
+                if (!isEditable()) return;
+                select(row, col);
+                startEdit(null);
+            }
+            case DELETE, BACK_SPACE -> {
+                if (!isEditable() || selectedRow < 0) return;
+                editHandler.commit(selectedRow, selectedCol, "");
+                refreshCell(selectedRow, selectedCol);
+            }
+            default -> {
+                return;
+            }
+        }
+        event.consume();
+    }
+
+    private void handleKeyTyped(KeyEvent event) {
+        if (!isEditable() || editingRow >= 0 || selectedRow < 0) return;
+        String character = event.getCharacter();
+        if (character.length() == 1 && "-.0123456789".contains(character)) {
+            startEdit(character);
+            event.consume();
+        }
+    }
+
+    private int visibleRows() {
+        return Math.max(1, (int) ((canvas.getHeight() - COL_HEADER_HEIGHT) / CELL_HEIGHT));
+    }
+
+    private void select(int row, int col) {
+        selectedRow = row;
+        selectedCol = col;
+        ensureVisible(row, col);
+        draw();
+    }
+
+    private void ensureVisible(int row, int col) {
+        double left = col * CELL_WIDTH;
+        double top = row * CELL_HEIGHT;
+        double viewWidth = canvas.getWidth() - ROW_HEADER_WIDTH;
+        double viewHeight = canvas.getHeight() - COL_HEADER_HEIGHT;
+        if (left < hBar.getValue()) {
+            hBar.setValue(left);
+        } else if (left + CELL_WIDTH > hBar.getValue() + viewWidth) {
+            hBar.setValue(clamp(left + CELL_WIDTH - viewWidth, hBar.getMax()));
+        }
+        if (top < vBar.getValue()) {
+            vBar.setValue(top);
+        } else if (top + CELL_HEIGHT > vBar.getValue() + viewHeight) {
+            vBar.setValue(clamp(top + CELL_HEIGHT - viewHeight, vBar.getMax()));
+        }
+    }
+
+    // --- Редактирование ---
+
+    private void startEdit(String initialText) {
+        if (selectedRow < 0) return;
+        ensureVisible(selectedRow, selectedCol);
+        editingRow = selectedRow;
+        editingCol = selectedCol;
+        String current = textProvider.getText(editingRow, editingCol);
+        editor.setText(initialText != null ? initialText : (current == null ? "" : current));
+        positionEditor();
+        editor.setVisible(true);
+        editor.requestFocus();
+        if (initialText == null) {
+            editor.selectAll();
+        } else {
+            editor.end();
+        }
+    }
+
+    private void positionEditor() {
+        if (editingRow < 0) return;
+        double x = canvas.getLayoutX() + ROW_HEADER_WIDTH + editingCol * CELL_WIDTH - hBar.getValue();
+        double y = canvas.getLayoutY() + COL_HEADER_HEIGHT + editingRow * CELL_HEIGHT - vBar.getValue();
+        editor.resizeRelocate(x, y, CELL_WIDTH + 1, CELL_HEIGHT + 1);
+    }
+
+    /**
+     * Фиксирует значение, которое редактируется в данный момент (если редактор открыт).
+     */
+    public void commitEdit() {
+        if (editingRow < 0) return;
+        int row = editingRow;
+        int col = editingCol;
+        editingRow = -1;
+        editingCol = -1;
+        editor.setVisible(false);
+        editHandler.commit(row, col, editor.getText().trim());
+        refreshCell(row, col);
+    }
+
+    private void cancelEdit() {
+        if (editingRow < 0) return;
+        editingRow = -1;
+        editingCol = -1;
+        boolean hadFocus = editor.isFocused();
+        editor.setVisible(false);
+        if (hadFocus) requestFocus();
+        draw();
+    }
+
+    private void handleEditorKey(KeyEvent event) {
+        KeyCode code = event.getCode();
+        if (code == KeyCode.ENTER || code == KeyCode.TAB) {
+            int row = editingRow;
+            int col = editingCol;
+            commitEdit();
+            requestFocus();
+            // Enter переходит на строку вниз, Tab — на столбец вправо (с Shift — в обратную сторону)
+            int step = event.isShiftDown() ? -1 : 1;
+            if (code == KeyCode.ENTER) {
+                select(Math.max(0, Math.min(rowCount - 1, row + step)), col);
+            } else {
+                select(row, Math.max(0, Math.min(colCount - 1, col + step)));
+            }
+            event.consume();
+        } else if (code == KeyCode.ESCAPE) {
+            cancelEdit();
+            event.consume();
+        }
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        Insets insets = getInsets();
+        return insets.getLeft() + insets.getRight() + Math.min(ROW_HEADER_WIDTH + colCount * CELL_WIDTH, 800);
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        Insets insets = getInsets();
+        return insets.getTop() + insets.getBottom() + Math.min(COL_HEADER_HEIGHT + rowCount * CELL_HEIGHT, 400);
+    }
+}
@@ -0,0 +1,230 @@
+package com.azapps.matrixapp.view;
+
+import com.azapps.matrixapp.model.Matrix;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Данные, введённые в таблицу {@link MatrixGridView}.
+ * <p>
+ * Хранит только то, что действительно задано: матрицу, загруженную из файла (если есть),
+ * и разреженный набор введённых вручную значений поверх неё. Незаданные ячейки равны нулю,
+ * поэтому пустая таблица 100000 x 100000 не занимает памяти.
+ * <p>
+ * Введённые значения проиндексированы и по строкам, и по столбцам, поэтому при изменении
+ * размера удаляются только ячейки, вышедшие за новые границы, за время, пропорциональное
+ * их числу, а остальные значения сохраняются.
+ */
+public class MatrixInputModel {
+
+    private int rows;
+    private int cols;
+    // Загруженная матрица; видна только её часть baseRows x baseCols, не отрезанная уменьшением размера
+    private Matrix base;
+    private int baseRows;
+    private int baseCols;
+    // Введённый текст: строка -> (столбец -> текст) и индекс столбец -> строки с заданными значениями
+    private final NavigableMap<Integer, NavigableMap<Integer, String>> byRow = new TreeMap<>();
+    private final NavigableMap<Integer, NavigableMap<Integer, Boolean>> byCol = new TreeMap<>();
+    private int editCount;
+
+    public MatrixInputModel(int rows, int cols) {
+        resize(rows, cols);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /** Число введённых вручную ячеек. */
+    public int getEditCount() {
+        return editCount;
+    }
+
+    /**
+     * Задаёт новый размер, сохраняя значения, которые остаются в его пределах.
+     * Добавленные строки и столбцы пусты (равны нулю).
+     */
+    public void resize(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new IllegalArgumentException("Размеры матрицы должны быть положительными.");
+        }
+        // Отрезанные строки и столбцы удаляются из обоих индексов
+        NavigableMap<Integer, NavigableMap<Integer, String>> droppedRows = byRow.tailMap(rows, true);
+        for (Map.Entry<Integer, NavigableMap<Integer, String>> row : droppedRows.entrySet()) {
+            for (Integer col : row.getValue().keySet()) {
+                removeFromIndex(byCol, col, row.getKey());
+                editCount--;
+            }
+        }
+        droppedRows.clear();
+        NavigableMap<Integer, NavigableMap<Integer, Boolean>> droppedCols = byCol.tailMap(cols, true);
+        for (Map.Entry<Integer, NavigableMap<Integer, Boolean>> col : droppedCols.entrySet()) {
+            for (Integer row : col.getValue().keySet()) {
+                removeFromIndex(byRow, row, col.getKey());
+                editCount--;
+            }
+        }
+        droppedCols.clear();
+
+        this.rows = rows;
+        this.cols = cols;
+        baseRows = Math.min(baseRows, rows);
+        baseCols = Math.min(baseCols, cols);
+        if (baseRows == 0 || baseCols == 0) {
+            base = null;
+        }
+    }
+
+    private static <V> void removeFromIndex(NavigableMap<Integer, NavigableMap<Integer, V>> index, int outer, int inner) {
+        NavigableMap<Integer, V> line = index.get(outer);
+        if (line != null) {
+            line.remove(inner);
+            if (line.isEmpty()) {
+                index.remove(outer);
+            }
+        }
+    }
+
+    /**
+     * Заменяет содержимое загруженной матрицей (без копирования её элементов).
+     */
+    public void load(Matrix matrix) {
+        byRow.clear();
+        byCol.clear();
+        editCount = 0;
+        rows = matrix.getRows();
+        cols = matrix.getCols();
+        base = matrix;
+        baseRows = rows;
+        baseCols = cols;
+    }
+
+    /**
+     * Независимая копия за время, пропорциональное числу введённых ячеек: загруженная матрица
+     * разделяется по ссылке (модель её не изменяет), копируется только введённый текст.
+     * Позволяет собрать матрицу {@link #toMatrix()} вне потока JavaFX, пока таблица редактируется.
+     */
+    public MatrixInputModel snapshot() {
+        MatrixInputModel copy = new MatrixInputModel(rows, cols);
+        copy.base = base;
+        copy.baseRows = baseRows;
+        copy.baseCols = baseCols;
+        for (Map.Entry<Integer, NavigableMap<Integer, String>> line : byRow.entrySet()) {
+            copy.byRow.put(line.getKey(), new TreeMap<>(line.getValue()));
+        }
+        for (Map.Entry<Integer, NavigableMap<Integer, Boolean>> line : byCol.entrySet()) {
+            copy.byCol.put(line.getKey(), new TreeMap<>(line.getValue()));
+        }
+        copy.editCount = editCount;
+        return copy;
+    }
+
+    /**
+     * @return Введённый текст ячейки, значение загруженной матрицы или {@code null}, если ячейка не задана.
+     */
+    public String getText(int row, int col) {
+        NavigableMap<Integer, String> line = byRow.get(row);
+        String text = line != null ? line.get(col) : null;
+        if (text != null) {
+            return text;
+        }
+        return inBase(row, col) ? formatValue(base.getElement(row, col)) : null;
+    }
+
+    private boolean inBase(int row, int col) {
+        return base != null && row < baseRows && col < baseCols;
+    }
+
+    /**
+     * Сохраняет введённый текст. Пустая строка сбрасывает ячейку в ноль.
+     */
+    public void setText(int row, int col, String text) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Индекс выходит за пределы матрицы.");
+        }
+        if (text.isEmpty() && !inBase(row, col)) {
+            NavigableMap<Integer, String> line = byRow.get(row);
+            if (line != null && line.containsKey(col)) {
+                removeFromIndex(byRow, row, col);
+                removeFromIndex(byCol, col, row);
+                editCount--;
+            }
+            return;
+        }
+        String previous = byRow.computeIfAbsent(row, r -> new TreeMap<>()).put(col, text);
+        if (previous == null) {
+            byCol.computeIfAbsent(col, c -> new TreeMap<>()).put(row, Boolean.TRUE);
+            editCount++;
+        }
+    }
+
+    /**
+     * Собирает матрицу из загруженных и введённых значений.
+     * @throws NumberFormatException если введённый текст не является числом;
+     *         сообщение содержит номер ячейки.
+     * @throws IllegalArgumentException если матрица слишком велика.
+     */
+    public Matrix toMatrix() {
+        Matrix result;
+        if (base != null && baseRows == rows && baseCols == cols
+                && base.getRows() == rows && base.getCols() == cols) {
+            result = base.copy();
+        } else {
+            result = new Matrix(rows, cols);
+            for (int i = 0; i < baseRows && base != null; i++) {
+                for (int j = 0; j < baseCols; j++) {
+                    result.setElement(i, j, base.getElement(i, j));
+                }
+            }
+        }
+        for (Map.Entry<Integer, NavigableMap<Integer, String>> line : byRow.entrySet()) {
+            int row = line.getKey();
+            for (Map.Entry<Integer, String> cell : line.getValue().entrySet()) {
+                result.setElement(row, cell.getKey(), parseValue(row, cell.getKey(), cell.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private static double parseValue(int row, int col, String text) {
+        if (text.isEmpty() || text.equals("-") || text.equals(".") || text.equals("-.")) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Некорректное значение в ячейке ввода [" + (row + 1) + "," + (col + 1) + "]: '" + text + "'");
+        }
+    }
+
+    /**
+     * Форматирует число в десятичной записи без экспоненты (формат, который принимает поле ввода).
+     * NaN и бесконечности показываются как есть ("NaN", "Infinity", "-Infinity"): именно эти
+     * значения участвуют в вычислениях, и {@link #parseValue} их принимает.
+     */
+    static String formatValue(double value) {
+        if (value == 0.0) return "";
+        if (Double.isNaN(value) || Double.isInfinite(value)) return Double.toString(value);
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Проверяет текст поля ввода во время набора: десятичное число без экспоненты или начало
+     * одного из особых значений "NaN", "Infinity", "-Infinity" (их показывает {@link #getText}).
+     */
+    public static boolean isAcceptedInput(String text) {
+        if (text.matches("-?((\\d*\\.?\\d*)|(\\d+\\.?))")) {
+            return true;
+        }
+        String unsigned = text.startsWith("-") ? text.substring(1) : text;
+        return !unsigned.isEmpty() && ("Infinity".startsWith(unsigned) || "NaN".startsWith(text));
+    }
+}
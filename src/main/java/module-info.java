@@ -3,16 +3,25 @@ module com.azapps.matrixapp {
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.graphics; // Явно добавим зависимость от javafx.graphics, так как он упоминается в ошибке
+    // Векторное API для ядра умножения матриц (инкубаторный модуль JDK)
+    requires jdk.incubator.vector;
+    // JMX-метрики операций и учёт выделенной памяти по потокам
+    requires java.management;
+    requires jdk.management;
 
     // Открываем наши пакеты для JavaFX FXML
     opens com.azapps.matrixapp to javafx.fxml;
     opens com.azapps.matrixapp.controller to javafx.fxml;
+    // Виртуализированная таблица создаётся из FXML
+    opens com.azapps.matrixapp.view to javafx.fxml;
     // Если FXML будет напрямую ссылаться на классы модели,
     // то и пакет модели нужно будет открыть:
     // opens com.azapps.matrixapp.model to javafx.fxml;
 
     // ЭКСПОРТИРУЕМ пакет, содержащий MainApp
     exports com.azapps.matrixapp; // Эта строка необходима
+    // Интерфейс MXBean должен быть доступен JMX
+    exports com.azapps.matrixapp.metrics to java.management;
     // Если другие модули (кроме javafx.graphics) должны использовать ваши контроллеры или модели,
     // их тоже можно экспортировать, но для текущей ошибки важен именно пакет с MainApp.
     // exports com.azapps.matrixapp.controller;
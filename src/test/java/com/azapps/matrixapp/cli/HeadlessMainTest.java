@@ -0,0 +1,134 @@
+package com.azapps.matrixapp.cli;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadlessMainTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+    private int run(String stdin, String... args) {
+        return HeadlessMain.run(args, new ByteArrayInputStream(stdin.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(err, true, StandardCharsets.UTF_8));
+    }
+
+    private String[] outputLines() {
+        return out.toString(StandardCharsets.UTF_8).split("\\R");
+    }
+
+    @Test
+    void jobsFromStdin_resultsInOrderAndFilesWritten(@TempDir Path dir) throws Exception {
+        Path a = dir.resolve("a.azmx");
+        MatrixFile.write(new Matrix(new double[][]{{4, 7}, {2, 6}}), a);
+        StringBuilder jobs = new StringBuilder("# комментарий\n");
+        for (int i = 0; i < 20; i++) {
+            jobs.append("inverse ").append(a).append(' ').append(dir.resolve("inv" + i + ".azmx")).append('\n');
+        }
+        jobs.append("determinant ").append(a).append('\n');
+        jobs.append("transpose ").append(a).append('\n');
+
+        assertEquals(HeadlessMain.EXIT_OK, run(jobs.toString(), "--jobs", "-", "--workers", "3"));
+
+        String[] lines = outputLines();
+        assertEquals(22, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            String[] fields = lines[i].split("\t");
+            assertEquals("OK", fields[0]);
+            assertEquals(i + 2, Integer.parseInt(fields[1])); // номер строки файла заданий
+        }
+        assertEquals(10.0, Double.parseDouble(lines[20].split("\t")[4]), DELTA);
+
+        Matrix inverse = MatrixFile.read(dir.resolve("inv7.azmx"));
+        assertEquals(0.6, inverse.getElement(0, 0), DELTA);
+        assertEquals(-0.7, inverse.getElement(0, 1), DELTA);
+        Matrix transposed = MatrixFile.read(dir.resolve("a.transpose.azmx"));
+        assertEquals(2.0, transposed.getElement(0, 1), DELTA);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("заданий/с"));
+    }
+
+    @Test
+    void failedJobs_reportedInPlaceAndExitCodeOne(@TempDir Path dir) throws Exception {
+        Path singular = dir.resolve("s.azmx");
+        MatrixFile.write(new Matrix(new double[][]{{1, 2}, {2, 4}}), singular);
+        String jobs = "inverse " + singular + "\n"
+                + "inverse " + dir.resolve("missing.azmx") + "\n"
+                + "rotate " + singular + "\n"
+                + "determinant " + singular + "\n"
+                + "inverse bad\u0000path.azmx\n"; // недопустимый путь
+
+        assertEquals(HeadlessMain.EXIT_JOB_FAILURES, run(jobs, "--jobs", "-"));
+
+        String[] lines = outputLines();
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("ERROR\t1\tinverse"));
+        assertTrue(lines[1].startsWith("ERROR\t2\tinverse"));
+        assertTrue(lines[2].startsWith("ERROR\t3\t-"));
+        assertTrue(lines[3].startsWith("OK\t4\tdeterminant"));
+        assertTrue(lines[4].startsWith("ERROR\t5\t-\t-"));
+    }
+
+    @Test
+    void inputDir_processesAllFilesIntoOutputDir(@TempDir Path dir) throws IOException {
+        Path in = Files.createDirectory(dir.resolve("in"));
+        MatrixFile.write(new Matrix(new double[][]{{1, 2, 3}}), in.resolve("x.azmx"));
+        MatrixFile.write(new Matrix(new double[][]{{5}}), in.resolve("y.azmx"));
+        Files.writeString(in.resolve("notes.txt"), "не матрица");
+        Path outDir = dir.resolve("out");
+
+        int code = run("", "--input-dir", in.toString(), "--op", "transpose",
+                "--output-dir", outDir.toString(), "--compress");
+
+        assertEquals(HeadlessMain.EXIT_OK, code);
+        assertEquals(2, outputLines().length);
+        assertEquals(3, MatrixFile.read(outDir.resolve("x.transpose.azmx")).getRows());
+        assertTrue(Files.exists(outDir.resolve("y.transpose.azmx")));
+    }
+
+    @Test
+    void badArguments_exitWithUsageCode() {
+        assertEquals(HeadlessMain.EXIT_USAGE, run(""));
+        assertEquals(HeadlessMain.EXIT_USAGE, run("", "--jobs", "-", "--workers", "0"));
+        assertEquals(HeadlessMain.EXIT_USAGE, run("", "--input-dir", "."));
+        assertEquals(HeadlessMain.EXIT_USAGE, run("", "--jobs"));
+        assertEquals(HeadlessMain.EXIT_USAGE, run("", "--bogus"));
+        // MainApp всегда запускает JavaFX, поэтому флага --headless нет: пакетный режим — только HeadlessMain
+        assertEquals(HeadlessMain.EXIT_USAGE, run("", "--headless", "--jobs", "-"));
+    }
+
+    @Test
+    void missingJobsFile_exitsWithIoCode(@TempDir Path dir) {
+        assertEquals(HeadlessMain.EXIT_IO, run("", "--jobs", dir.resolve("nope.txt").toString()));
+    }
+
+    @Test
+    void cache_repeatedMatricesComputedOnce(@TempDir Path dir) throws Exception {
+        Path a = dir.resolve("a.azmx");
+        Path b = dir.resolve("b.azmx");
+        MatrixFile.write(new Matrix(new double[][]{{4, 7}, {2, 6}}), a);
+        MatrixFile.write(new Matrix(new double[][]{{4, 7}, {2, 6}}), b); // то же содержимое, другой файл
+        StringBuilder jobs = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            jobs.append("inverse ").append(i % 2 == 0 ? a : b).append(' ').append(dir.resolve("inv" + i + ".azmx")).append('\n');
+        }
+
+        assertEquals(HeadlessMain.EXIT_OK, run(jobs.toString(), "--jobs", "-", "--workers", "1", "--cache-mb", "16"));
+
+        assertEquals(-0.7, MatrixFile.read(dir.resolve("inv4.azmx")).getElement(0, 1), DELTA);
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("попаданий 4, промахов 1"), err.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package com.azapps.matrixapp.distributed;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixOperationException;
+import com.azapps.matrixapp.model.TestMatrices;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static com.azapps.matrixapp.model.TestMatrices.assertMatrixEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DistributedInverseTest {
+
+    @Test
+    void inverse_onLocalWorkerProcesses_matchesLocalInverse() throws Exception {
+        Matrix matrix = TestMatrices.random(150, 150, 150 / 4.0, 1);
+        try (DistributedInverse coordinator = DistributedInverse.launchLocal(3)) {
+            assertEquals(3, coordinator.getWorkerCount());
+            // 150 = 9 блоков по 16 и неполный блок из 6 столбцов
+            assertMatrixEquals(matrix.inverse(), coordinator.inverse(matrix, 16), 1e-9);
+
+            // Повторное обращение на тех же рабочих: представление и блок шире матрицы
+            Matrix small = TestMatrices.random(20, 20, 20 / 4.0, 2).transpose();
+            assertMatrixEquals(small.inverse(), coordinator.inverse(small, 64), 1e-9);
+
+            Matrix singular = TestMatrices.random(40, 40, 40 / 4.0, 3);
+            for (int j = 0; j < 40; j++) {
+                singular.setElement(39, j, 2 * singular.getElement(7, j));
+            }
+            assertThrows(MatrixOperationException.class, () -> coordinator.inverse(singular, 8));
+            assertThrows(MatrixOperationException.class, () -> coordinator.inverse(new Matrix(3, 4)));
+
+            // После вырожденной матрицы координатор продолжает работать
+            assertMatrixEquals(matrix.inverse(), coordinator.inverse(matrix, 32), 1e-9);
+
+            // Обращение на месте: результат собирается в саму матрицу, вырожденная не меняется
+            Matrix inPlace = matrix.copy();
+            coordinator.invertInPlace(inPlace, 16);
+            assertMatrixEquals(matrix.inverse(), inPlace, 1e-9);
+            Matrix singularCopy = singular.copy();
+            assertThrows(MatrixOperationException.class, () -> coordinator.invertInPlace(singularCopy, 8));
+            assertMatrixEquals(singular, singularCopy, 0.0);
+            assertThrows(IllegalStateException.class, () -> coordinator.invertInPlace(matrix.copy().freeze()));
+        }
+    }
+
+    @Test
+    void closedCoordinator_rejectsWork() throws IOException {
+        DistributedInverse coordinator = DistributedInverse.launchLocal(1);
+        coordinator.close();
+        assertThrows(IllegalStateException.class, () -> coordinator.inverse(TestMatrices.random(5, 5, 5 / 4.0, 4)));
+        assertThrows(IllegalArgumentException.class, () -> DistributedInverse.launchLocal(0));
+    }
+
+}
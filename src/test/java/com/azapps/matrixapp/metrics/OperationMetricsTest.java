@@ -0,0 +1,128 @@
+package com.azapps.matrixapp.metrics;
+
+import com.azapps.matrixapp.model.Matrix;
+import com.azapps.matrixapp.model.MatrixOperationException;
+import com.azapps.matrixapp.model.TestMatrices;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OperationMetricsTest {
+
+    @BeforeEach
+    void enable() {
+        OperationMetrics.reset();
+        OperationMetrics.setEnabled(true);
+    }
+
+    @AfterEach
+    void disable() {
+        OperationMetrics.setEnabled(false);
+        OperationMetrics.reset();
+    }
+
+    private static OperationMetrics.Snapshot find(OperationMetrics.Operation operation, OperationMetrics.Path path, int bucket) {
+        return OperationMetrics.snapshot().stream()
+                .filter(s -> s.operation() == operation && s.path() == path && s.sizeBucket() == bucket)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError(operation + "/" + path + " n<=" + bucket + " нет в " + OperationMetrics.snapshot()));
+    }
+
+    @Test
+    void operations_recordedByPathAndSizeBucket() throws MatrixOperationException {
+        Matrix large = TestMatrices.random(100, 100, 100, 1);
+        large.inverse();
+        large.inverse();
+        large.determinant();
+        large.determinant();
+        large.inverse(); // теперь по кэшированному LU
+        TestMatrices.random(3, 3, 3, 2).inverse();
+        large.transposeInto(new Matrix(100, 100));
+        // Внутренние копии представлений не записываются как транспонирование
+        large.transpose().copy().transpose().determinant();
+
+        OperationMetrics.Snapshot gaussJordan = find(OperationMetrics.Operation.INVERSE, OperationMetrics.Path.GAUSS_JORDAN, 128);
+        assertEquals(2, gaussJordan.count());
+        assertTrue(gaussJordan.gflops() > 0);
+        assertTrue(gaussJordan.maxMillis() >= gaussJordan.p50Millis());
+        assertTrue(gaussJordan.allocatedBytes() >= 2 * 8 * 100 * 100);
+        assertEquals(1, find(OperationMetrics.Operation.INVERSE, OperationMetrics.Path.CACHED_LU, 128).count());
+        assertEquals(2, find(OperationMetrics.Operation.DETERMINANT, OperationMetrics.Path.LU, 128).count());
+        assertEquals(1, find(OperationMetrics.Operation.DETERMINANT, OperationMetrics.Path.CACHED_LU, 128).count());
+        assertEquals(1, find(OperationMetrics.Operation.INVERSE, OperationMetrics.Path.CLOSED_FORM, 4).count());
+        assertEquals(1, find(OperationMetrics.Operation.TRANSPOSE, OperationMetrics.Path.TILED, 128).count());
+    }
+
+    @Test
+    void structuredMatrices_recordedUnderSpecializedPaths() throws MatrixOperationException {
+        Matrix general = TestMatrices.random(40, 40, 40, 4);
+        Matrix spd = general.transpose().multiply(general);
+        Matrix lower = new Matrix(40, 40);
+        Matrix diagonal = new Matrix(40, 40);
+        for (int i = 0; i < 40; i++) {
+            for (int j = 0; j <= i; j++) {
+                lower.setElement(i, j, general.getElement(i, j));
+            }
+            diagonal.setElement(i, i, i + 1);
+        }
+        spd.inverse();
+        spd.determinant();
+        lower.inverse();
+        lower.transpose().determinant();
+        diagonal.inverse();
+
+        assertEquals(1, find(OperationMetrics.Operation.INVERSE, OperationMetrics.Path.CHOLESKY, 64).count());
+        assertEquals(1, find(OperationMetrics.Operation.DETERMINANT, OperationMetrics.Path.CHOLESKY, 64).count());
+        assertEquals(1, find(OperationMetrics.Operation.INVERSE, OperationMetrics.Path.TRIANGULAR, 64).count());
+        assertEquals(1, find(OperationMetrics.Operation.DETERMINANT, OperationMetrics.Path.TRIANGULAR, 64).count());
+        assertEquals(1, find(OperationMetrics.Operation.INVERSE, OperationMetrics.Path.DIAGONAL, 64).count());
+    }
+
+    @Test
+    void singularInverse_countedAsRejection_andDisabledRecordsNothing() {
+        Matrix singular = new Matrix(new double[][]{{1, 2, 3, 4, 5}, {2, 4, 6, 8, 10}, {1, 0, 0, 0, 0}, {0, 1, 0, 0, 0}, {0, 0, 1, 0, 0}});
+        assertThrows(MatrixOperationException.class, singular::inverse);
+        assertEquals(1, find(OperationMetrics.Operation.INVERSE, OperationMetrics.Path.GAUSS_JORDAN, 8).singular());
+
+        OperationMetrics.reset();
+        OperationMetrics.setEnabled(false);
+        assertNull(OperationMetrics.begin(OperationMetrics.Operation.INVERSE, 5));
+        assertThrows(MatrixOperationException.class, singular::inverse);
+        assertTrue(OperationMetrics.snapshot().isEmpty());
+    }
+
+    @Test
+    void mbeanAndCsvReporter_exposeSnapshots(@TempDir Path dir) throws Exception {
+        TestMatrices.random(20, 20, 20, 3).inverse();
+        OperationMetrics.registerMBean();
+        OperationMetrics.registerMBean(); // повторная регистрация не падает
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OperationMetrics.OBJECT_NAME);
+        assertEquals(1L, server.getAttribute(name, "OperationCount"));
+        assertEquals(Boolean.TRUE, server.getAttribute(name, "Enabled"));
+        assertTrue(((String) server.getAttribute(name, "Csv")).contains("INVERSE,GAUSS_JORDAN,32,1,0"));
+
+        Path csv = dir.resolve("metrics.csv");
+        try (OperationMetrics.Reporter reporter = OperationMetrics.startReporter(Duration.ofHours(1), csv, null)) {
+            reporter.report();
+        }
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(OperationMetrics.Snapshot.CSV_HEADER, lines.get(0));
+        assertEquals(3, lines.size()); // заголовок, явный вызов и снимок при закрытии
+        assertTrue(lines.get(2).contains(",INVERSE,GAUSS_JORDAN,32,1,"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FloatMatrixTest {
+
+    private static final float DELTA = 1e-4f; // Для сравнения float
+
+    @Test
+    void conversion_roundTripsThroughMatrix() {
+        Matrix source = new Matrix(new double[][]{{1.5, -2}, {0.25, 3}});
+        FloatMatrix matrix = FloatMatrix.fromMatrix(source.transpose());
+        assertEquals(-2f, matrix.getElement(1, 0), 0f);
+        Matrix back = matrix.toMatrix();
+        assertEquals(0.25, back.getElement(0, 1), 0.0);
+        assertEquals(2, back.getRows());
+    }
+
+    @Test
+    void transpose_isViewAndCopyMaterializesLargeMatrix() {
+        FloatMatrix matrix = FloatMatrix.fromMatrix(TestMatrices.random(300, 517, 2, 1));
+        FloatMatrix view = matrix.transpose();
+        assertEquals(517, view.getRows());
+        view.setElement(5, 7, 42f);
+        assertEquals(42f, matrix.getElement(7, 5), 0f);
+
+        FloatMatrix copy = view.copy();
+        for (int i = 0; i < 517; i += 37) {
+            for (int j = 0; j < 300; j += 11) {
+                assertEquals(matrix.getElement(j, i), copy.getElement(i, j), 0f);
+            }
+        }
+    }
+
+    @Test
+    void multiply_matchesDoublePrecisionProduct() throws MatrixOperationException {
+        FloatMatrix a = FloatMatrix.fromMatrix(TestMatrices.random(70, 130, 2, 2));
+        FloatMatrix b = FloatMatrix.fromMatrix(TestMatrices.random(130, 45, 2, 3));
+        FloatMatrix product = a.multiply(b);
+        Matrix expected = a.toMatrix().multiply(b.toMatrix());
+        for (int i = 0; i < 70; i++) {
+            for (int j = 0; j < 45; j++) {
+                assertEquals(expected.getElement(i, j), product.getElement(i, j), 1e-3);
+            }
+        }
+        assertThrows(MatrixOperationException.class, () -> a.multiply(a));
+    }
+
+    @Test
+    void inverse_productWithOriginalIsIdentity() throws MatrixOperationException {
+        for (int n : new int[]{1, 3, 40, 100}) {
+            FloatMatrix matrix = FloatMatrix.fromMatrix(TestMatrices.random(n, n, 2, n));
+            FloatMatrix product = matrix.multiply(matrix.inverse());
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    assertEquals(i == j ? 1f : 0f, product.getElement(i, j), DELTA, "n = " + n);
+                }
+            }
+        }
+    }
+
+    @Test
+    void invertInPlace_transposedView() throws MatrixOperationException {
+        FloatMatrix matrix = new FloatMatrix(new float[][]{{4, 7}, {2, 6}});
+        FloatMatrix view = matrix.transpose();
+        view.invertInPlace();
+        // (A^T)^-1 = (A^-1)^T, A^-1 = [[0.6, -0.7], [-0.2, 0.4]]
+        assertEquals(0.6f, view.getElement(0, 0), DELTA);
+        assertEquals(-0.2f, view.getElement(0, 1), DELTA);
+        assertEquals(-0.7f, view.getElement(1, 0), DELTA);
+    }
+
+    @Test
+    void determinant_matchesDoubleAndSingularThrowsOnInverse() throws MatrixOperationException {
+        FloatMatrix matrix = FloatMatrix.fromMatrix(TestMatrices.random(12, 12, 2, 9));
+        assertEquals(matrix.toMatrix().determinant(), matrix.determinant(), 1e-3 * Math.abs(matrix.toMatrix().determinant()));
+
+        FloatMatrix singular = new FloatMatrix(new float[][]{{1, 2, 3}, {2, 4, 6}, {1, 0, 1}});
+        assertEquals(0.0, singular.determinant(), 1e-6);
+        assertThrows(MatrixOperationException.class, singular::inverse);
+        assertThrows(MatrixOperationException.class, () -> new FloatMatrix(2, 3).determinant());
+    }
+}
@@ -0,0 +1,119 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class LUDecompositionTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    @Test
+    void factors_reconstructPermutedMatrix() throws MatrixOperationException {
+        double[][] data = {{2, 1, 1}, {4, -6, 0}, {-2, 7, 2}};
+        Matrix matrix = new Matrix(data);
+        LUDecomposition lu = new LUDecomposition(matrix);
+        double[][] l = lu.getL().getData();
+        double[][] u = lu.getU().getData();
+        int[] pivot = lu.getPivot();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                double sum = 0;
+                for (int k = 0; k < 3; k++) {
+                    sum += l[i][k] * u[k][j];
+                }
+                assertEquals(data[pivot[i]][j], sum, DELTA);
+            }
+        }
+    }
+
+    @Test
+    void determinant_matchesKnownValue() throws MatrixOperationException {
+        double[][] data = {{2, 1, 1}, {4, -6, 0}, {-2, 7, 2}}; // det = -16
+        LUDecomposition lu = new LUDecomposition(new Matrix(data));
+        assertEquals(-16.0, lu.getDeterminant(), DELTA);
+        assertEquals(-1, lu.getDeterminantSign());
+        assertEquals(Math.log(16.0), lu.getLogAbsDeterminant(), DELTA);
+    }
+
+    @Test
+    void logDeterminant_doesNotOverflowForLargeMatrix() throws MatrixOperationException {
+        int n = 400;
+        Matrix matrix = new Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            matrix.setElement(i, i, 1e3);
+        }
+        LUDecomposition lu = new LUDecomposition(matrix);
+        assertEquals(Double.POSITIVE_INFINITY, lu.getDeterminant());
+        assertEquals(1, lu.getDeterminantSign());
+        assertEquals(n * Math.log(1e3), lu.getLogAbsDeterminant(), 1e-6);
+    }
+
+    @Test
+    void solve_multipleRightHandSides() throws MatrixOperationException {
+        Random random = new Random(42);
+        int n = 20;
+        int m = 3;
+        Matrix a = new Matrix(n, n);
+        Matrix b = new Matrix(n, m);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                a.setElement(i, j, random.nextDouble() - 0.5 + (i == j ? n : 0));
+            }
+            for (int j = 0; j < m; j++) {
+                b.setElement(i, j, random.nextDouble());
+            }
+        }
+        Matrix x = new LUDecomposition(a).solve(b);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                double sum = 0;
+                for (int k = 0; k < n; k++) {
+                    sum += a.getElement(i, k) * x.getElement(k, j);
+                }
+                assertEquals(b.getElement(i, j), sum, 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void solve_singularMatrix_throwsMatrixOperationException() throws MatrixOperationException {
+        LUDecomposition lu = new LUDecomposition(new Matrix(new double[][]{{1, 2}, {2, 4}}));
+        assertTrue(lu.isSingular());
+        assertEquals(0, lu.getDeterminantSign());
+        assertThrows(MatrixOperationException.class, () -> lu.solve(new Matrix(2, 1)));
+    }
+
+    @Test
+    void nonSquareMatrix_throwsMatrixOperationException() {
+        assertThrows(MatrixOperationException.class, () -> new LUDecomposition(new Matrix(2, 3)));
+    }
+
+    @Test
+    void matrix_cachesFactorizationUntilModified() throws MatrixOperationException {
+        Matrix matrix = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        LUDecomposition first = matrix.lu();
+        matrix.determinant();
+        matrix.inverse();
+        assertSame(first, matrix.lu());
+
+        matrix.transpose().setElement(1, 0, 5); // изменение через представление
+        assertNotSame(first, matrix.lu());
+        assertEquals(-11.0, matrix.determinant(), DELTA); // {{1, 5}, {3, 4}}
+    }
+
+    @Test
+    void determinant_largeMatrixCompletesQuickly() throws MatrixOperationException {
+        int n = 200;
+        Matrix matrix = new Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            matrix.setElement(i, i, 2);
+            if (i + 1 < n) {
+                matrix.setElement(i, i + 1, 1);
+            }
+        }
+        // Верхнетреугольная матрица: определитель равен произведению диагонали
+        assertEquals(n * Math.log(2), matrix.lu().getLogAbsDeterminant(), 1e-9);
+    }
+}
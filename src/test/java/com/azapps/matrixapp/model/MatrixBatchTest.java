@@ -0,0 +1,157 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixBatchTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    // Число матриц не кратно ни длине вектора, ни блоку задач
+    private static final int COUNT = 203;
+
+    private static MatrixBatch randomBatch(int count, int n, long seed) {
+        Random random = new Random(seed);
+        MatrixBatch batch = new MatrixBatch(count, n, n);
+        for (int b = 0; b < count; b++) {
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    // Диагональное преобладание — матрицы заведомо обратимы
+                    batch.set(b, i, j, random.nextDouble() * 2 - 1 + (i == j ? n : 0));
+                }
+            }
+        }
+        return batch;
+    }
+
+    @Test
+    void inverseInto_matchesMatrixInverseForAllSizes() throws MatrixOperationException {
+        for (int n = 1; n <= 6; n++) {
+            MatrixBatch batch = randomBatch(COUNT, n, n);
+            MatrixBatch result = new MatrixBatch(COUNT, n, n);
+            BitSet singular = batch.inverseInto(result);
+            assertTrue(singular.isEmpty(), "n = " + n);
+            for (int b = 0; b < COUNT; b += 17) {
+                Matrix expected = batch.getMatrix(b).inverse();
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        assertEquals(expected.getElement(i, j), result.get(b, i, j), DELTA, "n = " + n + ", b = " + b);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void determinants_matchMatrixDeterminant() throws MatrixOperationException {
+        for (int n = 1; n <= 6; n++) {
+            MatrixBatch batch = randomBatch(COUNT, n, 100 + n);
+            double[] det = batch.determinants();
+            for (int b = 0; b < COUNT; b += 13) {
+                double expected = batch.getMatrix(b).determinant();
+                assertEquals(expected, det[b], DELTA * Math.abs(expected), "n = " + n + ", b = " + b);
+            }
+        }
+    }
+
+    @Test
+    void inverseInto_singularEntriesReportedInMaskWithoutThrowing() throws MatrixOperationException {
+        for (int n = 2; n <= 5; n++) {
+            MatrixBatch batch = randomBatch(COUNT, n, 7);
+            int[] bad = {0, 5, 64, 130, COUNT - 1};
+            for (int b : bad) {
+                for (int j = 0; j < n; j++) {
+                    batch.set(b, 1, j, 2 * batch.get(b, 0, j)); // строка 1 пропорциональна строке 0
+                }
+            }
+            BitSet singular = batch.invertInPlace();
+            assertEquals(bad.length, singular.cardinality(), "n = " + n);
+            for (int b : bad) {
+                assertTrue(singular.get(b));
+                assertTrue(Double.isNaN(batch.get(b, 0, 0)));
+            }
+            // Соседние обратимые матрицы обращены как обычно
+            assertFalse(Double.isNaN(batch.get(1, 0, 0)));
+        }
+    }
+
+    @Test
+    void inverseInto_smallButWellConditionedMatricesAgreeWithMatrixInverse() throws MatrixOperationException {
+        // Определитель 1e-4·A меньше порога 1e-10, но матрица обратима с точки зрения Matrix.inverse()
+        for (int n = 2; n <= 4; n++) {
+            MatrixBatch batch = randomBatch(COUNT, n, 20 + n);
+            for (int b = 0; b < COUNT; b++) {
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        batch.set(b, i, j, batch.get(b, i, j) * 1e-4);
+                    }
+                }
+            }
+            MatrixBatch result = new MatrixBatch(COUNT, n, n);
+            assertTrue(batch.inverseInto(result).isEmpty(), "n = " + n);
+            for (int b = 0; b < COUNT; b += 11) {
+                Matrix expected = batch.getMatrix(b).inverse();
+                for (int i = 0; i < n; i++) {
+                    for (int j = 0; j < n; j++) {
+                        assertEquals(expected.getElement(i, j), result.get(b, i, j),
+                                DELTA * Math.abs(expected.getElement(i, j)) + DELTA, "n = " + n + ", b = " + b);
+                    }
+                }
+            }
+            double expected = result.get(COUNT - 1, n - 1, 0);
+            assertTrue(batch.invertInPlace().isEmpty(), "n = " + n);
+            assertEquals(expected, batch.get(COUNT - 1, n - 1, 0), 0.0);
+        }
+
+        Matrix scaledIdentity = new Matrix(new double[][]{{1e-4, 0, 0}, {0, 1e-4, 0}, {0, 0, 1e-4}});
+        MatrixBatch batch = MatrixBatch.of(scaledIdentity, scaledIdentity, scaledIdentity);
+        assertTrue(batch.invertInPlace().isEmpty());
+        assertEquals(scaledIdentity.inverse().getElement(1, 1), batch.get(2, 1, 1), DELTA);
+    }
+
+    @Test
+    void invertInPlace_matchesInverseInto() throws MatrixOperationException {
+        MatrixBatch batch = randomBatch(COUNT, 4, 3);
+        MatrixBatch expected = new MatrixBatch(COUNT, 4, 4);
+        batch.inverseInto(expected);
+        batch.invertInPlace();
+        for (int b = 0; b < COUNT; b++) {
+            assertEquals(expected.get(b, 2, 3), batch.get(b, 2, 3), 0.0);
+        }
+    }
+
+    @Test
+    void transpose_rectangularAndSquareInPlace() {
+        MatrixBatch batch = new MatrixBatch(3, 2, 3);
+        for (int b = 0; b < 3; b++) {
+            batch.setMatrix(b, new Matrix(new double[][]{{b, 1, 2}, {3, 4, 5}}));
+        }
+        MatrixBatch t = batch.transpose();
+        assertEquals(3, t.getRows());
+        assertEquals(2, t.getCols());
+        assertEquals(2.0, t.get(2, 0, 0), DELTA);
+        assertEquals(3.0, t.get(1, 0, 1), DELTA);
+        assertEquals(2.0, t.get(0, 2, 0), DELTA);
+
+        MatrixBatch square = randomBatch(10, 3, 1);
+        Matrix before = square.getMatrix(4);
+        square.transposeInto(square);
+        assertEquals(before.getElement(0, 2), square.get(4, 2, 0), 0.0);
+        assertEquals(before.getElement(1, 1), square.get(4, 1, 1), 0.0);
+    }
+
+    @Test
+    void nonSquareOrMismatchedShapes_throw() {
+        MatrixBatch batch = new MatrixBatch(4, 2, 3);
+        assertThrows(MatrixOperationException.class, batch::determinants);
+        assertThrows(MatrixOperationException.class, () -> batch.inverseInto(batch));
+        assertThrows(IllegalArgumentException.class, () -> batch.transposeInto(new MatrixBatch(4, 2, 3)));
+        assertThrows(IllegalArgumentException.class, () -> batch.setMatrix(0, new Matrix(3, 2)));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.get(4, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new MatrixBatch(0, 2, 2));
+    }
+}
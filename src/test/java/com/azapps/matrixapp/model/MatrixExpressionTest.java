@@ -0,0 +1,130 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static com.azapps.matrixapp.model.TestMatrices.assertMatrixEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixExpressionTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    @Test
+    void doubleTranspose_cancelsToSourceMatrix() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(3, 4, 1);
+        MatrixExpression expression = MatrixExpression.of(a).transpose().transpose();
+        assertEquals("[3x4]", expression.simplify().toString());
+        assertSame(a, expression.evaluate());
+        assertEquals(a.getElement(2, 1), MatrixExpression.of(a).transpose().getElement(1, 2), 0.0);
+    }
+
+    @Test
+    void transposeOfInverseOfTranspose_becomesInverse() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(20, 20, 20, 2);
+        MatrixExpression expression = MatrixExpression.of(a).transpose().inverse().transpose();
+        assertEquals("inverse([20x20])", expression.simplify().toString());
+        assertMatrixEquals(a.inverse(), expression.evaluate(), DELTA);
+        assertEquals(a.inverse().getElement(3, 7), expression.getElement(3, 7), DELTA);
+    }
+
+    @Test
+    void inverseTimesMatrix_becomesSolve() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(30, 30, 30, 3);
+        Matrix b = TestMatrices.random(30, 2, 4);
+        MatrixExpression left = MatrixExpression.of(a).inverse().multiply(b);
+        assertEquals("solve([30x30], [30x2])", left.simplify().toString());
+        assertMatrixEquals(a.inverse().multiply(b), left.evaluate(), DELTA);
+        assertEquals(a.inverse().multiply(b).getElement(5, 1), left.getElement(5, 1), DELTA);
+
+        // B A⁻¹ = (Aᵀ \ Bᵀ)ᵀ
+        Matrix c = TestMatrices.random(2, 30, 5);
+        MatrixExpression right = MatrixExpression.of(c).multiply(MatrixExpression.of(a).inverse());
+        assertEquals("transpose(solve(transpose([30x30]), transpose([2x30])))", right.simplify().toString());
+        assertMatrixEquals(c.multiply(a.inverse()), right.evaluate(), DELTA);
+
+        // (Aᵀ)⁻¹ B = solve(Aᵀ, B)
+        MatrixExpression transposed = MatrixExpression.of(a).transpose().inverse().multiply(b);
+        assertEquals("solve(transpose([30x30]), [30x2])", transposed.simplify().toString());
+        assertMatrixEquals(a.transpose().inverse().multiply(b), transposed.evaluate(), DELTA);
+    }
+
+    @Test
+    void elementwiseChain_fusedIntoSinglePass() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(300, 170, 6);
+        Matrix b = TestMatrices.random(170, 300, 7);
+        Matrix c = TestMatrices.random(300, 170, 8);
+        MatrixExpression ea = MatrixExpression.of(a);
+        // ((A + Bᵀ) * 2 - A ∘ C)ᵀ * 0.5: транспонирование опускается к листьям, (Bᵀ)ᵀ сокращается
+        MatrixExpression expression = ea.add(MatrixExpression.of(b).transpose()).scale(2)
+                .subtract(ea.hadamard(MatrixExpression.of(c))).transpose().scale(0.5);
+        assertEquals("scale(subtract(scale(add(transpose([300x170]), [170x300]), 2.0), "
+                        + "hadamard(transpose([300x170]), transpose([300x170]))), 0.5)",
+                expression.simplify().toString());
+
+        Matrix result = expression.evaluate();
+        assertEquals(170, result.getRows());
+        for (int i = 0; i < 300; i += 13) {
+            for (int j = 0; j < 170; j += 7) {
+                double expected = 0.5 * (2 * (a.getElement(i, j) + b.getElement(j, i)) - a.getElement(i, j) * c.getElement(i, j));
+                assertEquals(expected, result.getElement(j, i), DELTA);
+                assertEquals(expected, expression.getElement(j, i), DELTA);
+            }
+        }
+    }
+
+    @Test
+    void sharedSubexpression_andShapeErrors() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(6, 6, 6, 9);
+        MatrixExpression inverse = MatrixExpression.of(a).inverse();
+        Matrix doubled = inverse.add(inverse).evaluate();
+        assertMatrixEquals(a.inverse(), MatrixExpression.of(doubled).scale(0.5).evaluate(), DELTA);
+
+        MatrixExpression wide = MatrixExpression.of(new Matrix(2, 3));
+        assertThrows(MatrixOperationException.class, wide::inverse);
+        assertThrows(MatrixOperationException.class, () -> wide.multiply(wide));
+        assertThrows(MatrixOperationException.class, () -> wide.add(wide.transpose()));
+        assertThrows(IndexOutOfBoundsException.class, () -> wide.getElement(2, 0));
+        MatrixExpression singular = MatrixExpression.of(new Matrix(new double[][]{{1, 2}, {2, 4}})).inverse();
+        assertThrows(MatrixOperationException.class, singular::evaluate);
+    }
+
+    @Test
+    void sharedElementwiseNode_evaluatedOnceNotPerPath() throws MatrixOperationException {
+        Matrix a = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        MatrixExpression x = MatrixExpression.of(a);
+        // 60 уровней x = x + x: при встраивании по каждому пути было бы 2^60 вычислений
+        for (int k = 0; k < 60; k++) {
+            x = x.add(x);
+        }
+        Matrix result = x.evaluate();
+        assertEquals(Math.scalb(4.0, 60), result.getElement(1, 1), 0.0);
+        assertEquals(Math.scalb(4.0, 60), x.getElement(1, 1), 0.0);
+
+        // Разделяемый узел внутри произведения и решения системы: для одного элемента
+        // каждый столбец A⁻¹(x + x) решается один раз, сумма под ним тоже не пересчитывается
+        Matrix b = TestMatrices.random(2, 2, 2, 11);
+        MatrixExpression solved = MatrixExpression.of(b).inverse().multiply(x);
+        MatrixExpression product = solved.transpose().multiply(solved);
+        Matrix expected = product.evaluate();
+        assertEquals(expected.getElement(0, 1), product.getElement(0, 1), Math.abs(expected.getElement(0, 1)) * 1e-12);
+
+        // Разделяемый узел внутри слитого выражения с неразделяемыми
+        MatrixExpression sum = MatrixExpression.of(a).add(MatrixExpression.of(a).scale(2));
+        Matrix mixed = sum.hadamard(sum).subtract(sum.scale(3)).evaluate();
+        assertEquals(12 * 12 - 3 * 12, mixed.getElement(1, 1), 0.0);
+    }
+
+    @Test
+    void inverseOfScaled_rewrittenOnlyForFiniteNonZeroFactor() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(5, 5, 5, 10);
+        MatrixExpression halved = MatrixExpression.of(a).scale(0.5).inverse();
+        assertEquals("scale(inverse([5x5]), 2.0)", halved.simplify().toString());
+        assertMatrixEquals(MatrixExpression.of(a.inverse()).scale(2).evaluate(), halved.evaluate(), DELTA);
+
+        // c = 0 и c, для которого c⁻¹ переполняется: вырожденность определяет Matrix.inverse()
+        MatrixExpression zero = MatrixExpression.of(a).scale(0).inverse();
+        assertEquals("inverse(scale([5x5], 0.0))", zero.simplify().toString());
+        assertThrows(MatrixOperationException.class, zero::evaluate);
+        assertThrows(MatrixOperationException.class, () -> MatrixExpression.of(a).scale(1e-310).inverse().evaluate());
+    }
+}
@@ -0,0 +1,146 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static com.azapps.matrixapp.model.TestMatrices.assertMatrixEquals;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MatrixFileTest {
+
+    private static final double DELTA = 0.0; // Формат хранит double без потерь
+
+    @Test
+    void writeRead_uncompressed_roundTrip(@TempDir Path dir) throws IOException {
+        Matrix source = TestMatrices.random(300, 500, 1); // больше одного буфера ввода-вывода
+        Path file = dir.resolve("m" + MatrixFile.EXTENSION);
+        MatrixFile.write(source, file);
+        assertEquals(MatrixFile.HEADER_SIZE + 300 * 500 * Double.BYTES, Files.size(file));
+        assertMatrixEquals(source, MatrixFile.read(file), DELTA);
+    }
+
+    @Test
+    void writeRead_deflate_roundTripAndCompressesZeros(@TempDir Path dir) throws IOException {
+        Matrix source = new Matrix(400, 400);
+        for (int i = 0; i < 400; i++) {
+            source.setElement(i, i, i + 0.5);
+        }
+        Path file = dir.resolve("m" + MatrixFile.EXTENSION);
+        MatrixFile.write(source, file, MatrixFile.Compression.DEFLATE);
+        assertTrue(Files.size(file) < 400 * 400 * Double.BYTES / 10, "Размер: " + Files.size(file));
+        assertMatrixEquals(source, MatrixFile.read(file), DELTA);
+    }
+
+    @Test
+    void write_transposedView_storedColumnMajor(@TempDir Path dir) throws IOException {
+        Matrix source = TestMatrices.random(7, 3, 2);
+        Matrix transposed = source.transpose();
+        Path plain = dir.resolve("plain" + MatrixFile.EXTENSION);
+        Path packed = dir.resolve("packed" + MatrixFile.EXTENSION);
+        MatrixFile.write(transposed, plain);
+        MatrixFile.write(transposed, packed, MatrixFile.Compression.DEFLATE);
+        assertMatrixEquals(transposed, MatrixFile.read(plain), DELTA);
+        assertMatrixEquals(transposed, MatrixFile.read(packed), DELTA);
+        // Столбцовую раскладку нельзя отобразить как матрицу по строкам
+        assertThrows(IOException.class, () -> MatrixFile.map(plain));
+    }
+
+    @Test
+    void write_subMatrixView_roundTrip(@TempDir Path dir) throws IOException {
+        Matrix view = TestMatrices.random(10, 10, 3).subMatrix(2, 3, 4, 5);
+        Path file = dir.resolve("view" + MatrixFile.EXTENSION);
+        MatrixFile.write(view, file);
+        assertMatrixEquals(view, MatrixFile.read(file), DELTA);
+    }
+
+    @Test
+    void map_uncompressedFile_sharesDataWithFile(@TempDir Path dir) throws IOException {
+        Matrix source = TestMatrices.random(20, 30, 4);
+        Path file = dir.resolve("m" + MatrixFile.EXTENSION);
+        MatrixFile.write(source, file);
+        try (OffHeapMatrix mapped = MatrixFile.map(file)) {
+            assertEquals(source.getElement(5, 7), mapped.getElement(5, 7), DELTA);
+            mapped.setElement(5, 7, 123.0);
+        }
+        assertEquals(123.0, MatrixFile.read(file).getElement(5, 7), DELTA);
+    }
+
+    @Test
+    void read_invalidOrTruncatedFile_throwsIOException(@TempDir Path dir) throws IOException {
+        Path garbage = dir.resolve("garbage" + MatrixFile.EXTENSION);
+        Files.write(garbage, new byte[64]);
+        assertThrows(IOException.class, () -> MatrixFile.read(garbage));
+
+        Path file = dir.resolve("m" + MatrixFile.EXTENSION);
+        MatrixFile.write(TestMatrices.random(10, 10, 5), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Path truncated = dir.resolve("truncated" + MatrixFile.EXTENSION);
+        Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 8));
+        assertThrows(IOException.class, () -> MatrixFile.read(truncated));
+
+        // Заголовок несжатого файла обещает 100000 x 100000 (80 ГБ): отказ до выделения памяти
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(12, 100_000).putInt(16, 100_000);
+        Path huge = dir.resolve("huge" + MatrixFile.EXTENSION);
+        Files.write(huge, bytes);
+        assertThrows(EOFException.class, () -> MatrixFile.read(huge));
+        assertThrows(EOFException.class, () -> MatrixFile.map(huge));
+    }
+
+    @Test
+    void readWrite_reportProgressAndCancelDeletesPartialFile(@TempDir Path dir) throws IOException {
+        Matrix matrix = TestMatrices.random(600, 300, 7);
+        Path file = dir.resolve("m" + MatrixFile.EXTENSION);
+        long[] last = new long[2];
+        ProgressMonitor recording = (done, total) -> {
+            last[0] = done;
+            last[1] = total;
+        };
+        MatrixFile.write(matrix, file, MatrixFile.Compression.DEFLATE, recording);
+        assertArrayEquals(new long[]{600, 600}, last);
+        last[0] = 0;
+        assertMatrixEquals(matrix, MatrixFile.read(file, recording), DELTA);
+        assertArrayEquals(new long[]{600, 600}, last);
+
+        ProgressMonitor cancelled = new ProgressMonitor() {
+            @Override
+            public void progress(long done, long total) {
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return true;
+            }
+        };
+        assertThrows(java.util.concurrent.CancellationException.class, () -> MatrixFile.read(file, cancelled));
+        assertThrows(java.util.concurrent.CancellationException.class,
+                () -> MatrixFile.write(matrix, file, MatrixFile.Compression.NONE, cancelled));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void read_corruptChunkSizes_throwIOExceptionWithoutHugeAllocation(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("m" + MatrixFile.EXTENSION);
+        MatrixFile.write(TestMatrices.random(300, 300, 6), file, MatrixFile.Compression.DEFLATE);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Строк во фрагменте больше, чем строк в матрице (и буфер фрагмента переполнил бы int)
+        byte[] chunk = bytes.clone();
+        ByteBuffer.wrap(chunk).order(ByteOrder.LITTLE_ENDIAN).putInt(20, 1 << 30);
+        Path badChunk = dir.resolve("chunk" + MatrixFile.EXTENSION);
+        Files.write(badChunk, chunk);
+        assertThrows(IOException.class, () -> MatrixFile.read(badChunk));
+
+        // Длина сжатого фрагмента больше остатка файла
+        byte[] packed = bytes.clone();
+        ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN).putInt(MatrixFile.HEADER_SIZE, Integer.MAX_VALUE);
+        Path badLength = dir.resolve("length" + MatrixFile.EXTENSION);
+        Files.write(badLength, packed);
+        assertThrows(IOException.class, () -> MatrixFile.read(badLength));
+    }
+}
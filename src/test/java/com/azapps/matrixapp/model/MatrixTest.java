@@ -1,6 +1,7 @@
 package com.azapps.matrixapp.model;
 
 import org.junit.jupiter.api.Test;
+import static com.azapps.matrixapp.model.TestMatrices.assertIdentityProduct;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.util.Arrays;
@@ -134,6 +135,125 @@ public class MatrixTest {
         assertEquals(1, transposed.getCols());
     }
 
+    @Test
+    void transpose_isViewSharingBuffer() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+        Matrix transposed = matrix.transpose();
+        transposed.setElement(2, 1, 60);
+        assertEquals(60, matrix.getElement(1, 2), DELTA, "Транспонированное представление должно разделять буфер");
+        Matrix twice = transposed.transpose();
+        assertArrayEquals(matrix.getData()[1], twice.getData()[1], DELTA);
+    }
+
+    @Test
+    void transposeCopy_largeRectangular_matchesElementwise() {
+        int rows = 301;
+        int cols = 517; // не кратно размеру плитки
+        Matrix matrix = new Matrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.setElement(i, j, i * 1000.0 + j);
+            }
+        }
+        Matrix transposed = matrix.transpose().copy();
+        assertEquals(cols, transposed.getRows());
+        assertEquals(rows, transposed.getCols());
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                assertEquals(matrix.getElement(i, j), transposed.getElement(j, i), DELTA);
+            }
+        }
+    }
+
+    @Test
+    void transposeInPlace_squareMatrix() throws MatrixOperationException {
+        int n = 300;
+        Matrix matrix = new Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix.setElement(i, j, i * 1000.0 + j);
+            }
+        }
+        LUDecomposition before = matrix.lu();
+        matrix.transposeInPlace();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(j * 1000.0 + i, matrix.getElement(i, j), DELTA);
+            }
+        }
+        assertNotSame(before, matrix.lu(), "Транспонирование на месте должно сбрасывать кэш разложения");
+    }
+
+    @Test
+    void transposeInPlace_nonSquareMatrix_throwsMatrixOperationException() {
+        Matrix matrix = new Matrix(2, 3);
+        assertThrows(MatrixOperationException.class, matrix::transposeInPlace);
+    }
+
+    @Test
+    void transposeKernel_tileSizeIsTunable() {
+        int auto = TransposeKernel.getTileSize();
+        try {
+            TransposeKernel.setTileSize(7);
+            Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+            assertArrayEquals(new double[]{3, 6}, matrix.transpose().copy().getData()[2], DELTA);
+        } finally {
+            TransposeKernel.setTileSize(0);
+        }
+        assertEquals(auto, TransposeKernel.getTileSize());
+        assertThrows(IllegalArgumentException.class, () -> TransposeKernel.setTileSize(-1));
+    }
+
+    // --- Тесты представлений ---
+    @Test
+    void row_and_column_views() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+        Matrix row = matrix.row(1);
+        Matrix col = matrix.column(2);
+        assertEquals(1, row.getRows());
+        assertEquals(3, row.getCols());
+        assertArrayEquals(new double[]{4, 5, 6}, row.getData()[0], DELTA);
+        assertEquals(2, col.getRows());
+        assertEquals(1, col.getCols());
+        assertEquals(3, col.getElement(0, 0), DELTA);
+        assertEquals(6, col.getElement(1, 0), DELTA);
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.row(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.column(3));
+    }
+
+    @Test
+    void subMatrix_viewOfTransposed() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+        Matrix block = matrix.transpose().subMatrix(1, 1, 2, 2);
+        double[][] expected = {{5, 8}, {6, 9}};
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], block.getData()[i], DELTA);
+        }
+        block.setElement(0, 1, 80);
+        assertEquals(80, matrix.getElement(2, 1), DELTA);
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.subMatrix(2, 2, 2, 1));
+    }
+
+    @Test
+    void copy_isIndependentOfView() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        Matrix copy = matrix.transpose().copy();
+        copy.setElement(0, 1, 99);
+        assertEquals(2, matrix.getElement(0, 1), DELTA);
+        assertEquals(3, matrix.getElement(1, 0), DELTA);
+        assertEquals(99, copy.getElement(0, 1), DELTA);
+    }
+
+    @Test
+    void inverse_ofTransposedView() throws MatrixOperationException {
+        Matrix matrix = new Matrix(new double[][]{{1, 3}, {2, 4}});
+        Matrix inverted = matrix.transpose().inverse();
+        double[][] expected = {{-2, 1}, {1.5, -0.5}};
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], inverted.getData()[i], DELTA);
+        }
+    }
+
     // --- Тесты обращения ---
     @Test
     void inverse_2x2_nonSingularMatrix() throws MatrixOperationException {
@@ -198,6 +318,210 @@ public class MatrixTest {
         assertThrows(MatrixOperationException.class, matrix::inverse);
     }
     
+    @Test
+    void inverse_largeRandomMatrix_productIsIdentity() throws MatrixOperationException {
+        int n = 150; // несколько панелей, последняя неполная
+        Matrix matrix = TestMatrices.random(n, n, 7);
+        Matrix inverted = matrix.inverse();
+        assertIdentityProduct(matrix, inverted, 1e-9);
+    }
+
+    @Test
+    void invertInPlace_replacesContents() throws MatrixOperationException {
+        Matrix matrix = new Matrix(new double[][]{{2, -1, 0}, {-1, 2, -1}, {0, -1, 2}});
+        matrix.invertInPlace();
+        double[][] expected = {{0.75, 0.5, 0.25}, {0.5, 1.0, 0.5}, {0.25, 0.5, 0.75}};
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], matrix.getData()[i], DELTA);
+        }
+    }
+
+    @Test
+    void invertInPlace_onSubMatrixView_leavesRestUntouched() throws MatrixOperationException {
+        Matrix matrix = new Matrix(new double[][]{{9, 9, 9}, {9, 1, 2}, {9, 3, 4}});
+        matrix.subMatrix(1, 1, 2, 2).invertInPlace();
+        double[][] expected = {{9, 9, 9}, {9, -2, 1}, {9, 1.5, -0.5}};
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], matrix.getData()[i], DELTA);
+        }
+    }
+
+    @Test
+    void inverse_reusesCachedFactorization() throws MatrixOperationException {
+        Matrix matrix = TestMatrices.random(40, 40, 11);
+        matrix.determinant(); // кэширует LU
+        assertIdentityProduct(matrix, matrix.inverse(), 1e-9);
+    }
+
+    @Test
+    void inverse_singularLargeMatrix_throwsMatrixOperationException() {
+        Matrix matrix = TestMatrices.random(70, 70, 3);
+        for (int j = 0; j < 70; j++) {
+            matrix.setElement(69, j, matrix.getElement(3, j) * 2); // линейно зависимые строки
+        }
+        assertThrows(MatrixOperationException.class, matrix::inverse);
+    }
+
+    @Test
+    void inverse_withMonitor_reportsMonotonicProgressToCompletion() throws MatrixOperationException {
+        Matrix matrix = TestMatrices.random(100, 100, 12);
+        java.util.List<Long> reported = new java.util.ArrayList<>();
+        Matrix inverse = matrix.inverse((done, total) -> {
+            assertEquals(100, total);
+            reported.add(done);
+        });
+        assertIdentityProduct(matrix, inverse, 1e-9);
+        assertTrue(reported.size() > 2);
+        assertEquals(100L, reported.get(reported.size() - 1));
+        for (int i = 1; i < reported.size(); i++) {
+            assertTrue(reported.get(i) >= reported.get(i - 1));
+        }
+    }
+
+    @Test
+    void inverse_cancelledByMonitor_throwsCancellationException() {
+        Matrix matrix = TestMatrices.random(100, 100, 13);
+        ProgressMonitor cancelAfterFirstPanel = new ProgressMonitor() {
+            private long last;
+
+            @Override
+            public void progress(long done, long total) {
+                last = done;
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return last > 0;
+            }
+        };
+        assertThrows(java.util.concurrent.CancellationException.class, () -> matrix.inverse(cancelAfterFirstPanel));
+    }
+
+    @Test
+    void structure_detectedAndInvalidatedByModification() {
+        Matrix matrix = new Matrix(new double[][]{{2, 0, 0}, {0, 3, 0}, {0, 0, 4}});
+        assertEquals(MatrixStructure.DIAGONAL, matrix.structure());
+        matrix.setElement(2, 0, 1);
+        assertEquals(MatrixStructure.LOWER_TRIANGULAR, matrix.structure());
+        assertEquals(MatrixStructure.UPPER_TRIANGULAR, matrix.transpose().structure());
+        matrix.setElement(0, 2, 1);
+        assertEquals(MatrixStructure.SYMMETRIC, matrix.structure());
+        matrix.setElement(0, 1, 5);
+        assertEquals(MatrixStructure.GENERAL, matrix.structure());
+        assertEquals(MatrixStructure.GENERAL, new Matrix(2, 3).structure());
+    }
+
+    @Test
+    void inverseAndDeterminant_structuredMatricesMatchGeneralAlgorithm() throws MatrixOperationException {
+        // 150: больше блока разложения Холецкого (64) и нескольких блоков столбцов обращения (32)
+        int n = 150;
+        Matrix general = TestMatrices.random(n, n, 21);
+        Matrix lower = new Matrix(n, n);
+        Matrix spd = general.transpose().multiply(general);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                lower.setElement(i, j, general.getElement(i, j) + (i == j ? 2 : 0));
+            }
+            spd.setElement(i, i, spd.getElement(i, i) + 1);
+        }
+        Matrix upper = lower.transpose();
+        assertEquals(MatrixStructure.LOWER_TRIANGULAR, lower.structure());
+        assertEquals(MatrixStructure.SYMMETRIC, spd.structure());
+
+        for (Matrix matrix : new Matrix[]{lower, upper, spd}) {
+            Matrix inverse = matrix.inverse();
+            assertIdentityProduct(matrix, inverse, 1e-9);
+            double expected = matrix.lu().getDeterminant();
+            Matrix fresh = matrix.copy();
+            assertEquals(expected, fresh.determinant(), Math.abs(expected) * 1e-10);
+            assertEquals(expected, fresh.determinant(new Workspace()), Math.abs(expected) * 1e-10);
+        }
+        assertEquals(MatrixStructure.UPPER_TRIANGULAR, upper.inverse().structure());
+
+        Matrix diagonal = new Matrix(6, 6);
+        for (int k = 0; k < 6; k++) {
+            diagonal.setElement(k, k, k - 2.5);
+        }
+        assertIdentityProduct(diagonal, diagonal.inverse(), 1e-12);
+        assertEquals(-2.5 * -1.5 * -0.5 * 0.5 * 1.5 * 2.5, diagonal.determinant(), DELTA);
+    }
+
+    @Test
+    void inverse_structuredButIndefiniteOrSingular_fallsBackToGeneralAlgorithm() throws MatrixOperationException {
+        // Симметричная, но не положительно определённая: Холецкий отказывается, решает Гаусс-Жордан
+        Matrix indefinite = new Matrix(new double[][]{
+                {1, 2, 0, 0, 0}, {2, 1, 0, 0, 0}, {0, 0, 3, 1, 0}, {0, 0, 1, -2, 0}, {0, 0, 0, 0, 5}});
+        assertEquals(MatrixStructure.SYMMETRIC, indefinite.structure());
+        assertIdentityProduct(indefinite, indefinite.inverse(), 1e-12);
+        assertEquals(indefinite.copy().lu().getDeterminant(), indefinite.determinant(), 1e-9);
+
+        Matrix singularTriangular = new Matrix(new double[][]{
+                {1, 0, 0, 0, 0}, {1, 1, 0, 0, 0}, {1, 1, 0, 0, 0}, {1, 1, 1, 1, 0}, {1, 1, 1, 1, 1}});
+        assertThrows(MatrixOperationException.class, singularTriangular::inverse);
+        assertEquals(0.0, singularTriangular.determinant(), 0.0);
+    }
+
+    // --- Тесты умножения ---
+    @Test
+    void multiply_2x3_by_3x2() throws MatrixOperationException {
+        Matrix a = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+        Matrix b = new Matrix(new double[][]{{7, 8}, {9, 10}, {11, 12}});
+        Matrix product = a.multiply(b);
+        assertArrayEquals(new double[]{58, 64}, product.getData()[0], DELTA);
+        assertArrayEquals(new double[]{139, 154}, product.getData()[1], DELTA);
+    }
+
+    @Test
+    void multiply_largeWithEdgesAndViews_matchesNaive() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(131, 270, 5);
+        Matrix bStorage = TestMatrices.random(77, 270, 6);
+        Matrix b = bStorage.transpose(); // 270 x 77, транспонированное представление
+        Matrix product = a.multiply(b);
+        for (int i = 0; i < 131; i++) {
+            for (int j = 0; j < 77; j++) {
+                double sum = 0;
+                for (int k = 0; k < 270; k++) {
+                    sum += a.getElement(i, k) * b.getElement(k, j);
+                }
+                assertEquals(sum, product.getElement(i, j), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    void multiplyAdd_accumulatesIntoDestination() throws MatrixOperationException {
+        Matrix a = TestMatrices.random(70, 90, 1);
+        Matrix b = TestMatrices.random(90, 50, 2);
+        Matrix c = TestMatrices.random(70, 50, 3);
+        Matrix expected = a.multiply(b);
+        Matrix original = c.copy();
+        c.multiplyAdd(a, b);
+        for (int i = 0; i < 70; i++) {
+            for (int j = 0; j < 50; j++) {
+                assertEquals(original.getElement(i, j) + expected.getElement(i, j), c.getElement(i, j), 1e-10);
+            }
+        }
+    }
+
+    @Test
+    void multiply_inverseGivesIdentity() throws MatrixOperationException {
+        Matrix matrix = TestMatrices.random(64, 64, 9);
+        Matrix product = matrix.multiply(matrix.inverse());
+        for (int i = 0; i < 64; i++) {
+            for (int j = 0; j < 64; j++) {
+                assertEquals(i == j ? 1.0 : 0.0, product.getElement(i, j), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void multiply_mismatchedDimensions_throwsMatrixOperationException() {
+        Matrix a = new Matrix(2, 3);
+        Matrix b = new Matrix(2, 3);
+        assertThrows(MatrixOperationException.class, () -> a.multiply(b));
+        assertThrows(MatrixOperationException.class, () -> a.multiplyAdd(a, b));
+    }
+
     // --- Тесты определителя (опционально, если он важен сам по себе) ---
     @Test
     void determinant_2x2_nonSingular() throws MatrixOperationException {
@@ -226,4 +550,191 @@ public class MatrixTest {
         Matrix matrix = new Matrix(data);
         assertThrows(MatrixOperationException.class, matrix::determinant);
     }
-}
\ No newline at end of file
+
+    @Test
+    void smallSizes_closedFormMatchesLUDecomposition() throws MatrixOperationException {
+        for (int n = 1; n <= 4; n++) {
+            Matrix matrix = TestMatrices.random(n, n, 20 + n);
+            Matrix expected = matrix.lu().inverse();
+            Matrix inverse = matrix.inverse();
+            for (int i = 0; i < n; i++) {
+                assertArrayEquals(expected.getData()[i], inverse.getData()[i], 1e-9, "n = " + n);
+            }
+            assertEquals(matrix.lu().getDeterminant(), matrix.determinant(), 1e-12, "n = " + n);
+            assertEquals(matrix.determinant(), matrix.transpose().determinant(), 1e-12);
+        }
+    }
+
+    @Test
+    void inverseInto_writesIntoDestinationViewsAndSelf() throws MatrixOperationException {
+        Matrix matrix = TestMatrices.random(4, 4, 5);
+        Matrix expected = matrix.inverse();
+
+        Matrix dest = new Matrix(4, 4);
+        matrix.inverseInto(dest);
+        assertIdentityProduct(matrix, dest, 1e-9);
+
+        // Результат в транспонированное представление того же буфера
+        Matrix copy = matrix.copy();
+        copy.inverseInto(copy.transpose());
+        assertEquals(expected.getElement(1, 3), copy.getElement(3, 1), 1e-12);
+
+        Matrix large = TestMatrices.random(7, 7, 6);
+        Matrix largeExpected = large.inverse();
+        large.inverseInto(large);
+        assertEquals(largeExpected.getElement(2, 5), large.getElement(2, 5), 1e-12);
+
+        assertThrows(IllegalArgumentException.class, () -> matrix.inverseInto(new Matrix(3, 3)));
+        assertThrows(MatrixOperationException.class, () -> new Matrix(new double[][]{{1, 2}, {2, 4}}).inverseInto(new Matrix(2, 2)));
+    }
+
+    @Test
+    void inverse_smallWithTinyDeterminant_fallsBackToPivotedElimination() throws MatrixOperationException {
+        // det = 1e-12 ниже порога, но ведущие элементы 1e-6 — матрица обратима, как и раньше
+        Matrix matrix = new Matrix(new double[][]{{1e-6, 0}, {0, 1e-6}});
+        Matrix inverse = matrix.inverse();
+        assertEquals(1e6, inverse.getElement(0, 0), 1e-3);
+        assertEquals(1e6, inverse.getElement(1, 1), 1e-3);
+    }
+
+    @Test
+    void solveMixedPrecision_wellConditioned_reachesDoubleAccuracy() throws MatrixOperationException {
+        Matrix matrix = TestMatrices.random(120, 120, 21);
+        Matrix b = TestMatrices.random(120, 120, 22).subMatrix(0, 0, 120, 3);
+        MixedPrecisionResult result = matrix.solveMixedPrecision(b);
+
+        assertFalse(result.doubleFallback());
+        assertTrue(result.iterations() > 0);
+        assertTrue(result.residual() < 1e-14, "residual = " + result.residual());
+        Matrix expected = matrix.lu().solve(b);
+        for (int i = 0; i < 120; i += 7) {
+            assertArrayEquals(expected.getData()[i], result.solution().getData()[i], 1e-12);
+        }
+
+        MixedPrecisionResult inverse = matrix.transpose().inverseMixedPrecision();
+        assertFalse(inverse.doubleFallback());
+        assertIdentityProduct(matrix.transpose(), inverse.solution(), 1e-12);
+    }
+
+    @Test
+    void solveMixedPrecision_illConditioned_fallsBackToDouble() throws MatrixOperationException {
+        int n = 8;
+        Matrix hilbert = new Matrix(n, n);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                hilbert.setElement(i, j, 1.0 / (i + j + 1));
+            }
+        }
+        MixedPrecisionResult result = hilbert.inverseMixedPrecision();
+        assertTrue(result.doubleFallback());
+        assertTrue(result.residual() < 1e-12, "residual = " + result.residual());
+
+        assertThrows(MatrixOperationException.class, () -> hilbert.solveMixedPrecision(new Matrix(3, 1)));
+        assertThrows(MatrixOperationException.class, () -> new Matrix(2, 3).inverseMixedPrecision());
+        assertThrows(MatrixOperationException.class,
+                () -> new Matrix(new double[][]{{1, 2}, {2, 4}}).inverseMixedPrecision());
+    }
+
+    @Test
+    void solve_blockedMultipleRightHandSidesReusesFactorization() throws MatrixOperationException {
+        // Размеры пересекают границы блоков строк (64) и панелей столбцов (128)
+        Matrix matrix = TestMatrices.random(150, 150, 31);
+        Matrix b = new Matrix(150, 141);
+        for (int i = 0; i < 150; i++) {
+            for (int j = 0; j < 141; j++) {
+                b.setElement(i, j, Math.sin(i * 0.7 + j * 1.3));
+            }
+        }
+        Matrix x = matrix.solve(b);
+        LUDecomposition lu = matrix.lu();
+        Matrix residual = matrix.multiply(x);
+        for (int i = 0; i < 150; i++) {
+            assertArrayEquals(b.getData()[i], residual.getData()[i], 1e-9);
+        }
+
+        // Одна правая часть (в том числе представление-столбец) и повторный вызов на том же разложении
+        Matrix column = matrix.solve(b.column(17));
+        assertSame(lu, matrix.lu());
+        for (int i = 0; i < 150; i++) {
+            assertEquals(x.getElement(i, 17), column.getElement(i, 0), 1e-12);
+        }
+        Matrix transposed = matrix.transpose().solve(b.subMatrix(0, 0, 150, 3));
+        assertIdentityProduct(matrix.transpose(), matrix.transpose().inverse(), 1e-9);
+        assertEquals(matrix.transpose().inverse().multiply(b.subMatrix(0, 0, 150, 3)).getElement(42, 2),
+                transposed.getElement(42, 2), 1e-9);
+    }
+
+    @Test
+    void solve_singularOrMismatched_throwsMatrixOperationException() {
+        Matrix singular = new Matrix(new double[][]{{1, 2}, {2, 4}});
+        assertThrows(MatrixOperationException.class, () -> singular.solve(new Matrix(2, 1)));
+        assertThrows(MatrixOperationException.class, () -> singular.solve(new Matrix(3, 1)));
+        assertThrows(MatrixOperationException.class, () -> new Matrix(2, 3).solve(new Matrix(2, 1)));
+    }
+
+    @Test
+    void rowAndColumnAccessors_copyThroughCallerBuffers() {
+        Matrix matrix = new Matrix(new double[][]{{1, 2, 3}, {4, 5, 6}});
+        double[] buffer = new double[5];
+        matrix.getRow(1, buffer, 1);
+        assertArrayEquals(new double[]{0, 4, 5, 6, 0}, buffer, DELTA);
+        matrix.getColumn(2, buffer, 0);
+        matrix.transpose().getRow(2, buffer, 3);
+        assertArrayEquals(new double[]{3, 6, 5, 3, 6}, buffer, DELTA);
+
+        matrix.setColumn(0, new double[]{-1, -4}, 0);
+        matrix.transpose().setColumn(0, new double[]{9, 8, 7, 0}, 1);
+        assertArrayEquals(new double[]{-4, 5, 6}, matrix.getData()[1], DELTA);
+        assertArrayEquals(new double[]{8, 7, 0}, matrix.getData()[0], DELTA);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.getRow(2, buffer, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.getRow(0, buffer, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> matrix.setColumn(0, new double[1], 0));
+        assertThrows(IllegalStateException.class, () -> matrix.copy().freeze().setRow(0, buffer, 0));
+    }
+
+    @Test
+    void transposeIntoAndDeterminantWithWorkspace_matchAllocatingVersions() throws MatrixOperationException {
+        Matrix rectangular = TestMatrices.random(37, 53, 3);
+        Matrix dest = new Matrix(53, 37);
+        rectangular.transposeInto(dest);
+        assertEquals(rectangular.getElement(30, 50), dest.getElement(50, 30), 0.0);
+        assertThrows(IllegalArgumentException.class, () -> rectangular.transposeInto(new Matrix(37, 53)));
+
+        Matrix square = TestMatrices.random(9, 9, 4);
+        Matrix expected = square.transpose().copy();
+        square.transposeInto(square);
+        assertEquals(expected.getElement(2, 7), square.getElement(2, 7), 0.0);
+
+        Workspace workspace = new Workspace();
+        Matrix matrix = TestMatrices.random(40, 40, 8);
+        double determinant = matrix.determinant(workspace);
+        assertEquals(matrix.determinant(), determinant, Math.abs(determinant) * 1e-12);
+        assertEquals(matrix.transpose().determinant(), matrix.transpose().determinant(workspace),
+                Math.abs(determinant) * 1e-12);
+        assertEquals(-2.0, new Matrix(new double[][]{{1, 2}, {3, 4}}).determinant(workspace), DELTA);
+    }
+
+    @Test
+    void inverseIntoWithWorkspace_steadyStateLoopAllocatesNothing() throws MatrixOperationException {
+        // 30x30: достаточно мало, чтобы ядро Гаусса-Жордана работало в вызывающем потоке
+        Matrix matrix = TestMatrices.random(30, 30, 12);
+        Matrix dest = new Matrix(30, 30);
+        Workspace workspace = new Workspace();
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) java.lang.management.ManagementFactory.getThreadMXBean();
+        long allocated = 0;
+        for (int round = 0; round < 2; round++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int iteration = 0; iteration < 200; iteration++) {
+                matrix.inverseInto(dest, workspace);
+                dest.inverseInto(dest, workspace);
+                matrix.determinant(workspace);
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        assertIdentityProduct(matrix, matrix.inverse(), 1e-9);
+        assertEquals(matrix.getElement(5, 7), dest.getElement(5, 7), 1e-9);
+        assertEquals(0, allocated, "байт выделено во втором проходе");
+    }
+}
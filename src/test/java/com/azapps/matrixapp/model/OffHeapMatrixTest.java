@@ -0,0 +1,111 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class OffHeapMatrixTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    @Test
+    void allocate_setAndGetAcrossChunks() {
+        // Фрагмент на 3 строки по 5 элементов: 7 строк занимают три фрагмента
+        OffHeapMatrix m = OffHeapMatrix.allocate(7, 5, 3 * 5 * Double.BYTES);
+        m.setElement(2, 4, 1.5);
+        m.setElement(3, 0, -2.0);
+        m.setElement(6, 4, 3.0);
+        assertEquals(1.5, m.getElement(2, 4), DELTA);
+        assertEquals(-2.0, m.getElement(3, 0), DELTA);
+        assertEquals(3.0, m.getElement(6, 4), DELTA);
+        assertEquals(0.0, m.getElement(5, 2), DELTA);
+        assertThrows(IndexOutOfBoundsException.class, () -> m.getElement(7, 0));
+    }
+
+    @Test
+    void fromMatrix_toMatrix_roundTrip() {
+        Matrix source = TestMatrices.random(13, 9, 1);
+        double[][] back = OffHeapMatrix.fromMatrix(source).toMatrix().getData();
+        double[][] expected = source.getData();
+        for (int i = 0; i < expected.length; i++) {
+            assertArrayEquals(expected[i], back[i], DELTA);
+        }
+    }
+
+    @Test
+    void transpose_rectangularLargerThanTile() {
+        Matrix source = TestMatrices.random(700, 530, 2);
+        Matrix result = OffHeapMatrix.fromMatrix(source).transpose().toMatrix();
+        assertEquals(530, result.getRows());
+        assertEquals(700, result.getCols());
+        for (int i = 0; i < 700; i += 37) {
+            for (int j = 0; j < 530; j++) {
+                assertEquals(source.getElement(i, j), result.getElement(j, i), DELTA);
+            }
+        }
+    }
+
+    @Test
+    void transposeTo_wrongDestinationSize_throwsException() {
+        OffHeapMatrix m = OffHeapMatrix.allocate(2, 3);
+        assertThrows(IllegalArgumentException.class, () -> m.transposeTo(OffHeapMatrix.allocate(2, 3)));
+    }
+
+    @Test
+    void invertInPlace_matchesInMemoryInverse() throws MatrixOperationException {
+        int n = 45;
+        Matrix source = TestMatrices.random(n, n, 3);
+        Matrix expected = source.inverse();
+        // Узкая панель, не делящая n, и мелкие фрагменты проверяют все краевые случаи потоковой обработки
+        OffHeapMatrix m = OffHeapMatrix.allocate(n, n, 4L * n * Double.BYTES);
+        OffHeapMatrix loaded = OffHeapMatrix.fromMatrix(source);
+        double[] row = new double[n];
+        for (int i = 0; i < n; i++) {
+            loaded.readRow(i, 0, row, 0, n);
+            m.writeRow(i, 0, row, 0, n);
+        }
+        m.invertInPlace(8);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                assertEquals(expected.getElement(i, j), m.getElement(i, j), 1e-8);
+            }
+        }
+    }
+
+    @Test
+    void invertInPlace_requiresPivoting() throws MatrixOperationException {
+        OffHeapMatrix m = OffHeapMatrix.fromMatrix(new Matrix(new double[][]{{0, 1}, {2, 0}}));
+        m.invertInPlace();
+        assertEquals(0.0, m.getElement(0, 0), DELTA);
+        assertEquals(0.5, m.getElement(0, 1), DELTA);
+        assertEquals(1.0, m.getElement(1, 0), DELTA);
+        assertEquals(0.0, m.getElement(1, 1), DELTA);
+    }
+
+    @Test
+    void invertInPlace_singularOrNonSquare_throwsMatrixOperationException() {
+        OffHeapMatrix singular = OffHeapMatrix.fromMatrix(new Matrix(new double[][]{{1, 2}, {2, 4}}));
+        assertThrows(MatrixOperationException.class, singular::invertInPlace);
+        assertThrows(MatrixOperationException.class, () -> OffHeapMatrix.allocate(2, 3).invertInPlace());
+    }
+
+    @Test
+    void map_persistsChangesToFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("matrix.bin");
+        try (OffHeapMatrix m = OffHeapMatrix.map(file, 3, 4)) {
+            assertTrue(m.isMapped());
+            m.setElement(1, 2, 42.0);
+            m.setElement(2, 3, -1.0);
+        }
+        assertEquals(3 * 4 * Double.BYTES, Files.size(file));
+        try (OffHeapMatrix reopened = OffHeapMatrix.map(file, 3, 4)) {
+            assertEquals(42.0, reopened.getElement(1, 2), DELTA);
+            assertEquals(-1.0, reopened.getElement(2, 3), DELTA);
+            assertEquals(0.0, reopened.getElement(0, 0), DELTA);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    @Test
+    void freeze_rejectsMutationThroughMatrixAndViews() {
+        Matrix matrix = TestMatrices.random(6, 6, 6, 1);
+        Matrix view = matrix.subMatrix(1, 1, 3, 3);
+        matrix.freeze();
+
+        assertTrue(view.isFrozen());
+        assertThrows(IllegalStateException.class, () -> matrix.setElement(0, 0, 1));
+        assertThrows(IllegalStateException.class, () -> view.transpose().setElement(0, 0, 1));
+        assertThrows(IllegalStateException.class, matrix::invertInPlace);
+        assertThrows(IllegalStateException.class, matrix::transposeInPlace);
+        assertThrows(IllegalStateException.class, () -> matrix.multiplyAdd(matrix, matrix));
+        assertThrows(IllegalStateException.class, () -> TestMatrices.random(6, 6, 6, 2).inverseInto(matrix));
+
+        Matrix copy = matrix.copy();
+        assertFalse(copy.isFrozen());
+        copy.setElement(0, 0, 1);
+        assertThrows(IllegalStateException.class, () -> new Matrix(2, 2).fingerprint());
+    }
+
+    @Test
+    void fingerprint_dependsOnlyOnContent() {
+        Matrix matrix = TestMatrices.random(70, 70, 70, 3).freeze();
+        Matrix copy = matrix.copy().freeze();
+        assertEquals(matrix.fingerprint(), copy.fingerprint());
+
+        // Материализованное транспонирование и представление транспонирования
+        Matrix transposedCopy = matrix.transpose().copy().freeze();
+        assertEquals(transposedCopy.fingerprint(), matrix.transpose().fingerprint());
+        assertNotEquals(matrix.fingerprint(), matrix.transpose().fingerprint());
+
+        Matrix changed = matrix.copy();
+        changed.setElement(69, 69, Math.nextUp(changed.getElement(69, 69)));
+        assertNotEquals(matrix.fingerprint(), changed.freeze().fingerprint());
+        assertNotEquals(new Matrix(2, 3).freeze().fingerprint(), new Matrix(3, 2).freeze().fingerprint());
+    }
+
+    @Test
+    void inverse_repeatedRequestsHitCacheForEqualContent() throws MatrixOperationException {
+        ResultCache cache = new ResultCache(1 << 20);
+        Matrix matrix = TestMatrices.random(40, 40, 40, 4).freeze();
+        Matrix inverse = cache.inverse(matrix);
+        assertTrue(inverse.isFrozen());
+
+        assertSame(inverse, cache.inverse(matrix));
+        assertSame(inverse, cache.inverse(matrix.copy().freeze()));
+        assertEquals(matrix.determinant(), cache.determinant(matrix), DELTA * Math.abs(matrix.determinant()));
+        assertSame(cache.lu(matrix), cache.lu(matrix));
+
+        ResultCache.Stats stats = cache.stats();
+        assertEquals(3, stats.hits());
+        assertEquals(3, stats.misses());
+        assertEquals(3, stats.entries());
+        assertTrue(stats.weightBytes() > 2 * 8 * 40 * 40);
+
+        assertThrows(IllegalArgumentException.class, () -> cache.inverse(TestMatrices.random(3, 3, 3, 5)));
+    }
+
+    @Test
+    void inverse_singularErrorIsCachedToo() {
+        ResultCache cache = new ResultCache(1 << 20);
+        Matrix singular = new Matrix(new double[][]{{1, 2}, {2, 4}}).freeze();
+        MatrixOperationException first = assertThrows(MatrixOperationException.class, () -> cache.inverse(singular));
+        MatrixOperationException second = assertThrows(MatrixOperationException.class, () -> cache.inverse(singular));
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedWhenOverWeight() throws MatrixOperationException {
+        // Помещаются две обратные 30x30 (по 7200 байт), но не три
+        ResultCache cache = new ResultCache(16_000);
+        Matrix a = TestMatrices.random(30, 30, 30, 6).freeze();
+        Matrix b = TestMatrices.random(30, 30, 30, 7).freeze();
+        Matrix c = TestMatrices.random(30, 30, 30, 8).freeze();
+        Matrix inverseA = cache.inverse(a);
+        cache.inverse(b);
+        assertSame(inverseA, cache.inverse(a)); // a становится самой свежей
+        cache.inverse(c);                       // вытесняется b
+
+        ResultCache.Stats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.entries());
+        assertTrue(stats.weightBytes() <= 16_000);
+        assertSame(inverseA, cache.inverse(a));
+        long misses = cache.stats().misses();
+        cache.inverse(b);
+        assertEquals(misses + 1, cache.stats().misses());
+
+        cache.clear();
+        assertEquals(0, cache.stats().entries());
+    }
+}
@@ -0,0 +1,137 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class SparseMatrixTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    @Test
+    void fromDense_toDense_roundTrip() {
+        double[][] data = {{1, 0, 0, 2}, {0, 0, 3, 0}, {4, 0, 5, 0}};
+        SparseMatrix sparse = SparseMatrix.fromDense(new Matrix(data));
+        assertEquals(5, sparse.getNonZeroCount());
+        assertEquals(SparseMatrix.Format.CSR, sparse.getFormat());
+        assertEquals(3.0, sparse.getElement(1, 2), DELTA);
+        assertEquals(0.0, sparse.getElement(1, 1), DELTA);
+        double[][] back = sparse.toDense().getData();
+        for (int i = 0; i < data.length; i++) {
+            assertArrayEquals(data[i], back[i], DELTA);
+        }
+    }
+
+    @Test
+    void fromTriplets_sumsDuplicatesAndDropsZeros() {
+        SparseMatrix sparse = SparseMatrix.fromTriplets(2, 3,
+                new int[]{1, 0, 1, 0, 0}, new int[]{2, 1, 2, 0, 0}, new double[]{1, 5, 2, 3, -3});
+        assertEquals(2, sparse.getNonZeroCount());
+        assertEquals(3.0, sparse.getElement(1, 2), DELTA);
+        assertEquals(5.0, sparse.getElement(0, 1), DELTA);
+        assertEquals(0.0, sparse.getElement(0, 0), DELTA);
+    }
+
+    @Test
+    void transpose_andFormatConversion() {
+        double[][] data = {{1, 0, 0, 2}, {0, 0, 3, 0}, {4, 0, 5, 0}};
+        SparseMatrix sparse = SparseMatrix.fromDense(new Matrix(data));
+        SparseMatrix transposed = sparse.transpose();
+        assertEquals(4, transposed.getRows());
+        assertEquals(3, transposed.getCols());
+        assertEquals(SparseMatrix.Format.CSR, transposed.getFormat());
+        SparseMatrix csc = sparse.toCSC();
+        assertEquals(SparseMatrix.Format.CSC, csc.getFormat());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 4; j++) {
+                assertEquals(data[i][j], transposed.getElement(j, i), DELTA);
+                assertEquals(data[i][j], csc.getElement(i, j), DELTA);
+            }
+        }
+        assertSame(csc, csc.toCSC());
+    }
+
+    @Test
+    void multiply_vector() throws MatrixOperationException {
+        SparseMatrix sparse = SparseMatrix.fromDense(new Matrix(new double[][]{{1, 0, 2}, {0, 3, 0}}));
+        assertArrayEquals(new double[]{7, 6}, sparse.multiply(new double[]{1, 2, 3}), DELTA);
+        assertArrayEquals(new double[]{7, 6}, sparse.toCSC().multiply(new double[]{1, 2, 3}), DELTA);
+        assertThrows(MatrixOperationException.class, () -> sparse.multiply(new double[2]));
+    }
+
+    @Test
+    void lu_solvesSmallSystemRequiringPivoting() throws MatrixOperationException {
+        double[][] data = {{0, 2, 0}, {1, 0, 0}, {0, 1, 3}}; // ноль на диагонали
+        SparseMatrix sparse = SparseMatrix.fromDense(new Matrix(data));
+        SparseLUDecomposition lu = sparse.lu();
+        double[] b = {4, 1, 8};
+        double[] x = lu.solve(b);
+        assertArrayEquals(new double[]{1, 2, 2}, x, DELTA);
+        assertEquals(new Matrix(data).determinant(), lu.getDeterminant(), DELTA);
+    }
+
+    @Test
+    void lu_largeBandedSystem_matchesResidualAndLimitsFill() throws MatrixOperationException {
+        int n = 2000;
+        Random random = new Random(1);
+        // Трёхдиагональная матрица со случайной симметричной перенумерацией: RCM должен восстановить ленту
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = perm[i];
+            perm[i] = perm[j];
+            perm[j] = t;
+        }
+        int[] r = new int[3 * n];
+        int[] c = new int[3 * n];
+        double[] v = new double[3 * n];
+        int nnz = 0;
+        for (int i = 0; i < n; i++) {
+            r[nnz] = perm[i]; c[nnz] = perm[i]; v[nnz++] = 4;
+            if (i + 1 < n) {
+                r[nnz] = perm[i]; c[nnz] = perm[i + 1]; v[nnz++] = -1;
+                r[nnz] = perm[i + 1]; c[nnz] = perm[i]; v[nnz++] = -1;
+            }
+        }
+        SparseMatrix a = SparseMatrix.fromTriplets(n, n, java.util.Arrays.copyOf(r, nnz),
+                java.util.Arrays.copyOf(c, nnz), java.util.Arrays.copyOf(v, nnz));
+        SparseLUDecomposition lu = a.lu();
+        // Без заполнения L и U остаются двухдиагональными
+        assertTrue(lu.getLowerNonZeroCount() <= 2 * n, "L: " + lu.getLowerNonZeroCount());
+        assertTrue(lu.getUpperNonZeroCount() <= 2 * n, "U: " + lu.getUpperNonZeroCount());
+
+        double[] b = new double[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = random.nextDouble();
+        }
+        double[] x = lu.solve(b);
+        double[] ax = a.multiply(x);
+        for (int i = 0; i < n; i++) {
+            assertEquals(b[i], ax[i], 1e-10);
+        }
+    }
+
+    @Test
+    void lu_solveMatrixRightHandSides() throws MatrixOperationException {
+        double[][] data = {{4, 1, 0}, {1, 4, 1}, {0, 1, 4}};
+        Matrix dense = new Matrix(data);
+        Matrix identity = new Matrix(new double[][]{{1, 0, 0}, {0, 1, 0}, {0, 0, 1}});
+        Matrix inverse = SparseMatrix.fromDense(dense).lu().solve(identity);
+        Matrix expected = dense.inverse();
+        for (int i = 0; i < 3; i++) {
+            assertArrayEquals(expected.getData()[i], inverse.getData()[i], DELTA);
+        }
+    }
+
+    @Test
+    void lu_singularOrNonSquare_throwsMatrixOperationException() {
+        SparseMatrix singular = SparseMatrix.fromDense(new Matrix(new double[][]{{1, 2}, {2, 4}}));
+        assertThrows(MatrixOperationException.class, singular::lu);
+        SparseMatrix rectangular = SparseMatrix.fromDense(new Matrix(new double[][]{{1, 2, 3}}));
+        assertThrows(MatrixOperationException.class, rectangular::lu);
+    }
+}
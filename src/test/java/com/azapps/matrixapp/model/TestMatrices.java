@@ -0,0 +1,59 @@
+package com.azapps.matrixapp.model;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Общие тестовые фикстуры: воспроизводимые случайные матрицы и сравнения.
+ * Открыт только потому, что им пользуются тесты из пакетов metrics и distributed.
+ */
+public final class TestMatrices {
+
+    private TestMatrices() {
+    }
+
+    /** Матрица rows x cols с элементами из [-0.5, 0.5), детерминированная по seed. */
+    public static Matrix random(int rows, int cols, long seed) {
+        return random(rows, cols, 0, seed);
+    }
+
+    /**
+     * То же, что {@link #random(int, int, long)}, но к элементам (i, i) добавлено diagonal.
+     * При diagonal > n/2 квадратная матрица строго диагонально доминирует и заведомо обратима.
+     */
+    public static Matrix random(int rows, int cols, double diagonal, long seed) {
+        Random random = new Random(seed);
+        Matrix matrix = new Matrix(rows, cols);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                matrix.setElement(i, j, random.nextDouble() - 0.5 + (i == j ? diagonal : 0));
+            }
+        }
+        return matrix;
+    }
+
+    public static void assertMatrixEquals(Matrix expected, Matrix actual, double delta) {
+        assertEquals(expected.getRows(), actual.getRows(), "число строк");
+        assertEquals(expected.getCols(), actual.getCols(), "число столбцов");
+        for (int i = 0; i < expected.getRows(); i++) {
+            for (int j = 0; j < expected.getCols(); j++) {
+                assertEquals(expected.getElement(i, j), actual.getElement(i, j), delta, "(" + i + ", " + j + ")");
+            }
+        }
+    }
+
+    /** Проверяет, что a * b — единичная матрица, наивным умножением независимо от Matrix.multiply. */
+    public static void assertIdentityProduct(Matrix a, Matrix b, double tolerance) {
+        int n = a.getRows();
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double sum = 0;
+                for (int k = 0; k < n; k++) {
+                    sum += a.getElement(i, k) * b.getElement(k, j);
+                }
+                assertEquals(i == j ? 1.0 : 0.0, sum, tolerance);
+            }
+        }
+    }
+}
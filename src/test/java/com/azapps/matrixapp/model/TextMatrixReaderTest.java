@@ -0,0 +1,84 @@
+package com.azapps.matrixapp.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+
+public class TextMatrixReaderTest {
+
+    @Test
+    void read_manySmallChunks_matchesParseDoubleExactly(@TempDir Path dir) throws IOException {
+        Random random = new Random(1);
+        int rows = 300;
+        int cols = 7;
+        String[][] tokens = new String[rows][cols];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                double v = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(40) - 20);
+                // Короткие десятичные (быстрый путь), полная точность и экспоненты (запасной путь)
+                tokens[i][j] = switch ((i + j) % 4) {
+                    case 0 -> String.format(Locale.ROOT, "%.6f", v);
+                    case 1 -> Double.toString(v);
+                    case 2 -> String.format(Locale.ROOT, "%.4e", v);
+                    default -> Integer.toString(random.nextInt(2_000_001) - 1_000_000);
+                };
+                text.append(tokens[i][j]).append(j + 1 < cols ? (i % 2 == 0 ? "," : " \t") : "\n");
+            }
+        }
+        Path file = dir.resolve("m.csv");
+        Files.writeString(file, text, StandardCharsets.US_ASCII);
+
+        Matrix matrix = TextMatrixReader.read(file, ProgressMonitor.NONE, 97);
+        assertEquals(rows, matrix.getRows());
+        assertEquals(cols, matrix.getCols());
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                assertEquals(Double.parseDouble(tokens[i][j]), matrix.getElement(i, j), 0.0, tokens[i][j]);
+            }
+        }
+    }
+
+    @Test
+    void read_commentsBlankLinesCrLfAndSpecialValues(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("m.txt");
+        Files.writeString(file, "# заголовок\r\n\r\n  1; -2.5e3 ;+.5\r\n   \n-0.0,1E-2, NaN\n# конец\n7 8 Infinity");
+        Matrix matrix = TextMatrixReader.read(file);
+        assertEquals(3, matrix.getRows());
+        assertArrayEquals(new double[]{1, -2500, 0.5}, matrix.getData()[0], 0.0);
+        assertEquals(Double.doubleToLongBits(-0.0), Double.doubleToLongBits(matrix.getElement(1, 0)));
+        assertEquals(0.01, matrix.getElement(1, 1), 0.0);
+        assertTrue(Double.isNaN(matrix.getElement(1, 2)));
+        assertEquals(Double.POSITIVE_INFINITY, matrix.getElement(2, 2));
+    }
+
+    @Test
+    void read_malformedRows_reportLineNumbers(@TempDir Path dir) throws IOException {
+        StringBuilder text = new StringBuilder("# данные\n");
+        for (int i = 0; i < 200; i++) {
+            text.append(i == 150 ? "1,2\n" : "1,2,3\n");
+        }
+        Path file = dir.resolve("m.csv");
+        Files.writeString(file, text);
+        IOException e = assertThrows(IOException.class, () -> TextMatrixReader.read(file, ProgressMonitor.NONE, 64));
+        assertEquals("Строка 152: ожидалось чисел: 3, найдено: 2.", e.getMessage());
+
+        Files.writeString(file, "1,2\n3,x4\n");
+        e = assertThrows(IOException.class, () -> TextMatrixReader.read(file));
+        assertTrue(e.getMessage().startsWith("Строка 2: поле 2 не является числом"), e.getMessage());
+
+        Files.writeString(file, "1,,2\n");
+        e = assertThrows(IOException.class, () -> TextMatrixReader.read(file));
+        assertEquals("Строка 1: пустое поле 2.", e.getMessage());
+
+        Files.writeString(file, "\n# только комментарий\n");
+        assertThrows(IOException.class, () -> TextMatrixReader.read(file));
+    }
+}
@@ -0,0 +1,128 @@
+package com.azapps.matrixapp.view;
+
+import com.azapps.matrixapp.model.Matrix;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MatrixInputModelTest {
+
+    private static final double DELTA = 1e-9; // Для сравнения double
+
+    @Test
+    void setText_toMatrix_unsetCellsAreZero() {
+        MatrixInputModel model = new MatrixInputModel(2, 3);
+        model.setText(0, 1, "2.5");
+        model.setText(1, 2, "-");
+        Matrix m = model.toMatrix();
+        assertEquals(2.5, m.getElement(0, 1), DELTA);
+        assertEquals(0.0, m.getElement(1, 2), DELTA);
+        assertEquals(0.0, m.getElement(1, 0), DELTA);
+        assertNull(model.getText(0, 0));
+        assertEquals("2.5", model.getText(0, 1));
+    }
+
+    @Test
+    void resize_keepsValuesInsideAndPrunesOutside() {
+        MatrixInputModel model = new MatrixInputModel(4, 4);
+        model.setText(0, 0, "1");
+        model.setText(3, 0, "2");
+        model.setText(0, 3, "3");
+        model.setText(2, 2, "4");
+        assertEquals(4, model.getEditCount());
+
+        model.resize(3, 3);
+        assertEquals(2, model.getEditCount());
+        assertEquals("1", model.getText(0, 0));
+        assertEquals("4", model.getText(2, 2));
+
+        // При обратном увеличении отрезанные значения не возвращаются
+        model.resize(5, 5);
+        assertNull(model.getText(3, 0));
+        assertNull(model.getText(0, 3));
+        assertEquals("4", model.getText(2, 2));
+        assertEquals(5, model.toMatrix().getRows());
+    }
+
+    @Test
+    void setText_emptyRemovesValue() {
+        MatrixInputModel model = new MatrixInputModel(2, 2);
+        model.setText(1, 1, "7");
+        model.setText(1, 1, "");
+        assertEquals(0, model.getEditCount());
+        assertNull(model.getText(1, 1));
+        assertThrows(IndexOutOfBoundsException.class, () -> model.setText(2, 0, "1"));
+    }
+
+    @Test
+    void load_nonFiniteValuesShownAsTheyAreAndAcceptedBack() {
+        MatrixInputModel model = new MatrixInputModel(1, 1);
+        model.load(new Matrix(new double[][]{{Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}}));
+        assertEquals("NaN", model.getText(0, 0));
+        assertEquals("Infinity", model.getText(0, 1));
+        assertEquals("-Infinity", model.getText(0, 2));
+        for (int j = 0; j < 3; j++) {
+            assertTrue(MatrixInputModel.isAcceptedInput(model.getText(0, j)));
+            model.setText(0, j, model.getText(0, j));
+        }
+        Matrix m = model.toMatrix();
+        assertTrue(Double.isNaN(m.getElement(0, 0)));
+        assertEquals(Double.NEGATIVE_INFINITY, m.getElement(0, 2), 0.0);
+
+        assertTrue(MatrixInputModel.isAcceptedInput("-Inf"));
+        assertTrue(MatrixInputModel.isAcceptedInput("-1.5"));
+        assertFalse(MatrixInputModel.isAcceptedInput("-NaN"));
+        assertFalse(MatrixInputModel.isAcceptedInput("1e5"));
+    }
+
+    @Test
+    void load_showsMatrixValuesAndEditsOverrideThem() {
+        MatrixInputModel model = new MatrixInputModel(1, 1);
+        model.load(new Matrix(new double[][]{{1.5, 0}, {3, 4}}));
+        assertEquals(2, model.getRows());
+        assertEquals("1.5", model.getText(0, 0));
+        assertEquals("", model.getText(0, 1)); // ноль показывается заполнителем
+        model.setText(1, 0, "");
+        model.setText(1, 1, "9");
+        Matrix m = model.toMatrix();
+        assertEquals(0.0, m.getElement(1, 0), DELTA);
+        assertEquals(9.0, m.getElement(1, 1), DELTA);
+        assertEquals(1.5, m.getElement(0, 0), DELTA);
+    }
+
+    @Test
+    void snapshot_sharesLoadedMatrixAndIgnoresLaterEdits() {
+        Matrix loaded = new Matrix(new double[][]{{1, 2}, {3, 4}});
+        MatrixInputModel model = new MatrixInputModel(1, 1);
+        model.load(loaded);
+        model.setText(0, 1, "5");
+
+        MatrixInputModel snapshot = model.snapshot();
+        // Некорректный текст и обрезка после снимка на него не влияют
+        model.setText(0, 1, "6");
+        model.setText(1, 0, "x");
+        assertThrows(NumberFormatException.class, model::toMatrix);
+        model.resize(1, 1);
+
+        assertEquals(1, snapshot.getEditCount());
+        Matrix m = snapshot.toMatrix();
+        assertEquals(2, m.getRows());
+        assertEquals(2, m.getCols());
+        assertEquals(5.0, m.getElement(0, 1), DELTA);
+        assertEquals(3.0, m.getElement(1, 0), DELTA);
+        assertEquals(4.0, m.getElement(1, 1), DELTA);
+    }
+
+    @Test
+    void resize_ofLoadedMatrix_cropsItPermanently() {
+        MatrixInputModel model = new MatrixInputModel(1, 1);
+        model.load(new Matrix(new double[][]{{1, 2}, {3, 4}}));
+        model.resize(1, 2);
+        model.resize(2, 3);
+        assertEquals("1", model.getText(0, 0));
+        assertEquals("2", model.getText(0, 1));
+        assertNull(model.getText(1, 0));
+        Matrix m = model.toMatrix();
+        assertEquals(2.0, m.getElement(0, 1), DELTA);
+        assertEquals(0.0, m.getElement(1, 1), DELTA);
+    }
+}